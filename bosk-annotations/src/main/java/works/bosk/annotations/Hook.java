@@ -17,4 +17,11 @@ public @interface Hook {
 	 * The scope of the hook for this method.
 	 */
 	String value();
+
+	/**
+	 * If true, a call to this hook that is still waiting to run when another call
+	 * on the same reference is queued will be discarded in favour of the later one.
+	 * See <code>HookRegistrar.Coalescing.LATEST</code>.
+	 */
+	boolean coalesce() default false;
 }
@@ -119,13 +119,15 @@ public class BosonSerializer extends StateTreeSerializer {
 
 				@Override
 				public Catalog<E> fromRepresentation(Collection<MapEntry<E>> representation) {
+					Catalog.Builder<E> builder = Catalog.builder();
 					for (MapEntry<E> entry: representation) {
 						Identifier valueID = entry.value().id();
 						if (!entry.id().equals(valueID)) {
 							throw new JsonContentException("Catalog entry ID mismatch: " + entry.id() + " vs " + valueID);
 						}
+						builder.addNew(entry.value());
 					}
-					return Catalog.of(representation.stream().map(MapEntry::value));
+					return builder.build();
 				}
 			})
 		));
@@ -0,0 +1,53 @@
+package works.bosk;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * One element of a batch submitted via {@link BoskDriver#submitBatch}.
+ * Describes an unconditional replacement or deletion.
+ */
+public sealed interface BatchUpdate {
+	Reference<?> target();
+
+	/**
+	 * Calls the {@link BoskDriver} method corresponding to this update.
+	 */
+	void submitTo(BoskDriver driver);
+
+	static <T> Replacement<T> replacement(Reference<T> target, T newValue) {
+		return new Replacement<>(target, newValue);
+	}
+
+	static <T> Deletion<T> deletion(Reference<T> target) {
+		return new Deletion<>(target);
+	}
+
+	/**
+	 * @see BoskDriver#submitReplacement
+	 */
+	record Replacement<T>(Reference<T> target, T newValue) implements BatchUpdate {
+		public Replacement {
+			requireNonNull(target);
+			requireNonNull(newValue);
+		}
+
+		@Override
+		public void submitTo(BoskDriver driver) {
+			driver.submitReplacement(target, newValue);
+		}
+	}
+
+	/**
+	 * @see BoskDriver#submitDeletion
+	 */
+	record Deletion<T>(Reference<T> target) implements BatchUpdate {
+		public Deletion {
+			requireNonNull(target);
+		}
+
+		@Override
+		public void submitTo(BoskDriver driver) {
+			driver.submitDeletion(target);
+		}
+	}
+}
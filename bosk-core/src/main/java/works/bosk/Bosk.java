@@ -3,18 +3,28 @@ package works.bosk;
 import java.io.IOException;
 import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Type;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
-import java.util.function.Consumer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
 import org.jspecify.annotations.NonNull;
 import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import works.bosk.HookRegistrar.Coalescing;
 import works.bosk.annotations.Hook;
+import works.bosk.exceptions.FlushFailureException;
 import works.bosk.exceptions.InvalidTypeException;
 import works.bosk.exceptions.NonexistentReferenceException;
 import works.bosk.exceptions.NotYetImplementedException;
+import works.bosk.exceptions.RevisionUnavailableException;
 
 import static java.util.Collections.unmodifiableCollection;
 import static java.util.Objects.requireNonNull;
@@ -226,16 +236,116 @@ public non-sealed class Bosk<R extends StateTreeNode> extends BoskBase<R> implem
 		return unmodifiableCollection(hooks);
 	}
 
+	/**
+	 * For monitoring: how far the bosk's hooks have fallen behind its updates.
+	 *
+	 * @see BoskConfig.HookQueueOverflow
+	 */
+	public HookQueueStatus hookQueueStatus() {
+		return localHookQueueStatus();
+	}
+
+	/**
+	 * Creates an index of the entries of <code>catalog</code> by the value of <code>keyFunction</code>,
+	 * supporting lookups by equality.
+	 * The key type must have suitable {@link Object#equals equals} and {@link Object#hashCode hashCode} methods.
+	 *
+	 * @param catalog     the catalog to index, which must not have parameters
+	 * @param keyFunction computes the key of each entry; see {@link CatalogIndex}
+	 * @see #sortedIndex
+	 */
+	public <E extends Entity, K> CatalogIndex<E, K> hashIndex(CatalogReference<E> catalog, Function<? super E, ? extends K> keyFunction) {
+		return localAddCatalogView(CatalogIndex.hash(this, catalog, keyFunction));
+	}
+
+	/**
+	 * Like {@link #hashIndex}, but with keys ordered by <code>comparator</code>,
+	 * supporting lookups of ranges of keys as well.
+	 * The keys are compared only with <code>comparator</code>, which must be consistent with equals.
+	 */
+	public <E extends Entity, K> CatalogIndex.Sorted<E, K> sortedIndex(CatalogReference<E> catalog, Function<? super E, ? extends K> keyFunction, Comparator<? super K> comparator) {
+		return localAddCatalogView(new CatalogIndex.Sorted<>(this, catalog, keyFunction, comparator));
+	}
+
+	/**
+	 * Like {@link #sortedIndex(CatalogReference, Function, Comparator)} using the keys' natural ordering.
+	 */
+	public <E extends Entity, K extends Comparable<? super K>> CatalogIndex.Sorted<E, K> sortedIndex(CatalogReference<E> catalog, Function<? super E, ? extends K> keyFunction) {
+		return sortedIndex(catalog, keyFunction, Comparator.naturalOrder());
+	}
+
+	/**
+	 * Creates a {@link CatalogAggregate} counting the entries of <code>catalog</code> that satisfy <code>filter</code>.
+	 *
+	 * @param catalog the catalog to aggregate, which must not have parameters
+	 */
+	public <E extends Entity> CatalogAggregate<E, Long> countOf(CatalogReference<E> catalog, Predicate<? super E> filter) {
+		return localAddCatalogView(new CatalogAggregate<>(this, catalog, CatalogAggregate.<E>count(filter)));
+	}
+
+	/**
+	 * Creates a {@link CatalogAggregate} summing <code>addend</code> over the entries of <code>catalog</code>.
+	 *
+	 * @param catalog the catalog to aggregate, which must not have parameters
+	 */
+	public <E extends Entity> CatalogAggregate<E, Long> sumOf(CatalogReference<E> catalog, ToLongFunction<? super E> addend) {
+		return localAddCatalogView(new CatalogAggregate<>(this, catalog, CatalogAggregate.<E>sum(addend)));
+	}
+
+	/**
+	 * Creates a {@link CatalogAggregate} giving the least value of <code>keyFunction</code>
+	 * over the entries of <code>catalog</code>, ignoring nulls;
+	 * or {@link Optional#empty()} if there are none.
+	 *
+	 * @param catalog the catalog to aggregate, which must not have parameters
+	 */
+	public <E extends Entity, K> CatalogAggregate<E, Optional<K>> minOf(CatalogReference<E> catalog, Function<? super E, ? extends K> keyFunction, Comparator<? super K> comparator) {
+		return localAddCatalogView(new CatalogAggregate<>(this, catalog, CatalogAggregate.<E, K>extreme(keyFunction, comparator, false)));
+	}
+
+	/**
+	 * Like {@link #minOf}, but giving the greatest value.
+	 */
+	public <E extends Entity, K> CatalogAggregate<E, Optional<K>> maxOf(CatalogReference<E> catalog, Function<? super E, ? extends K> keyFunction, Comparator<? super K> comparator) {
+		return localAddCatalogView(new CatalogAggregate<>(this, catalog, CatalogAggregate.<E, K>extreme(keyFunction, comparator, true)));
+	}
+
+	/**
+	 * Creates a {@link DerivedValue} that applies <code>function</code> to the node at <code>source</code>
+	 * and remembers the result until that node changes.
+	 *
+	 * @param source the node from which to derive the value, which must not have parameters
+	 * @param function computes the value; must be a pure function of the node
+	 */
+	public <S, D> DerivedValue<S, D> derive(Reference<S> source, Function<? super S, ? extends D> function) {
+		return new DerivedValue<>(source, function);
+	}
+
 	// Inner class can't be a record
 	public final class HookRegistration<S> {
 		private final String name;
 		private final Reference<S> scope;
 		private final BoskHook<S> hook;
+		private final Coalescing coalescing;
+
+		/**
+		 * The calls that are queued but not yet started and may still be superseded,
+		 * keyed by the path of the reference each will receive.
+		 * Used for {@link Coalescing#LATEST LATEST} coalescing, and also by the
+		 * {@link BoskConfig.HookQueueOverflow#CONFLATE CONFLATE} overflow policy
+		 * for any hook once the hook queue is full, which folds a new call into the pending one.
+		 */
+		final ConcurrentHashMap<Path, Runnable> pendingCalls = new ConcurrentHashMap<>();
 
 		public HookRegistration(String name, Reference<S> scope, BoskHook<S> hook) {
+			this(name, scope, hook, Coalescing.NONE);
+		}
+
+		public HookRegistration(String name, Reference<S> scope, BoskHook<S> hook, Coalescing coalescing) {
 			this.name = name;
 			this.scope = scope;
 			this.hook = hook;
+			this.coalescing = coalescing;
 		}
 
 		/**
@@ -247,7 +357,7 @@ public non-sealed class Bosk<R extends StateTreeNode> extends BoskBase<R> implem
 		 * @param target    The object specified by the driver event
 		 * @param action    The operation to perform for each matching object that could have changed
 		 */
-		void triggerAction(@Nullable R priorRoot, R newRoot, Reference<?> target, Consumer<Reference<S>> action) {			Reference<S> effectiveScope;
+		void triggerAction(@Nullable R priorRoot, R newRoot, Reference<?> target, ChangeAction<S> action) {			Reference<S> effectiveScope;
 			int relativeDepth = target.path().length() - scope.path().length();
 			if (relativeDepth >= 0) {
 				// target may be the scope object or a descendant
@@ -281,6 +391,10 @@ public non-sealed class Bosk<R extends StateTreeNode> extends BoskBase<R> implem
 			return this.hook;
 		}
 
+		public Coalescing coalescing() {
+			return this.coalescing;
+		}
+
 		@Override
 		public boolean equals(Object o) {
 			if (o == null || getClass() != o.getClass()) return false;
@@ -288,17 +402,18 @@ public non-sealed class Bosk<R extends StateTreeNode> extends BoskBase<R> implem
 			HookRegistration<?> that = (HookRegistration<?>) o;
 			return Objects.equals(name, that.name)
 				&& Objects.equals(scope, that.scope)
-				&& Objects.equals(hook, that.hook);
+				&& Objects.equals(hook, that.hook)
+				&& coalescing == that.coalescing;
 		}
 
 		@Override
 		public int hashCode() {
-			return Objects.hash(name, scope, hook);
+			return Objects.hash(name, scope, hook, coalescing);
 		}
 
 		@Override
 		public String toString() {
-			return "Bosk.HookRegistration(name=" + this.name() + ", scope=" + this.scope() + ", hook=" + this.hook + ")";
+			return "Bosk.HookRegistration(name=" + this.name() + ", scope=" + this.scope() + ", hook=" + this.hook + ", coalescing=" + this.coalescing + ")";
 		}
 	}
 
@@ -310,8 +425,8 @@ public non-sealed class Bosk<R extends StateTreeNode> extends BoskBase<R> implem
 	 * @author pdoyle
 	 */
 	public final class ReadSession implements AutoCloseable {
-		final R originalRoot;
-		final R snapshot; // Mostly for adopt()
+		final Snapshot<R> originalRoot;
+		final Snapshot<R> snapshot; // Mostly for adopt()
 
 		/**
 		 * Creates a {@link ReadSession} for the current thread. If one is already
@@ -320,7 +435,8 @@ public non-sealed class Bosk<R extends StateTreeNode> extends BoskBase<R> implem
 		 */
 		private ReadSession() {
 			originalRoot = rootSnapshot.get();
-			if (originalRoot == null) {
+			Snapshot<R> outer = activeSnapshot();
+			if (outer == null) {
 				snapshot = currentState;
 				if (snapshot == null) {
 					throw new IllegalStateException("Bosk constructor has not yet finished; cannot create a ReadSession");
@@ -329,20 +445,21 @@ public non-sealed class Bosk<R extends StateTreeNode> extends BoskBase<R> implem
 				LOGGER.trace("New {}", this);
 			} else {
 				// Inner sessions use the same snapshot as outer sessions
-				snapshot = originalRoot;
+				snapshot = outer;
 				LOGGER.trace("Nested {}", this);
 			}
 		}
 
 		private ReadSession(ReadSession toAdopt) {
-			R snapshotToInherit = requireNonNull(toAdopt.snapshot);
+			Snapshot<R> snapshotToInherit = requireNonNull(toAdopt.snapshot);
 			originalRoot = rootSnapshot.get();
-			if (originalRoot == null) {
+			Snapshot<R> outer = activeSnapshot();
+			if (outer == null) {
 				rootSnapshot.set(this.snapshot = snapshotToInherit);
 				LOGGER.trace("Sharing {}", this);
-			} else if (originalRoot == snapshotToInherit) {
+			} else if (outer == snapshotToInherit) {
 				// Some thread pools recruit the calling thread itself; don't want to disallow this.
-				this.snapshot = originalRoot;
+				this.snapshot = outer;
 				LOGGER.trace("Re-sharing {}", this);
 			} else {
 				throw new IllegalStateException("Read session for " + name + " already active in " + Thread.currentThread());
@@ -356,7 +473,7 @@ public non-sealed class Bosk<R extends StateTreeNode> extends BoskBase<R> implem
 		 * Unlike the other constructors, this can be used to substitute a new state temporarily,
 		 * even if there's already one active on the current thread.
 		 */
-		ReadSession(@NonNull R state) {
+		ReadSession(@NonNull Snapshot<R> state) {
 			originalRoot = rootSnapshot.get();
 			snapshot = requireNonNull(state);
 			rootSnapshot.set(snapshot);
@@ -404,19 +521,58 @@ public non-sealed class Bosk<R extends StateTreeNode> extends BoskBase<R> implem
 			return new ReadSession(this);
 		}
 
+		/**
+		 * The revision number of the state visible in this session.
+		 * Each update applied to this bosk produces a new state with the next revision number,
+		 * so sessions with the same revision see the same state,
+		 * and a session with a higher revision sees a later state.
+		 *
+		 * <p>
+		 * Revision numbers are local to this bosk object:
+		 * they are not comparable between different bosks,
+		 * even if they are replicas sharing the same database.
+		 * Replicating drivers may offer a way to relate their own revisions to these;
+		 * the Mongo driver, for one, can tell which revision of this bosk first reflected
+		 * a given database revision.
+		 *
+		 * @see Bosk#currentRevision()
+		 */
+		public long revision() {
+			return snapshot.revision();
+		}
+
 		@Override
 		public void close() {
 			// TODO: Enforce the closing rules described in readSession javadocs?
-			LOGGER.trace("Exiting {}; restoring {}", this, System.identityHashCode(originalRoot));
+			LOGGER.trace("Exiting {}; restoring {}", this, (originalRoot == null) ? null : System.identityHashCode(originalRoot.root()));
 			rootSnapshot.set(originalRoot);
 		}
 
 		@Override
 		public String toString() {
-			return "ReadSession(" + System.identityHashCode(snapshot) + ")";
+			return "ReadSession(" + System.identityHashCode(snapshot.root()) + ", revision=" + snapshot.revision() + ")";
 		}
 	}
 
+	/**
+	 * The {@link #currentRevision() revision} of the state returned by {@link BoskDriver#initialState},
+	 * which is the state the bosk starts with.
+	 */
+	public static final long INITIAL_REVISION = 1;
+
+	/**
+	 * @return the revision number of the most recent state of this bosk,
+	 * as would be seen by a {@link #supersedingReadSession()} created at this moment.
+	 * @see ReadSession#revision()
+	 */
+	public final long currentRevision() {
+		Snapshot<R> snapshot = currentState;
+		if (snapshot == null) {
+			throw new IllegalStateException("Bosk constructor has not yet finished; no revision yet");
+		}
+		return snapshot.revision();
+	}
+
 	/**
 	 * Establishes a {@link ReadSession} for the calling thread,
 	 * allowing {@link Reference#value()} to return values from this bosk's state tree,
@@ -440,6 +596,23 @@ public non-sealed class Bosk<R extends StateTreeNode> extends BoskBase<R> implem
 		return new ReadSession();
 	}
 
+	/**
+	 * Like {@link #readSession()}, but first ensures the state is no more than <code>maxStaleness</code>
+	 * behind the backing database, by calling {@link BoskDriver#flushIfStale}.
+	 * If the driver has confirmed recently enough that it has received all the changes,
+	 * no flush is needed, and the session is established immediately.
+	 *
+	 * <p>
+	 * As with {@link #readSession()}, if the calling thread has an active session already,
+	 * that session's state snapshot continues to be used, regardless of its age.
+	 *
+	 * @throws FlushFailureException as for {@link BoskDriver#flushIfStale}
+	 */
+	public final ReadSession readSession(Duration maxStaleness) throws IOException, InterruptedException {
+		driver().flushIfStale(maxStaleness);
+		return new ReadSession();
+	}
+
 	/**
 	 * Establishes a new {@link ReadSession} for the calling thread, similar to {@link #readSession()}, except that
 	 * if the calling thread already has a session, it will be ignored,
@@ -465,6 +638,76 @@ public non-sealed class Bosk<R extends StateTreeNode> extends BoskBase<R> implem
 		return newSupersedingReadSession();
 	}
 
+	/**
+	 * Waits until the updates covered by <code>token</code> have been applied,
+	 * and then behaves like {@link #supersedingReadSession()}.
+	 *
+	 * <p>
+	 * This provides read-your-writes consistency more cheaply than {@link BoskDriver#flush}:
+	 * a thread that submits updates can call {@link BoskDriver#writeToken()} afterward,
+	 * and pass the token to this method, on any thread, to see the effects of those updates.
+	 *
+	 * @throws FlushFailureException as for {@link BoskDriver#awaitApplied}
+	 * @see BoskDriver#awaitApplied
+	 */
+	public final ReadSession supersedingReadSession(WriteToken token) throws IOException, InterruptedException {
+		driver().awaitApplied(token);
+		return newSupersedingReadSession();
+	}
+
+	/**
+	 * Establishes a new {@link ReadSession} for the calling thread on the state with the given
+	 * {@link ReadSession#revision() revision}, which must be among the recent states
+	 * retained according to {@link BoskConfig.Builder#historyCapacity}.
+	 * Like {@link #supersedingReadSession()}, this ignores any session the calling thread already has,
+	 * and restores it when the returned session is {@link ReadSession#close closed}.
+	 *
+	 * <p>
+	 * This allows a sequence of related reads, such as the pages of a paginated response,
+	 * to see the same state even if they're handled by different requests:
+	 * the first can record its session's revision, and the others can pass it here.
+	 *
+	 * @throws RevisionUnavailableException if the revision has been discarded from the history,
+	 * or has not yet occurred
+	 */
+	public final ReadSession readSessionAt(long revision) {
+		Snapshot<R> snapshot = history.at(revision);
+		if (snapshot == null) {
+			throw new RevisionUnavailableException("Revision " + revision + " is not available; " + historyDescription());
+		}
+		return newReadSession(snapshot);
+	}
+
+	/**
+	 * Establishes a new {@link ReadSession} for the calling thread on the state that was current at the given time,
+	 * which must be no older than the oldest state retained according to {@link BoskConfig.Builder#historyCapacity}.
+	 * Otherwise, behaves like {@link #readSessionAt}.
+	 *
+	 * <p>
+	 * States are timestamped when the local driver applies them,
+	 * not when the corresponding updates were submitted or written to a database.
+	 *
+	 * @throws RevisionUnavailableException if the state at the given time has been discarded from the history
+	 */
+	public final ReadSession readSessionAsOf(Instant instant) {
+		Snapshot<R> snapshot = history.asOf(requireNonNull(instant));
+		if (snapshot == null) {
+			throw new RevisionUnavailableException("No state is available as of " + instant + "; " + historyDescription());
+		}
+		return newReadSession(snapshot);
+	}
+
+	private String historyDescription() {
+		if (!history.isEnabled()) {
+			return "history is disabled";
+		}
+		RootHistory.Entry<R> oldest = history.oldest();
+		if (oldest == null) {
+			return "history is empty";
+		}
+		return "oldest available is revision " + oldest.snapshot().revision() + " as of " + oldest.published();
+	}
+
 	/**
 	 * An {@link Optional#empty()}, or missing {@link Catalog} or
 	 * {@link SideTable} entry, was encountered when walking along
@@ -2,19 +2,33 @@ package works.bosk;
 
 import java.io.IOException;
 import java.lang.reflect.Type;
+import java.time.Duration;
+import java.time.InstantSource;
+import java.util.ArrayList;
 import java.util.Deque;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Queue;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.BiConsumer;
-import java.util.function.Consumer;
 import org.jspecify.annotations.NonNull;
 import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
@@ -25,6 +39,7 @@ import works.bosk.ReferenceUtils.ListingRef;
 import works.bosk.ReferenceUtils.SideTableRef;
 import works.bosk.dereferencers.Dereferencer;
 import works.bosk.dereferencers.PathCompiler;
+import works.bosk.exceptions.HookQueueFullException;
 import works.bosk.exceptions.InvalidTypeException;
 import works.bosk.exceptions.NoReadSessionException;
 import works.bosk.exceptions.ReferenceBindingException;
@@ -33,6 +48,7 @@ import works.bosk.util.Classes;
 import static java.lang.Thread.holdsLock;
 import static java.util.Objects.requireNonNull;
 import static java.util.UUID.randomUUID;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static works.bosk.Path.parameterNameFromSegment;
 import static works.bosk.ReferenceUtils.rawClass;
 import static works.bosk.TypeValidation.validateType;
@@ -54,9 +70,22 @@ abstract sealed class BoskBase<R extends StateTreeNode> permits Bosk {
 	final IngressDriver ingressDriver;
 	final LocalDriver localDriver;
 	final RootRef rootRef;
-	final ThreadLocal<R> rootSnapshot = new ThreadLocal<>();
+	final ThreadLocal<Snapshot<R>> rootSnapshot = new ThreadLocal<>();
+
+	/**
+	 * The read session of the hook running on the current thread, if any.
+	 * Unlike {@link #rootSnapshot}, this is bound only for the duration of the hook,
+	 * so nothing of it can be left behind on the thread afterward.
+	 * Any read session the hook opens itself takes precedence.
+	 *
+	 * @see #activeSnapshot()
+	 */
+	final ScopedValue<Snapshot<R>> hookSnapshot = ScopedValue.newInstance();
 	final HookRegistrar hookRegistrar;
 	final Queue<Bosk<R>.HookRegistration<?>> hooks = new ConcurrentLinkedQueue<>();
+	final HookIndex<Bosk<R>.HookRegistration<?>> hookIndex = new HookIndex<>();
+	final Queue<CatalogView<?, ?>> catalogViews = new ConcurrentLinkedQueue<>();
+	final RootHistory<R> history;
 	final PathCompiler pathCompiler;
 
 	final Thread.Builder hookThreadBuilder = Thread
@@ -73,7 +102,22 @@ abstract sealed class BoskBase<R extends StateTreeNode> permits Bosk {
 	 * Mutable state.
 	 * This is null before the constructor finishes.
 	 */
-	@Nullable volatile R currentState;
+	@Nullable volatile Snapshot<R> currentState;
+
+	/**
+	 * A root, along with its revision number.
+	 * Each update published by the {@code LocalDriver} gets the next revision number,
+	 * so two snapshots with the same revision have the same root,
+	 * and a higher revision number indicates a later state.
+	 *
+	 * <p>
+	 * Revision numbers are local to this bosk instance.
+	 * Replicas sharing a database number their states independently,
+	 * so a revision from one replica means nothing to another.
+	 * Drivers that replicate through a database of their own, like the Mongo driver,
+	 * can map their database revision numbers onto these as they apply them.
+	 */
+	record Snapshot<RR>(RR root, long revision) { }
 
 	/**
 	 * @param name                A distinctive identifier string. The bosk framework doesn't use this, so there are no requirements on this string: it can be anything that identifies the object.
@@ -88,7 +132,8 @@ abstract sealed class BoskBase<R extends StateTreeNode> permits Bosk {
 	protected BoskBase(String name, Type rootType, Bosk.DefaultStateFunction<R> defaultStateFunction, BoskConfig<R> boskConfig) {
 		this.name = requireNonNull(name);
 		this.pathCompiler = PathCompiler.withSourceType(requireNonNull(rootType)); // Required before rootRef
-		this.localDriver = new LocalDriver(requireNonNull(defaultStateFunction));
+		this.history = new RootHistory<>(boskConfig.historyCapacity(), InstantSource.system()); // Required before localDriver
+		this.localDriver = new LocalDriver(requireNonNull(defaultStateFunction), boskConfig);
 		this.rootRef = new RootRef(rootType);
 		try {
 			validateType(rootType);
@@ -104,10 +149,11 @@ abstract sealed class BoskBase<R extends StateTreeNode> permits Bosk {
 		// initialization to have completed already.
 		//
 		this.ingressDriver = new IngressDriver(requireNonNull(boskConfig.driverFactory().build(boskInfo, this.localDriver)));
-		this.hookRegistrar = requireNonNull(boskConfig.registrarFactory().build(boskInfo, this::localRegisterHook));
+		this.hookRegistrar = requireNonNull(boskConfig.registrarFactory().build(boskInfo, new LocalRegistrar()));
 
 		try {
-			this.currentState = ingressDriver.initialState(rootRef.targetClass());
+			this.currentState = new Snapshot<>(ingressDriver.initialState(rootRef.targetClass()), Bosk.INITIAL_REVISION);
+			history.record(currentState);
 		} catch (InvalidTypeException | IOException | InterruptedException e) {
 			initializationFuture.completeExceptionally(e);
 			throw new IllegalArgumentException("Error computing initial state: " + e.getMessage(), e);
@@ -127,6 +173,164 @@ abstract sealed class BoskBase<R extends StateTreeNode> permits Bosk {
 		}
 	}
 
+	/**
+	 * Computes the effect of an update on the bosk state.
+	 */
+	@FunctionalInterface
+	private interface Graft<RR> {
+		/**
+		 * @return null if the update has no effect
+		 */
+		@Nullable GraftResult<RR> applyTo(@Nullable RR priorRoot);
+	}
+
+	/**
+	 * @param targets the updated references, which determine which hooks to trigger
+	 */
+	private record GraftResult<RR>(RR newRoot, List<Reference<?>> targets) { }
+
+	/**
+	 * A queued hook invocation.
+	 *
+	 * @param scope the path of the (fully bound) reference the hook will receive
+	 */
+	private record HookCall(Path scope, Runnable action) { }
+
+	/**
+	 * Counts the queued hook calls that capture a given root,
+	 * so we can report how many distinct roots the hook queue is retaining.
+	 * All the calls queued by one update share one of these.
+	 */
+	private static final class RootRetention {
+		final AtomicInteger retainedRoots;
+		final AtomicInteger calls = new AtomicInteger(0);
+
+		RootRetention(AtomicInteger retainedRoots) {
+			this.retainedRoots = retainedRoots;
+		}
+
+		void retain() {
+			if (calls.getAndIncrement() == 0) {
+				retainedRoots.incrementAndGet();
+			}
+		}
+
+		void release() {
+			if (calls.decrementAndGet() == 0) {
+				retainedRoots.decrementAndGet();
+			}
+		}
+	}
+
+	/**
+	 * The work of a queued hook call.
+	 * Exactly one of {@link #run} or {@link #discard} must be called.
+	 * Either way, the root no longer counts as retained by the queue;
+	 * a running hook's root is retained by its {@link Bosk.ReadSession} instead.
+	 */
+	private record HookAction(Runnable body, RootRetention retention, @Nullable ValueChange<?> change) implements Runnable {
+		HookAction {
+			retention.retain();
+		}
+
+		/**
+		 * Called when this action takes the place of <code>earlier</code> in the queue,
+		 * so that a {@link ValueHook} sees the value from before both of them.
+		 */
+		void takeOverFrom(HookAction earlier) {
+			if (change != null && earlier.change != null) {
+				change.takeOverFrom(earlier.change);
+			}
+		}
+
+		@Override
+		public void run() {
+			retention.release();
+			body.run();
+		}
+
+		void discard() {
+			retention.release();
+		}
+	}
+
+	/**
+	 * The values passed to a {@link ValueHook}.
+	 * The prior value is replaced if the call takes the place of an earlier one.
+	 */
+	private static final class ValueChange<S> {
+		volatile @Nullable S priorValue;
+		final @Nullable S newValue;
+
+		ValueChange(@Nullable S priorValue, @Nullable S newValue) {
+			this.priorValue = priorValue;
+			this.newValue = newValue;
+		}
+
+		/**
+		 * Both are for the same hook on the same reference, so they have the same type.
+		 */
+		@SuppressWarnings("unchecked")
+		void takeOverFrom(ValueChange<?> earlier) {
+			priorValue = (S) earlier.priorValue;
+		}
+	}
+
+	/**
+	 * A hook call that can be coalesced with later calls of the same hook on the same reference:
+	 * either superseded, for {@link HookRegistrar.Coalescing#LATEST LATEST} coalescing,
+	 * or replaced, for {@link BoskConfig.HookQueueOverflow#CONFLATE CONFLATE}.
+	 * When it reaches the head of the queue, it runs only if it's still the pending call
+	 * for its reference; otherwise, a later call has superseded it.
+	 */
+	private static final class CoalescedCall implements Runnable {
+		final ConcurrentHashMap<Path, Runnable> pendingCalls;
+		final Path path;
+
+		/**
+		 * Nulled out when superseded so the root snapshot it captures can be collected
+		 * without waiting for this call to reach the head of the queue.
+		 */
+		volatile @Nullable HookAction action;
+
+		CoalescedCall(ConcurrentHashMap<Path, Runnable> pendingCalls, Path path, HookAction action) {
+			this.pendingCalls = pendingCalls;
+			this.path = path;
+			this.action = action;
+		}
+
+		@Override
+		public void run() {
+			if (pendingCalls.remove(path, this)) {
+				// Only a call that has been removed from pendingCalls can be superseded
+				requireNonNull(action).run();
+			}
+		}
+
+		/**
+		 * Called after this has been removed from {@link #pendingCalls},
+		 * so that {@link #run} will do nothing,
+		 * and before <code>successor</code> is queued in its place.
+		 */
+		void supersede(HookAction successor) {
+			HookAction superseded = requireNonNull(action);
+			action = null;
+			successor.takeOverFrom(superseded);
+			superseded.discard();
+		}
+
+		/**
+		 * Must be called atomically with respect to {@link #run},
+		 * such as within {@link ConcurrentHashMap#compute} on {@link #pendingCalls}.
+		 */
+		void replace(HookAction newAction) {
+			HookAction replaced = requireNonNull(action);
+			newAction.takeOverFrom(replaced);
+			action = newAction;
+			replaced.discard();
+		}
+	}
+
 	/**
 	 * We wrap the user-supplied driver with one of these so we're in control
 	 * of the incoming driver operations.
@@ -184,6 +388,21 @@ abstract sealed class BoskBase<R extends StateTreeNode> permits Bosk {
 			}
 		}
 
+		@Override
+		public void submitBatch(List<? extends BatchUpdate> updates) {
+			try (var _ = setupMDC(name, instanceID)) {
+				// Validate everything before submitting anything, so a bad update doesn't leave a partial batch
+				for (BatchUpdate update : updates) {
+					if (update instanceof BatchUpdate.Deletion<?> && update.target().isRoot()) {
+						throw new IllegalArgumentException("Cannot delete root object");
+					}
+					assertCorrectBosk(update.target());
+				}
+				// Defensive copy, since downstream drivers might hold onto the list
+				downstream.submitBatch(List.copyOf(updates));
+			}
+		}
+
 		@Override
 		public <RR extends StateTreeNode> RR initialState(Class<RR> rootType) throws InvalidTypeException, IOException, InterruptedException {
 			try (var _ = setupMDC(name, instanceID)) {
@@ -198,6 +417,34 @@ abstract sealed class BoskBase<R extends StateTreeNode> permits Bosk {
 			}
 		}
 
+		@Override
+		public CompletableFuture<Void> flushAsync() {
+			try (var _ = setupMDC(name, instanceID)) {
+				return downstream.flushAsync();
+			}
+		}
+
+		@Override
+		public WriteToken writeToken() throws IOException, InterruptedException {
+			try (var _ = setupMDC(name, instanceID)) {
+				return downstream.writeToken();
+			}
+		}
+
+		@Override
+		public void awaitApplied(WriteToken token) throws IOException, InterruptedException {
+			try (var _ = setupMDC(name, instanceID)) {
+				downstream.awaitApplied(token);
+			}
+		}
+
+		@Override
+		public void flushIfStale(Duration maxStaleness) throws IOException, InterruptedException {
+			try (var _ = setupMDC(name, instanceID)) {
+				downstream.flushIfStale(maxStaleness);
+			}
+		}
+
 		private <T> void assertCorrectBosk(Reference<T> target) {
 			// TODO: Do we need to be this strict?
 			// On the one hand, we could write conditional updates in a way that don't require the
@@ -236,16 +483,116 @@ abstract sealed class BoskBase<R extends StateTreeNode> permits Bosk {
 	 * execution model is so complex that it requires a background thread just to make updates
 	 * to objects in memory, it feels like we've taken a step in the wrong direction.
 	 *
+	 * <p>
+	 * By default, each update takes this object's monitor in turn.
+	 * In {@link BoskConfig.UpdateConcurrency#COMBINING COMBINING} mode,
+	 * concurrent updates are instead applied together by an {@link UpdateCombiner},
+	 * which provides the same guarantees.
+	 * Similarly, hooks are run by the submitting threads by default,
+	 * but can be opted into a background thread in
+	 * {@link BoskConfig.HookDelivery#ASYNCHRONOUS ASYNCHRONOUS} mode;
+	 * and {@link BoskConfig.HookConcurrency#DISJOINT_SCOPES DISJOINT_SCOPES} mode
+	 * relaxes the second guarantee for hooks whose scopes don't overlap.
+	 *
 	 * @author pdoyle
 	 * @see #drainQueueIfAllowed() for algorithm details
 	 */
 	private final class LocalDriver implements BoskDriver {
 		final Bosk.DefaultStateFunction<R> initialStateFunction;
-		final Deque<Runnable> hookExecutionQueue = new ConcurrentLinkedDeque<>();
+		final Deque<HookCall> hookExecutionQueue = new ConcurrentLinkedDeque<>();
 		final Semaphore hookExecutionPermit = new Semaphore(1);
 
-		public LocalDriver(Bosk.DefaultStateFunction<R> initialStateFunction) {
+		/**
+		 * The size of {@link #hookExecutionQueue}, which would take linear time to compute.
+		 * Only approximate while calls are being added or removed.
+		 */
+		final AtomicInteger queuedHookCalls = new AtomicInteger(0);
+
+		/**
+		 * The number of distinct roots captured by queued hook calls that will run.
+		 */
+		final AtomicInteger retainedRoots = new AtomicInteger(0);
+
+		final int hookQueueCapacity;
+		final BoskConfig.HookQueueOverflow hookQueueOverflow;
+
+		/**
+		 * In {@link BoskConfig.HookQueueOverflow#BLOCK BLOCK} mode,
+		 * signalled when {@link #queuedHookCalls} drops below {@link #hookQueueCapacity}.
+		 */
+		final ReentrantLock hookQueueLock = new ReentrantLock();
+		final Condition hookQueueHasRoom = hookQueueLock.newCondition();
+
+		/**
+		 * Set while a hook is running, so that updates it submits are exempt from
+		 * {@link BoskConfig.HookQueueOverflow#BLOCK BLOCK} and {@link BoskConfig.HookQueueOverflow#FAIL FAIL}.
+		 */
+		final ScopedValue<Boolean> runningHook = ScopedValue.newInstance();
+
+		/**
+		 * Null unless {@link BoskConfig.UpdateConcurrency#COMBINING COMBINING} mode is in effect.
+		 */
+		final @Nullable UpdateCombiner combiner;
+
+		/**
+		 * Null unless {@link BoskConfig.HookIsolation#SHARED_WORKER SHARED_WORKER} mode is in effect.
+		 * A single thread, so that tasks run one at a time in the order they were submitted.
+		 */
+		final @Nullable ThreadPoolExecutor hookWorker;
+
+		/**
+		 * Null unless {@link BoskConfig.HookDelivery#ASYNCHRONOUS ASYNCHRONOUS} mode is in effect.
+		 * Runs {@link #drainQueueIfAllowed} after updates in place of the submitting thread.
+		 */
+		final @Nullable ThreadPoolExecutor hookDrainer;
+
+		/**
+		 * True if a task has been submitted to {@link #hookDrainer} that hasn't yet started draining.
+		 * Any hooks queued in the meantime will be run by that task, so there's no need to submit another.
+		 */
+		final AtomicBoolean drainScheduled = new AtomicBoolean(false);
+
+		final boolean concurrentHooks;
+
+		/**
+		 * In {@link BoskConfig.HookConcurrency#DISJOINT_SCOPES DISJOINT_SCOPES} mode,
+		 * the maximum number of hooks to run at once.
+		 */
+		static final int MAX_CONCURRENT_HOOKS = 256;
+
+		public LocalDriver(Bosk.DefaultStateFunction<R> initialStateFunction, BoskConfig<R> boskConfig) {
 			this.initialStateFunction = initialStateFunction;
+			this.combiner = switch (boskConfig.updateConcurrency()) {
+				case LOCKING -> null;
+				case COMBINING -> new UpdateCombiner();
+			};
+			this.hookWorker = switch (boskConfig.hookIsolation()) {
+				case THREAD_PER_HOOK -> null;
+				case SHARED_WORKER -> newSingleThreadExecutor(hookThreadBuilder.factory());
+			};
+			this.hookDrainer = switch (boskConfig.hookDelivery()) {
+				case SYNCHRONOUS -> null;
+				case ASYNCHRONOUS -> newSingleThreadExecutor(Thread.ofVirtual().name("bosk-hook-drainer-", 1).factory());
+			};
+			this.concurrentHooks = switch (boskConfig.hookConcurrency()) {
+				case SEQUENTIAL -> false;
+				case DISJOINT_SCOPES -> true;
+			};
+			this.hookQueueCapacity = boskConfig.hookQueueCapacity();
+			this.hookQueueOverflow = boskConfig.hookQueueOverflow();
+		}
+
+		/**
+		 * The thread exits when idle, so a discarded bosk doesn't leave a thread behind.
+		 */
+		private static ThreadPoolExecutor newSingleThreadExecutor(ThreadFactory threadFactory) {
+			ThreadPoolExecutor executor = new ThreadPoolExecutor(
+				1, 1,
+				IDLE_THREAD_KEEP_ALIVE.toMillis(), MILLISECONDS,
+				new LinkedBlockingQueue<>(),
+				threadFactory);
+			executor.allowCoreThreadTimeOut(true);
+			return executor;
 		}
 
 		@Override
@@ -255,44 +602,23 @@ abstract sealed class BoskBase<R extends StateTreeNode> permits Bosk {
 
 		@Override
 		public <T> void submitReplacement(Reference<T> target, T newValue) {
-			synchronized (this) {
-				R priorRoot = currentRoot();
-				if (!tryGraftReplacement(target, newValue)) {
-					return;
-				}
-				queueHooks(target, priorRoot);
-			}
-			drainQueueIfAllowed();
+			submit(root -> graftResult(graftReplacement(root, target, newValue), target));
 		}
 
 		@Override
 		public <T> void submitConditionalCreation(Reference<T> target, T newValue) {
-			synchronized (this) {
-				boolean preconditionsSatisfied;
-				try (var _ = newSupersedingReadSession()) {
-					preconditionsSatisfied = !target.exists();
-				}
-				if (preconditionsSatisfied) {
-					R priorRoot = currentRoot();
-					if (!tryGraftReplacement(target, newValue)) {
-						return;
-					}
-					queueHooks(target, priorRoot);
+			submit(root -> {
+				if (target.valueIfExistsIn(preconditionRoot(root)) == null) {
+					return graftResult(graftReplacement(root, target, newValue), target);
+				} else {
+					return null;
 				}
-			}
-			drainQueueIfAllowed();
+			});
 		}
 
 		@Override
 		public <T> void submitDeletion(Reference<T> target) {
-			synchronized (this) {
-				R priorRoot = currentRoot();
-				if (!tryGraftDeletion(target)) {
-					return;
-				}
-				queueHooks(target, priorRoot);
-			}
-			drainQueueIfAllowed();
+			submit(root -> graftResult(graftDeletion(root, target), target));
 		}
 
 		@Override
@@ -303,38 +629,105 @@ abstract sealed class BoskBase<R extends StateTreeNode> permits Bosk {
 
 		@Override
 		public <T> void submitConditionalReplacement(Reference<T> target, T newValue, Reference<Identifier> precondition, Identifier requiredValue) {
-			synchronized (this) {
-				boolean preconditionsSatisfied;
-				try (var _ = newSupersedingReadSession()) {
-					preconditionsSatisfied = Objects.equals(precondition.valueIfExists(), requiredValue);
-				}
-				if (preconditionsSatisfied) {
-					R priorRoot = currentRoot();
-					if (!tryGraftReplacement(target, newValue)) {
-						return;
-					}
-					queueHooks(target, priorRoot);
+			submit(root -> {
+				if (Objects.equals(precondition.valueIfExistsIn(preconditionRoot(root)), requiredValue)) {
+					return graftResult(graftReplacement(root, target, newValue), target);
+				} else {
+					return null;
 				}
-			}
-			drainQueueIfAllowed();
+			});
 		}
 
 		@Override
 		public <T> void submitConditionalDeletion(Reference<T> target, Reference<Identifier> precondition, Identifier requiredValue) {
-			synchronized (this) {
-				boolean preconditionsSatisfied;
-				try (var _ = newSupersedingReadSession()) {
-					preconditionsSatisfied = Objects.equals(precondition.valueIfExists(), requiredValue);
+			submit(root -> {
+				if (Objects.equals(precondition.valueIfExistsIn(preconditionRoot(root)), requiredValue)) {
+					return graftResult(graftDeletion(root, target), target);
+				} else {
+					return null;
+				}
+			});
+		}
+
+		/**
+		 * Grafts all the updates onto a private copy of the root, and then
+		 * triggers each hook at most once per changed object, based on the
+		 * difference between the original root and the final one.
+		 * Like any other update, the result is published as a single new {@link #currentState}.
+		 */
+		@Override
+		public void submitBatch(List<? extends BatchUpdate> updates) {
+			submit(priorRoot -> {
+				R newRoot = priorRoot;
+				List<Reference<?>> appliedTargets = new ArrayList<>(updates.size());
+				for (BatchUpdate update : updates) {
+					R result = switch (update) {
+						case BatchUpdate.Replacement<?> r -> graftReplacement(newRoot, r);
+						case BatchUpdate.Deletion<?> d -> graftDeletion(newRoot, d.target());
+					};
+					if (result != null) {
+						newRoot = result;
+						appliedTargets.add(update.target());
+					}
+				}
+				if (appliedTargets.isEmpty()) {
+					return null;
+				} else {
+					return new GraftResult<>(newRoot, appliedTargets);
 				}
-				if (preconditionsSatisfied) {
-					R priorRoot = currentRoot();
-					if (!tryGraftDeletion(target)) {
+			});
+		}
+
+		/**
+		 * Applies the given update to the bosk state and queues the resulting hooks,
+		 * then runs the hooks if allowed.
+		 */
+		private void submit(Graft<R> graft) {
+			checkHookQueueCapacity();
+			if (combiner == null) {
+				synchronized (this) {
+					Snapshot<R> prior = currentState;
+					GraftResult<R> result = graft.applyTo(rootOf(prior));
+					if (result == null) {
 						return;
 					}
-					queueHooks(target, priorRoot);
+					Snapshot<R> published = new Snapshot<>(result.newRoot(), revisionAfter(prior));
+					advanceCatalogViews(published.root());
+					currentState = published;
+					queueHooks(result.targets(), rootOf(prior), published);
+					history.record(published);
 				}
+			} else {
+				combiner.submit(graft);
+			}
+			drainQueueAfterUpdate();
+		}
+
+		/**
+		 * Brings every {@link CatalogView} up to date with <code>newRoot</code> before it's published,
+		 * so that read sessions on the new root find their views already computed.
+		 * A view that fails to update is left as it was, and will be
+		 * derived on demand by readers instead, so they see the failure.
+		 */
+		private void advanceCatalogViews(R newRoot) {
+			assert holdsLock(this);
+			for (CatalogView<?, ?> view : catalogViews) {
+				try {
+					view.advanceTo(newRoot);
+				} catch (RuntimeException e) {
+					LOGGER.error("Unable to update {}", view, e);
+				}
+			}
+		}
+
+		/**
+		 * Computes the given view for the current state and starts keeping it up to date.
+		 */
+		void addCatalogView(CatalogView<?, ?> view) {
+			synchronized (this) {
+				view.advanceTo(currentRoot());
+				catalogViews.add(view);
 			}
-			drainQueueIfAllowed();
 		}
 
 		/**
@@ -342,48 +735,266 @@ abstract sealed class BoskBase<R extends StateTreeNode> permits Bosk {
 		 */
 		void triggerEverywhere(Bosk<R>.HookRegistration<?> reg) {
 			synchronized (this) {
-				triggerQueueingOfHooks(rootRef, null, currentState, reg);
+				triggerQueueingOfHooks(List.of(rootRef), null, requireNonNull(currentState), reg, new RootRetention(retainedRoots));
 			}
 			drainQueueIfAllowed();
 		}
 
 		/**
-		 * @return false if the update was ignored
+		 * Applies the {@link BoskConfig.HookQueueOverflow} policy before an update if the hook queue is full.
+		 */
+		private void checkHookQueueCapacity() {
+			if (queuedHookCalls.get() < hookQueueCapacity || runningHook.isBound()) {
+				return;
+			}
+			switch (hookQueueOverflow) {
+				case BLOCK -> awaitHookQueueRoom();
+				case CONFLATE -> {
+					// Handled when the hooks are queued
+				}
+				case FAIL -> throw new HookQueueFullException("Hook queue has " + queuedHookCalls.get() + " calls waiting; capacity is " + hookQueueCapacity);
+			}
+		}
+
+		private void awaitHookQueueRoom() {
+			HOOK_LOGGER.debug("Hook queue is full; waiting");
+			while (queuedHookCalls.get() >= hookQueueCapacity) {
+				// Usually another thread is already draining the queue, but if that thread
+				// was interrupted, the remaining hooks are left for the next update.
+				drainQueueAfterUpdate();
+				hookQueueLock.lock();
+				try {
+					if (queuedHookCalls.get() >= hookQueueCapacity) {
+						// Timed, in case the queue stalls as described above
+						hookQueueHasRoom.await(HOOK_QUEUE_RECHECK_INTERVAL.toMillis(), MILLISECONDS);
+					}
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					HOOK_LOGGER.warn("Interrupted while waiting for room in the hook queue; proceeding with the update", e);
+					return;
+				} finally {
+					hookQueueLock.unlock();
+				}
+			}
+		}
+
+		private void enqueue(HookCall call) {
+			queuedHookCalls.incrementAndGet();
+			hookExecutionQueue.addLast(call);
+		}
+
+		private @Nullable HookCall dequeue() {
+			HookCall call = hookExecutionQueue.pollFirst();
+			if (call != null && queuedHookCalls.getAndDecrement() == hookQueueCapacity && hookQueueOverflow == BoskConfig.HookQueueOverflow.BLOCK) {
+				hookQueueLock.lock();
+				try {
+					hookQueueHasRoom.signalAll();
+				} finally {
+					hookQueueLock.unlock();
+				}
+			}
+			return call;
+		}
+
+		HookQueueStatus hookQueueStatus() {
+			return new HookQueueStatus(queuedHookCalls.get(), retainedRoots.get());
+		}
+
+		/**
+		 * Implements {@link BoskConfig.UpdateConcurrency#COMBINING COMBINING} mode using
+		 * <a href="https://doi.org/10.1145/1810479.1810540">flat combining</a>.
+		 *
+		 * <p>
+		 * Each submitting thread adds its update to {@link #pending} and then tries to become the <em>combiner</em>.
+		 * The combiner applies all pending updates in the order they were queued,
+		 * publishes a single new {@link #currentState}, and then queues the hooks for each update
+		 * exactly as the {@link BoskConfig.UpdateConcurrency#LOCKING LOCKING} mode would have.
+		 * Threads that fail to become the combiner wait for their update to be applied by whichever thread is.
+		 *
+		 * <p>
+		 * To avoid lost wakeups, a combiner that finishes while updates are still pending
+		 * wakes the owner of the oldest one, which then tries to become the combiner itself.
+		 */
+		private final class UpdateCombiner {
+			static final int MAX_COMBINED_UPDATES = 1024;
+			final Queue<PendingGraft> pending = new ConcurrentLinkedQueue<>();
+			final ReentrantLock combinerLock = new ReentrantLock();
+
+			void submit(Graft<R> graft) {
+				PendingGraft mine = new PendingGraft(graft, context.getAttributes(), Thread.currentThread());
+				pending.add(mine);
+				// Like Semaphore.acquireUninterruptibly: an interrupt can't abandon an update
+				// that's already queued, so we clear the status while waiting (otherwise park
+				// would return immediately every time) and restore it afterward.
+				boolean interrupted = false;
+				try {
+					while (!mine.isDone()) {
+						if (combinerLock.tryLock()) {
+							try {
+								combine();
+							} finally {
+								combinerLock.unlock();
+							}
+							PendingGraft next = pending.peek();
+							if (next != null) {
+								// Don't leave updates stranded after releasing the lock
+								LockSupport.unpark(next.owner);
+							}
+						} else {
+							LockSupport.park(this);
+							if (Thread.interrupted()) {
+								interrupted = true;
+							}
+						}
+					}
+				} finally {
+					if (interrupted) {
+						Thread.currentThread().interrupt();
+					}
+				}
+				mine.rethrowFailure();
+			}
+
+			/**
+			 * Applies up to {@link #MAX_COMBINED_UPDATES} pending updates, so that a steady stream
+			 * of new updates can't hold the combiner hostage indefinitely.
+			 */
+			private void combine() {
+				assert combinerLock.isHeldByCurrentThread();
+				List<PendingGraft> combined = new ArrayList<>();
+				List<GraftResult<R>> results = new ArrayList<>();
+				try {
+					synchronized (LocalDriver.this) {
+						Snapshot<R> prior = currentState;
+						Snapshot<R> latest = prior;
+						List<Snapshot<R>> snapshots = new ArrayList<>();
+						while (combined.size() < MAX_COMBINED_UPDATES) {
+							PendingGraft p = pending.poll();
+							if (p == null) {
+								break;
+							}
+							combined.add(p);
+							GraftResult<R> result = null;
+							try (var _ = context.withOnly(p.attributes)) {
+								result = p.graft.applyTo(rootOf(latest));
+							} catch (RuntimeException | Error e) {
+								p.failure = e;
+							}
+							results.add(result);
+							if (result != null) {
+								// Each update gets its own revision, as though they were applied separately
+								latest = new Snapshot<>(result.newRoot(), revisionAfter(latest));
+							}
+							snapshots.add(latest);
+						}
+						if (latest != prior) {
+							LOGGER.debug("Combined {} updates", combined.size());
+							advanceCatalogViews(latest.root());
+							currentState = latest;
+						}
+
+						// Queue the hooks for each update in turn, just as though they were applied separately
+						R rootBefore = rootOf(prior);
+						for (int i = 0; i < combined.size(); i++) {
+							GraftResult<R> result = results.get(i);
+							if (result != null) {
+								try (var _ = context.withOnly(combined.get(i).attributes)) {
+									queueHooks(result.targets(), rootBefore, snapshots.get(i));
+								}
+								history.record(snapshots.get(i));
+								rootBefore = result.newRoot();
+							}
+						}
+					}
+				} finally {
+					combined.forEach(PendingGraft::markDone);
+				}
+			}
+
+			private final class PendingGraft {
+				final Graft<R> graft;
+				final MapValue<String> attributes;
+				final Thread owner;
+				@Nullable Throwable failure; // Published by the write to `done`
+				volatile boolean done = false;
+
+				PendingGraft(Graft<R> graft, MapValue<String> attributes, Thread owner) {
+					this.graft = graft;
+					this.attributes = attributes;
+					this.owner = owner;
+				}
+
+				boolean isDone() {
+					return done;
+				}
+
+				void markDone() {
+					done = true;
+					LockSupport.unpark(owner);
+				}
+
+				void rethrowFailure() {
+					switch (failure) {
+						case null -> {}
+						case RuntimeException e -> throw e;
+						case Error e -> throw e;
+						default -> throw new AssertionError("Unexpected exception", failure);
+					}
+				}
+			}
+		}
+
+		private R preconditionRoot(@Nullable R root) {
+			if (root == null) {
+				throw new IllegalStateException("Bosk constructor has not yet finished; cannot evaluate precondition");
+			}
+			return root;
+		}
+
+		private static <RR> @Nullable GraftResult<RR> graftResult(@Nullable RR newRoot, Reference<?> target) {
+			if (newRoot == null) {
+				return null;
+			} else {
+				return new GraftResult<>(newRoot, List.of(target));
+			}
+		}
+
+		/**
+		 * @return the root resulting from applying the replacement to <code>oldRoot</code>,
+		 * or null if the update was ignored
 		 */
-		private <T> boolean tryGraftReplacement(Reference<T> target, T newValue) {
+		private <T> @Nullable R graftReplacement(@Nullable R oldRoot, Reference<T> target, T newValue) {
 			assert holdsLock(this);
 			Path targetPath = target.path();
 			if (targetPath.isEmpty()) {
-				currentState = rootRef.targetClass().cast(newValue);
-				return true;
+				return rootRef.targetClass().cast(newValue);
 			}
 			Dereferencer dereferencer = dereferencerFor(target);
 			try {
 				LOGGER.debug("Applying replacement at {}", target);
-				R oldRoot = currentRoot();
 				if (oldRoot == null) {
 					LOGGER.debug("Ignoring replacement of {}: root does not exist", target);
-					return false;
+					return null;
 				}
 				R newRoot = rootRef.targetClass().cast(requireNonNull(dereferencer.with(oldRoot, target, requireNonNull(newValue))));
-				currentState = newRoot;
 				if (LOGGER.isTraceEnabled()) {
 					LOGGER.trace("Replacement at {} changed root from {} to {}",
 						target,
 						System.identityHashCode(oldRoot),
 						System.identityHashCode(newRoot));
 				}
-				return true;
+				return newRoot;
 			} catch (Bosk.NonexistentEntryException e) {
 				LOGGER.debug("Ignoring replacement of {}", target, e);
-				return false;
+				return null;
 			}
 		}
 
 		/**
-		 * @return false if the update was ignored
+		 * @return the root resulting from applying the deletion to <code>oldRoot</code>,
+		 * or null if the update was ignored
 		 */
-		private <T> boolean tryGraftDeletion(Reference<T> target) {
+		private <T> @Nullable R graftDeletion(@Nullable R oldRoot, Reference<T> target) {
 			assert holdsLock(this);
 			Path targetPath = target.path();
 			if (targetPath.isEmpty()) {
@@ -392,72 +1003,160 @@ abstract sealed class BoskBase<R extends StateTreeNode> permits Bosk {
 			Dereferencer dereferencer = dereferencerFor(target);
 			try {
 				LOGGER.debug("Applying deletion at {}", target);
-				R oldRoot = currentRoot();
 				if (oldRoot == null) {
 					LOGGER.debug("Ignoring deletion of {}: root does not exist", target);
-					return false;
+					return null;
 				}
 				R newRoot = rootRef.targetClass().cast(dereferencer.without(oldRoot, target));
-				currentState = newRoot;
 				if (LOGGER.isTraceEnabled()) {
 					LOGGER.trace("Deletion at {} changed root from {} to {}",
 						target,
 						System.identityHashCode(oldRoot),
 						System.identityHashCode(newRoot));
 				}
-				return true;
+				return newRoot;
 			} catch (Bosk.NonexistentEntryException e) {
 				LOGGER.debug("Ignoring deletion of {}", target, e);
-				return false;
+				return null;
 			}
 		}
 
+		private <T> @Nullable R graftReplacement(@Nullable R oldRoot, BatchUpdate.Replacement<T> replacement) {
+			return graftReplacement(oldRoot, replacement.target(), replacement.newValue());
+		}
+
 		private Dereferencer dereferencerFor(Reference<?> ref) {
 			// We could just pull it out of ref, if it's a ReferenceImpl, but we can't assume that
 			return compileVettedPath(ref.path());
 		}
 
-		private <T> void queueHooks(Reference<T> target, @Nullable R priorRoot) {
-			R rootForHook = currentRoot();
-			for (Bosk<R>.HookRegistration<?> reg : hooks) {
-				triggerQueueingOfHooks(target, priorRoot, rootForHook, reg);
+		private void queueHooks(List<Reference<?>> targets, @Nullable R priorRoot, Snapshot<R> snapshotForHook) {
+			List<Path> targetPaths = targets.stream().map(Reference::path).toList();
+			RootRetention retention = new RootRetention(retainedRoots);
+			for (Bosk<R>.HookRegistration<?> reg : hookIndex.candidatesFor(targetPaths)) {
+				triggerQueueingOfHooks(targets, priorRoot, snapshotForHook, reg, retention);
 			}
 		}
 
 		/**
 		 * For a given {@link Bosk.HookRegistration}, queues up a call to {@link BoskHook#onChanged}
-		 * for each matching object that changed between <code>priorRoot</code> and <code>rootForHook</code>
-		 * when <code>target</code> was updated. If <code>priorRoot</code> is null, the hook is called
-		 * on every matching object that exists in <code>rootForHook</code>.
+		 * for each matching object that changed between <code>priorRoot</code> and the root of <code>snapshotForHook</code>
+		 * when the <code>targets</code> were updated. If <code>priorRoot</code> is null, the hook is called
+		 * on every matching object that exists in <code>snapshotForHook</code>.
+		 *
+		 * <p>
+		 * The matching objects are collected first, so that overlapping targets
+		 * don't cause the same hook call to be queued twice.
+		 * Their values are kept only for a {@link ValueHook}, to avoid retaining
+		 * old values that no hook will use.
 		 */
-		private <T, S> void triggerQueueingOfHooks(Reference<T> target, @Nullable R priorRoot, R rootForHook, Bosk<R>.HookRegistration<S> reg) {
+		private <S> void triggerQueueingOfHooks(List<Reference<?>> targets, @Nullable R priorRoot, Snapshot<R> snapshotForHook, Bosk<R>.HookRegistration<S> reg, RootRetention retention) {
 			MapValue<String> attributes = context.getAttributes();
-			reg.triggerAction(priorRoot, rootForHook, target, changedRef -> {
-				HOOK_LOGGER.debug("Hook: queue {}({}) due to {}", reg.name(), changedRef, target);
-				hookExecutionQueue.addLast(() -> {
-					// We use two nested try statements here so that the "finally" clause runs within the diagnostic scope
-					try (
-						var _ = setupMDC(name, instanceID);
-						var _ = context.withOnly(attributes)
-					) {
-						try (var _ = newReadSession(rootForHook)) {
-							HOOK_LOGGER.debug("Hook: RUN {}({})", reg.name(), changedRef);
-							reg.hook().onChanged(changedRef);
-						} catch (InterruptedException e) {
-							HOOK_LOGGER.warn("Bosk hook \"{}\" was interrupted; proceeding", reg.name(), e);
-						} catch (RuntimeException e) {
-							HOOK_LOGGER.error("Bosk hook \"{}\" terminated with an exception, which usually indicates a bug. State updates may have been lost", reg.name(), e);
-
-							// Note that we don't catch Error. The practical reason is to allow users to write
-							// unit tests that throw AssertionError from hooks, but the bigger reason is that
-							// Errors indicate that something has gone dreadfully wrong, and we probably should
-							// not attempt to continue.
-						} finally {
-							HOOK_LOGGER.debug("Hook: end {}({})", reg.name(), changedRef);
-						}
+			boolean wantsValues = reg.hook() instanceof ValueHook;
+			Map<Reference<S>, @Nullable ValueChange<S>> changes = new LinkedHashMap<>();
+			for (Reference<?> target : targets) {
+				reg.triggerAction(priorRoot, snapshotForHook.root(), target, (changedRef, priorValue, newValue) ->
+					changes.putIfAbsent(changedRef, wantsValues ? new ValueChange<>(priorValue, newValue) : null));
+			}
+			changes.forEach((changedRef, change) -> {
+				HOOK_LOGGER.debug("Hook: queue {}({}) due to {}", reg.name(), changedRef, targets);
+				queueHookCall(changedRef, change, snapshotForHook, reg, attributes, retention);
+			});
+		}
+
+		/**
+		 * Must hold this object's monitor, so that calls are queued one at a time;
+		 * but they can be dequeued at any time.
+		 */
+		private <S> void queueHookCall(Reference<S> changedRef, @Nullable ValueChange<S> change, Snapshot<R> snapshotForHook, Bosk<R>.HookRegistration<S> reg, MapValue<String> attributes, RootRetention retention) {
+			assert holdsLock(this);
+			Path path = changedRef.path();
+			HookAction action = new HookAction(hookBody(changedRef, change, snapshotForHook, reg, attributes), retention, change);
+			if (hookQueueOverflow == BoskConfig.HookQueueOverflow.CONFLATE && queuedHookCalls.get() >= hookQueueCapacity) {
+				CoalescedCall fresh = new CoalescedCall(reg.pendingCalls, path, action);
+				Runnable pending = reg.pendingCalls.compute(path, (_, existing) -> {
+					if (existing == null) {
+						return fresh;
+					} else {
+						((CoalescedCall) existing).replace(action);
+						return existing;
 					}
 				});
-			});
+				if (pending == fresh) {
+					enqueue(new HookCall(path, fresh));
+				} else {
+					HOOK_LOGGER.debug("Hook: conflate {}({})", reg.name(), changedRef);
+				}
+				return;
+			}
+			switch (reg.coalescing()) {
+				case NONE -> enqueue(new HookCall(path, action));
+				case LATEST -> {
+					CoalescedCall call = new CoalescedCall(reg.pendingCalls, path, action);
+					if (reg.pendingCalls.put(path, call) instanceof CoalescedCall superseded) {
+						HOOK_LOGGER.debug("Hook: coalesce {}({})", reg.name(), changedRef);
+						superseded.supersede(action);
+					}
+					enqueue(new HookCall(path, call));
+				}
+			}
+		}
+
+		private <S> Runnable hookBody(Reference<S> changedRef, @Nullable ValueChange<S> change, Snapshot<R> snapshotForHook, Bosk<R>.HookRegistration<S> reg, MapValue<String> attributes) {
+			return () -> {
+				// We use two nested try statements here so that the "finally" clause runs within the diagnostic scope
+				try (var _ = setupMDC(name, instanceID)) {
+					// Scoped values rather than thread-locals, so the hook's read session and context
+					// end with the hook even if the thread goes on to run other hooks
+					ScopedValue
+						.where(hookSnapshot, snapshotForHook)
+						.where(context.hookContext, new Context(attributes))
+						.where(runningHook, true)
+						.run(() -> {
+							try {
+								HOOK_LOGGER.debug("Hook: RUN {}({})", reg.name(), changedRef);
+								if (change != null && reg.hook() instanceof ValueHook<S> valueHook) {
+									valueHook.onChanged(changedRef, change.priorValue, change.newValue);
+								} else {
+									reg.hook().onChanged(changedRef);
+								}
+							} catch (InterruptedException e) {
+								HOOK_LOGGER.warn("Bosk hook \"{}\" was interrupted; proceeding", reg.name(), e);
+							} catch (RuntimeException e) {
+								HOOK_LOGGER.error("Bosk hook \"{}\" terminated with an exception, which usually indicates a bug. State updates may have been lost", reg.name(), e);
+
+								// Note that we don't catch Error. The practical reason is to allow users to write
+								// unit tests that throw AssertionError from hooks, but the bigger reason is that
+								// Errors indicate that something has gone dreadfully wrong, and we probably should
+								// not attempt to continue.
+							} finally {
+								HOOK_LOGGER.debug("Hook: end {}({})", reg.name(), changedRef);
+							}
+						});
+				}
+			};
+		}
+
+		/**
+		 * Calls {@link #drainQueueIfAllowed}, either directly or,
+		 * in {@link BoskConfig.HookDelivery#ASYNCHRONOUS ASYNCHRONOUS} mode, on the {@link #hookDrainer}.
+		 */
+		private void drainQueueAfterUpdate() {
+			if (hookDrainer == null) {
+				drainQueueIfAllowed();
+			} else if (drainScheduled.compareAndSet(false, true)) {
+				hookDrainer.execute(() -> {
+					// Clear the flag before draining, so any hooks queued after this point
+					// are either drained by us or by a subsequently scheduled task
+					drainScheduled.set(false);
+					try {
+						drainQueueIfAllowed();
+					} catch (RuntimeException | Error e) {
+						// There's no submitting thread to propagate this to
+						HOOK_LOGGER.error("Unexpected exception running hooks; the remaining queued hooks are deferred to the next update", e);
+					}
+				});
+			}
 		}
 
 		/**
@@ -491,45 +1190,16 @@ abstract sealed class BoskBase<R extends StateTreeNode> permits Bosk {
 			do {
 				if (hookExecutionPermit.tryAcquire()) {
 					try {
-						while (true) {
-							// An interrupt means "stop"; quit before starting another hook,
-							// leaving the remaining queued hooks for a later update.
-							if (Thread.currentThread().isInterrupted()) {
-								HOOK_LOGGER.debug("Interrupted; deferring the remaining queued hooks");
-								return;
-							}
-							Runnable ex = hookExecutionQueue.pollFirst();
-							if (ex == null) {
-								break;
-							}
-							// Run the task in a separate virtual thread to prevent ThreadLocals from propagating.
-							// This is slightly tragic, because usually ThreadLocal propagation works just the
-							// way we'd want, but not always. Given the choices "always, sometimes, never", if
-							// we can't achieve "always", then the bosk philosophy prefers "never" over "sometimes".
-							FutureTask<Void> task = new FutureTask<>(ex, null);
-							Thread hookThread = hookThreadBuilder.start(task);
-							try {
-								task.get();
-							} catch (ExecutionException e) {
-								try {
-									throw e.getCause();
-								} catch (RuntimeException | Error cause) {
-									throw cause;
-								} catch (Throwable t) {
-									throw new AssertionError("Hook runnable should catch and wrap checked exceptions", t);
-								}
-							} catch (InterruptedException e) {
-								// The interrupt is intended for the hook work in flight here.
-								// Deliver it to the running hook, per the BoskHook contract,
-								// and await its termination before proceeding. This is intended
-								// to mimic structured concurrency (StructuredTaskScope.close()):
-								// cancel the in-flight subtasks and wait for them to terminate.
-								hookThread.interrupt();
-								awaitTermination(hookThread);
-								Thread.currentThread().interrupt();
-								HOOK_LOGGER.warn("Interrupted while running hooks; the running hook was interrupted and terminated, and the remaining queued hooks are deferred to the next update", e);
-								return;
-							}
+						boolean drained;
+						if (hookWorker != null) {
+							drained = runQueuedHooksOnWorker(hookWorker);
+						} else if (concurrentHooks) {
+							drained = runQueuedHooksConcurrently();
+						} else {
+							drained = runQueuedHooksOnNewThreads();
+						}
+						if (!drained) {
+							return;
 						}
 					} finally {
 						hookExecutionPermit.release();
@@ -570,6 +1240,178 @@ abstract sealed class BoskBase<R extends StateTreeNode> permits Bosk {
 			} while (!hookExecutionQueue.isEmpty());
 		}
 
+		/**
+		 * Runs each queued hook on its own new virtual thread, waiting for each to finish.
+		 * Must hold {@link #hookExecutionPermit}.
+		 *
+		 * @return true if the queue was drained; false if we were interrupted,
+		 * in which case the remaining hooks stay queued
+		 */
+		private boolean runQueuedHooksOnNewThreads() {
+			while (true) {
+				// An interrupt means "stop"; quit before starting another hook,
+				// leaving the remaining queued hooks for a later update.
+				if (Thread.currentThread().isInterrupted()) {
+					HOOK_LOGGER.debug("Interrupted; deferring the remaining queued hooks");
+					return false;
+				}
+				HookCall call = dequeue();
+				if (call == null) {
+					return true;
+				}
+				// Run the task in a separate virtual thread to prevent ThreadLocals from propagating.
+				// This is slightly tragic, because usually ThreadLocal propagation works just the
+				// way we'd want, but not always. Given the choices "always, sometimes, never", if
+				// we can't achieve "always", then the bosk philosophy prefers "never" over "sometimes".
+				FutureTask<Void> task = new FutureTask<>(call.action(), null);
+				Thread hookThread = hookThreadBuilder.start(task);
+				try {
+					task.get();
+				} catch (ExecutionException e) {
+					throw rethrownCause(e);
+				} catch (InterruptedException e) {
+					// The interrupt is intended for the hook work in flight here.
+					// Deliver it to the running hook, per the BoskHook contract,
+					// and await its termination before proceeding. This is intended
+					// to mimic structured concurrency (StructuredTaskScope.close()):
+					// cancel the in-flight subtasks and wait for them to terminate.
+					hookThread.interrupt();
+					awaitTermination(hookThread);
+					Thread.currentThread().interrupt();
+					HOOK_LOGGER.warn("Interrupted while running hooks; the running hook was interrupted and terminated, and the remaining queued hooks are deferred to the next update", e);
+					return false;
+				}
+			}
+		}
+
+		/**
+		 * Implements {@link BoskConfig.HookConcurrency#DISJOINT_SCOPES DISJOINT_SCOPES} mode.
+		 * Takes calls from the head of the queue until one overlaps a call already taken,
+		 * starts each on its own virtual thread, and waits for them all; then repeats.
+		 * Stopping at the first overlap, rather than skipping over it,
+		 * ensures no call can overtake an earlier call with an overlapping scope.
+		 * Must hold {@link #hookExecutionPermit}.
+		 *
+		 * @return true if the queue was drained; false if we were interrupted,
+		 * in which case the remaining hooks stay queued
+		 */
+		private boolean runQueuedHooksConcurrently() {
+			while (true) {
+				if (Thread.currentThread().isInterrupted()) {
+					HOOK_LOGGER.debug("Interrupted; deferring the remaining queued hooks");
+					return false;
+				}
+				List<Path> scopes = new ArrayList<>();
+				List<FutureTask<Void>> tasks = new ArrayList<>();
+				List<Thread> hookThreads = new ArrayList<>();
+				while (tasks.size() < MAX_CONCURRENT_HOOKS) {
+					HookCall call = hookExecutionQueue.peekFirst();
+					if (call == null || overlapsAny(call.scope(), scopes)) {
+						break;
+					}
+					// Only the permit holder removes calls, so the head is still the same call
+					dequeue();
+					scopes.add(call.scope());
+					FutureTask<Void> task = new FutureTask<>(call.action(), null);
+					tasks.add(task);
+					hookThreads.add(hookThreadBuilder.start(task));
+				}
+				if (tasks.isEmpty()) {
+					return true;
+				}
+				HOOK_LOGGER.debug("Running {} hooks concurrently", tasks.size());
+
+				ExecutionException firstFailure = null;
+				for (FutureTask<Void> task : tasks) {
+					try {
+						task.get();
+					} catch (ExecutionException e) {
+						// Let the others finish before we propagate this
+						if (firstFailure == null) {
+							firstFailure = e;
+						}
+					} catch (InterruptedException e) {
+						// As in runQueuedHooksOnNewThreads, but for all the hooks in flight
+						hookThreads.forEach(Thread::interrupt);
+						hookThreads.forEach(this::awaitTermination);
+						Thread.currentThread().interrupt();
+						HOOK_LOGGER.warn("Interrupted while running hooks; the running hooks were interrupted and terminated, and the remaining queued hooks are deferred to the next update", e);
+						return false;
+					}
+				}
+				if (firstFailure != null) {
+					throw rethrownCause(firstFailure);
+				}
+			}
+		}
+
+		private static boolean overlapsAny(Path scope, List<Path> others) {
+			for (Path other : others) {
+				if (other.isPrefixOf(scope) || scope.isPrefixOf(other)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		/**
+		 * Hands the whole queue to the {@link #hookWorker} in a single task, rather than one hook at a time,
+		 * and waits for it to finish. The hooks themselves behave just as they do in
+		 * {@link #runQueuedHooksOnNewThreads}, including in the face of interrupts.
+		 * Must hold {@link #hookExecutionPermit}.
+		 *
+		 * @return true if the queue was drained; false if we were interrupted,
+		 * in which case the remaining hooks stay queued
+		 */
+		private boolean runQueuedHooksOnWorker(ThreadPoolExecutor worker) {
+			AtomicBoolean cancelled = new AtomicBoolean(false);
+			Future<Boolean> drain = worker.submit(() -> {
+				while (true) {
+					// The hook might swallow the interrupt, so we also check the flag
+					if (cancelled.get() || Thread.currentThread().isInterrupted()) {
+						HOOK_LOGGER.debug("Cancelled; deferring the remaining queued hooks");
+						return false;
+					}
+					HookCall call = dequeue();
+					if (call == null) {
+						return true;
+					}
+					try {
+						call.action().run();
+					} finally {
+						// The hook's own state is scoped to the hook, but it could
+						// have left a read session or context scope open on this thread
+						rootSnapshot.remove();
+						context.discardThreadContext();
+					}
+				}
+			});
+			try {
+				return drain.get();
+			} catch (ExecutionException e) {
+				throw rethrownCause(e);
+			} catch (InterruptedException e) {
+				// Same approach as runQueuedHooksOnNewThreads: deliver the interrupt
+				// to the running hook and await its termination.
+				cancelled.set(true);
+				drain.cancel(true);
+				awaitIdle(worker);
+				Thread.currentThread().interrupt();
+				HOOK_LOGGER.warn("Interrupted while running hooks; the running hook was interrupted and terminated, and the remaining queued hooks are deferred to the next update", e);
+				return false;
+			}
+		}
+
+		private static RuntimeException rethrownCause(ExecutionException e) {
+			try {
+				throw e.getCause();
+			} catch (RuntimeException | Error cause) {
+				throw cause;
+			} catch (Throwable t) {
+				throw new AssertionError("Hook runnable should catch and wrap checked exceptions", t);
+			}
+		}
+
 		/**
 		 * Wait for the given hook thread to terminate. If this (the draining) thread is
 		 * interrupted while waiting, keep waiting: the interrupt has already been delivered
@@ -586,21 +1428,66 @@ abstract sealed class BoskBase<R extends StateTreeNode> permits Bosk {
 			}
 		}
 
+		/**
+		 * Like {@link #awaitTermination}, for the {@link #hookWorker}.
+		 * A cancelled task keeps running until it notices the interrupt,
+		 * so we wait for a subsequent no-op task to complete.
+		 */
+		private void awaitIdle(ThreadPoolExecutor worker) {
+			Future<?> barrier = worker.submit(() -> { });
+			while (true) {
+				try {
+					barrier.get();
+					return;
+				} catch (InterruptedException e) {
+					// Keep waiting; the interrupt has been delivered to the hook already.
+				} catch (ExecutionException e) {
+					throw new AssertionError("No-op task should not throw", e);
+				}
+			}
+		}
+
 		@Override
 		public String toString() {
 			return "LocalDriver for " + BoskBase.this;
 		}
 	}
 
+	final <V extends CatalogView<?, ?>> V localAddCatalogView(V view) {
+		localDriver.addCatalogView(view);
+		return view;
+	}
+
+	final HookQueueStatus localHookQueueStatus() {
+		return localDriver.hookQueueStatus();
+	}
+
 	/**
-	 * The unadorned version of {@code hookRegistrar().}{@link HookRegistrar#registerHook(String, Reference, BoskHook) registerHook}
-	 * that simply registers the hook as given.
+	 * The unadorned {@link HookRegistrar} that simply registers hooks as given.
 	 */
-	final <T> void localRegisterHook(String name, @NonNull Reference<T> scope, @NonNull BoskHook<T> action) {
+	private final class LocalRegistrar implements HookRegistrar {
+		@Override
+		public <T> void registerHook(String name, @NonNull Reference<T> scope, @NonNull BoskHook<T> hook) {
+			localRegisterHook(name, scope, hook, Coalescing.NONE);
+		}
+
+		@Override
+		public <T> void registerHook(String name, @NonNull Reference<T> scope, @NonNull BoskHook<T> hook, @NonNull Coalescing coalescing) {
+			localRegisterHook(name, scope, hook, coalescing);
+		}
+
+		@Override
+		public String toString() {
+			return "LocalRegistrar for " + BoskBase.this;
+		}
+	}
+
+	private <T> void localRegisterHook(String name, Reference<T> scope, BoskHook<T> action, HookRegistrar.Coalescing coalescing) {
 		// The cast is safe because BoskBase permits only Bosk as a subclass, and hook
 		// registration happens after construction.
-		Bosk<R>.HookRegistration<T> reg = ((Bosk<R>) BoskBase.this).new HookRegistration<>(name, requireNonNull(scope), requireNonNull(action));
+		Bosk<R>.HookRegistration<T> reg = ((Bosk<R>) BoskBase.this).new HookRegistration<>(name, requireNonNull(scope), requireNonNull(action), requireNonNull(coalescing));
 		hooks.add(reg);
+		hookIndex.add(scope.path(), reg);
 		localDriver.triggerEverywhere(reg);
 	}
 
@@ -615,10 +1502,11 @@ abstract sealed class BoskBase<R extends StateTreeNode> permits Bosk {
 	 *                       hooks on the {@link BoskDriver#initialState initial state}.
 	 * @param newRoot        The root after the change that triggered the hook. This will be the root in the {@link Bosk.ReadSession}
 	 *                       during hook execution.
-	 * @param action         The operation to perform for each matching object that is different between the two roots
+	 * @param action         The operation to perform for each matching object that is different between the two roots,
+	 *                       given its prior and new values
 	 * @param <S>            The type of the hook scope object
 	 */
-	final <S> void triggerCascade(Reference<S> effectiveScope, @Nullable R priorRoot, R newRoot, Consumer<Reference<S>> action) {
+	final <S> void triggerCascade(Reference<S> effectiveScope, @Nullable R priorRoot, R newRoot, ChangeAction<S> action) {
 		if (effectiveScope.path().numParameters() == 0) {
 			// effectiveScope points at a single node that may have changed
 			//
@@ -628,7 +1516,7 @@ abstract sealed class BoskBase<R extends StateTreeNode> permits Bosk {
 				LOGGER.debug("Hook: skip unchanged {}", effectiveScope);
 			} else {
 				// We've found something that changed
-				action.accept(effectiveScope);
+				action.accept(effectiveScope, priorValue, currentValue);
 			}
 		} else {
 			// There's at least one parameter that hasn't been bound yet. This means
@@ -640,47 +1528,33 @@ abstract sealed class BoskBase<R extends StateTreeNode> permits Bosk {
 			EnumerableByIdentifier<?> priorContainer = refValueIfExists(containerRef, priorRoot);
 			EnumerableByIdentifier<?> newContainer = refValueIfExists(containerRef, newRoot);
 
-			// TODO: If priorContainer == newContainer, can we stop immediately?
-
 			// Process any deleted items first. This can allow the hook to free some memory
 			// that can be used by subsequent hooks.
-			// We do them in reverse order just because that's likely to be the preferred
+			// Deleted items are reported in reverse order just because that's likely to be the preferred
 			// order for cleanup activities.
 			//
 			// TODO: Should we actually process the hooks themselves in reverse order for the same reason?
 			//
-			if (priorContainer != null) {
-				List<Identifier> priorIDs = priorContainer.ids();
-				for (Identifier id : priorIDs.reversed()) {
-					if (newContainer == null || newContainer.get(id) == null) {
-						triggerCascade(effectiveScope.boundTo(id), priorRoot, newRoot, action);
-					}
-				}
-			}
-
-			// Then process updated items
-			//
-			if (newContainer != null) {
-				for (Identifier id : newContainer.ids()) {
-					if (priorContainer == null || priorContainer.get(id) != newContainer.get(id)) {
-						triggerCascade(effectiveScope.boundTo(id), priorRoot, newRoot, action);
-					}
-				}
-			}
+			ContainerDiff.forEachDifference(priorContainer, newContainer,
+				id -> triggerCascade(effectiveScope.boundTo(id), priorRoot, newRoot, action),
+				id -> triggerCascade(effectiveScope.boundTo(id), priorRoot, newRoot, action));
 		}
 	}
 
+	/**
+	 * Receives each changed object found by {@link #triggerCascade}.
+	 */
+	@FunctionalInterface
+	interface ChangeAction<S> {
+		void accept(Reference<S> changedRef, @Nullable S priorValue, @Nullable S newValue);
+	}
+
 	@Nullable
 	final <V> V refValueIfExists(Reference<V> containerRef, @Nullable R root) {
 		if (root == null) {
 			return null;
 		} else {
-			// TODO: This would be less cumbersome if we could apply a Reference to an arbitrary root object.
-			// For now, References only apply to the current ReadSession, so we need a new ReadSession every time
-			// we want to change roots.
-			try (var _ = newReadSession(root)) {
-				return containerRef.valueIfExists();
-			}
+			return containerRef.valueIfExistsIn(root);
 		}
 	}
 
@@ -807,6 +1681,21 @@ abstract sealed class BoskBase<R extends StateTreeNode> permits Bosk {
 		protected final Path path;
 		protected final Type targetType;
 
+		/**
+		 * For {@link #boundTo}. Created on first use, since most references never need one.
+		 */
+		private volatile @Nullable ReferenceCache<Identifier, T> boundReferences;
+
+		/**
+		 * For {@link #boundBy}, keyed by the resulting path. Created on first use, since most references never need one.
+		 */
+		private volatile @Nullable ReferenceCache<Path, T> partiallyBoundReferences;
+
+		/**
+		 * For {@link #entryReference}. Created on first use, since most references never need one.
+		 */
+		private volatile @Nullable ReferenceCache<Identifier, ?> entryReferences;
+
 		public ReferenceImpl(Path path, Type targetType) {
 			this.path = path;
 			this.targetType = targetType;
@@ -828,9 +1717,63 @@ abstract sealed class BoskBase<R extends StateTreeNode> permits Bosk {
 			return (Class<T>) rawClass(targetType());
 		}
 
+		/**
+		 * Hook dispatch binds each registration's scope anew for every update,
+		 * leaving some parameters for {@link #boundTo} to bind during the cascade.
+		 * We return the same reference each time, for as long as it's in use,
+		 * so the cascade can reuse its {@link #boundReferences}.
+		 */
 		@Override
 		public final Reference<T> boundBy(BindingEnvironment bindings) {
-			return newReference(path.boundBy(bindings), targetType);
+			Path boundPath = path.boundBy(bindings);
+			if (boundPath.equals(path)) {
+				return this;
+			} else if (boundPath.numParameters() == 0) {
+				return newReference(boundPath, targetType);
+			}
+			ReferenceCache<Path, T> cache = partiallyBoundReferences;
+			if (cache == null) {
+				partiallyBoundReferences = cache = new ReferenceCache<>();
+			}
+			return cache.get(boundPath, p -> newReference(p, targetType));
+		}
+
+		/**
+		 * Binding a single parameter is what hook cascades and {@link #forEachValue} do for every entry
+		 * of a container, so we cache those.
+		 */
+		@Override
+		public final Reference<T> boundTo(Identifier... ids) {
+			if (ids.length != 1 || path.numParameters() == 0) {
+				return Reference.super.boundTo(ids);
+			}
+			ReferenceCache<Identifier, T> cache = boundReferences;
+			if (cache == null) {
+				// Benign race: if two threads create caches, one will be discarded
+				boundReferences = cache = new ReferenceCache<>();
+			}
+			return cache.get(ids[0], id -> newReference(path.boundBy(path.parametersFrom(List.of(id))), targetType));
+		}
+
+		/**
+		 * Implements {@link CatalogReference#then(Identifier)}, caching the results
+		 * for the benefit of {@link Listing}, which calls it for every entry it iterates.
+		 *
+		 * @param entryClass must be the entry class of the catalog this references
+		 */
+		@SuppressWarnings("unchecked")
+		final <E extends Entity> Reference<E> entryReference(Class<E> entryClass, Identifier id) {
+			ReferenceCache<Identifier, E> cache = (ReferenceCache<Identifier, E>) entryReferences;
+			if (cache == null) {
+				entryReferences = cache = new ReferenceCache<>();
+			}
+			return cache.get(id, _ -> {
+				try {
+					return then(entryClass, id.toString());
+				} catch (InvalidTypeException e) {
+					throw new AssertionError("Entry class must match", e);
+				}
+			});
 		}
 
 		@Override
@@ -940,18 +1883,26 @@ abstract sealed class BoskBase<R extends StateTreeNode> permits Bosk {
 		}
 
 		@Override
-		@SuppressWarnings("unchecked")
 		public T valueIfExists() {
-			var snapshot = rootSnapshot.get();
+			var snapshot = activeSnapshot();
 			if (snapshot == null) {
 				throw new NoReadSessionException("No active read session for " + name + " in " + Thread.currentThread());
 			}
-			LOGGER.trace("Snapshot is {}", System.identityHashCode(snapshot));
-			try {
-				return (T) dereferencer().get(snapshot, this);
-			} catch (Bosk.NonexistentEntryException e) {
-				return null;
+			LOGGER.trace("Snapshot is {}", System.identityHashCode(snapshot.root()));
+			return valueIfExistsInRoot(snapshot.root());
+		}
+
+		@Override
+		public T valueIfExistsIn(StateTreeNode root) {
+			if (!rootRef.targetClass().isInstance(root)) {
+				throw new IllegalArgumentException("Root must be a " + rootRef.targetClass().getSimpleName() + ": " + root.getClass());
 			}
+			return valueIfExistsInRoot(root);
+		}
+
+		@SuppressWarnings("unchecked")
+		private T valueIfExistsInRoot(Object root) {
+			return (T) dereferencer().getIfExists(root, this);
 		}
 
 		@Override
@@ -991,6 +1942,11 @@ abstract sealed class BoskBase<R extends StateTreeNode> permits Bosk {
 			throw new ReferenceBindingException("Reference has unbound parameters: " + this);
 		}
 
+		@Override
+		public T valueIfExistsIn(StateTreeNode root) {
+			throw new ReferenceBindingException("Reference has unbound parameters: " + this);
+		}
+
 		@Override
 		public void forEachValue(BiConsumer<T, BindingEnvironment> action, BindingEnvironment existingEnvironment) {
 			int firstParameterIndex = path.firstParameterIndex();
@@ -1024,7 +1980,30 @@ abstract sealed class BoskBase<R extends StateTreeNode> permits Bosk {
 
 	@Nullable
 	final R currentRoot() {
-		return currentState;
+		return rootOf(currentState);
+	}
+
+	private static <RR> @Nullable RR rootOf(@Nullable Snapshot<RR> snapshot) {
+		return (snapshot == null) ? null : snapshot.root();
+	}
+
+	/**
+	 * @return the revision number for the state published after <code>prior</code>
+	 */
+	/**
+	 * @return the snapshot of the read session active on the current thread, or null if there is none
+	 */
+	final @Nullable Snapshot<R> activeSnapshot() {
+		Snapshot<R> result = rootSnapshot.get();
+		if (result == null && hookSnapshot.isBound()) {
+			return hookSnapshot.get();
+		} else {
+			return result;
+		}
+	}
+
+	private static long revisionAfter(@Nullable Snapshot<?> prior) {
+		return (prior == null) ? Bosk.INITIAL_REVISION : prior.revision() + 1;
 	}
 
 	@SuppressWarnings({"unchecked", "rawtypes"})
@@ -1037,22 +2016,25 @@ abstract sealed class BoskBase<R extends StateTreeNode> permits Bosk {
 	 * still being constructed. The cast is safe because {@link BoskBase} permits
 	 * only {@link Bosk} as a subclass.
 	 */
-	final Bosk<R>.ReadSession newReadSession(R state) {
+	final Bosk<R>.ReadSession newReadSession(Snapshot<R> state) {
 		return ((Bosk<R>) this).new ReadSession(state);
 	}
 
 	/**
-	 * A {@link Bosk.ReadSession} for the very latest state, used by the local driver
-	 * to check preconditions. Equivalent to {@code newReadSession(currentState)}.
+	 * A {@link Bosk.ReadSession} for the very latest state.
+	 * Equivalent to {@code newReadSession(currentState)}.
 	 */
 	final Bosk<R>.ReadSession newSupersedingReadSession() {
-		R snapshot = currentState;
+		Snapshot<R> snapshot = currentState;
 		if (snapshot == null) {
 			throw new IllegalStateException("Bosk constructor has not yet finished; cannot create a ReadSession");
 		}
 		return newReadSession(snapshot);
 	}
 
+	private static final Duration IDLE_THREAD_KEEP_ALIVE = Duration.ofSeconds(10);
+	private static final Duration HOOK_QUEUE_RECHECK_INTERVAL = Duration.ofMillis(100);
+
 	private static final Logger LOGGER = LoggerFactory.getLogger(Bosk.class);
 	// Referencing Bosk.HOOK_LOGGER_NAME here would trigger Bosk's static initialization
 	// while BoskBase is still initializing, so derive the name from the class literal instead.
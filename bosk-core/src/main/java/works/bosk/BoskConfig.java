@@ -1,11 +1,31 @@
 package works.bosk;
 
+import works.bosk.exceptions.HookQueueFullException;
+
 import static java.util.Objects.requireNonNull;
 
 public record BoskConfig<R extends StateTreeNode> (
 	DriverFactory<R> driverFactory,
-	RegistrarFactory registrarFactory
+	RegistrarFactory registrarFactory,
+	UpdateConcurrency updateConcurrency,
+	HookIsolation hookIsolation,
+	HookDelivery hookDelivery,
+	HookConcurrency hookConcurrency,
+	int hookQueueCapacity,
+	HookQueueOverflow hookQueueOverflow,
+	int historyCapacity
 ) {
+	public BoskConfig {
+		if (hookConcurrency == HookConcurrency.DISJOINT_SCOPES && hookIsolation == HookIsolation.SHARED_WORKER) {
+			throw new IllegalArgumentException("Concurrent hooks require a thread per hook; " + HookConcurrency.DISJOINT_SCOPES + " is incompatible with " + HookIsolation.SHARED_WORKER);
+		}
+		if (hookQueueCapacity < 1) {
+			throw new IllegalArgumentException("Hook queue capacity must be positive: " + hookQueueCapacity);
+		}
+		if (historyCapacity < 0) {
+			throw new IllegalArgumentException("History capacity must not be negative: " + historyCapacity);
+		}
+	}
 
 	/**
 	 * Calls {@code BoskConfig.builder().build()} and returns the result.
@@ -35,13 +55,163 @@ public record BoskConfig<R extends StateTreeNode> (
 		return SIMPLE_REGISTRAR_FACTORY;
 	}
 
+	/**
+	 * Determines how the bosk's local driver, which applies updates to the in-memory state,
+	 * handles updates submitted concurrently from multiple threads.
+	 * Either way, updates are applied in the order they were submitted,
+	 * and hooks are run just as they would be if the updates were applied one at a time.
+	 */
+	public enum UpdateConcurrency {
+		/**
+		 * Each update acquires a lock, applies its change, and publishes a new root.
+		 * Simple and efficient when contention is low.
+		 */
+		LOCKING,
+
+		/**
+		 * Submitting threads enqueue their updates, and whichever thread acquires the lock
+		 * applies all the pending updates and publishes a single new root on behalf of the others,
+		 * while they wait for their own update to be applied.
+		 * Reduces lock handoffs when many threads submit updates at once,
+		 * at the cost of some extra overhead for each update.
+		 */
+		COMBINING,
+	}
+
+	/**
+	 * Determines which thread runs each hook.
+	 * Either way, hooks run sequentially, and the thread that drains the hook queue
+	 * waits for them, so the ordering guarantees of {@link HookRegistrar} are unaffected;
+	 * and {@link ThreadLocal ThreadLocals} of the thread that submitted an update
+	 * are never visible to the hooks it triggers.
+	 */
+	public enum HookIsolation {
+		/**
+		 * Each hook runs on a brand new virtual thread, so hooks can't observe each other's
+		 * {@link ThreadLocal ThreadLocals} either.
+		 */
+		THREAD_PER_HOOK,
+
+		/**
+		 * Hooks run on a long-lived worker thread owned by the bosk,
+		 * avoiding the cost of starting a thread for every hook.
+		 *
+		 * <p>
+		 * <strong>This is weaker isolation than {@link #THREAD_PER_HOOK}.</strong>
+		 * The bosk's own per-hook state (the read session and {@link BoskContext})
+		 * is held in {@link ScopedValue ScopedValues} that end with each hook,
+		 * but any {@link ThreadLocal} that a hook, or a library it calls, sets and doesn't remove
+		 * will be visible to subsequent hooks, including those of unrelated registrations.
+		 * Use this only if your hooks don't rely on thread-local state,
+		 * or clean it up before returning.
+		 */
+		SHARED_WORKER,
+	}
+
+	/**
+	 * Determines which thread drains the hook queue after an update.
+	 * Either way, hooks run sequentially in breadth-first order,
+	 * as described by {@link HookRegistrar#registerHook}.
+	 */
+	public enum HookDelivery {
+		/**
+		 * The thread that submitted the update runs the queued hooks before its submit call returns,
+		 * unless another thread is already running them.
+		 */
+		SYNCHRONOUS,
+
+		/**
+		 * A background thread owned by the bosk runs the queued hooks,
+		 * so submit calls return without waiting for hooks, regardless of how long the hooks take.
+		 * Registering a hook still runs it on the current state before returning.
+		 */
+		ASYNCHRONOUS,
+	}
+
+	/**
+	 * Determines whether hooks may run concurrently with each other.
+	 */
+	public enum HookConcurrency {
+		/**
+		 * Each hook finishes before the next one starts,
+		 * as described by {@link HookRegistrar#registerHook}.
+		 */
+		SEQUENTIAL,
+
+		/**
+		 * Queued hook calls run concurrently, each on its own virtual thread,
+		 * as long as none of their bound scope references is a prefix of another's.
+		 * Calls are taken from the queue in order, and a call whose scope overlaps
+		 * one that is already running waits for it, along with every call queued after it.
+		 * Hence, calls on overlapping scopes still run in order and with <em>happens-before</em>,
+		 * and breadth-first order still holds; but calls on disjoint scopes have no ordering guarantee.
+		 *
+		 * <p>
+		 * Only suitable if hooks that receive disjoint scopes really are independent of each other.
+		 * Incompatible with {@link HookIsolation#SHARED_WORKER}.
+		 */
+		DISJOINT_SCOPES,
+	}
+
+	/**
+	 * Determines what happens when {@link #hookQueueCapacity} or more hook calls are waiting to run.
+	 * Each queued call holds on to the bosk state as of the update that triggered it,
+	 * so if hooks fall behind a fast writer, an unbounded queue can retain any number of old states.
+	 * {@link Bosk#hookQueueStatus()} reports how close the queue is to its capacity.
+	 *
+	 * <p>
+	 * The capacity is checked before each update is applied,
+	 * and one update can queue any number of hook calls,
+	 * so the queue can exceed its capacity somewhat.
+	 */
+	public enum HookQueueOverflow {
+		/**
+		 * The submitting thread waits until the queue has room before applying its update.
+		 * Updates submitted by hooks don't wait, since the queue can't drain until those hooks return.
+		 * A submitter that is interrupted while waiting stops waiting and applies its update anyway,
+		 * leaving its interrupted status set.
+		 */
+		BLOCK,
+
+		/**
+		 * Updates are applied without waiting, but while the queue is full,
+		 * a new call to a hook on a reference that already has a call waiting
+		 * doesn't join the queue; instead, the waiting call is changed to see the new state.
+		 * This bounds the queue by the number of distinct hooks and references,
+		 * at the cost that the hook may not see every intermediate state,
+		 * and may see the new state before calls to other hooks that were queued ahead of it
+		 * by intervening updates.
+		 */
+		CONFLATE,
+
+		/**
+		 * The update is rejected with a {@link HookQueueFullException}.
+		 * Updates submitted by hooks are never rejected, since that would break hook cascades partway through.
+		 */
+		FAIL,
+	}
+
 	public static class Builder<R extends StateTreeNode> {
 		private DriverFactory<R> driverFactory;
 		private RegistrarFactory registrarFactory;
+		private UpdateConcurrency updateConcurrency;
+		private HookIsolation hookIsolation;
+		private HookDelivery hookDelivery;
+		private HookConcurrency hookConcurrency;
+		private int hookQueueCapacity;
+		private HookQueueOverflow hookQueueOverflow;
+		private int historyCapacity;
 
 		Builder() {
 			driverFactory = simpleDriver();
 			registrarFactory = simpleRegistrar();
+			updateConcurrency = UpdateConcurrency.LOCKING;
+			hookIsolation = HookIsolation.THREAD_PER_HOOK;
+			hookDelivery = HookDelivery.SYNCHRONOUS;
+			hookConcurrency = HookConcurrency.SEQUENTIAL;
+			hookQueueCapacity = Integer.MAX_VALUE;
+			hookQueueOverflow = HookQueueOverflow.BLOCK;
+			historyCapacity = 0;
 		}
 
 		public Builder<R> driverFactory(DriverFactory<R> driverFactory) {
@@ -54,16 +224,64 @@ public record BoskConfig<R extends StateTreeNode> (
 			return this;
 		}
 
+		public Builder<R> updateConcurrency(UpdateConcurrency updateConcurrency) {
+			this.updateConcurrency = requireNonNull(updateConcurrency);
+			return this;
+		}
+
+		public Builder<R> hookIsolation(HookIsolation hookIsolation) {
+			this.hookIsolation = requireNonNull(hookIsolation);
+			return this;
+		}
+
+		public Builder<R> hookDelivery(HookDelivery hookDelivery) {
+			this.hookDelivery = requireNonNull(hookDelivery);
+			return this;
+		}
+
+		public Builder<R> hookConcurrency(HookConcurrency hookConcurrency) {
+			this.hookConcurrency = requireNonNull(hookConcurrency);
+			return this;
+		}
+
+		/**
+		 * By default, the hook queue is unbounded.
+		 */
+		public Builder<R> hookQueueCapacity(int hookQueueCapacity, HookQueueOverflow hookQueueOverflow) {
+			this.hookQueueCapacity = hookQueueCapacity;
+			this.hookQueueOverflow = requireNonNull(hookQueueOverflow);
+			return this;
+		}
+
+		/**
+		 * The number of recently published states to retain for
+		 * {@link Bosk#readSessionAt} and {@link Bosk#readSessionAsOf}, including the current state.
+		 * Each retained state holds on to the nodes that have since been replaced,
+		 * so the memory cost depends on the size of the updates more than on the size of the state tree.
+		 * By default, no history is retained.
+		 */
+		public Builder<R> historyCapacity(int historyCapacity) {
+			this.historyCapacity = historyCapacity;
+			return this;
+		}
+
 		public BoskConfig<R> build() {
 			return new BoskConfig<>(
 				this.driverFactory,
-				this.registrarFactory
+				this.registrarFactory,
+				this.updateConcurrency,
+				this.hookIsolation,
+				this.hookDelivery,
+				this.hookConcurrency,
+				this.hookQueueCapacity,
+				this.hookQueueOverflow,
+				this.historyCapacity
 			);
 		}
 
 		@Override
 		public String toString() {
-			return "BoskConfig.Builder(driverFactory=" + this.driverFactory + ", registrarFactory=" + this.registrarFactory + ")";
+			return "BoskConfig.Builder(driverFactory=" + this.driverFactory + ", registrarFactory=" + this.registrarFactory + ", updateConcurrency=" + this.updateConcurrency + ", hookIsolation=" + this.hookIsolation + ", hookDelivery=" + this.hookDelivery + ", hookConcurrency=" + this.hookConcurrency + ", hookQueueCapacity=" + this.hookQueueCapacity + ", hookQueueOverflow=" + this.hookQueueOverflow + ", historyCapacity=" + this.historyCapacity + ")";
 		}
 	}
 
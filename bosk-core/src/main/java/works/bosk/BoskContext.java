@@ -12,16 +12,29 @@ import static java.util.function.Predicate.not;
  * Thread-local data that propagates all the way from
  * submission of a driver update, through all the driver layers,
  * to the execution of hooks.
+ * A hook sees the context of the update that triggered it
+ * by way of a {@link ScopedValue} that lasts only as long as the hook.
  *
  * <p>
  * One single {@code BoskContext} instance is associated with each {@link Bosk}.
  * You can hold on to this object; there's no need to re-fetch it from the {@link Bosk} every time.
  */
 public final class BoskContext {
-	private final ThreadLocal<Context> currentContext;
+	private final Supplier<Context> initialContextSupplier;
+
+	/**
+	 * Set by {@link ContextScope}s; null if there are none open on this thread.
+	 */
+	private final ThreadLocal<Context> currentContext = new ThreadLocal<>();
+
+	/**
+	 * The context of the hook running on the current thread, if any,
+	 * which applies unless the hook opens a {@link ContextScope} of its own.
+	 */
+	final ScopedValue<Context> hookContext = ScopedValue.newInstance();
 
 	BoskContext(Supplier<Context> initialContextSupplier) {
-		currentContext = ThreadLocal.withInitial(initialContextSupplier);
+		this.initialContextSupplier = initialContextSupplier;
 	}
 
 	ContextScope newContextScope(Context newContext) {
@@ -73,7 +86,21 @@ public final class BoskContext {
 	}
 
 	public Context get() {
-		return currentContext.get();
+		Context result = currentContext.get();
+		if (result != null) {
+			return result;
+		} else if (hookContext.isBound()) {
+			return hookContext.get();
+		} else {
+			return initialContextSupplier.get();
+		}
+	}
+
+	/**
+	 * Abandons any {@link ContextScope}s left open on the current thread.
+	 */
+	void discardThreadContext() {
+		currentContext.remove();
 	}
 
 	/**
@@ -81,11 +108,11 @@ public final class BoskContext {
 	 * or <code>null</code> if no such attribute has been defined.
 	 */
 	public @Nullable String getAttribute(String name) {
-		return currentContext.get().diagnosticAttributes().get(name);
+		return get().diagnosticAttributes().get(name);
 	}
 
 	public @NonNull MapValue<String> getAttributes() {
-		return currentContext.get().diagnosticAttributes();
+		return get().diagnosticAttributes();
 	}
 
 	/**
@@ -93,7 +120,7 @@ public final class BoskContext {
 	 * If the attribute already exists, it will be replaced.
 	 */
 	public ContextScope withAttribute(String name, String value) {
-		return newContextScope(currentContext.get().withAttribute(name, value));
+		return newContextScope(get().withAttribute(name, value));
 	}
 
 	/**
@@ -101,7 +128,7 @@ public final class BoskContext {
 	 * If an attribute already exists, it will be replaced.
 	 */
 	public ContextScope withAttributes(@NonNull MapValue<String> additionalAttributes) {
-		return newContextScope(currentContext.get().withAttributes(additionalAttributes));
+		return newContextScope(get().withAttributes(additionalAttributes));
 	}
 
 	/**
@@ -115,9 +142,9 @@ public final class BoskContext {
 	 */
 	public ContextScope withOnly(@Nullable MapValue<String> attributes) {
 		if (attributes == null) {
-			return newContextScope(currentContext.get());
+			return newContextScope(get());
 		} else {
-			return newContextScope(currentContext.get().withOnlyAttributes(attributes));
+			return newContextScope(get().withOnlyAttributes(attributes));
 		}
 	}
 
@@ -132,7 +159,7 @@ public final class BoskContext {
 		assert prefix.endsWith("."): "Prefix must end with a dot: " + prefix;
 		assert prefix.length() >= 2: "Prefix must be at least two characters long: " + prefix;
 		MapValue<String> prefixedAttributes = MapValue.fromFunctions(replacementAttributes.keySet(), k -> prefix+k, replacementAttributes::get);
-		Context current = currentContext.get();
+		Context current = get();
 		return newContextScope(new Context(current.diagnosticAttributes().withOnly(
 			not(k -> k.startsWith(prefix))
 		).withAll(prefixedAttributes)));
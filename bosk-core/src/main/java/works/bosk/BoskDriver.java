@@ -1,7 +1,10 @@
 package works.bosk;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import works.bosk.Bosk.ReadSession;
 import works.bosk.drivers.ForwardingDriver;
 import works.bosk.exceptions.FlushFailureException;
@@ -96,6 +99,40 @@ public interface BoskDriver {
 	 */
 	<T> void submitConditionalDeletion(Reference<T> target, Reference<Identifier> precondition, Identifier requiredValue);
 
+	/**
+	 * Requests that all the given <code>updates</code> be applied, in order, as a unit.
+	 * Each update behaves as it would if submitted individually; in particular,
+	 * an update whose target's enclosing object does not exist is silently ignored,
+	 * and that does not prevent the other updates from being applied.
+	 *
+	 * <p>
+	 * The bosk's own local driver applies the whole batch at once:
+	 * no {@link ReadSession} will observe some of the updates without the others,
+	 * and hooks are triggered once by the combined effect of the batch,
+	 * rather than once for each update.
+	 * Drivers that can't offer such guarantees should still apply the updates in order.
+	 *
+	 * <p>
+	 * Whether other replicas see the batch atomically depends on the replication driver.
+	 * The Mongo driver commits the batch in one transaction and marks it in the change stream,
+	 * so every replica applies it as a batch.
+	 * The SQL driver commits the batch in one transaction too,
+	 * but replicas, including the submitting one, receive the updates individually,
+	 * so a {@link ReadSession} may observe some of the updates without the others,
+	 * and hooks are triggered once for each update.
+	 *
+	 * <p>
+	 * The default implementation submits each update individually,
+	 * which preserves ordering but not atomicity.
+	 * Drivers that forward updates downstream should override this so that
+	 * the batch arrives downstream as a batch.
+	 *
+	 * @see BatchUpdate
+	 */
+	default void submitBatch(List<? extends BatchUpdate> updates) {
+		updates.forEach(u -> u.submitTo(this));
+	}
+
 	/**
 	 * Blocks until all prior updates have been applied to the Bosk.
 	 *
@@ -155,12 +192,121 @@ public interface BoskDriver {
 	 * surprises, but are not strictly required for conformance.)
 	 *
 	 * <p>
-	 * <strong>Evolution note</strong>: This method currently acts as a full barrier, while
-	 * ultimately we may want a more efficient release-acquire pair that allows writes
-	 * to be reliably visible to subsequent reads.
+	 * This method acts as a full barrier.
+	 * When a thread only needs to see the effects of particular writes,
+	 * the release-acquire pair of {@link #writeToken()} and {@link #awaitApplied}
+	 * can be considerably cheaper.
 	 *
 	 * @see FlushFailureException
 	 */
 	void flush() throws IOException, InterruptedException;
 
+	/**
+	 * Returns a {@link WriteToken} covering all updates submitted to this driver
+	 * that "happen before" this call, in the sense described for {@link #flush()}.
+	 * The token may cover other updates too, such as those submitted concurrently
+	 * or by other servers sharing the same backing database.
+	 *
+	 * <p>
+	 * This is the "release" half of a release-acquire pair.
+	 * The "acquire" half is {@link #awaitApplied}, which can be called later,
+	 * on any thread, to wait until the covered updates have been applied.
+	 * This method should not wait for any updates to be applied, and should avoid contacting
+	 * a backing database if the driver already knows enough to identify the updates.
+	 *
+	 * <p>
+	 * The default implementation returns {@link WriteToken#FLUSH}, which covers everything.
+	 * "Stackable layer" drivers that don't create their own tokens should generally
+	 * implement this by calling <code>writeToken</code> on their downstream driver,
+	 * after first sending it any updates they are holding.
+	 *
+	 * @throws FlushFailureException if unable to identify the updates
+	 */
+	default WriteToken writeToken() throws IOException, InterruptedException {
+		return WriteToken.FLUSH;
+	}
+
+	/**
+	 * Blocks until the updates covered by <code>token</code> have been applied to the Bosk,
+	 * so that a {@link ReadSession} acquired after this method returns will reflect them.
+	 * Updates not covered by the token may or may not be reflected.
+	 * As with {@link #flush()}, hooks triggered by the updates may or may not have run.
+	 *
+	 * <p>
+	 * Unlike {@link #flush()}, this need not wait for unrelated updates,
+	 * and if the covered updates have already been applied, it can return right away.
+	 * That makes it suitable for providing read-your-writes consistency to individual requests
+	 * without paying for a full barrier each time.
+	 *
+	 * <p>
+	 * A driver must treat any token it doesn't recognize, including {@link WriteToken#FLUSH},
+	 * as requiring a full {@link #flush()}.
+	 * The default implementation does exactly that, and so is always correct.
+	 * "Stackable layer" drivers should generally implement this by calling
+	 * <code>awaitApplied</code> on their downstream driver, just as they would call <code>flush</code>.
+	 *
+	 * @throws FlushFailureException under the same circumstances as {@link #flush()}
+	 */
+	default void awaitApplied(WriteToken token) throws IOException, InterruptedException {
+		flush();
+	}
+
+	/**
+	 * Like {@link #flush()}, but skips the flush if the bosk state is known to be
+	 * no more than <code>maxStaleness</code> behind the backing database.
+	 * Either way, when this method returns, a {@link ReadSession} will reflect
+	 * every update that had been applied to the backing database
+	 * at least <code>maxStaleness</code> before the call.
+	 *
+	 * <p>
+	 * This suits readers that can tolerate slightly old state,
+	 * but must not be served from a replica that has silently fallen far behind.
+	 * The skipped flush usually saves a round trip to the database.
+	 *
+	 * <p>
+	 * The default implementation always calls {@link #flush()}, which is always correct.
+	 * Drivers that receive changes from a database should override this to skip the flush
+	 * when they have recently confirmed they have received all the changes.
+	 * "Stackable layer" drivers should generally implement this by calling
+	 * <code>flushIfStale</code> on their downstream driver, just as they would call <code>flush</code>.
+	 *
+	 * @param maxStaleness if zero or negative, this is equivalent to {@link #flush()}
+	 * @throws FlushFailureException under the same circumstances as {@link #flush()}
+	 */
+	default void flushIfStale(Duration maxStaleness) throws IOException, InterruptedException {
+		flush();
+	}
+
+	/**
+	 * Like {@link #flush()}, but returns immediately instead of blocking the calling thread.
+	 * The returned future completes at the point where {@link #flush()} would have returned,
+	 * with the same guarantees, or completes exceptionally with whatever {@link #flush()} would have thrown.
+	 *
+	 * <p>
+	 * The future may be completed by one of the driver's internal threads,
+	 * such as the thread that receives changes from a database.
+	 * Actions that depend on it and may block or take a long time
+	 * should use the <code>Async</code> variants of the {@link CompletableFuture} methods
+	 * so they don't hold up the processing of subsequent changes.
+	 *
+	 * <p>
+	 * The default implementation simply calls {@link #flush()} and returns an already-completed future,
+	 * so it blocks just as {@link #flush()} does.
+	 * That is always correct, but drivers that wait for some event before returning from {@link #flush()}
+	 * should override this to complete the future when the event occurs, without occupying a thread while waiting.
+	 * "Stackable layer" drivers should generally implement this by calling
+	 * <code>flushAsync</code> on their downstream driver, just as they would call <code>flush</code>.
+	 */
+	default CompletableFuture<Void> flushAsync() {
+		try {
+			flush();
+			return CompletableFuture.completedFuture(null);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return CompletableFuture.failedFuture(e);
+		} catch (IOException | RuntimeException e) {
+			return CompletableFuture.failedFuture(e);
+		}
+	}
+
 }
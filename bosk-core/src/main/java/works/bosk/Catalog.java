@@ -8,12 +8,11 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Spliterator;
 import java.util.stream.Stream;
-import org.pcollections.OrderedPMap;
 
 import static java.util.Arrays.asList;
 import static java.util.Collections.unmodifiableCollection;
+import static java.util.Collections.unmodifiableList;
 import static java.util.Collections.unmodifiableMap;
-import static java.util.LinkedHashMap.newLinkedHashMap;
 import static java.util.Objects.requireNonNull;
 
 /**
@@ -33,9 +32,9 @@ import static java.util.Objects.requireNonNull;
  *
  */
 public final class Catalog<E extends Entity> implements Iterable<E>, EnumerableByIdentifier<E> {
-	private final OrderedPMap<Identifier, E> contents;
+	private final IdentifierMap<E> contents;
 
-	private Catalog(OrderedPMap<Identifier, E> contents) {
+	private Catalog(IdentifierMap<E> contents) {
 		this.contents = contents;
 	}
 
@@ -54,7 +53,7 @@ public final class Catalog<E extends Entity> implements Iterable<E>, EnumerableB
 
 	@Override
 	public List<Identifier> ids() {
-		return List.copyOf(contents.keySet());
+		return unmodifiableList(contents.ids());
 	}
 
 	/**
@@ -73,6 +72,14 @@ public final class Catalog<E extends Entity> implements Iterable<E>, EnumerableB
 		return unmodifiableMap(contents);
 	}
 
+	/**
+	 * The underlying map, with no defensive wrapper, for internal use.
+	 * Identity comparisons on it are meaningful; see {@link ContainerDiff}.
+	 */
+	IdentifierMap<E> contents() {
+		return contents;
+	}
+
 	@Override
 	public Iterator<E> iterator() {
 		return contents.values().iterator();
@@ -88,8 +95,6 @@ public final class Catalog<E extends Entity> implements Iterable<E>, EnumerableB
 
 	@Override
 	public Spliterator<E> spliterator() {
-		// Note that we could add DISTINCT, IMMUTABLE and NONNULL to the
-		// characteristics if it turns out to be worth the trouble.  Similar for idStream.
 		return contents.values().spliterator();
 	}
 
@@ -128,7 +133,7 @@ public final class Catalog<E extends Entity> implements Iterable<E>, EnumerableB
 	}
 
 	public static <TT extends Entity> Catalog<TT> empty() {
-		return new Catalog<>(OrderedPMap.empty());
+		return new Catalog<>(IdentifierMap.empty());
 	}
 
 	@SafeVarargs
@@ -142,24 +147,94 @@ public final class Catalog<E extends Entity> implements Iterable<E>, EnumerableB
 	}
 
 	public static <TT extends Entity> Catalog<TT> of(Collection<TT> entities) {
-		Map<Identifier, TT> newValues = newLinkedHashMap(entities.size());
+		Builder<TT> builder = builder();
 		for (TT entity : entities) {
-			TT old = newValues.put(requireNonNull(entity.id()), entity);
-			if (old != null) {
-				throw new IllegalArgumentException("Multiple entities with id " + old.id());
+			builder.addNew(entity);
+		}
+		return builder.build();
+	}
+
+	public static <TT extends Entity> Builder<TT> builder() {
+		return new Builder<>(IdentifierMap.<TT>empty().toTransient());
+	}
+
+	/**
+	 * @return a {@link Builder} initially containing the entities of this catalog.
+	 * Changes to the builder do not affect this catalog.
+	 */
+	public Builder<E> toBuilder() {
+		return new Builder<>(contents.toTransient());
+	}
+
+	/**
+	 * Accumulates entities into a {@link Catalog} by modifying data structures in place,
+	 * which is much faster than a sequence of calls to {@link Catalog#with}
+	 * when there are many entities.
+	 * {@link #build()} takes constant time, and the builder can continue to be used afterward
+	 * without affecting the catalogs it has already built.
+	 *
+	 * <p>
+	 * Not thread-safe.
+	 */
+	public static final class Builder<EE extends Entity> {
+		private final IdentifierMap.Transient<EE> contents;
+
+		private Builder(IdentifierMap.Transient<EE> contents) {
+			this.contents = contents;
+		}
+
+		/**
+		 * Like {@link Catalog#with}: adds <code>entity</code> at the end,
+		 * or replaces any existing entity with the same ID, keeping its position.
+		 */
+		public Builder<EE> add(EE entity) {
+			contents.put(entity.id(), entity);
+			return this;
+		}
+
+		/**
+		 * Like {@link #add}, but for use when the entity is expected to be new.
+		 *
+		 * @throws IllegalArgumentException if there's already an entity with the same ID
+		 */
+		public Builder<EE> addNew(EE entity) {
+			Identifier id = requireNonNull(entity.id());
+			if (contents.containsKey(id)) {
+				throw new IllegalArgumentException("Multiple entities with id " + id);
 			}
+			contents.put(id, entity);
+			return this;
+		}
+
+		public Builder<EE> remove(Identifier id) {
+			contents.remove(id);
+			return this;
+		}
+
+		public boolean containsID(Identifier id) {
+			return contents.containsKey(id);
+		}
+
+		public int size() {
+			return contents.size();
+		}
+
+		public Catalog<EE> build() {
+			return new Catalog<>(contents.freeze());
 		}
-		return new Catalog<>(OrderedPMap.from(newValues));
 	}
 
 	public Catalog<E> with(E entity) {
 		return new Catalog<>(contents.plus(entity.id(), entity));
 	}
 
+	/**
+	 * Equivalent to calling {@link #with} for each entity, but faster.
+	 */
 	public Catalog<E> withAll(Stream<E> entities) {
-		Map<Identifier, E> newValues = new LinkedHashMap<>();
-		entities.forEachOrdered(e -> newValues.put(e.id(), e));
-		return new Catalog<>(contents.plusAll(newValues));
+		Builder<E> builder = toBuilder();
+		entities.forEachOrdered(builder::add);
+		return builder.build();
 	}
 
 	public Catalog<E> without(E entity) {
@@ -170,6 +245,15 @@ public final class Catalog<E extends Entity> implements Iterable<E>, EnumerableB
 		return new Catalog<>(contents.minus(id));
 	}
 
+	/**
+	 * Equivalent to calling {@link #without(Identifier)} for each ID, but faster.
+	 */
+	public Catalog<E> withoutAll(Stream<Identifier> ids) {
+		Builder<E> builder = toBuilder();
+		ids.forEachOrdered(builder::remove);
+		return builder.build();
+	}
+
 	@Override
 	public String toString() {
 		return contents.toString();
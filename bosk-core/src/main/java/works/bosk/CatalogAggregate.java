@@ -0,0 +1,149 @@
+package works.bosk;
+
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+import org.pcollections.PSortedMap;
+import org.pcollections.TreePMap;
+import works.bosk.exceptions.NoReadSessionException;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A value computed over all the entries of a {@link Catalog} in the bosk state tree,
+ * such as a count or a sum, kept up to date as the bosk changes
+ * at a cost proportional to the number of catalog entries that change,
+ * rather than recomputed by scanning the catalog.
+ *
+ * <p>
+ * Created by {@link Bosk#countOf}, {@link Bosk#sumOf}, {@link Bosk#minOf}, or {@link Bosk#maxOf}.
+ * Like {@link CatalogIndex}, its {@link #value} must be read within a {@link Bosk.ReadSession ReadSession},
+ * and reflects the same state as any other values read in that session.
+ * The functions supplied to compute it must be pure functions of the entry.
+ *
+ * @param <E> the type of the catalog entries
+ * @param <T> the type of the aggregate value
+ */
+public final class CatalogAggregate<E extends Entity, T> extends CatalogView<E, Object> {
+	private final Aggregation<? super E, Object, ? extends T> aggregation;
+
+	/**
+	 * How to maintain an aggregate incrementally.
+	 * The state must be immutable.
+	 *
+	 * @param <E> the type of the catalog entries
+	 * @param <S> the type of the state
+	 * @param <T> the type of the aggregate value
+	 */
+	interface Aggregation<E, S, T> {
+		S empty();
+		S with(S state, E entry);
+		S without(S state, E entry);
+		T result(S state);
+	}
+
+	@SuppressWarnings("unchecked")
+	<S> CatalogAggregate(BoskBase<?> bosk, CatalogReference<E> catalog, Aggregation<? super E, S, ? extends T> aggregation) {
+		super(bosk, catalog);
+		this.aggregation = (Aggregation<? super E, Object, ? extends T>) requireNonNull(aggregation);
+	}
+
+	/**
+	 * @return the aggregate value for the catalog as it is in the calling thread's read session
+	 * @throws NoReadSessionException if there is no active read session
+	 */
+	public T value() {
+		return aggregation.result(stateForReadSession());
+	}
+
+	@Override
+	Object emptyState() {
+		return aggregation.empty();
+	}
+
+	@Override
+	Object without(Object state, Identifier id, E entry) {
+		return aggregation.without(state, entry);
+	}
+
+	@Override
+	Object with(Object state, Identifier id, E entry) {
+		return aggregation.with(state, entry);
+	}
+
+	/**
+	 * The number of entries satisfying <code>filter</code>.
+	 */
+	static <EE> Aggregation<EE, Long, Long> count(Predicate<? super EE> filter) {
+		requireNonNull(filter);
+		return sum(entry -> filter.test(entry) ? 1 : 0);
+	}
+
+	/**
+	 * The sum of <code>addend</code> over all entries.
+	 * Overflow wraps around as with ordinary <code>long</code> arithmetic;
+	 * since entries are subtracted as they are removed, the result is correct
+	 * whenever the true sum fits in a <code>long</code>.
+	 */
+	static <EE> Aggregation<EE, Long, Long> sum(ToLongFunction<? super EE> addend) {
+		requireNonNull(addend);
+		return new Aggregation<>() {
+			@Override public Long empty() { return 0L; }
+			@Override public Long with(Long state, EE entry) { return state + addend.applyAsLong(entry); }
+			@Override public Long without(Long state, EE entry) { return state - addend.applyAsLong(entry); }
+			@Override public Long result(Long state) { return state; }
+		};
+	}
+
+	/**
+	 * The least or greatest key over all entries whose key is not null.
+	 * The state counts the entries having each key, so that removing an entry
+	 * doesn't require rescanning the catalog to find the new extreme.
+	 */
+	static <EE, K> Aggregation<EE, PSortedMap<K, Integer>, Optional<K>> extreme(Function<? super EE, ? extends K> keyFunction, Comparator<? super K> comparator, boolean greatest) {
+		requireNonNull(keyFunction);
+		PSortedMap<K, Integer> empty = TreePMap.empty(comparator);
+		return new Aggregation<>() {
+			@Override
+			public PSortedMap<K, Integer> empty() {
+				return empty;
+			}
+
+			@Override
+			public PSortedMap<K, Integer> with(PSortedMap<K, Integer> state, EE entry) {
+				K key = keyFunction.apply(entry);
+				if (key == null) {
+					return state;
+				}
+				return state.plus(key, state.getOrDefault(key, 0) + 1);
+			}
+
+			@Override
+			public PSortedMap<K, Integer> without(PSortedMap<K, Integer> state, EE entry) {
+				K key = keyFunction.apply(entry);
+				if (key == null) {
+					return state;
+				}
+				Integer count = state.get(key);
+				if (count == null) {
+					throw new IllegalStateException("Key of entry has changed since it was aggregated: " + key);
+				} else if (count == 1) {
+					return state.minus(key);
+				} else {
+					return state.plus(key, count - 1);
+				}
+			}
+
+			@Override
+			public Optional<K> result(PSortedMap<K, Integer> state) {
+				if (state.isEmpty()) {
+					return Optional.empty();
+				} else {
+					return Optional.of(greatest ? state.lastKey() : state.firstKey());
+				}
+			}
+		};
+	}
+}
@@ -0,0 +1,145 @@
+package works.bosk;
+
+import java.util.Comparator;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.function.Function;
+import org.pcollections.HashTreePMap;
+import org.pcollections.PMap;
+import org.pcollections.PSortedMap;
+import org.pcollections.TreePMap;
+import works.bosk.exceptions.NoReadSessionException;
+
+import static java.util.Collections.unmodifiableSet;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A secondary index over the entries of a {@link Catalog} in the bosk state tree,
+ * mapping each key computed by a <em>key function</em> to the IDs of the entries having that key.
+ * Turns a scan of the whole catalog looking for entries with a particular field value
+ * into a lookup.
+ *
+ * <p>
+ * Created by {@link Bosk#hashIndex} or {@link Bosk#sortedIndex},
+ * and then kept up to date as the bosk changes,
+ * at a cost proportional to the number of catalog entries that change.
+ * Lookups must occur within a {@link Bosk.ReadSession ReadSession},
+ * and reflect the same state as any other values read in that session.
+ *
+ * <p>
+ * The key function must be a pure function of the entry:
+ * when an entry changes, it is called on both the old and new versions,
+ * and the old key must be the same as it was when the entry was indexed.
+ * Entries whose key is null are not indexed.
+ *
+ * @param <E> the type of the catalog entries
+ * @param <K> the type of the keys
+ */
+public sealed class CatalogIndex<E extends Entity, K> extends CatalogView<E, CatalogIndex.Entries<K, E>> permits CatalogIndex.Sorted {
+	private final Function<? super E, ? extends K> keyFunction;
+	private final Entries<K, E> emptyState;
+
+	/**
+	 * The IDs of the entries having each key.
+	 * Wraps the map so that pcollections doesn't appear in the signature of {@link CatalogIndex}.
+	 */
+	record Entries<K, E extends Entity>(PMap<K, Listing<E>> byKey) { }
+
+	CatalogIndex(BoskBase<?> bosk, CatalogReference<E> catalog, Function<? super E, ? extends K> keyFunction, PMap<K, Listing<E>> emptyMap) {
+		super(bosk, catalog);
+		this.keyFunction = requireNonNull(keyFunction);
+		this.emptyState = new Entries<>(emptyMap);
+	}
+
+	static <EE extends Entity, KK> CatalogIndex<EE, KK> hash(BoskBase<?> bosk, CatalogReference<EE> catalog, Function<? super EE, ? extends KK> keyFunction) {
+		return new CatalogIndex<>(bosk, catalog, keyFunction, HashTreePMap.empty());
+	}
+
+	/**
+	 * @return the IDs of the entries whose key equals <code>key</code>, in no particular order;
+	 * or an empty {@link Listing} if there are none
+	 * @throws NoReadSessionException if there is no active read session
+	 */
+	public Listing<E> get(K key) {
+		Listing<E> result = stateForReadSession().byKey().get(key);
+		return (result == null) ? Listing.empty(catalog()) : result;
+	}
+
+	/**
+	 * @return the distinct keys of the entries
+	 * @throws NoReadSessionException if there is no active read session
+	 */
+	public Set<K> keys() {
+		return unmodifiableSet(stateForReadSession().byKey().keySet());
+	}
+
+	@Override
+	final Entries<K, E> emptyState() {
+		return emptyState;
+	}
+
+	@Override
+	final Entries<K, E> without(Entries<K, E> state, Identifier id, E entry) {
+		K key = keyFunction.apply(entry);
+		if (key == null) {
+			return state;
+		}
+		Listing<E> ids = state.byKey().get(key);
+		if (ids == null || !ids.containsID(id)) {
+			throw new IllegalStateException("Key of entry " + id + " has changed since it was indexed: " + key);
+		}
+		Listing<E> remaining = ids.withoutID(id);
+		if (remaining.isEmpty()) {
+			return new Entries<>(state.byKey().minus(key));
+		} else {
+			return new Entries<>(state.byKey().plus(key, remaining));
+		}
+	}
+
+	@Override
+	final Entries<K, E> with(Entries<K, E> state, Identifier id, E entry) {
+		K key = keyFunction.apply(entry);
+		if (key == null) {
+			return state;
+		}
+		Listing<E> ids = state.byKey().get(key);
+		if (ids == null) {
+			ids = Listing.empty(catalog());
+		}
+		return new Entries<>(state.byKey().plus(key, ids.withID(id)));
+	}
+
+	/**
+	 * A {@link CatalogIndex} whose keys are ordered, so it can also look up ranges of keys.
+	 */
+	public static final class Sorted<E extends Entity, K> extends CatalogIndex<E, K> {
+		Sorted(BoskBase<?> bosk, CatalogReference<E> catalog, Function<? super E, ? extends K> keyFunction, Comparator<? super K> comparator) {
+			super(bosk, catalog, keyFunction, TreePMap.empty(comparator));
+		}
+
+		/**
+		 * @return the IDs of the entries whose keys are at least <code>fromInclusive</code>
+		 * and less than <code>toExclusive</code>, in key order
+		 * @throws NoReadSessionException if there is no active read session
+		 */
+		public Listing<E> range(K fromInclusive, K toExclusive) {
+			Listing.Builder<E> result = Listing.builder(catalog());
+			sortedState().subMap(fromInclusive, true, toExclusive, false).values()
+				.forEach(ids -> ids.ids().forEach(result::add));
+			return result.build();
+		}
+
+		/**
+		 * @return the distinct keys of the entries, in order
+		 * @throws NoReadSessionException if there is no active read session
+		 */
+		@Override
+		public NavigableSet<K> keys() {
+			return sortedState().navigableKeySet();
+		}
+
+		private PSortedMap<K, Listing<E>> sortedState() {
+			return (PSortedMap<K, Listing<E>>) stateForReadSession().byKey();
+		}
+	}
+}
@@ -0,0 +1,144 @@
+package works.bosk;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.jspecify.annotations.Nullable;
+import works.bosk.BoskBase.Snapshot;
+import works.bosk.exceptions.NoReadSessionException;
+
+/**
+ * Some state derived from the entries of a {@link Catalog}, such as an index,
+ * kept up to date incrementally as the bosk changes.
+ *
+ * <p>
+ * The state is immutable, and each version is tagged with the root it was derived from.
+ * The {@code LocalDriver} advances every view to each new root before publishing it,
+ * applying only the entries that differ between the old and new catalog according to {@link ContainerDiff}.
+ * Readers get the version matching their {@link Bosk.ReadSession ReadSession},
+ * so a view is always consistent with the other values read in the same session.
+ * A session on an older root gets a version derived on demand from the latest one,
+ * at a cost proportional to the number of entries that have changed since.
+ * The most recent such version is kept for subsequent reads.
+ *
+ * @param <E> the type of the catalog entries
+ * @param <S> the type of the derived state
+ */
+abstract class CatalogView<E extends Entity, S> {
+	private final BoskBase<?> bosk;
+	private final CatalogReference<E> catalog;
+
+	/**
+	 * Written only by the {@code LocalDriver}, while holding its monitor.
+	 */
+	private volatile @Nullable Version<E, S> latest;
+
+	/**
+	 * Derived on demand for a {@link Bosk.ReadSession ReadSession} on some other root.
+	 */
+	private volatile @Nullable Version<E, S> recent;
+
+	private record Version<E extends Entity, S>(StateTreeNode root, @Nullable Catalog<E> catalogValue, S state) { }
+
+	CatalogView(BoskBase<?> bosk, CatalogReference<E> catalog) {
+		if (catalog.path().numParameters() != 0) {
+			throw new IllegalArgumentException("Catalog reference must not have parameters: " + catalog);
+		}
+		this.bosk = bosk;
+		this.catalog = catalog;
+	}
+
+	public final CatalogReference<E> catalog() {
+		return catalog;
+	}
+
+	/**
+	 * @return the state for an empty catalog
+	 */
+	abstract S emptyState();
+
+	/**
+	 * @return <code>state</code> with the contribution of the given entry removed
+	 */
+	abstract S without(S state, Identifier id, E entry);
+
+	/**
+	 * @return <code>state</code> with the contribution of the given entry added
+	 */
+	abstract S with(S state, Identifier id, E entry);
+
+	/**
+	 * @return the state consistent with the calling thread's {@link Bosk.ReadSession ReadSession}
+	 * @throws NoReadSessionException if there is no active read session
+	 */
+	final S stateForReadSession() {
+		Snapshot<? extends StateTreeNode> session = bosk.activeSnapshot();
+		if (session == null) {
+			throw new NoReadSessionException("No active read session for " + bosk.name + " in " + Thread.currentThread());
+		}
+		StateTreeNode snapshot = session.root();
+		Version<E, S> version = requireNonNullVersion(latest);
+		if (version.root() == snapshot) {
+			return version.state();
+		}
+		Version<E, S> candidate = recent;
+		if (candidate != null && candidate.root() == snapshot) {
+			return candidate.state();
+		}
+		candidate = derived(version, snapshot);
+		recent = candidate;
+		return candidate.state();
+	}
+
+	/**
+	 * Called by the {@code LocalDriver} for each new root before it is published.
+	 * The first call computes the view from scratch.
+	 *
+	 * <p>
+	 * The prior version is kept as {@link #recent}, since read sessions that
+	 * began just before the update are the likeliest to need it.
+	 */
+	final void advanceTo(StateTreeNode newRoot) {
+		Version<E, S> prior = latest;
+		if (prior == null) {
+			latest = derived(new Version<>(newRoot, null, emptyState()), newRoot);
+		} else {
+			latest = derived(prior, newRoot);
+			recent = prior;
+		}
+	}
+
+	private Version<E, S> derived(Version<E, S> from, StateTreeNode root) {
+		Catalog<E> priorValue = from.catalogValue();
+		Catalog<E> newValue = catalog.valueIfExistsIn(root);
+		if (priorValue == newValue) {
+			return new Version<>(root, newValue, from.state());
+		}
+		List<Identifier> removed = new ArrayList<>();
+		List<Identifier> addedOrChanged = new ArrayList<>();
+		ContainerDiff.forEachDifference(priorValue, newValue, removed::add, addedOrChanged::add);
+		S state = from.state();
+		for (Identifier id : removed) {
+			state = without(state, id, priorValue.get(id));
+		}
+		for (Identifier id : addedOrChanged) {
+			E priorEntry = (priorValue == null) ? null : priorValue.get(id);
+			if (priorEntry != null) {
+				state = without(state, id, priorEntry);
+			}
+			state = with(state, id, newValue.get(id));
+		}
+		return new Version<>(root, newValue, state);
+	}
+
+	private static <E extends Entity, S> Version<E, S> requireNonNullVersion(@Nullable Version<E, S> version) {
+		if (version == null) {
+			throw new IllegalStateException("View has not been registered with the bosk");
+		}
+		return version;
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + "(" + catalog + ")";
+	}
+}
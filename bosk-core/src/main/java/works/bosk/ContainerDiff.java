@@ -0,0 +1,42 @@
+package works.bosk;
+
+import java.util.function.Consumer;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Computes which entries differ between two versions of an {@link EnumerableByIdentifier} container,
+ * without copying their contents.
+ * Entries are compared by object identity, since unchanged entries are shared
+ * between successive versions of the state tree.
+ * Likewise, {@link IdentifierMap#forEachDifference} skips whole portions of the containers
+ * whose internal structure is shared, so the cost is proportional to the size of the change.
+ */
+final class ContainerDiff {
+	private ContainerDiff() { }
+
+	/**
+	 * Calls <code>onRemoved</code> for the ID of every entry in <code>prior</code> that is absent from <code>current</code>,
+	 * in reverse order; then calls <code>onAddedOrChanged</code> for the ID of every entry in <code>current</code>
+	 * that is absent from <code>prior</code> or is a different object, in order.
+	 * A null container is treated as empty.
+	 *
+	 * <p>
+	 * Does nothing if <code>prior</code> and <code>current</code> have the same contents object.
+	 */
+	static void forEachDifference(
+		@Nullable EnumerableByIdentifier<?> prior,
+		@Nullable EnumerableByIdentifier<?> current,
+		Consumer<Identifier> onRemoved,
+		Consumer<Identifier> onAddedOrChanged
+	) {
+		IdentifierMap.forEachDifference(entriesOf(prior), entriesOf(current), onRemoved, onAddedOrChanged);
+	}
+
+	private static IdentifierMap<?> entriesOf(@Nullable EnumerableByIdentifier<?> container) {
+		return switch (container) {
+			case null -> IdentifierMap.empty();
+			case Catalog<?> catalog -> catalog.contents();
+			case SideTable<?, ?> sideTable -> sideTable.valuesById();
+		};
+	}
+}
@@ -0,0 +1,88 @@
+package works.bosk;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import org.jspecify.annotations.Nullable;
+import works.bosk.exceptions.NoReadSessionException;
+import works.bosk.exceptions.NonexistentReferenceException;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A value computed from the node at some {@link Reference}, and remembered
+ * for as long as that node is unchanged.
+ * Created by {@link Bosk#derive}.
+ *
+ * <p>
+ * Since the state tree is immutable, and updates replace only the nodes they change,
+ * the node at the reference is the same object until something in its subtree is updated.
+ * The derived value is therefore reused for every {@link Bosk.ReadSession ReadSession}
+ * whose snapshot has the same node, however many other updates have occurred,
+ * and recomputed only when a different node is found.
+ * The function must be a pure function of the node.
+ *
+ * <p>
+ * Only the most recent node and value are remembered,
+ * so reads from sessions on alternating snapshots that differ
+ * within the subtree will each recompute the value.
+ *
+ * @param <S> the type of the node
+ * @param <D> the type of the derived value
+ */
+public final class DerivedValue<S, D> {
+	private final Reference<S> source;
+	private final Function<? super S, ? extends D> function;
+	private volatile @Nullable Memo<S, D> memo;
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+
+	private record Memo<S, D>(S input, @Nullable D output) { }
+
+	/**
+	 * For monitoring: how often {@link #value()} was able to reuse a previously computed value.
+	 *
+	 * @param hits   the number of calls that reused the remembered value
+	 * @param misses the number of calls that called the function
+	 */
+	public record Stats(long hits, long misses) { }
+
+	DerivedValue(Reference<S> source, Function<? super S, ? extends D> function) {
+		if (source.path().numParameters() != 0) {
+			throw new IllegalArgumentException("Reference must not have parameters: " + source);
+		}
+		this.source = source;
+		this.function = requireNonNull(function);
+	}
+
+	public Reference<S> source() {
+		return source;
+	}
+
+	/**
+	 * @return the result of the function applied to the node at {@link #source()}
+	 * in the calling thread's read session
+	 * @throws NoReadSessionException if there is no active read session
+	 * @throws NonexistentReferenceException if the node does not exist
+	 */
+	public @Nullable D value() {
+		S input = source.value();
+		Memo<S, D> candidate = memo;
+		if (candidate != null && candidate.input() == input) { // Note object identity comparison
+			hits.increment();
+			return candidate.output();
+		}
+		misses.increment();
+		D output = function.apply(input);
+		memo = new Memo<>(input, output);
+		return output;
+	}
+
+	public Stats stats() {
+		return new Stats(hits.sum(), misses.sum());
+	}
+
+	@Override
+	public String toString() {
+		return "DerivedValue(" + source + ")";
+	}
+}
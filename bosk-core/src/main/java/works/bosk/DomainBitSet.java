@@ -0,0 +1,267 @@
+package works.bosk;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Predicate;
+import works.bosk.IdentifierMap.IdEntry;
+
+import static works.bosk.ListingEntry.LISTING_ENTRY;
+
+/**
+ * An immutable set of {@link Identifier}s drawn from a particular {@link IdentifierMap},
+ * called the <em>domain</em>, stored as a bitset indexed by position in the domain.
+ * Iterates in domain order.
+ * Underlies the compact form of {@link Listing}.
+ *
+ * <p>
+ * Costs one bit per domain entry regardless of how many IDs are in the set,
+ * and set operations between two bitsets over the same domain proceed a word at a time.
+ *
+ * <p>
+ * Only the domain's IDs are retained, via {@link IdentifierMap#withoutValues},
+ * so a listing doesn't keep the values of an outdated catalog reachable.
+ * The IDs are an immutable snapshot, so the contents of this set don't change
+ * if the catalog it came from is later modified.
+ * Conversely, IDs absent from the snapshot can't be represented,
+ * and neither can any order other than domain order.
+ * Operations that would need either of these return null so the caller
+ * can fall back to {@link IdentifierMap}.
+ */
+final class DomainBitSet {
+	/**
+	 * The domain's IDs, whose sequence numbers index {@link #words}.
+	 */
+	private final IdentifierMap<ListingEntry> domain;
+	private final long[] words;
+	private final int size;
+
+	private DomainBitSet(IdentifierMap<ListingEntry> domain, long[] words) {
+		this.domain = domain;
+		this.words = words;
+		int size = 0;
+		for (long word : words) {
+			size += Long.bitCount(word);
+		}
+		this.size = size;
+	}
+
+	/**
+	 * @return the set of IDs of those entries of <code>domain</code> whose values satisfy <code>filter</code>
+	 */
+	static <V> DomainBitSet matching(IdentifierMap<V> domain, Predicate<? super V> filter) {
+		IdentifierMap<ListingEntry> ids = domain.withoutValues();
+		long[] words = newWords(ids);
+		int index = 0;
+		for (int seq = 0; seq < domain.seqLimit(); seq++) {
+			IdEntry<V> entry = domain.entryAtSeq(seq);
+			if (entry != null) {
+				// ids has no tombstones, so its sequence numbers skip those of the domain
+				if (filter.test(entry.value)) {
+					words[index >>> 6] |= 1L << index;
+				}
+				index++;
+			}
+		}
+		return new DomainBitSet(ids, words);
+	}
+
+	/**
+	 * @return the set containing <code>ids</code>, or null if they are not all
+	 * present in <code>domain</code> in the same order
+	 */
+	static DomainBitSet ofOrdered(IdentifierMap<?> domain, Iterable<Identifier> ids) {
+		IdentifierMap<ListingEntry> domainIDs = domain.withoutValues();
+		long[] words = newWords(domainIDs);
+		int priorSeq = -1;
+		for (Identifier id : ids) {
+			int seq = domainIDs.seqOf(id);
+			if (seq <= priorSeq) {
+				return null;
+			}
+			words[seq >>> 6] |= 1L << seq;
+			priorSeq = seq;
+		}
+		return new DomainBitSet(domainIDs, words);
+	}
+
+	private static long[] newWords(IdentifierMap<ListingEntry> domain) {
+		return new long[(domain.seqLimit() + 63) >>> 6];
+	}
+
+	int size() {
+		return size;
+	}
+
+	boolean contains(Object o) {
+		return o instanceof Identifier id && containsSeq(domain.seqOf(id));
+	}
+
+	boolean hasSameDomainAs(DomainBitSet other) {
+		return domain == other.domain;
+	}
+
+	/**
+	 * @return a set that also contains <code>id</code>, which is this same set if it already did;
+	 * or null if <code>id</code> is absent from the domain or would not come last in domain order
+	 */
+	DomainBitSet with(Identifier id) {
+		int seq = domain.seqOf(id);
+		if (seq < 0) {
+			return null;
+		} else if (containsSeq(seq)) {
+			return this;
+		} else if (seq < highestSeq()) {
+			return null;
+		} else {
+			long[] newWords = words.clone();
+			newWords[seq >>> 6] |= 1L << seq;
+			return new DomainBitSet(domain, newWords);
+		}
+	}
+
+	DomainBitSet without(Identifier id) {
+		int seq = domain.seqOf(id);
+		if (containsSeq(seq)) {
+			long[] newWords = words.clone();
+			newWords[seq >>> 6] &= ~(1L << seq);
+			return new DomainBitSet(domain, newWords);
+		} else {
+			return this;
+		}
+	}
+
+	/**
+	 * @return the subset of IDs that satisfy <code>filter</code>
+	 */
+	DomainBitSet filteredBy(Predicate<Identifier> filter) {
+		long[] newWords = words.clone();
+		boolean changed = false;
+		for (int seq = nextSeq(0); seq >= 0; seq = nextSeq(seq + 1)) {
+			if (!filter.test(idAt(seq))) {
+				newWords[seq >>> 6] &= ~(1L << seq);
+				changed = true;
+			}
+		}
+		return changed ? new DomainBitSet(domain, newWords) : this;
+	}
+
+	/**
+	 * Precondition: {@link #hasSameDomainAs}.
+	 */
+	DomainBitSet intersection(DomainBitSet other) {
+		long[] newWords = new long[words.length];
+		for (int i = 0; i < words.length; i++) {
+			newWords[i] = words[i] & other.words[i];
+		}
+		return new DomainBitSet(domain, newWords);
+	}
+
+	/**
+	 * Precondition: {@link #hasSameDomainAs}.
+	 *
+	 * @return the union, or null if some of the IDs in <code>other</code> but not in this set
+	 * come before the last ID of this set, so that the union in domain order
+	 * would not consist of this set followed by the remaining IDs of <code>other</code>
+	 */
+	DomainBitSet union(DomainBitSet other) {
+		long[] newWords = new long[words.length];
+		int firstExtra = -1;
+		for (int i = 0; i < words.length; i++) {
+			long extra = other.words[i] & ~words[i];
+			if (firstExtra < 0 && extra != 0) {
+				firstExtra = (i << 6) + Long.numberOfTrailingZeros(extra);
+			}
+			newWords[i] = words[i] | extra;
+		}
+		if (firstExtra < 0) {
+			return this;
+		} else if (firstExtra < highestSeq()) {
+			return null;
+		} else {
+			return new DomainBitSet(domain, newWords);
+		}
+	}
+
+	IdentifierMap<ListingEntry> toIdentifierMap() {
+		IdentifierMap.Transient<ListingEntry> result = IdentifierMap.<ListingEntry>empty().toTransient();
+		for (int seq = nextSeq(0); seq >= 0; seq = nextSeq(seq + 1)) {
+			result.put(idAt(seq), LISTING_ENTRY);
+		}
+		return result.freeze();
+	}
+
+	/**
+	 * @return an unmodifiable {@link Set} view of the IDs, in domain order
+	 */
+	Set<Identifier> asSet() {
+		return new AbstractSet<>() {
+			@Override public int size() { return size; }
+			@Override public boolean contains(Object o) { return DomainBitSet.this.contains(o); }
+			@Override public Spliterator<Identifier> spliterator() { return Spliterators.spliterator(this, Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.IMMUTABLE | Spliterator.NONNULL); }
+
+			@Override
+			public Iterator<Identifier> iterator() {
+				return new Iterator<>() {
+					int next = nextSeq(0);
+
+					@Override
+					public boolean hasNext() {
+						return next >= 0;
+					}
+
+					@Override
+					public Identifier next() {
+						if (next < 0) {
+							throw new NoSuchElementException();
+						}
+						Identifier result = idAt(next);
+						next = nextSeq(next + 1);
+						return result;
+					}
+				};
+			}
+		};
+	}
+
+	private boolean containsSeq(int seq) {
+		return seq >= 0 && (words[seq >>> 6] & (1L << seq)) != 0;
+	}
+
+	private Identifier idAt(int seq) {
+		return domain.entryAtSeq(seq).id;
+	}
+
+	/**
+	 * @return the lowest sequence number at least <code>from</code> that is in this set, or -1 if there is none
+	 */
+	private int nextSeq(int from) {
+		int i = from >>> 6;
+		if (i >= words.length) {
+			return -1;
+		}
+		long word = words[i] & (-1L << from);
+		while (word == 0) {
+			if (++i == words.length) {
+				return -1;
+			}
+			word = words[i];
+		}
+		return (i << 6) + Long.numberOfTrailingZeros(word);
+	}
+
+	/**
+	 * @return the highest sequence number in this set, or -1 if it's empty
+	 */
+	private int highestSeq() {
+		for (int i = words.length - 1; i >= 0; i--) {
+			if (words[i] != 0) {
+				return (i << 6) + 63 - Long.numberOfLeadingZeros(words[i]);
+			}
+		}
+		return -1;
+	}
+}
@@ -0,0 +1,138 @@
+package works.bosk;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.jspecify.annotations.Nullable;
+
+import static java.util.Collections.unmodifiableList;
+import static java.util.Collections.unmodifiableMap;
+import static java.util.Comparator.comparingLong;
+import static works.bosk.Path.isParameterSegment;
+
+/**
+ * A trie of hooks keyed by the segments of their scope {@link Path}s,
+ * so that an update need only consider the hooks whose scope could possibly
+ * be affected by it, rather than every registered hook.
+ *
+ * <p>
+ * All parameter segments are treated alike, since a parameter matches any segment:
+ * each node has at most one "wildcard" child for the parameters.
+ *
+ * <p>
+ * Lookups are lock-free; registration copies the nodes along the scope path
+ * and publishes a new root. Registration is expected to be rare compared with updates.
+ *
+ * @param <H> the type of the hook registrations
+ */
+final class HookIndex<H> {
+	private volatile Node<H> root = Node.empty();
+
+	/**
+	 * Guarded by <code>this</code>.
+	 */
+	private long nextSequenceNumber = 0;
+
+	synchronized void add(Path scope, H hook) {
+		root = root.with(scope, 0, new Entry<>(nextSequenceNumber++, hook));
+	}
+
+	/**
+	 * @return the hooks whose scope is a prefix or an extension of any of the given <code>targets</code>,
+	 * taking parameters into account, in the order the hooks were added, with no duplicates.
+	 * This may include some hooks that turn out not to match, but never excludes a hook that does.
+	 */
+	List<H> candidatesFor(Collection<Path> targets) {
+		Node<H> root = this.root;
+		List<Entry<H>> found = new ArrayList<>();
+		for (Path target : targets) {
+			root.collect(target, 0, found);
+		}
+		found.sort(comparingLong(Entry::sequenceNumber));
+		List<H> result = new ArrayList<>(found.size());
+		long lastSequenceNumber = -1;
+		for (Entry<H> entry : found) {
+			if (entry.sequenceNumber() != lastSequenceNumber) {
+				result.add(entry.hook());
+				lastSequenceNumber = entry.sequenceNumber();
+			}
+		}
+		return result;
+	}
+
+	private record Entry<H>(long sequenceNumber, H hook) { }
+
+	/**
+	 * Immutable.
+	 *
+	 * @param entries the hooks whose scope ends at this node
+	 * @param children the nodes for non-parameter segments
+	 * @param wildcard the node for parameter segments
+	 */
+	private record Node<H>(
+		List<Entry<H>> entries,
+		Map<String, Node<H>> children,
+		@Nullable Node<H> wildcard
+	) {
+		static <H> Node<H> empty() {
+			return new Node<>(List.of(), Map.of(), null);
+		}
+
+		Node<H> with(Path scope, int depth, Entry<H> entry) {
+			if (depth == scope.length()) {
+				List<Entry<H>> newEntries = new ArrayList<>(entries);
+				newEntries.add(entry);
+				return new Node<>(unmodifiableList(newEntries), children, wildcard);
+			}
+			String segment = scope.segment(depth);
+			if (isParameterSegment(segment)) {
+				Node<H> oldChild = (wildcard == null) ? empty() : wildcard;
+				return new Node<>(entries, children, oldChild.with(scope, depth + 1, entry));
+			} else {
+				Map<String, Node<H>> newChildren = new HashMap<>(children);
+				Node<H> oldChild = children.getOrDefault(segment, empty());
+				newChildren.put(segment, oldChild.with(scope, depth + 1, entry));
+				return new Node<>(entries, unmodifiableMap(newChildren), wildcard);
+			}
+		}
+
+		/**
+		 * This node corresponds to the first <code>depth</code> segments of <code>target</code>,
+		 * so its own entries have scopes that are prefixes of <code>target</code>.
+		 * Once we run out of segments, the whole subtree consists of extensions of <code>target</code>.
+		 */
+		void collect(Path target, int depth, List<Entry<H>> result) {
+			if (depth == target.length()) {
+				collectAll(result);
+				return;
+			}
+			result.addAll(entries);
+			String segment = target.segment(depth);
+			if (isParameterSegment(segment)) {
+				for (Node<H> child : children.values()) {
+					child.collect(target, depth + 1, result);
+				}
+			} else {
+				Node<H> child = children.get(segment);
+				if (child != null) {
+					child.collect(target, depth + 1, result);
+				}
+			}
+			if (wildcard != null) {
+				wildcard.collect(target, depth + 1, result);
+			}
+		}
+
+		void collectAll(List<Entry<H>> result) {
+			result.addAll(entries);
+			for (Node<H> child : children.values()) {
+				child.collectAll(result);
+			}
+			if (wildcard != null) {
+				wildcard.collectAll(result);
+			}
+		}
+	}
+}
@@ -0,0 +1,14 @@
+package works.bosk;
+
+/**
+ * A snapshot of a bosk's hook queue, for monitoring.
+ *
+ * @param queuedCalls       the number of hook calls waiting to run,
+ *                          including calls that will be skipped because they were
+ *                          {@link HookRegistrar.Coalescing coalesced} with later ones
+ * @param retainedSnapshots the number of distinct bosk states held by waiting calls that will run.
+ *                          This is the main memory cost of the queue, since each is a whole state tree,
+ *                          though states usually share most of their objects.
+ * @see BoskConfig.HookQueueOverflow
+ */
+public record HookQueueStatus(int queuedCalls, int retainedSnapshots) { }
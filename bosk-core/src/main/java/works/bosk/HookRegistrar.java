@@ -15,6 +15,7 @@ public interface HookRegistrar {
 	 * the state immediately after the update was applied.
 	 * The <code>hook</code> will receive an argument that is the <code>scope</code> reference
 	 * with all its parameters (if any) bound.
+	 * A {@link ValueHook} also receives the object's values from before and after the update.
 	 *
 	 * <p>
 	 * For a given update, hooks are called in the order they were registered.
@@ -30,4 +31,35 @@ public interface HookRegistrar {
 	 *
 	 */
 	<T> void registerHook(String name, Reference<T> scope, BoskHook<T> hook);
+
+	/**
+	 * Like {@link #registerHook(String, Reference, BoskHook)}, with the given {@link Coalescing} policy.
+	 *
+	 * <p>
+	 * Coalescing is an optimization, so a registrar that doesn't support it may ignore it;
+	 * the default implementation does so, since running every call is always correct.
+	 * Registrars that wrap another registrar should override this to pass the policy along.
+	 */
+	default <T> void registerHook(String name, Reference<T> scope, BoskHook<T> hook, Coalescing coalescing) {
+		registerHook(name, scope, hook);
+	}
+
+	/**
+	 * Determines what happens when a hook call is queued while an earlier call
+	 * of the same hook on the same reference is still waiting to run.
+	 */
+	enum Coalescing {
+		/**
+		 * Both calls run, each with a {@link Bosk.ReadSession} on the state
+		 * immediately after the update that triggered it.
+		 */
+		NONE,
+
+		/**
+		 * The earlier call is discarded, and only the later one runs.
+		 * The hook still sees every reference that changed, but not necessarily every intermediate state,
+		 * which saves work when the same object is updated repeatedly in quick succession.
+		 */
+		LATEST,
+	}
 }
@@ -12,6 +12,7 @@ import java.util.Map;
 import java.util.function.Function;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import works.bosk.HookRegistrar.Coalescing;
 import works.bosk.annotations.Hook;
 import works.bosk.exceptions.InvalidTypeException;
 import works.bosk.util.ReflectionHelpers;
@@ -49,13 +50,13 @@ final class HookScanner {
 				} else if (isPrivate(method.getModifiers())) {
 					throw new InvalidTypeException("Hook method cannot be private: " + method);
 				}
-				hookMethodsBySignature.put(MethodSignature.of(method), new HookMethod(receiverClass, method, hookAnnotation.value()));
+				hookMethodsBySignature.put(MethodSignature.of(method), new HookMethod(receiverClass, method, hookAnnotation.value(), hookAnnotation.coalesce()));
 			}
 		}
 		int hookCounter = 0;
 		for (HookMethod hookMethod : hookMethodsBySignature.values()) {
 			try {
-				registerOneHookMethod(receiverObject, hookMethod.method, Path.parseParameterized(hookMethod.scope), rootReference, hookRegistrar, lookup);
+				registerOneHookMethod(receiverObject, hookMethod, Path.parseParameterized(hookMethod.scope), rootReference, hookRegistrar, lookup);
 				hookCounter++;
 			} catch (InvalidTypeException e) {
 				throw new InvalidTypeException("Unable to register hook method " + hookMethod.receiverClass.getSimpleName() + "." + hookMethod.method.getName() + ": " + e.getMessage(), e);
@@ -68,7 +69,8 @@ final class HookScanner {
 		}
 	}
 
-	private static <T> void registerOneHookMethod(T receiverObject, Method method, Path path, RootReference<?> rootReference, HookRegistrar hookRegistrar, MethodHandles.Lookup lookup) throws InvalidTypeException {
+	private static <T> void registerOneHookMethod(T receiverObject, HookMethod hookMethod, Path path, RootReference<?> rootReference, HookRegistrar hookRegistrar, MethodHandles.Lookup lookup) throws InvalidTypeException {
+		Method method = hookMethod.method;
 		Reference<?> plainRef = rootReference.then(Object.class, path);
 
 		// Now substitute one of the handy Reference subtypes where possible
@@ -112,6 +114,7 @@ final class HookScanner {
 		} catch (IllegalAccessException e) {
 			throw new IllegalArgumentException(e);
 		}
+		Coalescing coalescing = hookMethod.coalesce ? Coalescing.LATEST : Coalescing.NONE;
 		hookRegistrar.registerHook(method.getName(), scope, ref -> {
 			try {
 				List<Object> arguments = new ArrayList<>(argumentFunctions.size());
@@ -120,12 +123,12 @@ final class HookScanner {
 			} catch (Throwable e) {
 				throw new IllegalStateException("Unable to call hook \"" + method.getName() + "\"", e);
 			}
-		});
+		}, coalescing);
 	}
 
 	private HookScanner() {}
 
-	private record HookMethod(Class<?> receiverClass, Method method, String scope) { }
+	private record HookMethod(Class<?> receiverClass, Method method, String scope, boolean coalesce) { }
 
 	private record MethodSignature(String name, List<Class<?>> parameterTypes) {
 		static MethodSignature of(Method method) {
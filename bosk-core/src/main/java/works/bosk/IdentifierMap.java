@@ -0,0 +1,1049 @@
+package works.bosk;
+
+import java.util.AbstractCollection;
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static java.util.Objects.requireNonNull;
+import static works.bosk.ListingEntry.LISTING_ENTRY;
+
+/**
+ * A persistent map from {@link Identifier} to values, in insertion order.
+ * Underlies {@link Catalog}, {@link SideTable}, and {@link Listing}.
+ *
+ * <p>
+ * Lookups use a hash array mapped trie keyed by {@link Identifier}.
+ * Order is kept by a separate 32-way trie indexed by each entry's <em>sequence number</em>,
+ * assigned when its ID is first added.
+ * Replacing a value keeps the entry's sequence number, and therefore its position.
+ * Removing an entry leaves a null "tombstone" that iteration skips; once tombstones
+ * outnumber live entries, the order trie is rebuilt without them.
+ *
+ * <p>
+ * Updates copy only the path from the root to the affected node, so successive
+ * versions share everything else. {@link #forEachDifference} relies on this to skip
+ * unchanged portions of the order trie by comparing node identity.
+ *
+ * <p>
+ * As with any {@link Map}, {@link #equals} ignores order.
+ */
+final class IdentifierMap<V> extends AbstractMap<Identifier, V> {
+	private final Object[] hashRoot;
+	private final int hashBitmap;
+	private final Object[] orderRoot;
+	private final int orderShift;
+	private final int nextSeq;
+	private final int size;
+
+	/**
+	 * Lazily computed for {@link #ids()} when tombstones prevent indexing the order trie directly.
+	 */
+	private volatile Identifier[] idArray;
+
+	/**
+	 * Lazily computed for {@link #withoutValues()}.
+	 */
+	private volatile IdentifierMap<ListingEntry> withoutValues;
+
+	private static final Object[] NO_ELEMENTS = {};
+	private static final IdentifierMap<?> EMPTY = new IdentifierMap<>(NO_ELEMENTS, 0, NO_ELEMENTS, 0, 0, 0);
+
+	private IdentifierMap(Object[] hashRoot, int hashBitmap, Object[] orderRoot, int orderShift, int nextSeq, int size) {
+		this.hashRoot = hashRoot;
+		this.hashBitmap = hashBitmap;
+		this.orderRoot = orderRoot;
+		this.orderShift = orderShift;
+		this.nextSeq = nextSeq;
+		this.size = size;
+	}
+
+	@SuppressWarnings("unchecked")
+	static <VV> IdentifierMap<VV> empty() {
+		return (IdentifierMap<VV>) EMPTY;
+	}
+
+	//
+	// Queries
+	//
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public V get(Object key) {
+		if (key instanceof Identifier id) {
+			IdEntry<V> entry = entryFor(id);
+			return (entry == null) ? null : entry.value;
+		} else {
+			return null;
+		}
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return key instanceof Identifier id && entryFor(id) != null;
+	}
+
+	@Override
+	public void forEach(BiConsumer<? super Identifier, ? super V> action) {
+		for (Iterator<IdEntry<V>> iter = new SlotIterator<>(this, 0, nextSeq, e -> e); iter.hasNext(); ) {
+			IdEntry<V> entry = iter.next();
+			action.accept(entry.id, entry.value);
+		}
+	}
+
+	//
+	// Updates
+	//
+
+	/**
+	 * Equivalent to {@link Transient#put} followed by {@link Transient#freeze},
+	 * but builds the new map directly, since a single change copies every node it touches anyway.
+	 */
+	IdentifierMap<V> plus(Identifier id, V value) {
+		requireNonNull(value);
+		int hash = hash(requireNonNull(id));
+		IdEntry<V> existing = entryFor(hashRoot, hashBitmap, id, hash);
+		Editor editor = Editor.PERSISTENT;
+		if (existing == null) {
+			IdEntry<V> entry = new IdEntry<>(id, value, hash, nextSeq);
+			Object[] newOrderRoot;
+			int newOrderShift;
+			if (nextSeq == (32 << orderShift)) {
+				// Root is full; grow a level
+				newOrderRoot = editor.newOrderNode(2);
+				newOrderRoot[0] = orderRoot;
+				newOrderRoot[1] = orderPath(editor, orderShift, entry);
+				newOrderShift = orderShift + 5;
+			} else {
+				newOrderRoot = orderAppend(editor, orderRoot, orderShift, entry);
+				newOrderShift = orderShift;
+			}
+			return new IdentifierMap<>(
+				hashPut(editor, hashRoot, hashBitmap, 0, entry), hashBitmap | bitFor(hash, 0),
+				newOrderRoot, newOrderShift,
+				nextSeq + 1, size + 1);
+		} else if (existing.value == value) {
+			return this;
+		} else {
+			IdEntry<V> entry = new IdEntry<>(existing.id, value, hash, existing.seq);
+			return new IdentifierMap<>(
+				hashPut(editor, hashRoot, hashBitmap, 0, entry), hashBitmap,
+				orderSet(editor, orderRoot, orderShift, existing.seq, entry), orderShift,
+				nextSeq, size);
+		}
+	}
+
+	/**
+	 * Equivalent to {@link Transient#remove} followed by {@link Transient#freeze},
+	 * but builds the new map directly, like {@link #plus}.
+	 */
+	IdentifierMap<V> minus(Identifier id) {
+		int hash = hash(requireNonNull(id));
+		IdEntry<V> existing = entryFor(hashRoot, hashBitmap, id, hash);
+		if (existing == null) {
+			return this;
+		} else if (size == 1) {
+			return empty();
+		}
+		Editor editor = Editor.PERSISTENT;
+		Object[] newHashRoot = hashRemove(editor, hashRoot, hashBitmap, 0, existing);
+		int newHashBitmap = (newHashRoot.length == hashRoot.length) ? hashBitmap : hashBitmap & ~bitFor(hash, 0);
+		return new IdentifierMap<V>(
+			newHashRoot, newHashBitmap,
+			orderSet(editor, orderRoot, orderShift, existing.seq, null), orderShift,
+			nextSeq, size - 1
+		).compactedIfSparse();
+	}
+
+	/**
+	 * @return this map, or an equivalent one with a rebuilt order trie if tombstones outnumber live entries
+	 */
+	private IdentifierMap<V> compactedIfSparse() {
+		int tombstones = nextSeq - size;
+		if (tombstones > size && tombstones >= 32) {
+			Transient<V> compacted = new Transient<>(empty(), new Editor());
+			forEach(compacted::put);
+			return compacted.freeze();
+		} else {
+			return this;
+		}
+	}
+
+	/**
+	 * @return a {@link Transient} initially holding the same entries as this map.
+	 * Changes to it do not affect this map.
+	 */
+	Transient<V> toTransient() {
+		return new Transient<>(this, new Editor());
+	}
+
+	/**
+	 * A mutable counterpart of {@link IdentifierMap} for making many changes at once.
+	 * Trie nodes created by this object are modified in place rather than copied,
+	 * so a run of <em>n</em> insertions allocates about as much as a {@link java.util.HashMap} would,
+	 * instead of copying a path per insertion.
+	 * {@link #freeze} produces an {@link IdentifierMap} in constant time (unless tombstones need compacting)
+	 * and stops modifying the nodes it shares with that map,
+	 * so the transient can continue to be used afterward.
+	 *
+	 * <p>
+	 * Not thread-safe.
+	 */
+	static final class Transient<V> {
+		private Editor editor;
+		private Object[] hashRoot;
+		private int hashBitmap;
+		private Object[] orderRoot;
+		private int orderShift;
+		private int nextSeq;
+		private int size;
+
+		/**
+		 * The map whose contents this transient currently matches, if any.
+		 */
+		private IdentifierMap<V> unchanged;
+
+		private Transient(IdentifierMap<V> initial, Editor editor) {
+			this.editor = editor;
+			adopt(initial);
+		}
+
+		private void adopt(IdentifierMap<V> map) {
+			this.hashRoot = map.hashRoot;
+			this.hashBitmap = map.hashBitmap;
+			this.orderRoot = map.orderRoot;
+			this.orderShift = map.orderShift;
+			this.nextSeq = map.nextSeq;
+			this.size = map.size;
+			this.unchanged = map;
+		}
+
+		int size() {
+			return size;
+		}
+
+		V get(Identifier id) {
+			IdEntry<V> entry = entryFor(hashRoot, hashBitmap, id, hash(id));
+			return (entry == null) ? null : entry.value;
+		}
+
+		boolean containsKey(Identifier id) {
+			return entryFor(hashRoot, hashBitmap, id, hash(id)) != null;
+		}
+
+		/**
+		 * Adds <code>value</code> at the end if <code>id</code> is absent;
+		 * otherwise replaces the existing value, keeping its position and its <code>Identifier</code> object.
+		 *
+		 * @return false if <code>id</code> was already associated with this very <code>value</code> object,
+		 * in which case nothing changed
+		 */
+		boolean put(Identifier id, V value) {
+			requireNonNull(value);
+			int hash = hash(requireNonNull(id));
+			IdEntry<V> existing = entryFor(hashRoot, hashBitmap, id, hash);
+			if (existing == null) {
+				IdEntry<V> entry = new IdEntry<>(id, value, hash, nextSeq);
+				hashRoot = hashPut(editor, hashRoot, hashBitmap, 0, entry);
+				hashBitmap |= bitFor(hash, 0);
+				if (nextSeq == (32 << orderShift)) {
+					// Root is full; grow a level
+					Object[] newRoot = editor.newOrderNode(2);
+					newRoot[0] = orderRoot;
+					newRoot[1] = orderPath(editor, orderShift, entry);
+					orderRoot = newRoot;
+					orderShift += 5;
+				} else {
+					orderRoot = orderAppend(editor, orderRoot, orderShift, entry);
+				}
+				nextSeq++;
+				size++;
+				unchanged = null;
+				return true;
+			} else if (existing.value == value) {
+				return false;
+			} else {
+				IdEntry<V> entry = new IdEntry<>(existing.id, value, hash, existing.seq);
+				hashRoot = hashPut(editor, hashRoot, hashBitmap, 0, entry);
+				orderRoot = orderSet(editor, orderRoot, orderShift, existing.seq, entry);
+				unchanged = null;
+				return true;
+			}
+		}
+
+		/**
+		 * @return false if <code>id</code> was absent, in which case nothing changed
+		 */
+		boolean remove(Identifier id) {
+			int hash = hash(requireNonNull(id));
+			IdEntry<V> existing = entryFor(hashRoot, hashBitmap, id, hash);
+			if (existing == null) {
+				return false;
+			}
+			Object[] newHashRoot = hashRemove(editor, hashRoot, hashBitmap, 0, existing);
+			if (newHashRoot.length != hashRoot.length) {
+				hashBitmap &= ~bitFor(hash, 0);
+			}
+			hashRoot = newHashRoot;
+			orderRoot = orderSet(editor, orderRoot, orderShift, existing.seq, null);
+			size--;
+			unchanged = null;
+			return true;
+		}
+
+		/**
+		 * @return an {@link IdentifierMap} with the current contents of this transient.
+		 * If nothing has changed since this transient was created or last frozen,
+		 * returns that same map.
+		 * Rebuilds the order trie first if tombstones outnumber live entries.
+		 */
+		IdentifierMap<V> freeze() {
+			if (unchanged != null) {
+				return unchanged;
+			}
+			IdentifierMap<V> result;
+			if (size == 0) {
+				result = empty();
+			} else {
+				result = new IdentifierMap<V>(hashRoot, hashBitmap, orderRoot, orderShift, nextSeq, size).compactedIfSparse();
+			}
+			adopt(result);
+			// Our nodes now belong to result too
+			editor = new Editor();
+			return result;
+		}
+	}
+
+	/**
+	 * Decides whether a trie node can be modified in place.
+	 * {@link #PERSISTENT} never allows it, so every change copies.
+	 * Other editors belong to a {@link Transient} and allow it for exactly the nodes
+	 * they created, which are not yet reachable from any {@link IdentifierMap}.
+	 *
+	 * <p>
+	 * Because a node can only become owned by being copied or created, and the copy is
+	 * stored into an owned copy of its parent, the owned nodes always form a connected
+	 * region at the top of each trie.
+	 */
+	private static final class Editor {
+		static final Editor PERSISTENT = new Editor(null);
+
+		private final Set<Object[]> owned;
+
+		Editor() {
+			this(Collections.newSetFromMap(new IdentityHashMap<>()));
+		}
+
+		private Editor(Set<Object[]> owned) {
+			this.owned = owned;
+		}
+
+		/**
+		 * @param node which the caller will not modify
+		 * @return the same node if it's owned; otherwise an owned copy
+		 */
+		Object[] own(Object[] node) {
+			if (owned != null && owned.contains(node)) {
+				return node;
+			} else {
+				return fresh(node.clone());
+			}
+		}
+
+		/**
+		 * @return a node that has the same elements as <code>node</code>, is owned,
+		 * and has room for at least <code>minLength</code> elements
+		 */
+		Object[] ownOrderNode(Object[] node, int minLength) {
+			if (node.length < minLength) {
+				return fresh(Arrays.copyOf(node, orderNodeLength(minLength)));
+			} else {
+				return own(node);
+			}
+		}
+
+		/**
+		 * Transients allocate full-width order trie nodes so appends can fill them in place;
+		 * persistent updates allocate exactly what's needed.
+		 */
+		Object[] newOrderNode(int minLength) {
+			return fresh(new Object[orderNodeLength(minLength)]);
+		}
+
+		private int orderNodeLength(int minLength) {
+			return (owned == null) ? minLength : 32;
+		}
+
+		/**
+		 * @return a new owned node of the given length, to be filled in by the caller,
+		 * which will no longer use <code>node</code>.
+		 */
+		Object[] resized(Object[] node, int length) {
+			if (owned != null) {
+				// Don't let the owned set keep obsolete nodes alive
+				owned.remove(node);
+			}
+			return fresh(new Object[length]);
+		}
+
+		Object[] fresh(Object[] node) {
+			if (owned != null) {
+				owned.add(node);
+			}
+			return node;
+		}
+	}
+
+	//
+	// Views
+	//
+
+	/**
+	 * @return a {@link List} view of the keys, in order.
+	 * Creating the view takes constant time; indexing it is cheap as long as
+	 * there have been no removals since the last time the order trie was rebuilt.
+	 */
+	List<Identifier> ids() {
+		return new IdList();
+	}
+
+	@Override
+	public Set<Identifier> keySet() {
+		return new KeySet();
+	}
+
+	@Override
+	public Collection<V> values() {
+		return new Values();
+	}
+
+	@Override
+	public Set<Map.Entry<Identifier, V>> entrySet() {
+		return new EntrySet();
+	}
+
+	private final class IdList extends AbstractList<Identifier> implements RandomAccess {
+		@Override
+		public Identifier get(int index) {
+			Objects.checkIndex(index, size);
+			if (nextSeq == size) {
+				return slot(index).id;
+			} else {
+				return idArray()[index];
+			}
+		}
+
+		@Override public int size() { return size; }
+		@Override public boolean contains(Object o) { return containsKey(o); }
+		@Override public Iterator<Identifier> iterator() { return new SlotIterator<>(IdentifierMap.this, 0, nextSeq, e -> e.id); }
+		@Override public Spliterator<Identifier> spliterator() { return new SlotSpliterator<>(IdentifierMap.this, e -> e.id, Spliterator.DISTINCT); }
+	}
+
+	private final class KeySet extends AbstractSet<Identifier> {
+		@Override public int size() { return size; }
+		@Override public boolean contains(Object o) { return containsKey(o); }
+		@Override public Iterator<Identifier> iterator() { return new SlotIterator<>(IdentifierMap.this, 0, nextSeq, e -> e.id); }
+		@Override public Spliterator<Identifier> spliterator() { return new SlotSpliterator<>(IdentifierMap.this, e -> e.id, Spliterator.DISTINCT); }
+	}
+
+	private final class Values extends AbstractCollection<V> {
+		@Override public int size() { return size; }
+		@Override public Iterator<V> iterator() { return new SlotIterator<>(IdentifierMap.this, 0, nextSeq, e -> e.value); }
+		@Override public Spliterator<V> spliterator() { return new SlotSpliterator<>(IdentifierMap.this, e -> e.value, 0); }
+	}
+
+	private final class EntrySet extends AbstractSet<Map.Entry<Identifier, V>> {
+		@Override public int size() { return size; }
+
+		@Override
+		public boolean contains(Object o) {
+			if (o instanceof Map.Entry<?, ?> e && e.getKey() instanceof Identifier id) {
+				IdEntry<V> entry = entryFor(id);
+				return entry != null && entry.value.equals(e.getValue());
+			} else {
+				return false;
+			}
+		}
+
+		@Override public Iterator<Map.Entry<Identifier, V>> iterator() { return new SlotIterator<>(IdentifierMap.this, 0, nextSeq, e -> e); }
+		@Override public Spliterator<Map.Entry<Identifier, V>> spliterator() { return new SlotSpliterator<>(IdentifierMap.this, e -> e, Spliterator.DISTINCT); }
+	}
+
+	private Identifier[] idArray() {
+		Identifier[] result = idArray;
+		if (result == null) {
+			result = new Identifier[size];
+			int i = 0;
+			for (Iterator<Identifier> iter = new SlotIterator<>(this, 0, nextSeq, e -> e.id); iter.hasNext(); ) {
+				result[i++] = iter.next();
+			}
+			idArray = result;
+		}
+		return result;
+	}
+
+	/**
+	 * @return a map with the same IDs as this one, in the same order, but none of its values,
+	 * so that it can be retained without keeping the values reachable.
+	 * Its sequence numbers are consecutive, with no tombstones.
+	 * Computed on first use, so callers using the same map normally get the same result.
+	 */
+	IdentifierMap<ListingEntry> withoutValues() {
+		IdentifierMap<ListingEntry> result = withoutValues;
+		if (result == null) {
+			Transient<ListingEntry> ids = IdentifierMap.<ListingEntry>empty().toTransient();
+			for (Iterator<Identifier> iter = new SlotIterator<>(this, 0, nextSeq, e -> e.id); iter.hasNext(); ) {
+				ids.put(iter.next(), LISTING_ENTRY);
+			}
+			withoutValues = result = ids.freeze();
+		}
+		return result;
+	}
+
+	//
+	// Sequence numbers
+	//
+
+	/**
+	 * @return one more than the highest sequence number in use;
+	 * every entry's sequence number is less than this.
+	 */
+	int seqLimit() {
+		return nextSeq;
+	}
+
+	/**
+	 * @return the sequence number of the entry for <code>id</code>, or -1 if there is none.
+	 * Sequence numbers increase in iteration order.
+	 */
+	int seqOf(Identifier id) {
+		IdEntry<V> entry = entryFor(id);
+		return (entry == null) ? -1 : entry.seq;
+	}
+
+	/**
+	 * @return the entry with the given sequence number, or null if it has been removed
+	 */
+	IdEntry<V> entryAtSeq(int seq) {
+		Objects.checkIndex(seq, nextSeq);
+		return slot(seq);
+	}
+
+	//
+	// Diffs
+	//
+
+	/**
+	 * Calls <code>onRemoved</code> for the ID of every entry in <code>prior</code> that is absent from <code>current</code>,
+	 * in reverse order; then calls <code>onAddedOrChanged</code> for the ID of every entry in <code>current</code>
+	 * that is absent from <code>prior</code> or has a different value object, in order.
+	 *
+	 * <p>
+	 * Portions of the order trie shared by both maps are skipped,
+	 * so when <code>current</code> is derived from <code>prior</code> by a few updates,
+	 * this takes time proportional to the number of updates rather than the size of the maps.
+	 */
+	static void forEachDifference(IdentifierMap<?> prior, IdentifierMap<?> current, Consumer<Identifier> onRemoved, Consumer<Identifier> onAddedOrChanged) {
+		if (prior == current) {
+			return;
+		}
+		List<Identifier> removed = new ArrayList<>();
+		List<Identifier> addedOrChanged = new ArrayList<>();
+
+		// Bring both order tries to the same height by descending into the first child of the taller one.
+		// Slots beyond the shorter one's capacity are compared against nothing.
+		int shift = Math.max(prior.orderShift, current.orderShift);
+		diffOrderNodes(prior, current,
+			liftedTo(prior.orderRoot, prior.orderShift, shift),
+			liftedTo(current.orderRoot, current.orderShift, shift),
+			shift, removed, addedOrChanged);
+
+		removed.reversed().forEach(onRemoved);
+		addedOrChanged.forEach(onAddedOrChanged);
+	}
+
+	/**
+	 * @return an order trie node at level <code>toShift</code> covering the same slots as <code>node</code>,
+	 * which is at level <code>fromShift</code>.
+	 * This is what <code>node</code> would look like in a taller trie.
+	 */
+	private static Object[] liftedTo(Object[] node, int fromShift, int toShift) {
+		Object[] result = node;
+		for (int s = fromShift; s < toShift; s += 5) {
+			result = new Object[]{ result };
+		}
+		return result;
+	}
+
+	private static void diffOrderNodes(IdentifierMap<?> prior, IdentifierMap<?> current, Object[] priorNode, Object[] currentNode, int shift, List<Identifier> removed, List<Identifier> addedOrChanged) {
+		if (priorNode == currentNode) {
+			return;
+		}
+		int length = Math.max(lengthOf(priorNode), lengthOf(currentNode));
+		for (int i = 0; i < length; i++) {
+			Object p = elementOf(priorNode, i);
+			Object c = elementOf(currentNode, i);
+			if (p == c) {
+				continue;
+			}
+			if (shift == 0) {
+				if (p instanceof IdEntry<?> pe && !current.containsKey(pe.id)) {
+					removed.add(pe.id);
+				}
+				if (c instanceof IdEntry<?> ce && prior.get(ce.id) != ce.value) {
+					addedOrChanged.add(ce.id);
+				}
+			} else {
+				diffOrderNodes(prior, current, (Object[]) p, (Object[]) c, shift - 5, removed, addedOrChanged);
+			}
+		}
+	}
+
+	private static int lengthOf(Object[] node) {
+		return (node == null) ? 0 : node.length;
+	}
+
+	private static Object elementOf(Object[] node, int index) {
+		return (node == null || index >= node.length) ? null : node[index];
+	}
+
+	//
+	// Hash trie.
+	// Each node is an Object[] whose elements are each an IdEntry, a CollisionNode, or a child node,
+	// with a bitmap indicating which of the 32 possible positions are occupied.
+	// Child nodes store their bitmap in element 0, boxed, ahead of their contents;
+	// the root's bitmap is in hashBitmap so that lookups don't need to unbox it.
+	// Identifiers whose hashes collide completely share a CollisionNode.
+	//
+
+	private IdEntry<V> entryFor(Identifier id) {
+		return entryFor(hashRoot, hashBitmap, id, hash(id));
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <V> IdEntry<V> entryFor(Object[] root, int rootBitmap, Identifier id, int hash) {
+		Object[] node = root;
+		int bitmap = rootBitmap;
+		int offset = 0;
+		for (int shift = 0; ; shift += 5) {
+			int bit = bitFor(hash, shift);
+			if ((bitmap & bit) == 0) {
+				return null;
+			}
+			Object element = node[offset + Integer.bitCount(bitmap & (bit - 1))];
+			switch (element) {
+				case IdEntry<?> e -> {
+					return (e.hash == hash && e.id.equals(id)) ? (IdEntry<V>) e : null;
+				}
+				case CollisionNode c -> {
+					return (IdEntry<V>) c.find(id);
+				}
+				default -> {
+					node = (Object[]) element;
+					bitmap = (Integer) node[0];
+					offset = 1;
+				}
+			}
+		}
+	}
+
+	/**
+	 * @param bitmap for the root, {@link #hashBitmap}; for child nodes, element 0
+	 * @return the new node, containing <code>entry</code> in place of any existing entry with the same ID
+	 */
+	private static Object[] hashPut(Editor editor, Object[] node, int bitmap, int shift, IdEntry<?> entry) {
+		int offset = (shift == 0) ? 0 : 1;
+		int bit = bitFor(entry.hash, shift);
+		int index = offset + Integer.bitCount(bitmap & (bit - 1));
+		if ((bitmap & bit) == 0) {
+			Object[] result = editor.resized(node, node.length + 1);
+			System.arraycopy(node, 0, result, 0, index);
+			result[index] = entry;
+			System.arraycopy(node, index, result, index + 1, node.length - index);
+			if (offset == 1) {
+				result[0] = bitmap | bit;
+			}
+			return result;
+		}
+		Object existing = node[index];
+		Object replacement = switch (existing) {
+			case IdEntry<?> e when e.id.equals(entry.id) -> entry;
+			case IdEntry<?> e when e.hash == entry.hash -> new CollisionNode(e.hash, new IdEntry<?>[]{ e, entry });
+			case IdEntry<?> e -> newChild(editor, shift + 5, e, e.hash, entry);
+			case CollisionNode c when c.hash == entry.hash -> c.with(entry);
+			case CollisionNode c -> newChild(editor, shift + 5, c, c.hash, entry);
+			default -> {
+				Object[] child = (Object[]) existing;
+				yield hashPut(editor, child, (Integer) child[0], shift + 5, entry);
+			}
+		};
+		Object[] result = editor.own(node);
+		result[index] = replacement;
+		return result;
+	}
+
+	/**
+	 * @return a new level-<code>shift</code> node containing <code>existing</code> and <code>entry</code>,
+	 * whose hashes differ
+	 */
+	private static Object[] newChild(Editor editor, int shift, Object existing, int existingHash, IdEntry<?> entry) {
+		int existingBit = bitFor(existingHash, shift);
+		int entryBit = bitFor(entry.hash, shift);
+		if (existingBit == entryBit) {
+			return editor.fresh(new Object[]{ existingBit, newChild(editor, shift + 5, existing, existingHash, entry) });
+		} else if (Integer.compareUnsigned(existingBit, entryBit) < 0) {
+			return editor.fresh(new Object[]{ existingBit | entryBit, existing, entry });
+		} else {
+			return editor.fresh(new Object[]{ existingBit | entryBit, entry, existing });
+		}
+	}
+
+	/**
+	 * Precondition: the entry is present.
+	 * @return the new node, which has zero elements (aside from its bitmap) if it's now empty
+	 */
+	private static Object[] hashRemove(Editor editor, Object[] node, int bitmap, int shift, IdEntry<?> entry) {
+		int offset = (shift == 0) ? 0 : 1;
+		int bit = bitFor(entry.hash, shift);
+		int index = offset + Integer.bitCount(bitmap & (bit - 1));
+		Object existing = node[index];
+		Object replacement = switch (existing) {
+			case IdEntry<?> _ -> null;
+			case CollisionNode c -> c.without(entry.id);
+			default -> {
+				Object[] child = (Object[]) existing;
+				Object[] newChild = hashRemove(editor, child, (Integer) child[0], shift + 5, entry);
+				if (newChild.length == 1) {
+					yield null;
+				} else if (newChild.length == 2 && newChild[1] instanceof IdEntry<?> onlyEntry) {
+					// Pull a lone entry up to this level
+					yield onlyEntry;
+				} else {
+					yield newChild;
+				}
+			}
+		};
+		if (replacement == null) {
+			Object[] result = editor.resized(node, node.length - 1);
+			System.arraycopy(node, 0, result, 0, index);
+			System.arraycopy(node, index + 1, result, index, node.length - index - 1);
+			if (offset == 1) {
+				result[0] = bitmap & ~bit;
+			}
+			return result;
+		} else {
+			Object[] result = editor.own(node);
+			result[index] = replacement;
+			return result;
+		}
+	}
+
+	private static int hash(Identifier id) {
+		int h = id.hashCode();
+		return h ^ (h >>> 16);
+	}
+
+	private static int bitFor(int hash, int shift) {
+		return 1 << ((hash >>> shift) & 31);
+	}
+
+	private record CollisionNode(int hash, IdEntry<?>[] entries) {
+		IdEntry<?> find(Identifier id) {
+			for (IdEntry<?> e : entries) {
+				if (e.id.equals(id)) {
+					return e;
+				}
+			}
+			return null;
+		}
+
+		Object with(IdEntry<?> entry) {
+			for (int i = 0; i < entries.length; i++) {
+				if (entries[i].id.equals(entry.id)) {
+					IdEntry<?>[] newEntries = entries.clone();
+					newEntries[i] = entry;
+					return new CollisionNode(hash, newEntries);
+				}
+			}
+			IdEntry<?>[] newEntries = Arrays.copyOf(entries, entries.length + 1);
+			newEntries[entries.length] = entry;
+			return new CollisionNode(hash, newEntries);
+		}
+
+		/**
+		 * @return the remaining {@link IdEntry} if there's just one; else a new {@link CollisionNode}
+		 */
+		Object without(Identifier id) {
+			IdEntry<?>[] remaining = Arrays.stream(entries)
+				.filter(e -> !e.id.equals(id))
+				.toArray(IdEntry<?>[]::new);
+			return (remaining.length == 1) ? remaining[0] : new CollisionNode(hash, remaining);
+		}
+	}
+
+	//
+	// Order trie.
+	// Each node is an Object[] of up to 32 elements, sized to fit its contents,
+	// except that nodes created by a Transient have all 32 so they can be appended to in place.
+	// At level 0 (the leaves) the elements are IdEntry objects, or null for tombstones.
+	// Elements beyond the last occupied slot are null.
+	//
+
+	@SuppressWarnings("unchecked")
+	private IdEntry<V> slot(int seq) {
+		return (IdEntry<V>) leafFor(seq)[seq & 31];
+	}
+
+	private Object[] leafFor(int seq) {
+		Object[] node = orderRoot;
+		for (int shift = orderShift; shift > 0; shift -= 5) {
+			node = (Object[]) node[(seq >>> shift) & 31];
+		}
+		return node;
+	}
+
+	private static Object[] orderAppend(Editor editor, Object[] node, int shift, IdEntry<?> entry) {
+		int index = (entry.seq >>> shift) & 31;
+		Object[] result = editor.ownOrderNode(node, index + 1);
+		if (shift == 0) {
+			result[index] = entry;
+		} else if (index < node.length && node[index] != null) {
+			result[index] = orderAppend(editor, (Object[]) node[index], shift - 5, entry);
+		} else {
+			result[index] = orderPath(editor, shift - 5, entry);
+		}
+		return result;
+	}
+
+	/**
+	 * @return a new level-<code>shift</code> node whose only slot holds <code>entry</code>;
+	 * or, if <code>shift</code> is negative, <code>entry</code> itself
+	 */
+	private static Object orderPath(Editor editor, int shift, IdEntry<?> entry) {
+		if (shift < 0) {
+			return entry;
+		} else {
+			Object[] result = editor.newOrderNode(1);
+			result[0] = orderPath(editor, shift - 5, entry);
+			return result;
+		}
+	}
+
+	private static Object[] orderSet(Editor editor, Object[] node, int shift, int seq, IdEntry<?> entryOrNull) {
+		Object[] result = editor.own(node);
+		int index = (seq >>> shift) & 31;
+		if (shift == 0) {
+			result[index] = entryOrNull;
+		} else {
+			result[index] = orderSet(editor, (Object[]) node[index], shift - 5, seq, entryOrNull);
+		}
+		return result;
+	}
+
+	//
+	// Iteration
+	//
+
+	/**
+	 * Iterates the live entries with sequence numbers in the given range, in order.
+	 */
+	private static final class SlotIterator<V, T> implements Iterator<T> {
+		private final IdentifierMap<V> map;
+		private final int end;
+		private final Function<IdEntry<V>, T> projection;
+		private int seq;
+		private Object[] leaf;
+		private IdEntry<V> next;
+
+		SlotIterator(IdentifierMap<V> map, int start, int end, Function<IdEntry<V>, T> projection) {
+			this.map = map;
+			this.end = end;
+			this.projection = projection;
+			this.seq = start;
+			this.next = advance();
+		}
+
+		@SuppressWarnings("unchecked")
+		private IdEntry<V> advance() {
+			while (seq < end) {
+				if (leaf == null || (seq & 31) == 0) {
+					leaf = map.leafFor(seq);
+				}
+				Object element = leaf[seq & 31];
+				seq++;
+				if (element != null) {
+					return (IdEntry<V>) element;
+				}
+			}
+			return null;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return next != null;
+		}
+
+		@Override
+		public T next() {
+			IdEntry<V> result = next;
+			if (result == null) {
+				throw new NoSuchElementException();
+			}
+			next = advance();
+			return projection.apply(result);
+		}
+
+		int position() {
+			return (next == null) ? end : next.seq;
+		}
+	}
+
+	/**
+	 * Splits by ranges of sequence numbers, aligned to leaf boundaries.
+	 * Sizes are exact only when there are no tombstones in the range,
+	 * which is always true before the first removal.
+	 */
+	private static final class SlotSpliterator<V, T> implements Spliterator<T> {
+		private final IdentifierMap<V> map;
+		private final Function<IdEntry<V>, T> projection;
+		private final int extraCharacteristics;
+		private SlotIterator<V, T> iterator;
+		private int end;
+		private long exactSize; // -1 if unknown
+
+		SlotSpliterator(IdentifierMap<V> map, Function<IdEntry<V>, T> projection, int extraCharacteristics) {
+			this(map, projection, extraCharacteristics, 0, map.nextSeq, map.size);
+		}
+
+		private SlotSpliterator(IdentifierMap<V> map, Function<IdEntry<V>, T> projection, int extraCharacteristics, int start, int end, long exactSize) {
+			this.map = map;
+			this.projection = projection;
+			this.extraCharacteristics = extraCharacteristics;
+			this.iterator = new SlotIterator<>(map, start, end, projection);
+			this.end = end;
+			this.exactSize = exactSize;
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super T> action) {
+			if (iterator.hasNext()) {
+				action.accept(iterator.next());
+				if (exactSize > 0) {
+					exactSize--;
+				}
+				return true;
+			} else {
+				return false;
+			}
+		}
+
+		@Override
+		public void forEachRemaining(Consumer<? super T> action) {
+			iterator.forEachRemaining(action);
+			if (exactSize > 0) {
+				exactSize = 0;
+			}
+		}
+
+		@Override
+		public Spliterator<T> trySplit() {
+			int start = iterator.position();
+			int mid = ((start + end) >>> 1) & ~31;
+			if (mid <= start || end - start < 64) {
+				return null;
+			}
+			boolean dense = (map.nextSeq == map.size);
+			SlotSpliterator<V, T> prefix = new SlotSpliterator<>(map, projection, extraCharacteristics, start, mid, dense ? mid - start : -1);
+			iterator = new SlotIterator<>(map, mid, end, projection);
+			exactSize = dense ? end - mid : -1;
+			return prefix;
+		}
+
+		@Override
+		public long estimateSize() {
+			if (exactSize >= 0) {
+				return exactSize;
+			} else {
+				// Assume tombstones are evenly distributed
+				return (long) (end - iterator.position()) * map.size / Math.max(1, map.nextSeq);
+			}
+		}
+
+		@Override
+		public int characteristics() {
+			int result = ORDERED | IMMUTABLE | NONNULL | extraCharacteristics;
+			if (exactSize >= 0) {
+				result |= SIZED;
+			}
+			if (map.nextSeq == map.size) {
+				// No tombstones, so every split will be sized too
+				result |= SUBSIZED;
+			}
+			return result;
+		}
+	}
+
+	//
+	// Entries
+	//
+
+	static final class IdEntry<V> implements Map.Entry<Identifier, V> {
+		final Identifier id;
+		final V value;
+		final int hash;
+		final int seq;
+
+		IdEntry(Identifier id, V value, int hash, int seq) {
+			this.id = id;
+			this.value = value;
+			this.hash = hash;
+			this.seq = seq;
+		}
+
+		@Override public Identifier getKey() { return id; }
+		@Override public V getValue() { return value; }
+		@Override public V setValue(V value) { throw new UnsupportedOperationException(); }
+
+		@Override
+		public boolean equals(Object o) {
+			return o instanceof Map.Entry<?, ?> e
+				&& id.equals(e.getKey())
+				&& value.equals(e.getValue());
+		}
+
+		@Override
+		public int hashCode() {
+			return id.hashCode() ^ value.hashCode();
+		}
+
+		@Override
+		public String toString() {
+			return id + "=" + value;
+		}
+	}
+}
@@ -9,34 +9,58 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.Spliterator;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collector;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
-import org.pcollections.OrderedPSet;
 import works.bosk.exceptions.NonexistentReferenceException;
 
 import static java.util.Collections.unmodifiableList;
 import static java.util.Collections.unmodifiableMap;
 import static java.util.Collections.unmodifiableSet;
-import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
+import static works.bosk.ListingEntry.LISTING_ENTRY;
 
 /**
  * An immutable ordered collection of references to {@link Entity entities}
  * housed in a particular {@link #domain} {@link Catalog}.
  *
+ * <p>
+ * A listing created by {@link #fromDomain} or {@link #compactedFor} is stored as a bitset
+ * over a snapshot of the domain catalog's entries, which is much smaller than the usual
+ * representation when the listing is large, and makes {@link #containsID}, {@link #filteredBy},
+ * and {@link #union} cheap.
+ * Such a listing switches back to the usual representation when an operation would make it
+ * include an ID that was not in the snapshot, or put its IDs in a different order than the snapshot,
+ * as can happen once the domain has changed.
+ * Either way, its behaviour is the same.
+ *
  * @param <E> the type of {@link Entity} to which this listing's entries refer.
  * @author pdoyle
  */
 public final class Listing<E extends Entity> extends AbstractCollection<Reference<E>> {
 	private final CatalogReference<E> domain;
-	private final OrderedPSet<Identifier> ids;
 
-	Listing(CatalogReference<E> domain, OrderedPSet<Identifier> ids) {
+	/**
+	 * Exactly one of {@link #ids} and {@link #dense} is non-null.
+	 */
+	private final IdentifierMap<ListingEntry> ids;
+	private final DomainBitSet dense;
+
+	Listing(CatalogReference<E> domain, IdentifierMap<ListingEntry> ids) {
 		this.domain = domain;
 		this.ids = ids;
+		this.dense = null;
+	}
+
+	private Listing(CatalogReference<E> domain, DomainBitSet dense) {
+		this.domain = domain;
+		this.ids = null;
+		this.dense = dense;
 	}
 
 	@Override
@@ -45,12 +69,12 @@ public final class Listing<E extends Entity> extends AbstractCollection<Referenc
 			return false;
 		}
 		Listing<?> listing = (Listing<?>) o;
-		return Objects.equals(domain, listing.domain) && Objects.equals(ids, listing.ids);
+		return Objects.equals(domain, listing.domain) && Objects.equals(idSet(), listing.idSet());
 	}
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(domain, ids);
+		return Objects.hash(domain, idSet());
 	}
 
 	/**
@@ -62,7 +86,7 @@ public final class Listing<E extends Entity> extends AbstractCollection<Referenc
 
 	@Override
 	public String toString() {
-		return domain + "/" + ids;
+		return domain + "/" + idSet();
 	}
 
 	//
@@ -71,12 +95,12 @@ public final class Listing<E extends Entity> extends AbstractCollection<Referenc
 
 	@Override
 	public int size() {
-		return ids.size();
+		return (dense == null) ? ids.size() : dense.size();
 	}
 
 	@Override
 	public boolean isEmpty() {
-		return ids.isEmpty();
+		return size() == 0;
 	}
 
 	@Override
@@ -86,7 +110,7 @@ public final class Listing<E extends Entity> extends AbstractCollection<Referenc
 		Reference<?> reference = (Reference<?>) o;
 		return domain.encloses(reference)
 			&& reference.path().truncatedBy(1).equals(domain.path())
-			&& ids.contains(Identifier.from(reference.path().lastSegment()));
+			&& containsID(Identifier.from(reference.path().lastSegment()));
 	}
 
 	//
@@ -94,27 +118,55 @@ public final class Listing<E extends Entity> extends AbstractCollection<Referenc
 	//
 
 	public Collection<Identifier> ids() {
-		return unmodifiableSet(ids);
+		return unmodifiableSet(idSet());
 	}
 
 	public boolean containsID(Identifier id) {
-		return ids.contains(id);
+		return (dense == null) ? ids.containsKey(id) : dense.contains(id);
 	}
 
 	public Stream<Identifier> idStream() {
-		return ids.stream();
+		return idSet().stream();
 	}
 
 	public Listing<E> withID(Identifier id) {
-		return new Listing<>(domain, ids.plus(id));
+		if (dense != null) {
+			DomainBitSet result = dense.with(id);
+			if (result != null) {
+				return new Listing<>(domain, result);
+			}
+		}
+		return new Listing<>(domain, sparseIds().plus(id, LISTING_ENTRY));
 	}
 
 	public Listing<E> withoutID(Identifier id) {
-		return new Listing<>(domain, ids.minus(id));
+		if (dense == null) {
+			return new Listing<>(domain, ids.minus(id));
+		} else {
+			return new Listing<>(domain, dense.without(id));
+		}
 	}
 
+	/**
+	 * Equivalent to calling {@link #withID} for each ID, but faster.
+	 */
 	public Listing<E> withAllIDs(Stream<Identifier> idsToAdd) {
-		return new Listing<>(domain, ids.plusAll(idsToAdd.collect(toList())));
+		Builder<E> builder = toBuilder();
+		idsToAdd.forEachOrdered(builder::add);
+		return builder.build();
+	}
+
+	/**
+	 * Equivalent to calling {@link #withoutID} for each ID, but faster.
+	 */
+	public Listing<E> withoutAllIDs(Stream<Identifier> idsToRemove) {
+		if (dense != null) {
+			Set<Identifier> toRemove = idsToRemove.collect(toSet());
+			return new Listing<>(domain, dense.filteredBy(id -> !toRemove.contains(id)));
+		}
+		Builder<E> builder = toBuilder();
+		idsToRemove.forEachOrdered(builder::remove);
+		return builder.build();
 	}
 
 	//
@@ -137,7 +189,7 @@ public final class Listing<E extends Entity> extends AbstractCollection<Referenc
 
 	@Override
 	public Iterator<Reference<E>> iterator() {
-		Iterator<Identifier> idIter = ids.iterator();
+		Iterator<Identifier> idIter = idSet().iterator();
 		return new Iterator<>() {
 			@Override
 			public boolean hasNext() {
@@ -167,7 +219,7 @@ public final class Listing<E extends Entity> extends AbstractCollection<Referenc
 	 * or does not contain an entity of the given <code>id</code>
 	 */
 	public E getValue(Identifier id) {
-		if (ids.contains(id)) {
+		if (containsID(id)) {
 			return getOrThrow(domain.value(), id);
 		} else {
 			return null;
@@ -179,7 +231,7 @@ public final class Listing<E extends Entity> extends AbstractCollection<Referenc
 	}
 
 	public Spliterator<E> valueSpliterator() {
-		return new DomainLookupSpliterator(ids.spliterator(), domain.value());
+		return new DomainLookupSpliterator(idSet().spliterator(), domain.value());
 	}
 
 	public Iterable<E> values() {
@@ -196,7 +248,7 @@ public final class Listing<E extends Entity> extends AbstractCollection<Referenc
 
 			@Override
 			public Spliterator<E> spliterator() {
-				return new DomainLookupSpliterator(ids.spliterator(), domain);
+				return new DomainLookupSpliterator(idSet().spliterator(), domain);
 			}
 
 			@Override
@@ -218,7 +270,7 @@ public final class Listing<E extends Entity> extends AbstractCollection<Referenc
 
 	public Map<Identifier, E> valueMap() {
 		Map<Identifier, E> result = new LinkedHashMap<>();
-		for (Identifier id : ids) {
+		for (Identifier id : idSet()) {
 			result.put(id, getOrThrow(domain.value(), id));
 		}
 		return unmodifiableMap(result);
@@ -229,7 +281,7 @@ public final class Listing<E extends Entity> extends AbstractCollection<Referenc
 	//
 
 	public static <TT extends Entity> Listing<TT> empty(Reference<Catalog<TT>> domain) {
-		return new Listing<>(CatalogReference.from(domain), OrderedPSet.empty());
+		return new Listing<>(CatalogReference.from(domain), IdentifierMap.empty());
 	}
 
 	public static <TT extends Entity> Listing<TT> of(Reference<Catalog<TT>> domain, Identifier... ids) {
@@ -237,11 +289,97 @@ public final class Listing<E extends Entity> extends AbstractCollection<Referenc
 	}
 
 	public static <TT extends Entity> Listing<TT> of(Reference<Catalog<TT>> domain, Collection<Identifier> ids) {
-		return new Listing<>(CatalogReference.from(domain), OrderedPSet.from(ids));
+		Builder<TT> builder = builder(domain);
+		ids.forEach(builder::add);
+		return builder.build();
 	}
 
 	public static <TT extends Entity> Listing<TT> of(Reference<Catalog<TT>> domain, Stream<Identifier> ids) {
-		return of(domain, ids.collect(toList()));
+		Builder<TT> builder = builder(domain);
+		ids.forEachOrdered(builder::add);
+		return builder.build();
+	}
+
+	/**
+	 * @param domainValue the current value of <code>domain</code>
+	 * @return a listing of the entities in <code>domainValue</code> that satisfy <code>filter</code>,
+	 * in the same order, stored as a bitset over the entries of <code>domainValue</code>.
+	 * The result retains only the IDs of <code>domainValue</code>, not its entities,
+	 * so it doesn't keep outdated entities reachable;
+	 * still, it costs one bit per domain entry, so this is best used
+	 * for listings that are large relative to their domain and are rebuilt when the domain changes.
+	 */
+	public static <TT extends Entity> Listing<TT> fromDomain(Reference<Catalog<TT>> domain, Catalog<TT> domainValue, Predicate<? super TT> filter) {
+		return new Listing<>(CatalogReference.from(domain), DomainBitSet.matching(domainValue.contents(), filter));
+	}
+
+	/**
+	 * @param domainValue the current value of {@link #domain}
+	 * @return a listing equal to this one, stored as a bitset over the entries of <code>domainValue</code>
+	 * as described for {@link #fromDomain}, if that's possible;
+	 * otherwise this same listing.
+	 * It's possible if every ID in this listing is in <code>domainValue</code>, in the same order.
+	 */
+	public Listing<E> compactedFor(Catalog<E> domainValue) {
+		DomainBitSet result = DomainBitSet.ofOrdered(domainValue.contents(), idSet());
+		return (result == null) ? this : new Listing<>(domain, result);
+	}
+
+	public static <TT extends Entity> Builder<TT> builder(Reference<Catalog<TT>> domain) {
+		return new Builder<>(CatalogReference.from(domain), IdentifierMap.<ListingEntry>empty().toTransient());
+	}
+
+	/**
+	 * @return a {@link Builder} with the same {@link #domain} and initially containing the same IDs as this listing.
+	 * Changes to the builder do not affect this listing.
+	 */
+	public Builder<E> toBuilder() {
+		return new Builder<>(domain, sparseIds().toTransient());
+	}
+
+	/**
+	 * Accumulates IDs into a {@link Listing} by modifying data structures in place,
+	 * which is much faster than a sequence of calls to {@link Listing#withID}
+	 * when there are many IDs.
+	 * {@link #build()} takes constant time, and the builder can continue to be used afterward
+	 * without affecting the listings it has already built.
+	 *
+	 * <p>
+	 * Not thread-safe.
+	 */
+	public static final class Builder<EE extends Entity> {
+		private final CatalogReference<EE> domain;
+		private final IdentifierMap.Transient<ListingEntry> ids;
+
+		private Builder(CatalogReference<EE> domain, IdentifierMap.Transient<ListingEntry> ids) {
+			this.domain = domain;
+			this.ids = ids;
+		}
+
+		/**
+		 * Adds <code>id</code> at the end, unless it's already present.
+		 */
+		public Builder<EE> add(Identifier id) {
+			ids.put(id, LISTING_ENTRY);
+			return this;
+		}
+
+		public Builder<EE> remove(Identifier id) {
+			ids.remove(id);
+			return this;
+		}
+
+		public boolean containsID(Identifier id) {
+			return ids.containsKey(id);
+		}
+
+		public int size() {
+			return ids.size();
+		}
+
+		public Listing<EE> build() {
+			return new Listing<>(domain, ids.freeze());
+		}
 	}
 
 	//
@@ -258,10 +396,10 @@ public final class Listing<E extends Entity> extends AbstractCollection<Referenc
 		Function<? super T, Identifier> idMapper
 	) {
 		class Accumulator {
-			OrderedPSet<Identifier> ids = OrderedPSet.empty();
-			void accumulate(T item) { ids = ids.plus(idMapper.apply(item)); }
-			Accumulator combine(Accumulator other) { ids = ids.plusAll(other.ids); return this; }
-			Listing<EE> finish() { return Listing.of(domain, ids); }
+			final Builder<EE> builder = builder(domain);
+			void accumulate(T item) { builder.add(idMapper.apply(item)); }
+			Accumulator combine(Accumulator other) { other.builder.ids.freeze().keySet().forEach(builder::add); return this; }
+			Listing<EE> finish() { return builder.build(); }
 		}
 		return Collector.of(
 			Accumulator::new,
@@ -284,15 +422,51 @@ public final class Listing<E extends Entity> extends AbstractCollection<Referenc
 	 * <code>this</code>.
 	 */
 	public Listing<E> filteredBy(Listing<E> other) {
-		return new Listing<>(domain, ids.intersect(other.ids));
+		if (dense != null) {
+			if (other.dense != null && dense.hasSameDomainAs(other.dense)) {
+				return new Listing<>(domain, dense.intersection(other.dense));
+			} else {
+				return new Listing<>(domain, dense.filteredBy(other::containsID));
+			}
+		}
+		Builder<E> result = toBuilder();
+		for (Identifier id : idSet()) {
+			if (!other.containsID(id)) {
+				result.remove(id);
+			}
+		}
+		return result.build();
+	}
+
+	/**
+	 * @return {@link Listing} containing the elements of <code>this</code> in order,
+	 * followed by those elements of <code>other</code> that are not in <code>this</code>,
+	 * in the order they appear in <code>other</code>.
+	 */
+	public Listing<E> union(Listing<E> other) {
+		if (dense != null && other.dense != null && dense.hasSameDomainAs(other.dense)) {
+			DomainBitSet result = dense.union(other.dense);
+			if (result != null) {
+				return new Listing<>(domain, result);
+			}
+		}
+		return withAllIDs(other.idStream());
 	}
 
 	//
 	// Private helpers
 	//
 
+	private Set<Identifier> idSet() {
+		return (dense == null) ? ids.keySet() : dense.asSet();
+	}
+
+	private IdentifierMap<ListingEntry> sparseIds() {
+		return (dense == null) ? ids : dense.toIdentifierMap();
+	}
+
 	private Iterator<E> valueIteratorImpl(AddressableByIdentifier<E> domain) {
-		Iterator<Identifier> iter = ids.iterator();
+		Iterator<Identifier> iter = idSet().iterator();
 		return new Iterator<>() {
 			@Override
 			public boolean hasNext() {
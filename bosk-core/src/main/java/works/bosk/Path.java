@@ -1,5 +1,8 @@
 package works.bosk;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.lang.ref.ReferenceQueue;
 import java.lang.ref.WeakReference;
 import java.net.URLDecoder;
 import java.net.URLEncoder;
@@ -8,22 +11,20 @@ import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
-import java.util.Map;
 import java.util.NoSuchElementException;
-import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
-import java.util.function.Predicate;
-import java.util.function.Supplier;
 import java.util.function.UnaryOperator;
 import java.util.stream.Stream;
+import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import works.bosk.exceptions.MalformedPathException;
 
 import static java.lang.Character.isDigit;
 import static java.lang.String.format;
-import static java.lang.System.identityHashCode;
 import static java.util.Arrays.asList;
+import static java.util.Objects.requireNonNull;
 import static java.util.stream.Collectors.joining;
 import static java.util.stream.Collectors.toList;
 
@@ -160,11 +161,7 @@ public abstract class Path implements Iterable<String> {
 				}
 			}
 			List<String> remainder = segments.subList(1, segments.size());
-			return INTERNER
-				.apply(
-					new InternKey(this, firstSegment),
-					() -> new NestedPath(this, firstSegment))
-				.then(remainder);
+			return child(firstSegment).then(remainder);
 		}
 	}
 
@@ -558,91 +555,103 @@ public abstract class Path implements Iterable<String> {
 		}
 	}
 
-	private static final Path ROOT_PATH = new RootPath();
-
-	private static final Interner<InternKey, Path> INTERNER = new Interner<>();
+	/**
+	 * Interning works by having each path keep track of its own extensions by one segment.
+	 * Each {@link NestedPath} holds its prefix strongly, so a prefix stays alive as long as
+	 * any longer path that starts with it; but the prefix holds its children weakly,
+	 * so they can be collected once they're no longer in use.
+	 * Starting from {@link #ROOT_PATH}, this guarantees that only one {@link Path} object
+	 * with a given sequence of segments can be reachable at a time.
+	 *
+	 * <p>
+	 * Each path has its own map, rather than sharing one global map,
+	 * so threads creating unrelated paths don't contend with each other;
+	 * and lookups of existing paths, which are the vast majority, take no locks at all.
+	 * Most paths never have children, so the map is created on first use.
+	 */
+	private volatile @Nullable ConcurrentHashMap<String, ChildRef> children;
+
+	private ConcurrentHashMap<String, ChildRef> children() {
+		ConcurrentHashMap<String, ChildRef> result = children;
+		if (result == null) {
+			ConcurrentHashMap<String, ChildRef> newMap = new ConcurrentHashMap<>();
+			if (CHILDREN.compareAndSet(this, null, newMap)) {
+				result = newMap;
+			} else {
+				// Another thread got there first. Use theirs.
+				result = requireNonNull(children);
+			}
+		}
+		return result;
+	}
 
-	record InternKey(Path prefix, String segment) {
-		@Override
-		public String toString() {
-			return identityHashCode(prefix) + "/" + segment;
-		}
-	}
-
-	static final class Interner<K, V> {
-		public V apply(K key, Supplier<V> supplier) {
-			synchronized (INTERNED) {
-				WeakReference<V> ref = INTERNED.get(key);
-				if (ref == null) {
-					logMapContents(this::isPathOfLength1, "No entry for {}", key);
-				} else {
-					V existing = ref.get();
-					if (existing == null) {
-						logMapContents(this::isPathOfLength1, "Empty entry for {}", key);
-					} else {
-//						LOGGER.trace("Path interner has entry for {}", key);
-						return existing;
-					}
-				}
-				V newValue = supplier.get();
-				LOGGER.debug("Path interner created {} for {}", identityHashCode(newValue), key);
-				K oldKey = KEEP_ALIVE.put(newValue, key);
-
-				// Important! Make sure INTERNED doesn't hang on to the old key object.
-				// We need to use the same key object that we put into the KEEP_ALIVE map,
-				// even though the old key is supposedly equivalent as per equals and hashCode.
-				INTERNED.remove(key);
-				INTERNED.put(key, new WeakReference<>(newValue));
-
-				if (oldKey == null) {
-					logMapContents(this::isPathOfLength1, "New entry in KEEP_ALIVE for {}: {}->{}", key, identityHashCode(newValue), identityHashCode(key));
-				} else {
-					logMapContents(v->true, "REPLACED entry in KEEP_ALIVE for {}: {}->{} (was {})", key, identityHashCode(newValue), identityHashCode(key), identityHashCode(oldKey));
+	private NestedPath child(String segment) {
+		ConcurrentHashMap<String, ChildRef> children = children();
+		while (true) {
+			ChildRef ref = children.get(segment);
+			if (ref != null) {
+				NestedPath existing = ref.get();
+				if (existing != null) {
+					return existing;
 				}
-				return newValue;
 			}
+			expungeStaleChildren();
+			NestedPath newChild = new NestedPath(this, segment);
+			ChildRef newRef = new ChildRef(this, segment, newChild);
+			boolean installed = (ref == null)
+				? children.putIfAbsent(segment, newRef) == null
+				: children.replace(segment, ref, newRef);
+			if (installed) {
+				LOGGER.trace("Path interner created {}", newChild);
+				return newChild;
+			}
+			// Another thread got there first. Use theirs.
 		}
+	}
 
-		private boolean isPathOfLength1(V v) {
-			return v == null || ((Path) v).length() == 1;
+	/**
+	 * Removes the entries for collected paths from their prefixes' {@link #children} maps.
+	 * Called on interner misses, so a program that keeps creating new paths
+	 * also keeps cleaning up the ones it no longer uses.
+	 */
+	private static void expungeStaleChildren() {
+		for (java.lang.ref.Reference<?> r; (r = STALE_CHILDREN.poll()) != null; ) {
+			ChildRef stale = (ChildRef) r;
+			stale.prefix.children().remove(stale.segment, stale);
 		}
+	}
+
+	private static final class ChildRef extends WeakReference<NestedPath> {
+		final Path prefix;
+		final String segment;
 
-		private void logMapContents(Predicate<V> filter, String titleFormat, Object... args) {
-//			if (LOGGER.isTraceEnabled()) {
-//				LOGGER.debug(titleFormat + ": intern map contents {", args);
-//				LOGGER.trace("\tINTERNED {");
-//				INTERNED.forEach((k,ref) -> {
-//					V v = ref.get();
-//					if (filter.test(v)) {
-//						LOGGER.trace("\t\t{}->{} ; {}", identityHashCode(k), identityHashCode(v), k);
-//					}
-//				});
-//				LOGGER.trace("\t}");
-//				LOGGER.trace("\tKEEP_ALIVE {");
-//				KEEP_ALIVE.forEach((k,v) -> {
-//					if (filter.test(k)) {
-//						LOGGER.trace("\t\t{}->{} ; {}", identityHashCode(k), identityHashCode(v), v);
-//					}
-//				});
-//				LOGGER.trace("\t}");
-//				LOGGER.debug("}");
-//			} else {
-//				LOGGER.debug(titleFormat, args);
-//			}
+		ChildRef(Path prefix, String segment, NestedPath child) {
+			super(child, STALE_CHILDREN);
+			this.prefix = prefix;
+			this.segment = segment;
 		}
+	}
 
-		private final Map<K, WeakReference<V>> INTERNED = new WeakHashMap<>();
+	private static final ReferenceQueue<NestedPath> STALE_CHILDREN = new ReferenceQueue<>();
 
-		/**
-		 * The key object we use in {@link #INTERNED} needs to stay alive as long as the
-		 * value is in use. This map achieves this.
-		 */
-		private final Map<V, K> KEEP_ALIVE = new WeakHashMap<>();
-	}
+	/**
+	 * @deprecated The path interner no longer keeps any maps worth logging. This does nothing.
+	 */
+	@Deprecated
+	@SuppressWarnings("unused")
+	public static void logMapContents(String titleFormat, Object... args) { }
 
-	public static void logMapContents(String titleFormat, Object... args) {
-		INTERNER.logMapContents(p->true, titleFormat, args);
+	private static final VarHandle CHILDREN;
+
+	static {
+		try {
+			CHILDREN = MethodHandles.lookup().findVarHandle(Path.class, "children", ConcurrentHashMap.class);
+		} catch (ReflectiveOperationException e) {
+			throw new ExceptionInInitializerError(e);
+		}
 	}
 
+	private static final Path ROOT_PATH = new RootPath();
+
 	private static final Logger LOGGER = LoggerFactory.getLogger(Path.class);
 }
@@ -42,6 +42,16 @@ public sealed interface Reference<T> permits
 	 */
 	T valueIfExists();
 
+	/**
+	 * Like {@link #valueIfExists()}, but evaluates this reference against the given <code>root</code>
+	 * instead of the state of the current {@link Bosk.ReadSession}, which is not required.
+	 *
+	 * @param root the root of a state tree of the type given by {@link #root()}
+	 * @return The value of the referenced object in <code>root</code>, or <code>null</code> if {@link #path()} refers to a nonexistent object
+	 * @throws IllegalArgumentException if <code>root</code> is not of the bosk's root type
+	 */
+	T valueIfExistsIn(StateTreeNode root);
+
 	/**
 	 * @return The value of the referenced object
 	 * @throws NonexistentReferenceException if {@link #path()} refers to a nonexistent object
@@ -56,6 +66,24 @@ public sealed interface Reference<T> permits
 		}
 	}
 
+	/**
+	 * Like {@link #value()}, but evaluates this reference against the given <code>root</code>
+	 * instead of the state of the current {@link Bosk.ReadSession}, which is not required.
+	 *
+	 * @return The value of the referenced object in <code>root</code>
+	 * @throws NonexistentReferenceException if {@link #path()} refers to a nonexistent object
+	 * @throws IllegalArgumentException if <code>root</code> is not of the bosk's root type
+	 * @see #valueIfExistsIn
+	 */
+	default T valueIn(StateTreeNode root) {
+		T result = valueIfExistsIn(root);
+		if (result == null) {
+			throw new NonexistentReferenceException(this);
+		} else {
+			return result;
+		}
+	}
+
 	/**
 	 * @return false iff {@link #path()} refers to a nonexistent object
 	 * @throws IllegalStateException if there is no open {@link Bosk.ReadSession} on this thread
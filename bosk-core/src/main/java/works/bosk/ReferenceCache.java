@@ -0,0 +1,71 @@
+package works.bosk;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Remembers the {@link Reference}s derived from one particular reference
+ * by adding or binding one {@link Identifier}, or by binding some of its parameters,
+ * so they can be reused rather than rebuilt each time.
+ *
+ * <p>
+ * Building a reference isn't free: it involves path manipulation, type checking,
+ * and a {@link works.bosk.dereferencers.Dereferencer Dereferencer} lookup.
+ * Hook cascades and {@link Listing} iteration do this once per entry,
+ * and typically for the same entries over and over.
+ *
+ * <p>
+ * The references are held weakly, like the children in {@link Path}'s interner,
+ * so a reference stays cached only while something else is still using it,
+ * and the cache never keeps a reference or its {@link Path} alive.
+ * Entries whose references have been collected are removed on the next call to {@link #get}.
+ * Since references compare by value, not identity, a reference that is collected
+ * and rebuilt is indistinguishable from the original.
+ */
+final class ReferenceCache<K, T> {
+	private final ConcurrentHashMap<K, Entry<K, T>> entries = new ConcurrentHashMap<>();
+	private final ReferenceQueue<Reference<T>> collected = new ReferenceQueue<>();
+
+	/**
+	 * @param factory called on a cache miss, possibly more than once if multiple threads miss at once
+	 */
+	Reference<T> get(K key, Function<K, Reference<T>> factory) {
+		expungeCollectedEntries();
+		Entry<K, T> entry = entries.get(key);
+		if (entry != null) {
+			Reference<T> existing = entry.get();
+			if (existing != null) {
+				return existing;
+			}
+		}
+		Reference<T> result = factory.apply(key);
+		entries.put(key, new Entry<>(key, result, collected));
+		return result;
+	}
+
+	/**
+	 * @return the number of entries, after removing any whose references have been collected
+	 */
+	int size() {
+		expungeCollectedEntries();
+		return entries.size();
+	}
+
+	private void expungeCollectedEntries() {
+		for (java.lang.ref.Reference<?> r; (r = collected.poll()) != null; ) {
+			Entry<?, ?> entry = (Entry<?, ?>) r;
+			entries.remove(entry.key, entry);
+		}
+	}
+
+	private static final class Entry<K, T> extends WeakReference<Reference<T>> {
+		final K key;
+
+		Entry(K key, Reference<T> reference, ReferenceQueue<Reference<T>> queue) {
+			super(reference, queue);
+			this.key = key;
+		}
+	}
+}
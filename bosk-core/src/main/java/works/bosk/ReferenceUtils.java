@@ -45,8 +45,17 @@ public final class ReferenceUtils {
 			return new CatalogRef<>(ref.boundBy(bindings), entryClass());
 		}
 
+		@Override
+		public CatalogReference<E> boundTo(Identifier... ids) {
+			// Go through ref.boundTo for its caching
+			return new CatalogRef<>(ref.boundTo(ids), entryClass());
+		}
+
 		@Override
 		public Reference<E> then(Identifier id) {
+			if (ref instanceof BoskBase<?>.ReferenceImpl<?> impl) {
+				return impl.entryReference(entryClass, id);
+			}
 			try {
 				return ref.then(entryClass, id.toString());
 			} catch (InvalidTypeException e) {
@@ -75,6 +84,11 @@ public final class ReferenceUtils {
 			return new ListingRef<>(ref.boundBy(bindings));
 		}
 
+		@Override
+		public ListingReference<E> boundTo(Identifier... ids) {
+			return new ListingRef<>(ref.boundTo(ids));
+		}
+
 		@Override
 		public Reference<ListingEntry> then(Identifier id) {
 			try {
@@ -118,6 +132,11 @@ public final class ReferenceUtils {
 			return new SideTableRef<>(ref.boundBy(bindings), keyClass(), valueClass());
 		}
 
+		@Override
+		public SideTableReference<K, V> boundTo(Identifier... ids) {
+			return new SideTableRef<>(ref.boundTo(ids), keyClass(), valueClass());
+		}
+
 		@Override
 		public boolean equals(Object o) {
 			if (this == o) {
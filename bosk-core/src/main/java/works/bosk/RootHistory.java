@@ -0,0 +1,125 @@
+package works.bosk;
+
+import java.time.Instant;
+import java.time.InstantSource;
+import org.jspecify.annotations.Nullable;
+import works.bosk.BoskBase.Snapshot;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The most recently published {@link Snapshot Snapshots} of a bosk,
+ * up to a fixed capacity, along with the time each was published.
+ * Older snapshots are discarded as new ones arrive.
+ *
+ * <p>
+ * Successive roots share all the nodes that weren't changed between them,
+ * so the memory retained by the history is proportional to the size of the updates
+ * rather than to the size of the state tree.
+ *
+ * <p>
+ * Snapshots must be recorded in increasing order of revision.
+ * Timestamps are adjusted so they never decrease, even if the clock does,
+ * which is what allows {@link #asOf} to use a binary search.
+ */
+final class RootHistory<R> {
+	private final InstantSource clock;
+	private final Entry<R>[] entries;
+	private int oldest = 0;
+	private int size = 0;
+
+	record Entry<RR>(Snapshot<RR> snapshot, Instant published) { }
+
+	@SuppressWarnings("unchecked")
+	RootHistory(int capacity, InstantSource clock) {
+		this.clock = requireNonNull(clock);
+		this.entries = (Entry<R>[]) new Entry<?>[capacity];
+	}
+
+	boolean isEnabled() {
+		return entries.length > 0;
+	}
+
+	/**
+	 * Adds <code>snapshot</code> as the newest entry, discarding the oldest entry if the history is full.
+	 */
+	synchronized void record(Snapshot<R> snapshot) {
+		if (!isEnabled()) {
+			return;
+		}
+		Instant published = clock.instant();
+		if (size > 0) {
+			Entry<R> newest = get(size - 1);
+			assert newest.snapshot().revision() < snapshot.revision();
+			if (published.isBefore(newest.published())) {
+				published = newest.published();
+			}
+		}
+		Entry<R> entry = new Entry<>(snapshot, published);
+		if (size < entries.length) {
+			entries[(oldest + size) % entries.length] = entry;
+			++size;
+		} else {
+			entries[oldest] = entry;
+			oldest = (oldest + 1) % entries.length;
+		}
+	}
+
+	/**
+	 * @return the snapshot with the given revision, or null if it isn't in the history
+	 */
+	synchronized @Nullable Snapshot<R> at(long revision) {
+		int low = 0;
+		int high = size - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			long midRevision = get(mid).snapshot().revision();
+			if (midRevision < revision) {
+				low = mid + 1;
+			} else if (midRevision > revision) {
+				high = mid - 1;
+			} else {
+				return get(mid).snapshot();
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @return the newest snapshot published no later than <code>instant</code>,
+	 * or null if the history has no entry that old
+	 */
+	synchronized @Nullable Snapshot<R> asOf(Instant instant) {
+		// Find the first entry published after the instant
+		int low = 0;
+		int high = size;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (get(mid).published().isAfter(instant)) {
+				high = mid;
+			} else {
+				low = mid + 1;
+			}
+		}
+		return (low == 0) ? null : get(low - 1).snapshot();
+	}
+
+	/**
+	 * @return the oldest entry in the history, or null if the history is empty
+	 */
+	synchronized @Nullable Entry<R> oldest() {
+		return (size == 0) ? null : get(0);
+	}
+
+	/**
+	 * @param index 0 for the oldest entry
+	 */
+	private Entry<R> get(int index) {
+		return entries[(oldest + index) % entries.length];
+	}
+
+	@Override
+	public String toString() {
+		return "RootHistory(capacity=" + entries.length + ")";
+	}
+}
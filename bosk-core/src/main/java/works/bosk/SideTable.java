@@ -2,7 +2,7 @@ package works.bosk;
 
 import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.Collection;
-import java.util.LinkedHashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -14,9 +14,11 @@ import java.util.function.Supplier;
 import java.util.function.UnaryOperator;
 import java.util.stream.Collector;
 import java.util.stream.Stream;
-import org.pcollections.OrderedPMap;
-import org.pcollections.OrderedPSet;
 
+import static java.util.Collections.unmodifiableCollection;
+import static java.util.Collections.unmodifiableList;
+import static java.util.Collections.unmodifiableMap;
+import static java.util.Collections.unmodifiableSet;
 import static java.util.Objects.requireNonNull;
 
 /**
@@ -29,9 +31,9 @@ import static java.util.Objects.requireNonNull;
  */
 public final class SideTable<K extends Entity, V> implements EnumerableByIdentifier<V> {
 	private final CatalogReference<K> domain;
-	private final OrderedPMap<Identifier, V> valuesById;
+	private final IdentifierMap<V> valuesById;
 
-	private SideTable(CatalogReference<K> domain, OrderedPMap<Identifier, V> valuesById) {
+	private SideTable(CatalogReference<K> domain, IdentifierMap<V> valuesById) {
 		this.domain = domain;
 		this.valuesById = valuesById;
 	}
@@ -49,12 +51,23 @@ public final class SideTable<K extends Entity, V> implements EnumerableByIdentif
 		return domain;
 	}
 
-	public List<Identifier> ids() { return List.copyOf(valuesById.keySet()); }
-	public Listing<K> keys() { return new Listing<>(domain, OrderedPSet.from(valuesById.keySet())); }
-	public Collection<V> values() { return valuesById.values(); }
+	public List<Identifier> ids() { return unmodifiableList(valuesById.ids()); }
+	public Collection<V> values() { return unmodifiableCollection(valuesById.values()); }
 
-	public Set<Entry<Identifier, V>> idEntrySet() { return valuesById.entrySet(); }
-	public Map<Identifier, V> asMap() { return valuesById; }
+	public Listing<K> keys() {
+		Listing.Builder<K> builder = Listing.builder(domain);
+		valuesById.keySet().forEach(builder::add);
+		return builder.build();
+	}
+
+	public Set<Entry<Identifier, V>> idEntrySet() { return unmodifiableSet(valuesById.entrySet()); }
+	public Map<Identifier, V> asMap() { return unmodifiableMap(valuesById); }
+
+	/**
+	 * The underlying map, for internal use.
+	 * Identity comparisons on it are meaningful; see {@link ContainerDiff}.
+	 */
+	IdentifierMap<V> valuesById() { return valuesById; }
 
 	public Stream<Entry<K, V>> valueEntryStream() {
 		AddressableByIdentifier<K> domainValue = domain.value();
@@ -105,12 +118,30 @@ public final class SideTable<K extends Entity, V> implements EnumerableByIdentif
 		return this.without(key.id());
 	}
 
+	/**
+	 * Equivalent to calling {@link #with(Identifier, Object)} for each entry, but faster.
+	 */
+	public SideTable<K, V> withAll(Stream<Entry<Identifier, V>> entries) {
+		Builder<K, V> builder = toBuilder();
+		entries.forEachOrdered(e -> builder.put(e.getKey(), e.getValue()));
+		return builder.build();
+	}
+
+	/**
+	 * Equivalent to calling {@link #without(Identifier)} for each ID, but faster.
+	 */
+	public SideTable<K, V> withoutAll(Stream<Identifier> ids) {
+		Builder<K, V> builder = toBuilder();
+		ids.forEachOrdered(builder::remove);
+		return builder.build();
+	}
+
 	/**
 	 * If you get type inference errors with this one, try specifying the value class
 	 * with {@link #empty(Reference, Class)}.
 	 */
 	public static <KK extends Entity, VV> SideTable<KK, VV> empty(Reference<Catalog<KK>> domain) {
-		return new SideTable<>(CatalogReference.from(domain), OrderedPMap.empty());
+		return new SideTable<>(CatalogReference.from(domain), IdentifierMap.empty());
 	}
 
 	public static <KK extends Entity, VV> SideTable<KK, VV> empty(Reference<Catalog<KK>> domain, Class<VV> ignored) {
@@ -118,7 +149,7 @@ public final class SideTable<K extends Entity, V> implements EnumerableByIdentif
 	}
 
 	public static <KK extends Entity, VV> SideTable<KK, VV> of(Reference<Catalog<KK>> domain, Identifier id, VV value) {
-		return new SideTable<>(CatalogReference.from(domain), OrderedPMap.singleton(id, value));
+		return new SideTable<>(CatalogReference.from(domain), IdentifierMap.<VV>empty().plus(id, value));
 	}
 
 	public static <KK extends Entity, VV> SideTable<KK, VV> of(Reference<Catalog<KK>> domain, KK key, VV value) {
@@ -134,23 +165,18 @@ public final class SideTable<K extends Entity, V> implements EnumerableByIdentif
 	}
 
 	public static <KK extends Entity, VV> SideTable<KK, VV> copyOf(Reference<Catalog<KK>> domain, Map<Identifier, VV> contents) {
-		OrderedPMap<Identifier, VV> map = OrderedPMap.from(contents);
-		map.forEach((k, v) -> {
-			requireNonNull(k);
-			requireNonNull(v);
-		});
-		return new SideTable<>(CatalogReference.from(domain), map);
+		Builder<KK, VV> builder = builder(domain);
+		contents.forEach(builder::put);
+		return builder.build();
 	}
 
 	public static <KK extends Entity, VV> SideTable<KK, VV> fromFunction(Reference<Catalog<KK>> domain, Stream<Identifier> keyIDs, Function<Identifier, VV> function) {
-		LinkedHashMap<Identifier, VV> map = new LinkedHashMap<>();
-		keyIDs.forEachOrdered(id -> {
-			VV existing = map.put(id, function.apply(id));
-			if (existing != null) {
-				throw new IllegalArgumentException("Multiple entries with id \"" + id + "\"");
-			}
-		});
-		return new SideTable<>(CatalogReference.from(domain), OrderedPMap.from(map));
+		Builder<KK, VV> builder = builder(domain);
+		for (Iterator<Identifier> iter = keyIDs.iterator(); iter.hasNext(); ) {
+			Identifier id = iter.next();
+			builder.putNew(id, function.apply(id));
+		}
+		return builder.build();
 	}
 
 	public static <T, KK extends Entity, VV> Collector<T, ?, SideTable<KK, VV>> toSideTable(
@@ -159,10 +185,10 @@ public final class SideTable<K extends Entity, V> implements EnumerableByIdentif
 		Function<? super T, ? extends VV> valueMapper
 	) {
 		class Accumulator {
-			OrderedPMap<Identifier, VV> map = OrderedPMap.empty();
-			void accumulate(T item) { map = map.plus(idMapper.apply(item), valueMapper.apply(item)); }
-			Accumulator combine(Accumulator other) { map = map.plusAll(other.map); return this; }
-			SideTable<KK, VV> finish() { return SideTable.copyOf(domain, map); }
+			final Builder<KK, VV> builder = builder(domain);
+			void accumulate(T item) { builder.put(idMapper.apply(item), valueMapper.apply(item)); }
+			Accumulator combine(Accumulator other) { other.builder.map.freeze().forEach(builder::put); return this; }
+			SideTable<KK, VV> finish() { return builder.build(); }
 		}
 		return Collector.of(
 			Accumulator::new,
@@ -173,32 +199,55 @@ public final class SideTable<K extends Entity, V> implements EnumerableByIdentif
 	}
 
 	public static <KK extends Entity, VV> SideTable<KK, VV> fromEntries(Reference<Catalog<KK>> domain, Stream<Entry<Identifier, VV>> entries) {
-		LinkedHashMap<Identifier, VV> map = new LinkedHashMap<>();
-		entries.forEachOrdered(entry -> {
-			Identifier id = entry.getKey();
-			VV value = entry.getValue();
-			VV existing = map.put(id, value);
-			if (existing != null) {
-				throw new IllegalArgumentException("Multiple entries with id \"" + id + "\"");
-			}
-		});
-		return new SideTable<>(CatalogReference.from(domain), OrderedPMap.from(map));
+		Builder<KK, VV> builder = builder(domain);
+		for (Iterator<Entry<Identifier, VV>> iter = entries.iterator(); iter.hasNext(); ) {
+			Entry<Identifier, VV> entry = iter.next();
+			builder.putNew(entry.getKey(), entry.getValue());
+		}
+		return builder.build();
 	}
 
 	public static <KK extends Entity, VV> Builder<KK, VV> builder(Reference<Catalog<KK>> domain) {
 		return new Builder<>(CatalogReference.from(domain));
 	}
 
+	/**
+	 * @return a {@link Builder} with the same {@link #domain} and initially containing the same entries as this side table.
+	 * Changes to the builder do not affect this side table.
+	 */
+	public Builder<K, V> toBuilder() {
+		return new Builder<>(domain, valuesById.toTransient());
+	}
+
+	/**
+	 * Accumulates entries into a {@link SideTable} by modifying data structures in place,
+	 * which is much faster than a sequence of calls to {@link SideTable#with}
+	 * when there are many entries.
+	 * {@link #build()} takes constant time, and the builder can continue to be used afterward
+	 * without affecting the side tables it has already built.
+	 *
+	 * <p>
+	 * Not thread-safe.
+	 */
 	public static class Builder<KK extends Entity, VV> {
 		private final CatalogReference<KK> domain;
-		private OrderedPMap<Identifier, VV> map = OrderedPMap.empty();
+		private final IdentifierMap.Transient<VV> map;
 
 		public Builder(CatalogReference<KK> domain) {
+			this(domain, IdentifierMap.<VV>empty().toTransient());
+		}
+
+		private Builder(CatalogReference<KK> domain, IdentifierMap.Transient<VV> map) {
 			this.domain = domain;
+			this.map = map;
 		}
 
+		/**
+		 * Like {@link SideTable#with(Identifier, Object)}: adds an entry at the end,
+		 * or replaces the value of any existing entry with the same ID, keeping its position.
+		 */
 		public Builder<KK, VV> put(Identifier id, VV value) {
-			map = map.plus(id, value);
+			map.put(id, value);
 			return this;
 		}
 
@@ -206,8 +255,38 @@ public final class SideTable<K extends Entity, V> implements EnumerableByIdentif
 			return put(key.id(), value);
 		}
 
+		/**
+		 * Like {@link #put(Identifier, Object)}, but for use when the entry is expected to be new.
+		 *
+		 * @throws IllegalArgumentException if there's already an entry with the same ID
+		 */
+		public Builder<KK, VV> putNew(Identifier id, VV value) {
+			if (map.containsKey(requireNonNull(id))) {
+				throw new IllegalArgumentException("Multiple entries with id \"" + id + "\"");
+			}
+			map.put(id, value);
+			return this;
+		}
+
+		public Builder<KK, VV> remove(Identifier id) {
+			map.remove(id);
+			return this;
+		}
+
+		public Builder<KK, VV> remove(KK key) {
+			return remove(key.id());
+		}
+
+		public boolean containsID(Identifier id) {
+			return map.containsKey(id);
+		}
+
+		public int size() {
+			return map.size();
+		}
+
 		public SideTable<KK, VV> build() {
-			return new SideTable<>(domain, map);
+			return new SideTable<>(domain, map.freeze());
 		}
 	}
 
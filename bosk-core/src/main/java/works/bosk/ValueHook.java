@@ -0,0 +1,45 @@
+package works.bosk;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A {@link BoskHook} that also receives the scope object's values from before and after the change,
+ * sparing it from reading the new value or keeping its own copy of the old one.
+ * Register it like any other hook; for example:
+ *
+ * <pre>{@code
+ * bosk.hookRegistrar().registerHook("widgets", refs.anyWidget(), (ValueHook<Widget>) (ref, oldWidget, newWidget) -> {
+ *     ...
+ * });
+ * }</pre>
+ *
+ * <p>
+ * Holding the old value keeps it from being collected until the call runs,
+ * in addition to the new state that any queued hook call retains.
+ *
+ * @see HookRegistrar#registerHook
+ */
+@FunctionalInterface
+public interface ValueHook<T> extends BoskHook<T> {
+	/**
+	 * @param reference as for {@link BoskHook#onChanged(Reference)}
+	 * @param oldValue the object at <code>reference</code> before the change, or null if it didn't exist.
+	 *                 If calls were {@link HookRegistrar.Coalescing coalesced},
+	 *                 this is the value from before the first of them.
+	 *                 When the hook is first registered, this is null.
+	 * @param newValue the object at <code>reference</code> after the change, or null if it doesn't exist.
+	 *                 This is the same as <code>reference.valueIfExists()</code> in the hook's read session.
+	 * @throws InterruptedException as for {@link BoskHook#onChanged(Reference)}
+	 */
+	void onChanged(Reference<T> reference, @Nullable T oldValue, @Nullable T newValue) throws InterruptedException;
+
+	/**
+	 * Called instead of {@link #onChanged(Reference, Object, Object)} only by code that isn't aware of it,
+	 * such as a {@link HookRegistrar} that wraps hooks without preserving their type.
+	 * The old value is unknown, so it is passed as null.
+	 */
+	@Override
+	default void onChanged(Reference<T> reference) throws InterruptedException {
+		onChanged(reference, null, reference.valueIfExists());
+	}
+}
@@ -0,0 +1,23 @@
+package works.bosk;
+
+/**
+ * Identifies a set of updates submitted to a {@link BoskDriver},
+ * so that a reader can wait for just those updates to be applied,
+ * rather than performing a full {@link BoskDriver#flush() flush}.
+ * Obtained from {@link BoskDriver#writeToken()} and passed to {@link BoskDriver#awaitApplied}.
+ *
+ * <p>
+ * Tokens are opaque: their contents are meaningful only to the kind of driver that created them,
+ * and any driver that doesn't recognize a token treats it like {@link #FLUSH}.
+ * Tokens are immutable, so they can be freely passed between threads.
+ */
+public interface WriteToken {
+	/**
+	 * Conveys nothing about which updates were submitted,
+	 * so awaiting it amounts to a full {@link BoskDriver#flush() flush}.
+	 * This is what {@link BoskDriver#writeToken()} returns by default.
+	 */
+	WriteToken FLUSH = new Flush();
+
+	record Flush() implements WriteToken { }
+}
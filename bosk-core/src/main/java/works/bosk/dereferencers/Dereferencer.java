@@ -25,7 +25,7 @@ public interface Dereferencer {
 	 * Note that dereferencer throws if the entry is nonexistent.
 	 * This was intended to short-circuit the evaluation, but actually
 	 * has the effect of doing a stack walk even for callers like {@link Reference#valueIfExists()}
-	 * that are anticipating nulls. TODO: Find a way to return null instead of throwing here.
+	 * that are anticipating nulls. Such callers should use {@link #getIfExists} instead.
 	 *
 	 * @param source the bosk root object
 	 * @param ref points to the object to get
@@ -35,6 +35,18 @@ public interface Dereferencer {
 	 */
 	Object get(Object source, Reference<?> ref) throws NonexistentEntryException;
 
+	/**
+	 * Like {@link #get}, but returns null instead of throwing when the object does not exist.
+	 * Constructing the exception costs a stack walk, which is wasted on callers that
+	 * are expecting nonexistence to be a common outcome.
+	 *
+	 * @param source the bosk root object
+	 * @param ref points to the object to get
+	 * @return the object pointed to by <code>ref</code>, or null if any segment of
+	 * <code>ref</code> refers to an object that does not exist
+	 */
+	Object getIfExists(Object source, Reference<?> ref);
+
 	/**
 	 * @param source the bosk root object
 	 * @param ref points to some object (which may or may not exist) in the container that is to contain
@@ -86,4 +86,36 @@ public abstract class DereferencerRuntime implements Dereferencer {
 			throw new NonexistentEntryException(ref.path());
 		}
 	}
+
+	//
+	// Null-returning variants of the above, for Dereferencer.getIfExists
+	//
+
+	protected static Object optionalOrNull(Optional<?> optional) {
+		return optional.orElse(null);
+	}
+
+	protected static Object catalogEntryOrNull(Catalog<?> catalog, Identifier id) {
+		return catalog.get(id);
+	}
+
+	protected static Object listingEntryOrNull(Listing<?> listing, Identifier id) {
+		if (listing.containsID(id)) {
+			return LISTING_ENTRY;
+		} else {
+			return null;
+		}
+	}
+
+	protected static Object sideTableEntryOrNull(SideTable<?,?> sideTable, Identifier id) {
+		return sideTable.get(id);
+	}
+
+	protected static Object tagCheckOrNull(VariantCase variantCase, String desiredTag) {
+		if (desiredTag.equals(variantCase.tag())) {
+			return variantCase;
+		} else {
+			return null;
+		}
+	}
 }
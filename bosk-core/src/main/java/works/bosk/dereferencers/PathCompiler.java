@@ -188,6 +188,21 @@ public final class PathCompiler {
 		 */
 		void generate_get(CodeBuilder codeBuilder);
 
+		/**
+		 * Like {@link #generate_get}, but for {@link Dereferencer#getIfExists}:
+		 * if the target object does not exist, returns null from the generated method
+		 * instead of throwing.
+		 * The default is appropriate for steps whose target always exists.
+		 *
+		 * <dl>
+		 *     <dt>Initial stack</dt><dd>penultimateObject</dd>
+		 *     <dt>Final stack</dt><dd>targetObject</dd>
+		 * </dl>
+		 */
+		default void generate_getIfExists(CodeBuilder codeBuilder) {
+			generate_get(codeBuilder);
+		}
+
 		/**
 		 * <dl>
 		 *     <dt>Initial stack</dt><dd>penultimateObject newTargetObject</dd>
@@ -347,6 +362,15 @@ public final class PathCompiler {
 			}
 		}
 
+		@Override
+		protected void generate_getIfExists(CodeBuilder codeBuilder) {
+			pushSourceObject(codeBuilder, rawClass(sourceType));
+			for (Step step : steps) {
+				step.generate_getIfExists(codeBuilder);
+				castTo(codeBuilder, step.targetClass());
+			}
+		}
+
 		@Override
 		protected void generate_with(CodeBuilder codeBuilder) {
 			pushSegmentStack(codeBuilder);
@@ -549,6 +573,13 @@ public final class PathCompiler {
 				invoke(codeBuilder, CATALOG_GET);
 			}
 
+			@Override
+			public void generate_getIfExists(CodeBuilder codeBuilder) {
+				pushIdAt(codeBuilder, segmentNum);
+				invoke(codeBuilder, CATALOG_GET_IF_EXISTS);
+				returnIfNull(codeBuilder);
+			}
+
 			@Override
 			public void generate_with(CodeBuilder codeBuilder) {
 				invoke(codeBuilder, CATALOG_WITH);
@@ -592,6 +623,13 @@ public final class PathCompiler {
 				invoke(codeBuilder, LISTING_GET);
 			}
 
+			@Override
+			public void generate_getIfExists(CodeBuilder codeBuilder) {
+				pushIdAt(codeBuilder, segmentNum);
+				invoke(codeBuilder, LISTING_GET_IF_EXISTS);
+				returnIfNull(codeBuilder);
+			}
+
 			@Override
 			public void generate_with(CodeBuilder codeBuilder) {
 				pushIdAt(codeBuilder, segmentNum);
@@ -629,6 +667,13 @@ public final class PathCompiler {
 				invoke(codeBuilder, SIDE_TABLE_GET);
 			}
 
+			@Override
+			public void generate_getIfExists(CodeBuilder codeBuilder) {
+				pushIdAt(codeBuilder, segmentNum);
+				invoke(codeBuilder, SIDE_TABLE_GET_IF_EXISTS);
+				returnIfNull(codeBuilder);
+			}
+
 			@Override
 			public void generate_with(CodeBuilder codeBuilder) {
 				pushIdAt(codeBuilder, segmentNum);
@@ -665,6 +710,13 @@ public final class PathCompiler {
 				invoke(codeBuilder, OPTIONAL_OR_THROW);
 			}
 
+			@Override
+			public void generate_getIfExists(CodeBuilder codeBuilder) {
+				fieldStep.generate_get(codeBuilder);
+				invoke(codeBuilder, OPTIONAL_OR_NULL);
+				returnIfNull(codeBuilder);
+			}
+
 			@Override
 			public void generate_with(CodeBuilder codeBuilder) {
 				invoke(codeBuilder, OPTIONAL_OF);
@@ -700,6 +752,13 @@ public final class PathCompiler {
 				invoke(codeBuilder, THROW_NONEXISTENT_ENTRY);
 			}
 
+			@Override
+			public void generate_getIfExists(CodeBuilder codeBuilder) {
+				pop(codeBuilder);
+				codeBuilder.aconst_null();
+				returnIfNull(codeBuilder);
+			}
+
 			@Override
 			public void generate_with(CodeBuilder codeBuilder) {
 				pop(codeBuilder);
@@ -744,6 +803,14 @@ public final class PathCompiler {
 				invoke(codeBuilder, TAG_CHECK);
 			}
 
+			@Override
+			public void generate_getIfExists(CodeBuilder codeBuilder) {
+				Codegen.invoke(codeBuilder, TAGGED_UNION_VALUE);
+				codeBuilder.loadConstant(name);
+				invoke(codeBuilder, TAG_CHECK_IF_EXISTS);
+				returnIfNull(codeBuilder);
+			}
+
 			@Override
 			public void generate_with(CodeBuilder codeBuilder) {
 				pop(codeBuilder);
@@ -810,6 +877,11 @@ public final class PathCompiler {
 			return source;
 		}
 
+		@Override
+		public Object getIfExists(Object source, Reference<?> ref) {
+			return source;
+		}
+
 		@Override
 		public Object with(Object source, Reference<?> ref, Object newValue) {
 			return newValue;
@@ -842,31 +914,36 @@ public final class PathCompiler {
 	// Reflection performed once during initialization
 	//
 
-	static final Method CATALOG_GET, CATALOG_WITH, CATALOG_WITHOUT;
-	static final Method LISTING_GET, LISTING_WITH, LISTING_WITHOUT;
-	static final Method SIDE_TABLE_GET, SIDE_TABLE_WITH, SIDE_TABLE_WITHOUT;
-	static final Method OPTIONAL_OF, OPTIONAL_OR_THROW, OPTIONAL_EMPTY;
-	static final Method TAGGED_UNION_VALUE, TAG_CHECK, THROW_CANNOT_REPLACE_VARIANT_CASE;
+	static final Method CATALOG_GET, CATALOG_GET_IF_EXISTS, CATALOG_WITH, CATALOG_WITHOUT;
+	static final Method LISTING_GET, LISTING_GET_IF_EXISTS, LISTING_WITH, LISTING_WITHOUT;
+	static final Method SIDE_TABLE_GET, SIDE_TABLE_GET_IF_EXISTS, SIDE_TABLE_WITH, SIDE_TABLE_WITHOUT;
+	static final Method OPTIONAL_OF, OPTIONAL_OR_THROW, OPTIONAL_OR_NULL, OPTIONAL_EMPTY;
+	static final Method TAGGED_UNION_VALUE, TAG_CHECK, TAG_CHECK_IF_EXISTS, THROW_CANNOT_REPLACE_VARIANT_CASE;
 	static final Method THROW_NONEXISTENT_ENTRY, THROW_CANNOT_REPLACE_PHANTOM;
 	static final Method INSTANCEOF_OR_NONEXISTENT, INVALID_WITHOUT;
 
 	static {
 		try {
 			CATALOG_GET = DereferencerRuntime.class.getDeclaredMethod("catalogEntryOrThrow", Catalog.class, Identifier.class, Reference.class);
+			CATALOG_GET_IF_EXISTS = DereferencerRuntime.class.getDeclaredMethod("catalogEntryOrNull", Catalog.class, Identifier.class);
 			CATALOG_WITH = Catalog.class.getDeclaredMethod("with", Entity.class);
 			CATALOG_WITHOUT = Catalog.class.getDeclaredMethod("without", Identifier.class);
 			INSTANCEOF_OR_NONEXISTENT = DereferencerRuntime.class.getDeclaredMethod("instanceofOrNonexistent", Object.class, Class.class, Reference.class);
 			LISTING_GET = DereferencerRuntime.class.getDeclaredMethod("listingEntryOrThrow", Listing.class, Identifier.class, Reference.class);
+			LISTING_GET_IF_EXISTS = DereferencerRuntime.class.getDeclaredMethod("listingEntryOrNull", Listing.class, Identifier.class);
 			LISTING_WITH = DereferencerRuntime.class.getDeclaredMethod("listingWith", Listing.class, Identifier.class, Object.class);
 			LISTING_WITHOUT = Listing.class.getDeclaredMethod("withoutID", Identifier.class);
 			SIDE_TABLE_GET = DereferencerRuntime.class.getDeclaredMethod("sideTableEntryOrThrow", SideTable.class, Identifier.class, Reference.class);
+			SIDE_TABLE_GET_IF_EXISTS = DereferencerRuntime.class.getDeclaredMethod("sideTableEntryOrNull", SideTable.class, Identifier.class);
 			SIDE_TABLE_WITH = SideTable.class.getDeclaredMethod("with", Identifier.class, Object.class);
 			SIDE_TABLE_WITHOUT = SideTable.class.getDeclaredMethod("without", Identifier.class);
 			OPTIONAL_OF = Optional.class.getDeclaredMethod("ofNullable", Object.class);
 			OPTIONAL_OR_THROW = DereferencerRuntime.class.getDeclaredMethod("optionalOrThrow", Optional.class, Reference.class);
+			OPTIONAL_OR_NULL = DereferencerRuntime.class.getDeclaredMethod("optionalOrNull", Optional.class);
 			OPTIONAL_EMPTY = Optional.class.getDeclaredMethod("empty");
 			TAGGED_UNION_VALUE = TaggedUnion.class.getDeclaredMethod("variant");
 			TAG_CHECK = DereferencerRuntime.class.getDeclaredMethod("tagCheck", VariantCase.class, String.class, Reference.class);
+			TAG_CHECK_IF_EXISTS = DereferencerRuntime.class.getDeclaredMethod("tagCheckOrNull", VariantCase.class, String.class);
 			THROW_CANNOT_REPLACE_VARIANT_CASE = DereferencerRuntime.class.getDeclaredMethod("throwCannotReplaceVariantCase", Reference.class);
 			THROW_NONEXISTENT_ENTRY = DereferencerRuntime.class.getDeclaredMethod("throwNonexistentEntry", Reference.class);
 			THROW_CANNOT_REPLACE_PHANTOM = DereferencerRuntime.class.getDeclaredMethod("throwCannotReplacePhantom", Reference.class);
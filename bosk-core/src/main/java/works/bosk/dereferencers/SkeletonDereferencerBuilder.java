@@ -7,6 +7,7 @@ import works.bosk.bytecode.Codegen;
 import works.bosk.bytecode.Currier;
 import works.bosk.bytecode.GeneratedClass;
 
+import static java.lang.classfile.Opcode.IFNULL;
 import static java.lang.classfile.TypeKind.REFERENCE;
 import static java.lang.reflect.AccessFlag.PUBLIC;
 
@@ -38,6 +39,7 @@ abstract class SkeletonDereferencerBuilder implements DereferencerBuilder {
 	}
 
 	protected abstract void generate_get(CodeBuilder codeBuilder);
+	protected abstract void generate_getIfExists(CodeBuilder codeBuilder);
 	protected abstract void generate_with(CodeBuilder codeBuilder);
 	protected abstract void generate_without(CodeBuilder codeBuilder);
 
@@ -50,6 +52,12 @@ abstract class SkeletonDereferencerBuilder implements DereferencerBuilder {
 				codeBuilder.areturn();
 			});
 
+			cb.withMethodBody("getIfExists", GeneratedClass.mtd(Object.class, Object.class, Reference.class), PUBLIC.mask(), codeBuilder -> {
+				lineInfo(codeBuilder);
+				generate_getIfExists(codeBuilder);
+				codeBuilder.areturn();
+			});
+
 			cb.withMethodBody("with", GeneratedClass.mtd(Object.class, Object.class, Reference.class, Object.class), PUBLIC.mask(), codeBuilder -> {
 				lineInfo(codeBuilder);
 				generate_with(codeBuilder);
@@ -103,6 +111,16 @@ abstract class SkeletonDereferencerBuilder implements DereferencerBuilder {
 	 */
 	protected final void pop(CodeBuilder codeBuilder) { codeBuilder.pop(); }
 
+	/**
+	 * If the top value on the stack is null, returns it from the generated method;
+	 * otherwise, leaves it on the stack.
+	 * Assumes the stack contains nothing else.
+	 */
+	protected final void returnIfNull(CodeBuilder codeBuilder) {
+		codeBuilder.dup();
+		codeBuilder.ifThen(IFNULL, CodeBuilder::areturn);
+	}
+
 	/**
 	 * Treats the top value on the stack as the given type.
 	 */
@@ -1,12 +1,16 @@
 package works.bosk.drivers;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import works.bosk.BatchUpdate;
 import works.bosk.BoskContext;
 import works.bosk.BoskDriver;
 import works.bosk.DriverFactory;
@@ -14,6 +18,7 @@ import works.bosk.Identifier;
 import works.bosk.MapValue;
 import works.bosk.Reference;
 import works.bosk.StateTreeNode;
+import works.bosk.WriteToken;
 import works.bosk.exceptions.InvalidTypeException;
 
 /**
@@ -75,12 +80,50 @@ public class BufferingDriver implements BoskDriver {
 		enqueue(d -> d.submitConditionalDeletion(target, precondition, requiredValue));
 	}
 
+	@Override
+	public void submitBatch(List<? extends BatchUpdate> updates) {
+		enqueue(d -> d.submitBatch(updates));
+	}
+
 	@Override
 	public void flush() throws InterruptedException, IOException {
+		submitQueuedUpdates();
+		downstream.flush();
+	}
+
+	@Override
+	public CompletableFuture<Void> flushAsync() {
+		try {
+			submitQueuedUpdates();
+		} catch (RuntimeException e) {
+			return CompletableFuture.failedFuture(e);
+		}
+		return downstream.flushAsync();
+	}
+
+	@Override
+	public WriteToken writeToken() throws IOException, InterruptedException {
+		submitQueuedUpdates();
+		return downstream.writeToken();
+	}
+
+	@Override
+	public void awaitApplied(WriteToken token) throws IOException, InterruptedException {
+		// The token may cover updates we're still holding
+		submitQueuedUpdates();
+		downstream.awaitApplied(token);
+	}
+
+	@Override
+	public void flushIfStale(Duration maxStaleness) throws IOException, InterruptedException {
+		submitQueuedUpdates();
+		downstream.flushIfStale(maxStaleness);
+	}
+
+	private void submitQueuedUpdates() {
 		for (Consumer<BoskDriver> update = updateQueue.pollFirst(); update != null; update = updateQueue.pollFirst()) {
 			update.accept(downstream);
 		}
-		downstream.flush();
 	}
 
 	private void enqueue(Consumer<BoskDriver> action) {
@@ -1,7 +1,11 @@
 package works.bosk.drivers;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
+import works.bosk.BatchUpdate;
 import works.bosk.BoskContext;
 import works.bosk.BoskContext.ContextScope;
 import works.bosk.BoskDriver;
@@ -9,6 +13,7 @@ import works.bosk.DriverFactory;
 import works.bosk.Identifier;
 import works.bosk.Reference;
 import works.bosk.StateTreeNode;
+import works.bosk.WriteToken;
 import works.bosk.exceptions.InvalidTypeException;
 
 /**
@@ -73,10 +78,45 @@ public final class ContextScopeDriver implements BoskDriver {
 		}
 	}
 
+	@Override
+	public void submitBatch(List<? extends BatchUpdate> updates) {
+		try (var _ = scopeSupplier.apply(context)) {
+			downstream.submitBatch(updates);
+		}
+	}
+
 	@Override
 	public void flush() throws IOException, InterruptedException {
 		try (var _ = scopeSupplier.apply(context)) {
 			downstream.flush();
 		}
 	}
+
+	@Override
+	public CompletableFuture<Void> flushAsync() {
+		try (var _ = scopeSupplier.apply(context)) {
+			return downstream.flushAsync();
+		}
+	}
+
+	@Override
+	public WriteToken writeToken() throws IOException, InterruptedException {
+		try (var _ = scopeSupplier.apply(context)) {
+			return downstream.writeToken();
+		}
+	}
+
+	@Override
+	public void awaitApplied(WriteToken token) throws IOException, InterruptedException {
+		try (var _ = scopeSupplier.apply(context)) {
+			downstream.awaitApplied(token);
+		}
+	}
+
+	@Override
+	public void flushIfStale(Duration maxStaleness) throws IOException, InterruptedException {
+		try (var _ = scopeSupplier.apply(context)) {
+			downstream.flushIfStale(maxStaleness);
+		}
+	}
 }
@@ -1,11 +1,16 @@
 package works.bosk.drivers;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import works.bosk.BatchUpdate;
 import works.bosk.BoskDriver;
 import works.bosk.DriverFactory;
 import works.bosk.Identifier;
 import works.bosk.Reference;
 import works.bosk.StateTreeNode;
+import works.bosk.WriteToken;
 import works.bosk.exceptions.InvalidTypeException;
 
 /**
@@ -16,6 +21,9 @@ import works.bosk.exceptions.InvalidTypeException;
  * Unlike {@link ReplicaSet}, this does not automatically fix up the references to
  * point to the right bosk: the references must already be from the bosk controlled
  * by the downstream driver.
+ * <p>
+ * Subclasses that override {@link #flush()} should generally override {@link #flushAsync()},
+ * {@link #awaitApplied}, and {@link #flushIfStale} too, since this class implements them by calling the downstream driver directly.
  */
 public class ForwardingDriver implements BoskDriver {
 	protected final BoskDriver downstream;
@@ -58,11 +66,36 @@ public class ForwardingDriver implements BoskDriver {
 		downstream.submitConditionalDeletion(target, precondition, requiredValue);
 	}
 
+	@Override
+	public void submitBatch(List<? extends BatchUpdate> updates) {
+		downstream.submitBatch(updates);
+	}
+
 	@Override
 	public void flush() throws InterruptedException, IOException {
 		downstream.flush();
 	}
 
+	@Override
+	public CompletableFuture<Void> flushAsync() {
+		return downstream.flushAsync();
+	}
+
+	@Override
+	public WriteToken writeToken() throws IOException, InterruptedException {
+		return downstream.writeToken();
+	}
+
+	@Override
+	public void awaitApplied(WriteToken token) throws IOException, InterruptedException {
+		downstream.awaitApplied(token);
+	}
+
+	@Override
+	public void flushIfStale(Duration maxStaleness) throws IOException, InterruptedException {
+		downstream.flushIfStale(maxStaleness);
+	}
+
 	@Override
 	public String toString() {
 		return "ForwardingDriver{" +
@@ -1,11 +1,15 @@
 package works.bosk.drivers;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
 import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
+import works.bosk.BatchUpdate;
 import works.bosk.Bosk;
 import works.bosk.BoskContext;
 import works.bosk.BoskDriver;
@@ -16,6 +20,7 @@ import works.bosk.Identifier;
 import works.bosk.Reference;
 import works.bosk.RootReference;
 import works.bosk.StateTreeNode;
+import works.bosk.WriteToken;
 import works.bosk.exceptions.InvalidTypeException;
 
 import static java.util.Objects.requireNonNull;
@@ -210,6 +215,14 @@ public class ReplicaSet<R extends StateTreeNode> {
 					r.correspondingReference(precondition), requiredValue));
 		}
 
+		@Override
+		public void submitBatch(List<? extends BatchUpdate> updates) {
+			broadcast(r -> r.driver
+				.submitBatch(updates.stream()
+					.map(r::correspondingUpdate)
+					.toList()));
+		}
+
 		@Override
 		public void flush() throws IOException, InterruptedException {
 			// We don't broadcast flushes.
@@ -218,6 +231,26 @@ public class ReplicaSet<R extends StateTreeNode> {
 			downstream.flush();
 		}
 
+		@Override
+		public CompletableFuture<Void> flushAsync() {
+			return downstream.flushAsync();
+		}
+
+		@Override
+		public WriteToken writeToken() throws IOException, InterruptedException {
+			return downstream.writeToken();
+		}
+
+		@Override
+		public void awaitApplied(WriteToken token) throws IOException, InterruptedException {
+			downstream.awaitApplied(token);
+		}
+
+		@Override
+		public void flushIfStale(Duration maxStaleness) throws IOException, InterruptedException {
+			downstream.flushIfStale(maxStaleness);
+		}
+
 		private void broadcast(Consumer<Replica<R>> action) {
 			var diagnosticContext = originContext.getAttributes();
 			replicas.forEach(replica -> {
@@ -254,5 +287,16 @@ public class ReplicaSet<R extends StateTreeNode> {
 			}
 		}
 
+		private BatchUpdate correspondingUpdate(BatchUpdate original) {
+			return switch (original) {
+				case BatchUpdate.Replacement<?> r -> correspondingReplacement(r);
+				case BatchUpdate.Deletion<?> d -> BatchUpdate.deletion(correspondingReference(d.target()));
+			};
+		}
+
+		private <T> BatchUpdate correspondingReplacement(BatchUpdate.Replacement<T> original) {
+			return BatchUpdate.replacement(correspondingReference(original.target()), original.newValue());
+		}
+
 	}
 }
@@ -0,0 +1,15 @@
+package works.bosk.exceptions;
+
+import works.bosk.BoskConfig;
+
+/**
+ * Indicates that an update was rejected because too many hook calls were already waiting to run.
+ * The update has not been applied.
+ *
+ * @see BoskConfig.HookQueueOverflow#FAIL
+ */
+public class HookQueueFullException extends IllegalStateException {
+	public HookQueueFullException(String message) {
+		super(message);
+	}
+}
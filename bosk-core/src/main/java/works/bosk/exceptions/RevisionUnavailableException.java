@@ -0,0 +1,15 @@
+package works.bosk.exceptions;
+
+import works.bosk.BoskConfig;
+
+/**
+ * Indicates that a past state of the bosk was requested,
+ * but it is not among the states retained by the bosk's history.
+ *
+ * @see BoskConfig.Builder#historyCapacity
+ */
+public class RevisionUnavailableException extends IllegalStateException {
+	public RevisionUnavailableException(String message) {
+		super(message);
+	}
+}
@@ -0,0 +1,121 @@
+package works.bosk;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import works.bosk.annotations.ReferencePath;
+import works.bosk.exceptions.InvalidTypeException;
+import works.bosk.libtesting.AbstractBoskTest;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static works.bosk.BoskConfig.HookDelivery.ASYNCHRONOUS;
+import static works.bosk.testing.BoskTestUtils.boskName;
+
+/**
+ * Tests {@link BoskConfig.HookDelivery#ASYNCHRONOUS ASYNCHRONOUS} mode.
+ * {@link HooksTest} expects hooks to have run by the time an update returns,
+ * so it doesn't apply here.
+ */
+public class AsyncHooksTest extends AbstractBoskTest {
+	Bosk<TestRoot> bosk;
+	Refs refs;
+
+	public interface Refs {
+		@ReferencePath("/entities/parent/string") Reference<String> parentString();
+		@ReferencePath("/entities/parent/children/-child-/string") Reference<String> childString(Identifier child);
+	}
+
+	@BeforeEach
+	void setupBosk() throws InvalidTypeException {
+		bosk = new Bosk<>(
+			boskName(),
+			TestRoot.class,
+			AbstractBoskTest::initialState,
+			BoskConfig.<TestRoot>builder()
+				.hookDelivery(ASYNCHRONOUS)
+				.build());
+		refs = bosk.rootReference().buildReferences(Refs.class);
+	}
+
+	@Test
+	void slowHook_doesNotDelaySubmitter() throws InterruptedException {
+		CountDownLatch gate = new CountDownLatch(1);
+		BlockingQueue<String> observed = new LinkedBlockingQueue<>();
+		bosk.hookRegistrar().registerHook("slow", refs.parentString(), ref -> {
+			observed.add(ref.value());
+			if (ref.value().equals("new value")) {
+				gate.await();
+			}
+		});
+		assertEquals("parent", observed.poll(), "Registration should still run the hook before returning");
+
+		// If the hook ran on this thread, this would never return
+		bosk.driver().submitReplacement(refs.parentString(), "new value");
+
+		assertEquals("new value", observed.poll(10, SECONDS));
+		gate.countDown();
+	}
+
+	@Test
+	void cascade_breadthFirstOrder() throws InterruptedException {
+		Identifier child1 = Identifier.from("child1");
+		List<String> observed = Collections.synchronizedList(new ArrayList<>());
+		CountDownLatch done = new CountDownLatch(1);
+		bosk.hookRegistrar().registerHook("parent", refs.parentString(), ref -> {
+			String value = ref.value();
+			observed.add("parent:" + value);
+			if (value.equals("cascade")) {
+				bosk.driver().submitReplacement(refs.childString(child1), "from parent");
+			}
+		});
+		bosk.hookRegistrar().registerHook("child", refs.childString(child1), ref -> {
+			observed.add("child1:" + ref.value());
+			if (ref.value().equals("from parent")) {
+				bosk.driver().submitReplacement(refs.parentString(), "done");
+			}
+		});
+		bosk.hookRegistrar().registerHook("done", refs.parentString(), ref -> {
+			if (ref.value().equals("done")) {
+				done.countDown();
+			}
+		});
+		observed.clear();
+
+		bosk.driver().submitReplacement(refs.parentString(), "cascade");
+		assertTrue(done.await(10, SECONDS));
+		assertEquals(List.of(
+			"parent:cascade",
+			"child1:from parent",
+			"parent:done"
+		), observed);
+	}
+
+	@Test
+	void manyUpdates_hooksSeeEachInOrder() throws InterruptedException {
+		int numUpdates = 100;
+		List<String> observed = Collections.synchronizedList(new ArrayList<>());
+		CountDownLatch done = new CountDownLatch(1);
+		bosk.hookRegistrar().registerHook("parentString", refs.parentString(), ref -> {
+			observed.add(ref.value());
+			if (ref.value().equals("last")) {
+				done.countDown();
+			}
+		});
+		observed.clear();
+
+		List<String> expected = new ArrayList<>(IntStream.range(0, numUpdates).mapToObj(i -> "value" + i).toList());
+		expected.add("last");
+		expected.forEach(v -> bosk.driver().submitReplacement(refs.parentString(), v));
+
+		assertTrue(done.await(10, SECONDS));
+		assertEquals(expected, observed);
+	}
+}
@@ -1,6 +1,7 @@
 package works.bosk;
 
 import java.io.IOException;
+import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import works.bosk.annotations.ReferencePath;
@@ -8,6 +9,7 @@ import works.bosk.exceptions.InvalidTypeException;
 import works.bosk.libtesting.AbstractBoskTest;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static works.bosk.testing.BoskTestUtils.boskName;
 
 /**
@@ -150,6 +152,73 @@ public class BoskUpdateTest extends AbstractBoskTest {
 		assertValueEquals(originalParent.string(), ref);
 	}
 
+	@Test
+	void batch_allApplied() throws IOException, InterruptedException {
+		String newString = originalParent.string() + " - modified";
+		TestChild newChild = new TestChild(CHILD_4_ID, "string", TestEnum.OK, Catalog.empty());
+		bosk.driver().submitBatch(List.of(
+			BatchUpdate.replacement(refs.entityString(PARENT_ID), newString),
+			BatchUpdate.replacement(refs.child(PARENT_ID, CHILD_4_ID), newChild),
+			BatchUpdate.deletion(refs.child(PARENT_ID, CHILD_1_ID))));
+		assertValueEquals(newString, refs.entityString(PARENT_ID));
+		assertValueEquals(newChild, refs.child(PARENT_ID, CHILD_4_ID));
+		assertValueEquals(null, refs.child(PARENT_ID, CHILD_1_ID));
+	}
+
+	@Test
+	void batchWithNonexistentTarget_othersApplied() throws IOException, InterruptedException {
+		String newString = originalParent.string() + " - modified";
+		bosk.driver().submitBatch(List.of(
+			BatchUpdate.replacement(refs.entityString(Identifier.from("nonexistent")), newString),
+			BatchUpdate.replacement(refs.entityString(PARENT_ID), newString)));
+		assertValueEquals(null, refs.entityString(Identifier.from("nonexistent")));
+		assertValueEquals(newString, refs.entityString(PARENT_ID));
+	}
+
+	@Test
+	void batchDeletingRoot_throws() throws IOException, InterruptedException {
+		assertThrows(IllegalArgumentException.class, () -> bosk.driver().submitBatch(List.of(
+			BatchUpdate.replacement(refs.entityString(PARENT_ID), "should not be applied"),
+			BatchUpdate.deletion(bosk.rootReference()))));
+		assertValueEquals(originalRoot, bosk.rootReference());
+	}
+
+	@Test
+	void revision_incrementsForEachUpdate() throws IOException, InterruptedException {
+		long initialRevision = bosk.currentRevision();
+		bosk.driver().submitReplacement(refs.entityString(PARENT_ID), "first");
+		bosk.driver().submitReplacement(refs.entityString(PARENT_ID), "second");
+		bosk.driver().flush();
+		assertEquals(initialRevision + 2, bosk.currentRevision());
+		try (var session = bosk.readSession()) {
+			assertEquals(initialRevision + 2, session.revision());
+		}
+	}
+
+	@Test
+	void revision_unchangedByNoOpUpdate() throws IOException, InterruptedException {
+		long initialRevision = bosk.currentRevision();
+		bosk.driver().submitReplacement(refs.entityString(Identifier.from("nonexistent")), "ignored");
+		bosk.driver().flush();
+		assertEquals(initialRevision, bosk.currentRevision());
+	}
+
+	@Test
+	void revision_stableWithinReadSession() throws IOException, InterruptedException {
+		try (var session = bosk.readSession()) {
+			long sessionRevision = session.revision();
+			bosk.driver().submitReplacement(refs.entityString(PARENT_ID), "modified");
+			bosk.driver().flush();
+			assertEquals(sessionRevision, session.revision());
+			try (var nested = bosk.readSession()) {
+				assertEquals(sessionRevision, nested.revision(), "Nested session should see the same revision");
+			}
+			try (var superseding = bosk.supersedingReadSession()) {
+				assertEquals(sessionRevision + 1, superseding.revision());
+			}
+		}
+	}
+
 	<T> void assertValueEquals(T expected, Reference<T> ref) throws IOException, InterruptedException {
 		bosk.driver().flush();
 		try (var _ = bosk.readSession()) {
@@ -0,0 +1,121 @@
+package works.bosk;
+
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.Random;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import works.bosk.annotations.ReferencePath;
+import works.bosk.exceptions.InvalidTypeException;
+import works.bosk.exceptions.NoReadSessionException;
+import works.bosk.libtesting.AbstractBoskTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static works.bosk.BoskConfig.simpleDriver;
+import static works.bosk.libtesting.AbstractBoskTest.TestEnum.NOT_SO_OK;
+import static works.bosk.libtesting.AbstractBoskTest.TestEnum.OK;
+
+public class CatalogAggregateTest extends AbstractBoskTest {
+	Bosk<TestRoot> bosk;
+	Refs refs;
+
+	public interface Refs {
+		@ReferencePath("/entities/parent/children") CatalogReference<TestChild> children();
+		@ReferencePath("/entities/parent/children/-child-") Reference<TestChild> child(Identifier child);
+	}
+
+	private final Identifier child1 = Identifier.from("child1");
+	private final Identifier child2 = Identifier.from("child2");
+	private final Identifier child3 = Identifier.from("child3");
+
+	@BeforeEach
+	void setupBosk() throws InvalidTypeException {
+		bosk = setUpBosk(simpleDriver());
+		refs = bosk.rootReference().buildReferences(Refs.class);
+	}
+
+	@Test
+	void aggregates_reflectUpdates() {
+		CatalogAggregate<TestChild, Long> okCount = bosk.countOf(refs.children(), c -> c.testEnum() == OK);
+		CatalogAggregate<TestChild, Long> totalLength = bosk.sumOf(refs.children(), c -> c.string().length());
+		CatalogAggregate<TestChild, Optional<String>> min = bosk.minOf(refs.children(), TestChild::string, Comparator.naturalOrder());
+		CatalogAggregate<TestChild, Optional<String>> max = bosk.maxOf(refs.children(), TestChild::string, Comparator.naturalOrder());
+		try (var _ = bosk.readSession()) {
+			assertEquals(2L, okCount.value());
+			assertEquals(18L, totalLength.value());
+			assertEquals(Optional.of("child1"), min.value());
+			assertEquals(Optional.of("child3"), max.value());
+		}
+
+		bosk.driver().submitReplacement(refs.child(child2), new TestChild(child2, "a", OK, Catalog.empty()));
+		bosk.driver().submitDeletion(refs.child(child3));
+		try (var _ = bosk.readSession()) {
+			assertEquals(2L, okCount.value());
+			assertEquals(7L, totalLength.value());
+			assertEquals(Optional.of("a"), min.value());
+			assertEquals(Optional.of("child1"), max.value());
+		}
+
+		bosk.driver().submitDeletion(refs.child(child1));
+		bosk.driver().submitDeletion(refs.child(child2));
+		try (var _ = bosk.readSession()) {
+			assertEquals(0L, okCount.value());
+			assertEquals(0L, totalLength.value());
+			assertEquals(Optional.empty(), min.value());
+			assertEquals(Optional.empty(), max.value());
+		}
+	}
+
+	@Test
+	void readSession_seesConsistentValue() {
+		CatalogAggregate<TestChild, Long> notOkCount = bosk.countOf(refs.children(), c -> c.testEnum() == NOT_SO_OK);
+		try (var _ = bosk.readSession()) {
+			bosk.driver().submitDeletion(refs.child(child2));
+			assertEquals(1L, notOkCount.value(), "Value should not change during a read session");
+			try (var _ = bosk.supersedingReadSession()) {
+				assertEquals(0L, notOkCount.value());
+			}
+			assertEquals(1L, notOkCount.value());
+		}
+	}
+
+	@Test
+	void noReadSession_throws() {
+		CatalogAggregate<TestChild, Long> count = bosk.countOf(refs.children(), _ -> true);
+		assertThrows(NoReadSessionException.class, count::value);
+	}
+
+	/**
+	 * Applies random updates and checks that the aggregates agree with a scan of the catalog.
+	 */
+	@ParameterizedTest
+	@ValueSource(ints = {1, 10, 100})
+	void randomUpdates_matchScan(int distinctIDs) {
+		CatalogAggregate<TestChild, Long> count = bosk.countOf(refs.children(), c -> c.testEnum() == OK);
+		CatalogAggregate<TestChild, Long> sum = bosk.sumOf(refs.children(), c -> c.string().length());
+		CatalogAggregate<TestChild, Optional<String>> min = bosk.minOf(refs.children(), TestChild::string, Comparator.naturalOrder());
+		CatalogAggregate<TestChild, Optional<String>> max = bosk.maxOf(refs.children(), TestChild::string, Comparator.naturalOrder());
+		Random random = new Random(distinctIDs);
+		for (int i = 0; i < 1000; i++) {
+			Identifier id = Identifier.from("id_" + random.nextInt(distinctIDs));
+			if (random.nextInt(3) == 0) {
+				bosk.driver().submitDeletion(refs.child(id));
+			} else {
+				TestEnum testEnum = random.nextBoolean() ? OK : NOT_SO_OK;
+				bosk.driver().submitReplacement(refs.child(id), new TestChild(id, "x".repeat(random.nextInt(10)), testEnum, Catalog.empty()));
+			}
+			if (i % 50 == 0) {
+				try (var _ = bosk.readSession()) {
+					Catalog<TestChild> children = refs.children().value();
+					assertEquals(children.stream().filter(c -> c.testEnum() == OK).count(), count.value());
+					assertEquals(children.stream().mapToLong(c -> c.string().length()).sum(), sum.value());
+					assertEquals(children.stream().map(TestChild::string).min(Comparator.naturalOrder()), min.value());
+					assertEquals(children.stream().map(TestChild::string).max(Comparator.naturalOrder()), max.value());
+				}
+			}
+		}
+	}
+}
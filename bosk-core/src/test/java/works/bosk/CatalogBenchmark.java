@@ -1,6 +1,7 @@
 package works.bosk;
 
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.stream.IntStream;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
@@ -11,6 +12,8 @@ import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.pcollections.OrderedPMap;
 import works.bosk.exceptions.InvalidTypeException;
 import works.bosk.libtesting.AbstractBoskTest;
 import works.bosk.libtesting.TestEntityBuilder;
@@ -27,7 +30,11 @@ public class CatalogBenchmark {
 	public static class BenchmarkState {
 		private Catalog<AbstractBoskTest.TestEntity> catalog;
 		private LinkedHashMap<Identifier, AbstractBoskTest.TestEntity> map;
+		private OrderedPMap<Identifier, AbstractBoskTest.TestEntity> orderedPMap;
 		private AbstractBoskTest.TestEntity newEntity;
+		private AbstractBoskTest.TestEntity existingEntity;
+		private List<AbstractBoskTest.TestEntity> entities;
+		private List<Identifier> halfTheIDs;
 
 		@Setup(Level.Trial)
 		public void setup() throws InvalidTypeException {
@@ -42,7 +49,11 @@ public class CatalogBenchmark {
 				teb.blankEntity(Identifier.from("Entity_" + i), AbstractBoskTest.TestEnum.OK)));
 			map = new LinkedHashMap<>();
 			catalog.forEach(e -> map.put(e.id(), e));
+			orderedPMap = OrderedPMap.from(map);
+			entities = List.copyOf(catalog.asCollection());
+			halfTheIDs = catalog.idStream().filter(id -> id.hashCode() % 2 == 0).toList();
 			newEntity = teb.blankEntity(Identifier.from("New entity"), AbstractBoskTest.TestEnum.OK);
+			existingEntity = teb.blankEntity(Identifier.from("Entity_" + initialSize / 2), AbstractBoskTest.TestEnum.OK);
 		}
 	}
 
@@ -66,4 +77,128 @@ public class CatalogBenchmark {
 		return state.map.put(state.newEntity.id(), state.newEntity);
 	}
 
+	//
+	// Bulk operations
+	//
+
+	@Benchmark
+	@BenchmarkMode(Throughput)
+	public Object catalogBuilder_allEntities(BenchmarkState state) {
+		Catalog.Builder<AbstractBoskTest.TestEntity> builder = Catalog.builder();
+		state.entities.forEach(builder::add);
+		return builder.build();
+	}
+
+	@Benchmark
+	@BenchmarkMode(Throughput)
+	public Object catalogWith_allEntities(BenchmarkState state) {
+		Catalog<AbstractBoskTest.TestEntity> result = Catalog.empty();
+		for (AbstractBoskTest.TestEntity entity : state.entities) {
+			result = result.with(entity);
+		}
+		return result;
+	}
+
+	@Benchmark
+	@BenchmarkMode(Throughput)
+	public Object catalogWithoutAll_half(BenchmarkState state) {
+		return state.catalog.withoutAll(state.halfTheIDs.stream());
+	}
+
+	@Benchmark
+	@BenchmarkMode(Throughput)
+	public Object catalogWithout_half(BenchmarkState state) {
+		Catalog<AbstractBoskTest.TestEntity> result = state.catalog;
+		for (Identifier id : state.halfTheIDs) {
+			result = result.without(id);
+		}
+		return result;
+	}
+
+	//
+	// Comparisons with pcollections' OrderedPMap, which Catalog formerly used
+	//
+
+	@Benchmark
+	@BenchmarkMode(Throughput)
+	public Object catalogWith_existingEntity(BenchmarkState state) {
+		return state.catalog.with(state.existingEntity);
+	}
+
+	@Benchmark
+	@BenchmarkMode(Throughput)
+	public Object orderedPMapPlus_existingEntity(BenchmarkState state) {
+		return state.orderedPMap.plus(state.existingEntity.id(), state.existingEntity);
+	}
+
+	@Benchmark
+	@BenchmarkMode(Throughput)
+	public Object orderedPMapPlus_sameEntity(BenchmarkState state) {
+		return state.orderedPMap.plus(state.newEntity.id(), state.newEntity);
+	}
+
+	@Benchmark
+	@BenchmarkMode(Throughput)
+	public Object catalogWithout(BenchmarkState state) {
+		return state.catalog.without(state.existingEntity.id());
+	}
+
+	@Benchmark
+	@BenchmarkMode(Throughput)
+	public Object orderedPMapMinus(BenchmarkState state) {
+		return state.orderedPMap.minus(state.existingEntity.id());
+	}
+
+	@Benchmark
+	@BenchmarkMode(Throughput)
+	public Object catalogGet(BenchmarkState state) {
+		return state.catalog.get(state.existingEntity.id());
+	}
+
+	@Benchmark
+	@BenchmarkMode(Throughput)
+	public Object orderedPMapGet(BenchmarkState state) {
+		return state.orderedPMap.get(state.existingEntity.id());
+	}
+
+	@Benchmark
+	@BenchmarkMode(Throughput)
+	public Object catalogIds(BenchmarkState state) {
+		return state.catalog.ids().get(state.catalog.size() / 2);
+	}
+
+	@Benchmark
+	@BenchmarkMode(Throughput)
+	public Object orderedPMapIds(BenchmarkState state) {
+		return List.copyOf(state.orderedPMap.keySet()).get(state.orderedPMap.size() / 2);
+	}
+
+	@Benchmark
+	@BenchmarkMode(Throughput)
+	public void catalogIterate(BenchmarkState state, Blackhole blackhole) {
+		for (AbstractBoskTest.TestEntity entity : state.catalog) {
+			blackhole.consume(entity);
+		}
+	}
+
+	@Benchmark
+	@BenchmarkMode(Throughput)
+	public void orderedPMapIterate(BenchmarkState state, Blackhole blackhole) {
+		for (AbstractBoskTest.TestEntity entity : state.orderedPMap.values()) {
+			blackhole.consume(entity);
+		}
+	}
+
+	@Benchmark
+	@BenchmarkMode(Throughput)
+	public long catalogParallelStream(BenchmarkState state) {
+		return state.catalog.stream().parallel().filter(e -> e.id().toString().endsWith("7")).count();
+	}
+
+	@Benchmark
+	@BenchmarkMode(Throughput)
+	public long orderedPMapParallelStream(BenchmarkState state) {
+		return state.orderedPMap.values().parallelStream().filter(e -> e.id().toString().endsWith("7")).count();
+	}
+
 }
@@ -0,0 +1,166 @@
+package works.bosk;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import works.bosk.annotations.ReferencePath;
+import works.bosk.exceptions.InvalidTypeException;
+import works.bosk.exceptions.NoReadSessionException;
+import works.bosk.libtesting.AbstractBoskTest;
+
+import static java.util.stream.Collectors.toSet;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static works.bosk.BoskConfig.simpleDriver;
+import static works.bosk.libtesting.AbstractBoskTest.TestEnum.NOT_SO_OK;
+import static works.bosk.libtesting.AbstractBoskTest.TestEnum.OK;
+
+public class CatalogIndexTest extends AbstractBoskTest {
+	Bosk<TestRoot> bosk;
+	Refs refs;
+
+	public interface Refs {
+		@ReferencePath("/entities/parent/children") CatalogReference<TestChild> children();
+		@ReferencePath("/entities/parent/children/-child-") Reference<TestChild> child(Identifier child);
+		@ReferencePath("/entities/-parent-/children") CatalogReference<TestChild> anyChildren();
+	}
+
+	private final Identifier child1 = Identifier.from("child1");
+	private final Identifier child2 = Identifier.from("child2");
+	private final Identifier child3 = Identifier.from("child3");
+	private final Identifier child4 = Identifier.from("child4");
+
+	@BeforeEach
+	void setupBosk() throws InvalidTypeException {
+		bosk = setUpBosk(simpleDriver());
+		refs = bosk.rootReference().buildReferences(Refs.class);
+	}
+
+	@Test
+	void hashIndex_reflectsUpdates() {
+		CatalogIndex<TestChild, TestEnum> index = bosk.hashIndex(refs.children(), TestChild::testEnum);
+		try (var _ = bosk.readSession()) {
+			assertEquals(Set.of(child1, child3), idsOf(index.get(OK)));
+			assertEquals(Set.of(child2), idsOf(index.get(NOT_SO_OK)));
+			assertEquals(Set.of(OK, NOT_SO_OK), index.keys());
+		}
+
+		bosk.driver().submitDeletion(refs.child(child1));
+		bosk.driver().submitReplacement(refs.child(child2), new TestChild(child2, "child2", OK, Catalog.empty()));
+		bosk.driver().submitReplacement(refs.child(child4), new TestChild(child4, "child4", NOT_SO_OK, Catalog.empty()));
+		try (var _ = bosk.readSession()) {
+			assertEquals(Set.of(child2, child3), idsOf(index.get(OK)));
+			assertEquals(Set.of(child4), idsOf(index.get(NOT_SO_OK)));
+			assertEquals(refs.children(), index.get(OK).domain());
+		}
+
+		bosk.driver().submitDeletion(refs.child(child4));
+		try (var _ = bosk.readSession()) {
+			assertEquals(Set.of(), idsOf(index.get(NOT_SO_OK)));
+			assertEquals(Set.of(OK), index.keys());
+		}
+	}
+
+	@Test
+	void sortedIndex_range() {
+		CatalogIndex.Sorted<TestChild, String> index = bosk.sortedIndex(refs.children(), TestChild::string);
+		bosk.driver().submitReplacement(refs.child(child4), new TestChild(child4, "child2", OK, Catalog.empty()));
+		try (var _ = bosk.readSession()) {
+			assertEquals(List.of("child1", "child2", "child3"), List.copyOf(index.keys()));
+			assertEquals(List.of(child2, child4, child3), List.copyOf(index.range("child2", "child4").ids()));
+			assertEquals(List.of(child1), List.copyOf(index.range("a", "child2").ids()));
+			assertEquals(List.of(), List.copyOf(index.range("x", "z").ids()));
+		}
+	}
+
+	@Test
+	void readSession_seesConsistentIndex() {
+		CatalogIndex<TestChild, TestEnum> index = bosk.hashIndex(refs.children(), TestChild::testEnum);
+		try (var _ = bosk.readSession()) {
+			bosk.driver().submitDeletion(refs.child(child2));
+			assertEquals(Set.of(child2), idsOf(index.get(NOT_SO_OK)), "Index should not change during a read session");
+			try (var _ = bosk.supersedingReadSession()) {
+				assertEquals(Set.of(), idsOf(index.get(NOT_SO_OK)));
+			}
+			assertEquals(Set.of(child2), idsOf(index.get(NOT_SO_OK)));
+		}
+	}
+
+	@Test
+	void registeredLate_indexesOlderReadSession() {
+		try (var _ = bosk.readSession()) {
+			bosk.driver().submitDeletion(refs.child(child2));
+			CatalogIndex<TestChild, TestEnum> index = bosk.hashIndex(refs.children(), TestChild::testEnum);
+			assertEquals(Set.of(child2), idsOf(index.get(NOT_SO_OK)));
+		}
+	}
+
+	@Test
+	void missingCatalog_isEmpty() {
+		CatalogIndex<TestChild, TestEnum> index = bosk.hashIndex(refs.anyChildren().boundTo(Identifier.from("nonexistent")), TestChild::testEnum);
+		try (var _ = bosk.readSession()) {
+			assertEquals(Set.of(), index.keys());
+			assertEquals(Set.of(), idsOf(index.get(OK)));
+		}
+	}
+
+	@Test
+	void noReadSession_throws() {
+		CatalogIndex<TestChild, TestEnum> index = bosk.hashIndex(refs.children(), TestChild::testEnum);
+		assertThrows(NoReadSessionException.class, () -> index.get(OK));
+	}
+
+	@Test
+	void parameterizedCatalog_throws() {
+		assertThrows(IllegalArgumentException.class, () -> bosk.hashIndex(refs.anyChildren(), TestChild::testEnum));
+	}
+
+	/**
+	 * Applies random updates and checks that the index agrees with a scan of the catalog.
+	 */
+	@ParameterizedTest
+	@ValueSource(ints = {1, 10, 100})
+	void randomUpdates_matchScan(int distinctIDs) {
+		CatalogIndex.Sorted<TestChild, String> index = bosk.sortedIndex(refs.children(), TestChild::string);
+		Random random = new Random(distinctIDs);
+		for (int i = 0; i < 1000; i++) {
+			Identifier id = Identifier.from("id_" + random.nextInt(distinctIDs));
+			if (random.nextInt(3) == 0) {
+				bosk.driver().submitDeletion(refs.child(id));
+			} else {
+				bosk.driver().submitReplacement(refs.child(id), new TestChild(id, "key_" + random.nextInt(5), OK, Catalog.empty()));
+			}
+			if (i % 50 == 0) {
+				assertMatchesScan(index);
+			}
+		}
+		assertMatchesScan(index);
+	}
+
+	private void assertMatchesScan(CatalogIndex.Sorted<TestChild, String> index) {
+		try (var _ = bosk.readSession()) {
+			Catalog<TestChild> children = refs.children().value();
+			Set<String> expectedKeys = children.stream().map(TestChild::string).collect(toSet());
+			assertEquals(expectedKeys, index.keys());
+			for (String key : expectedKeys) {
+				Set<Identifier> expected = children.stream()
+					.filter(c -> c.string().equals(key))
+					.map(TestChild::id)
+					.collect(toSet());
+				assertEquals(expected, idsOf(index.get(key)));
+			}
+			List<Identifier> expectedRange = new ArrayList<>();
+			index.keys().subSet("key_1", "key_3").forEach(key -> expectedRange.addAll(index.get(key).ids()));
+			assertEquals(expectedRange, List.copyOf(index.range("key_1", "key_3").ids()));
+		}
+	}
+
+	private static Set<Identifier> idsOf(Listing<?> listing) {
+		return Set.copyOf(listing.ids());
+	}
+}
@@ -261,6 +261,63 @@ class CatalogTest {
 		assertEquals(expected, withAB.stream().collect(toList()));
 	}
 
+	@ParameterizedTest
+	@MethodSource("allCases")
+	void withoutAll(BasicEntity[] contents) {
+		Catalog<BasicEntity> catalog = fromContents(contents);
+		Catalog<BasicEntity> expected = catalog;
+		List<Identifier> toRemove = new ArrayList<>();
+		for (int i = 0; i < contents.length; i += 2) {
+			toRemove.add(contents[i].id());
+			expected = expected.without(contents[i].id());
+		}
+		toRemove.add(wrongEntity.id());
+
+		Catalog<BasicEntity> actual = catalog.withoutAll(toRemove.stream());
+		assertEquals(expected, actual);
+		assertEquals(expected.ids(), actual.ids());
+		assertEquals(fromContents(contents), catalog);
+	}
+
+	@ParameterizedTest
+	@MethodSource("allCases")
+	void builder_matchesWith(BasicEntity[] contents) {
+		Catalog.Builder<BasicEntity> builder = Catalog.builder();
+		for (BasicEntity e : contents) {
+			builder.add(e);
+		}
+		Catalog<BasicEntity> built = builder.build();
+		assertEquals(fromContents(contents), built);
+		assertEquals(fromContents(contents).ids(), built.ids());
+		assertEquals(built.size(), builder.size());
+
+		// Further changes don't affect catalogs already built
+		BasicEntity extra = new BasicEntity(Identifier.from("extra"));
+		builder.add(extra);
+		for (BasicEntity e : contents) {
+			builder.remove(e.id());
+		}
+		assertEquals(fromContents(contents), built);
+		assertEquals(Catalog.of(extra), builder.build());
+		assertTrue(builder.containsID(extra.id()));
+
+		Catalog.Builder<BasicEntity> fromExisting = built.toBuilder();
+		fromExisting.add(extra);
+		assertEquals(built.with(extra), fromExisting.build());
+		assertEquals(fromContents(contents), built);
+	}
+
+	@ParameterizedTest
+	@MethodSource("dupCases")
+	void builderAddNewDupes_throws(BasicEntity[] contents) {
+		Catalog.Builder<BasicEntity> builder = Catalog.builder();
+		assertThrows(IllegalArgumentException.class, () -> {
+			for (BasicEntity e : contents) {
+				builder.addNew(e);
+			}
+		});
+	}
+
 	@ParameterizedTest
 	@MethodSource("allCases")
 	void asCollection_matchesLinkedHashSet(BasicEntity[] contents) {
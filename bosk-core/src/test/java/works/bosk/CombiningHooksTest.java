@@ -0,0 +1,86 @@
+package works.bosk;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static works.bosk.BoskConfig.UpdateConcurrency.COMBINING;
+
+/**
+ * Runs all the {@link HooksTest} tests in {@link BoskConfig.UpdateConcurrency#COMBINING COMBINING} mode,
+ * plus a test with many threads submitting updates at once.
+ */
+public class CombiningHooksTest extends HooksTest {
+	@Override
+	BoskConfig<TestRoot> boskConfig() {
+		return BoskConfig.<TestRoot>builder()
+			.updateConcurrency(COMBINING)
+			.build();
+	}
+
+	@Test
+	void concurrentUpdates_hooksSeeEachUpdateInOrder() throws InterruptedException {
+		int numThreads = 8;
+		int updatesPerThread = 200;
+		List<String> observed = Collections.synchronizedList(new ArrayList<>());
+		bosk.hookRegistrar().registerHook("parentString", refs.parentString(), ref -> observed.add(ref.value()));
+		observed.clear();
+
+		List<Thread> threads = IntStream.range(0, numThreads)
+			.mapToObj(t -> Thread.ofPlatform().start(() -> {
+				for (int i = 0; i < updatesPerThread; i++) {
+					bosk.driver().submitReplacement(refs.parentString(), t + ":" + i);
+				}
+			}))
+			.toList();
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		assertEquals(numThreads * updatesPerThread, observed.size(), "Hook should run once for each update");
+		int[] lastSeen = new int[numThreads];
+		Arrays.fill(lastSeen, -1);
+		for (String value : observed) {
+			String[] parts = value.split(":");
+			int thread = Integer.parseInt(parts[0]);
+			int update = Integer.parseInt(parts[1]);
+			assertTrue(update > lastSeen[thread], "Each thread's updates should be seen in the order they were submitted");
+			lastSeen[thread] = update;
+		}
+		try (var _ = bosk.readSession()) {
+			assertEquals(observed.getLast(), refs.parentString().value(), "Final state should match the last hook");
+		}
+	}
+
+	@Test
+	void interruptedSubmitters_updatesAppliedAndInterruptStatusKept() throws InterruptedException {
+		int numThreads = 8;
+		int updatesPerThread = 200;
+		AtomicInteger numStillInterrupted = new AtomicInteger();
+		List<Thread> threads = IntStream.range(0, numThreads)
+			.mapToObj(t -> Thread.ofPlatform().start(() -> {
+				Thread.currentThread().interrupt();
+				for (int i = 0; i < updatesPerThread; i++) {
+					bosk.driver().submitReplacement(refs.parentString(), t + ":" + i);
+				}
+				if (Thread.interrupted()) {
+					numStillInterrupted.incrementAndGet();
+				}
+			}))
+			.toList();
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		assertEquals(numThreads, numStillInterrupted.get(), "Each thread should still be interrupted");
+		try (var _ = bosk.readSession()) {
+			assertTrue(refs.parentString().value().endsWith(":" + (updatesPerThread - 1)), "Final state should be some thread's last update");
+		}
+	}
+}
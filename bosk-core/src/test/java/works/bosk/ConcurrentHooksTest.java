@@ -0,0 +1,119 @@
+package works.bosk;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import works.bosk.annotations.ReferencePath;
+import works.bosk.exceptions.InvalidTypeException;
+import works.bosk.libtesting.AbstractBoskTest;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static works.bosk.BoskConfig.HookConcurrency.DISJOINT_SCOPES;
+import static works.bosk.BoskConfig.HookIsolation.SHARED_WORKER;
+import static works.bosk.testing.BoskTestUtils.boskName;
+
+/**
+ * Tests {@link BoskConfig.HookConcurrency#DISJOINT_SCOPES DISJOINT_SCOPES} mode.
+ * {@link HooksTest} expects a deterministic order among all hooks,
+ * so it doesn't apply here.
+ */
+public class ConcurrentHooksTest extends AbstractBoskTest {
+	Bosk<TestRoot> bosk;
+	Refs refs;
+
+	public interface Refs {
+		@ReferencePath("/entities/parent") Reference<TestEntity> parent();
+		@ReferencePath("/entities/parent/children") CatalogReference<TestChild> children();
+		@ReferencePath("/entities/parent/children/-child-") Reference<TestChild> anyChild();
+	}
+
+	@BeforeEach
+	void setupBosk() throws InvalidTypeException {
+		bosk = new Bosk<>(
+			boskName(),
+			TestRoot.class,
+			AbstractBoskTest::initialState,
+			BoskConfig.<TestRoot>builder()
+				.hookConcurrency(DISJOINT_SCOPES)
+				.build());
+		refs = bosk.rootReference().buildReferences(Refs.class);
+	}
+
+	@Test
+	void disjointScopes_runConcurrently() throws InterruptedException {
+		// All three children change at once. If their hooks ran one at a time, the barrier would time out.
+		CyclicBarrier barrier = new CyclicBarrier(3);
+		List<String> failures = Collections.synchronizedList(new ArrayList<>());
+		AtomicInteger calls = new AtomicInteger(0);
+		bosk.hookRegistrar().registerHook("anyChild", refs.anyChild(), ref -> {
+			calls.incrementAndGet();
+			try {
+				barrier.await(10, SECONDS);
+			} catch (BrokenBarrierException | TimeoutException e) {
+				failures.add(ref + ": " + e);
+			}
+		});
+		assertEquals(List.of(), failures, "Hooks should run concurrently on registration");
+		assertEquals(3, calls.get());
+
+		Catalog<TestChild> children;
+		try (var _ = bosk.readSession()) {
+			children = refs.children().value();
+		}
+		bosk.driver().submitReplacement(refs.children(), Catalog.of(children.stream()
+			.map(child -> child.withString(child.string() + " changed"))));
+
+		assertEquals(List.of(), failures, "Hooks should run concurrently after update");
+		assertEquals(6, calls.get());
+	}
+
+	@Test
+	void overlappingScopes_runInOrder() {
+		AtomicInteger active = new AtomicInteger(0);
+		List<String> observed = Collections.synchronizedList(new ArrayList<>());
+		bosk.hookRegistrar().registerHook("parent", refs.parent(), recordingHook(active, observed));
+		bosk.hookRegistrar().registerHook("children", refs.children(), recordingHook(active, observed));
+		observed.clear();
+
+		TestEntity parent;
+		try (var _ = bosk.readSession()) {
+			parent = refs.parent().value();
+		}
+		bosk.driver().submitReplacement(refs.parent(), parent
+			.withString("new string")
+			.withChildren(Catalog.of(parent.children().stream()
+				.map(child -> child.withString(child.string() + " changed")))));
+
+		assertEquals(List.of(
+			refs.parent().path().toString(),
+			refs.children().path().toString()
+		), observed);
+	}
+
+	private static <T> BoskHook<T> recordingHook(AtomicInteger active, List<String> observed) {
+		return ref -> {
+			if (active.incrementAndGet() != 1) {
+				observed.add("Overlapping hook calls ran concurrently");
+			}
+			Thread.sleep(10);
+			observed.add(ref.path().toString());
+			active.decrementAndGet();
+		};
+	}
+
+	@Test
+	void sharedWorker_incompatible() {
+		assertThrows(IllegalArgumentException.class, () -> BoskConfig.<TestRoot>builder()
+			.hookConcurrency(DISJOINT_SCOPES)
+			.hookIsolation(SHARED_WORKER)
+			.build());
+	}
+}
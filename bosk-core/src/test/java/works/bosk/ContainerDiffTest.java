@@ -0,0 +1,69 @@
+package works.bosk;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ContainerDiffTest {
+	record Item(Identifier id, String value) implements Entity {
+		static Item of(String id, String value) {
+			return new Item(Identifier.from(id), value);
+		}
+	}
+
+	final Item a = Item.of("a", "a1");
+	final Item b = Item.of("b", "b1");
+	final Item c = Item.of("c", "c1");
+	final Item d = Item.of("d", "d1");
+
+	@Test
+	void sameContents_nothingReported() {
+		Catalog<Item> catalog = Catalog.of(a, b, c);
+		assertDifferences(catalog, catalog, List.of(), List.of());
+	}
+
+	@Test
+	void changedAddedRemoved_reportedInOrder() {
+		Catalog<Item> prior = Catalog.of(a, b, c, d);
+		Catalog<Item> current = prior
+			.without(a)
+			.without(c)
+			.with(Item.of("b", "b2"))
+			.with(Item.of("e", "e1"));
+		assertDifferences(prior, current, ids("c", "a"), ids("b", "e"));
+	}
+
+	@Test
+	void equalButNotIdentical_reportedAsChanged() {
+		Catalog<Item> prior = Catalog.of(a, b);
+		Catalog<Item> current = prior.with(Item.of("b", "b1"));
+		assertDifferences(prior, current, List.of(), ids("b"));
+	}
+
+	@Test
+	void nullContainers_treatedAsEmpty() {
+		Catalog<Item> catalog = Catalog.of(a, b);
+		assertDifferences(null, catalog, List.of(), ids("a", "b"));
+		assertDifferences(catalog, null, ids("b", "a"), List.of());
+		assertDifferences(null, null, List.of(), List.of());
+	}
+
+	private static void assertDifferences(
+		EnumerableByIdentifier<?> prior,
+		EnumerableByIdentifier<?> current,
+		List<Identifier> expectedRemoved,
+		List<Identifier> expectedAddedOrChanged
+	) {
+		List<Identifier> removed = new ArrayList<>();
+		List<Identifier> addedOrChanged = new ArrayList<>();
+		ContainerDiff.forEachDifference(prior, current, removed::add, addedOrChanged::add);
+		assertEquals(expectedRemoved, removed);
+		assertEquals(expectedAddedOrChanged, addedOrChanged);
+	}
+
+	private static List<Identifier> ids(String... ids) {
+		return List.of(ids).stream().map(Identifier::from).toList();
+	}
+}
@@ -0,0 +1,97 @@
+package works.bosk;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import works.bosk.annotations.ReferencePath;
+import works.bosk.exceptions.InvalidTypeException;
+import works.bosk.exceptions.NoReadSessionException;
+import works.bosk.exceptions.NonexistentReferenceException;
+import works.bosk.libtesting.AbstractBoskTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static works.bosk.BoskConfig.simpleDriver;
+
+public class DerivedValueTest extends AbstractBoskTest {
+	Bosk<TestRoot> bosk;
+	Refs refs;
+	final AtomicInteger calls = new AtomicInteger(0);
+	DerivedValue<Catalog<TestChild>, String> childStrings;
+
+	public interface Refs {
+		@ReferencePath("/entities/parent/children") CatalogReference<TestChild> children();
+		@ReferencePath("/entities/parent/children/-child-/string") Reference<String> childString(Identifier child);
+		@ReferencePath("/entities/parent/string") Reference<String> parentString();
+		@ReferencePath("/entities/-parent-/children") CatalogReference<TestChild> anyChildren();
+	}
+
+	private final Identifier child1 = Identifier.from("child1");
+
+	@BeforeEach
+	void setupBosk() throws InvalidTypeException {
+		bosk = setUpBosk(simpleDriver());
+		refs = bosk.rootReference().buildReferences(Refs.class);
+		childStrings = bosk.derive(refs.children(), children -> {
+			calls.incrementAndGet();
+			return String.join(",", children.stream().map(TestChild::string).toList());
+		});
+	}
+
+	@Test
+	void unchangedNode_reusesValue() {
+		try (var _ = bosk.readSession()) {
+			assertEquals("child1,child2,child3", childStrings.value());
+			assertEquals("child1,child2,child3", childStrings.value());
+		}
+		bosk.driver().submitReplacement(refs.parentString(), "unrelated update");
+		try (var _ = bosk.readSession()) {
+			assertEquals("child1,child2,child3", childStrings.value());
+		}
+		assertEquals(1, calls.get());
+		assertEquals(new DerivedValue.Stats(2, 1), childStrings.stats());
+	}
+
+	@Test
+	void changedNode_recomputesValue() {
+		try (var _ = bosk.readSession()) {
+			assertEquals("child1,child2,child3", childStrings.value());
+		}
+		bosk.driver().submitReplacement(refs.childString(child1), "changed");
+		try (var _ = bosk.readSession()) {
+			assertEquals("changed,child2,child3", childStrings.value());
+		}
+		assertEquals(2, calls.get());
+		assertEquals(new DerivedValue.Stats(0, 2), childStrings.stats());
+	}
+
+	@Test
+	void readSession_seesConsistentValue() {
+		try (var _ = bosk.readSession()) {
+			bosk.driver().submitReplacement(refs.childString(child1), "changed");
+			assertEquals("child1,child2,child3", childStrings.value());
+			try (var _ = bosk.supersedingReadSession()) {
+				assertEquals("changed,child2,child3", childStrings.value());
+			}
+			assertEquals("child1,child2,child3", childStrings.value());
+		}
+	}
+
+	@Test
+	void noReadSession_throws() {
+		assertThrows(NoReadSessionException.class, childStrings::value);
+	}
+
+	@Test
+	void nonexistentNode_throws() {
+		var derived = bosk.derive(refs.anyChildren().boundTo(Identifier.from("nonexistent")), Catalog::size);
+		try (var _ = bosk.readSession()) {
+			assertThrows(NonexistentReferenceException.class, derived::value);
+		}
+	}
+
+	@Test
+	void parameterizedReference_throws() {
+		assertThrows(IllegalArgumentException.class, () -> bosk.derive(refs.anyChildren(), Catalog::size));
+	}
+}
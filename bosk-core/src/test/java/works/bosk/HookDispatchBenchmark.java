@@ -0,0 +1,63 @@
+package works.bosk;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import works.bosk.exceptions.InvalidTypeException;
+import works.bosk.libtesting.AbstractBoskTest;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.openjdk.jmh.annotations.Mode.AverageTime;
+import static works.bosk.BoskConfig.simpleDriver;
+
+/**
+ * Measures the cost of an update as the number of registered hooks grows,
+ * when none of the hooks are interested in the updated object.
+ */
+@Fork(0)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@OutputTimeUnit(NANOSECONDS)
+public class HookDispatchBenchmark extends AbstractBoskTest {
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkState {
+		@Param({"1", "10", "100", "1000"})
+		int hookCount;
+
+		private Bosk<TestRoot> bosk;
+		private Reference<String> parentStringRef;
+		private int counter = 0;
+
+		@Setup(Level.Trial)
+		public void setup() throws InvalidTypeException {
+			this.bosk = setUpBosk(simpleDriver());
+			parentStringRef = bosk.rootReference().then(String.class, Path.of(
+				TestRoot.Fields.entities, "parent", TestEntity.Fields.string
+			));
+			for (int i = 0; i < hookCount; i++) {
+				// Sibling entities of "parent" that are never updated
+				Reference<String> scope = bosk.rootReference().then(String.class, Path.of(
+					TestRoot.Fields.entities, "entity_" + i, TestEntity.Fields.string
+				));
+				bosk.hookRegistrar().registerHook("unrelated_" + i, scope, _ -> { });
+			}
+		}
+	}
+
+	@Benchmark
+	@BenchmarkMode(AverageTime)
+	public Object replaceUnhookedField(BenchmarkState state) {
+		state.bosk.driver().submitReplacement(state.parentStringRef, "value_" + (state.counter++ & 1));
+		return state;
+	}
+
+}
@@ -0,0 +1,83 @@
+package works.bosk;
+
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class HookIndexTest {
+	static final List<Path> SCOPES = Stream.of(
+		"/",
+		"/a",
+		"/a/b",
+		"/a/b/-x-",
+		"/a/b/-x-/c",
+		"/a/b/-x-/d",
+		"/a/b/x1/c",
+		"/a/b/x2/c",
+		"/a/-y-/-x-/c",
+		"/a/b/-x-/c/e",
+		"/a/e",
+		"/f/b/-x-/c",
+		"/a/b/-x-/c" // Duplicate scope
+	).map(Path::parseParameterized).toList();
+
+	static Stream<String> targets() {
+		return Stream.of(
+			"/",
+			"/a",
+			"/a/b",
+			"/a/b/x1",
+			"/a/b/x1/c",
+			"/a/b/x3/c",
+			"/a/b/x1/c/e",
+			"/a/b/x1/c/e/g",
+			"/a/b/-x-/c",
+			"/a/z/x1/c",
+			"/f",
+			"/nonexistent"
+		);
+	}
+
+	@ParameterizedTest
+	@MethodSource("targets")
+	void candidatesFor_matchesExhaustiveScan(String targetString) {
+		Path target = Path.parseParameterized(targetString);
+		HookIndex<Integer> index = new HookIndex<>();
+		for (int i = 0; i < SCOPES.size(); i++) {
+			index.add(SCOPES.get(i), i);
+		}
+		List<Integer> expected = Stream.iterate(0, i -> i < SCOPES.size(), i -> i + 1)
+			.filter(i -> related(SCOPES.get(i), target))
+			.toList();
+		assertEquals(expected, index.candidatesFor(List.of(target)));
+	}
+
+	@Test
+	void multipleTargets_registrationOrderWithoutDuplicates() {
+		HookIndex<Integer> index = new HookIndex<>();
+		for (int i = 0; i < SCOPES.size(); i++) {
+			index.add(SCOPES.get(i), i);
+		}
+		List<Path> targets = Stream.of("/a/e", "/a/b/x2/c", "/a/e")
+			.map(Path::parseParameterized)
+			.toList();
+		assertEquals(List.of(0, 1, 2, 3, 4, 7, 8, 9, 10, 12), index.candidatesFor(targets));
+	}
+
+	/**
+	 * The same test {@link Bosk.HookRegistration} uses to decide whether an update
+	 * to <code>target</code> can affect objects in <code>scope</code>.
+	 */
+	private static boolean related(Path scope, Path target) {
+		int relativeDepth = target.length() - scope.length();
+		if (relativeDepth >= 0) {
+			return scope.matches(target.truncatedBy(relativeDepth));
+		} else {
+			return scope.truncatedBy(-relativeDepth).matches(target);
+		}
+	}
+}
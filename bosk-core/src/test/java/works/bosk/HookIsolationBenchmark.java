@@ -0,0 +1,70 @@
+package works.bosk;
+
+import java.util.concurrent.atomic.LongAdder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import works.bosk.BoskConfig.HookIsolation;
+import works.bosk.exceptions.InvalidTypeException;
+import works.bosk.libtesting.AbstractBoskTest;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.openjdk.jmh.annotations.Mode.AverageTime;
+import static works.bosk.testing.BoskTestUtils.boskName;
+
+/**
+ * Measures the per-update cost of running short hooks under each {@link HookIsolation} mode.
+ */
+@Fork(0)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@OutputTimeUnit(NANOSECONDS)
+public class HookIsolationBenchmark extends AbstractBoskTest {
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkState {
+		@Param({"THREAD_PER_HOOK", "SHARED_WORKER"})
+		HookIsolation hookIsolation;
+
+		@Param({"1", "10"})
+		int hooksPerUpdate;
+
+		private Bosk<TestRoot> bosk;
+		private Reference<String> parentStringRef;
+		private final LongAdder hookCalls = new LongAdder();
+		private int counter = 0;
+
+		@Setup(Level.Trial)
+		public void setup() throws InvalidTypeException {
+			this.bosk = new Bosk<>(
+				boskName(),
+				TestRoot.class,
+				AbstractBoskTest::initialState,
+				BoskConfig.<TestRoot>builder()
+					.hookIsolation(hookIsolation)
+					.build());
+			parentStringRef = bosk.rootReference().then(String.class, Path.of(
+				TestRoot.Fields.entities, "parent", TestEntity.Fields.string
+			));
+			for (int i = 0; i < hooksPerUpdate; i++) {
+				bosk.hookRegistrar().registerHook("short_" + i, parentStringRef, _ -> hookCalls.increment());
+			}
+		}
+	}
+
+	@Benchmark
+	@BenchmarkMode(AverageTime)
+	public Object replaceHookedField(BenchmarkState state) {
+		state.bosk.driver().submitReplacement(state.parentStringRef, "value_" + (state.counter++ & 1));
+		return state;
+	}
+
+}
@@ -0,0 +1,114 @@
+package works.bosk;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import works.bosk.BoskConfig.HookQueueOverflow;
+import works.bosk.annotations.ReferencePath;
+import works.bosk.exceptions.HookQueueFullException;
+import works.bosk.exceptions.InvalidTypeException;
+import works.bosk.libtesting.AbstractBoskTest;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static works.bosk.BoskConfig.HookDelivery.ASYNCHRONOUS;
+import static works.bosk.BoskConfig.HookQueueOverflow.BLOCK;
+import static works.bosk.BoskConfig.HookQueueOverflow.CONFLATE;
+import static works.bosk.BoskConfig.HookQueueOverflow.FAIL;
+import static works.bosk.testing.BoskTestUtils.boskName;
+
+/**
+ * Tests {@link BoskConfig#hookQueueCapacity()}.
+ * Each test stalls the hook queue by running a hook that waits on {@link #gate},
+ * using {@link BoskConfig.HookDelivery#ASYNCHRONOUS ASYNCHRONOUS} mode so the stalled hook
+ * doesn't also stall the test thread.
+ */
+public class HookQueueCapacityTest extends AbstractBoskTest {
+	Bosk<TestRoot> bosk;
+	Refs refs;
+	final CountDownLatch gate = new CountDownLatch(1);
+	final BlockingQueue<String> observed = new LinkedBlockingQueue<>();
+
+	public interface Refs {
+		@ReferencePath("/entities/parent/string") Reference<String> parentString();
+	}
+
+	void setupBosk(HookQueueOverflow overflow) throws InvalidTypeException, InterruptedException {
+		bosk = new Bosk<>(
+			boskName(),
+			TestRoot.class,
+			AbstractBoskTest::initialState,
+			BoskConfig.<TestRoot>builder()
+				.hookDelivery(ASYNCHRONOUS)
+				.hookQueueCapacity(1, overflow)
+				.build());
+		refs = bosk.rootReference().buildReferences(Refs.class);
+		bosk.hookRegistrar().registerHook("stalled", refs.parentString(), ref -> {
+			observed.add(ref.value());
+			if (ref.value().equals("stall")) {
+				gate.await();
+			}
+		});
+		assertEquals("parent", observed.poll());
+
+		bosk.driver().submitReplacement(refs.parentString(), "stall");
+		assertEquals("stall", observed.poll(10, SECONDS));
+		bosk.driver().submitReplacement(refs.parentString(), "queued");
+		assertEquals(new HookQueueStatus(1, 1), bosk.hookQueueStatus());
+	}
+
+	@AfterEach
+	void openGate() {
+		gate.countDown();
+	}
+
+	@Test
+	void fail_rejectsUpdate() throws InvalidTypeException, InterruptedException {
+		setupBosk(FAIL);
+		assertThrows(HookQueueFullException.class, () ->
+			bosk.driver().submitReplacement(refs.parentString(), "rejected"));
+		try (var _ = bosk.readSession()) {
+			assertEquals("queued", refs.parentString().value(), "Rejected update should not be applied");
+		}
+
+		gate.countDown();
+		assertEquals("queued", observed.poll(10, SECONDS));
+		assertNull(observed.poll(100, MILLISECONDS));
+	}
+
+	@Test
+	void conflate_queuedCallSeesLatestState() throws InvalidTypeException, InterruptedException {
+		setupBosk(CONFLATE);
+		// The queue is full, so the first of these joins the queue, and the rest are conflated into it
+		bosk.driver().submitReplacement(refs.parentString(), "conflated 1");
+		bosk.driver().submitReplacement(refs.parentString(), "conflated 2");
+		bosk.driver().submitReplacement(refs.parentString(), "conflated 3");
+		assertEquals(new HookQueueStatus(2, 2), bosk.hookQueueStatus(), "Conflated calls should not retain their states");
+
+		gate.countDown();
+		assertEquals("queued", observed.poll(10, SECONDS));
+		assertEquals("conflated 3", observed.poll(10, SECONDS));
+		assertNull(observed.poll(100, MILLISECONDS));
+	}
+
+	@Test
+	void block_waitsForRoom() throws InvalidTypeException, InterruptedException {
+		setupBosk(BLOCK);
+		CompletableFuture<Void> blocked = CompletableFuture.runAsync(() ->
+			bosk.driver().submitReplacement(refs.parentString(), "blocked"));
+		Thread.sleep(100);
+		assertFalse(blocked.isDone(), "Submitter should wait while the queue is full");
+
+		gate.countDown();
+		blocked.join();
+		assertEquals("queued", observed.poll(10, SECONDS));
+		assertEquals("blocked", observed.poll(10, SECONDS));
+	}
+}
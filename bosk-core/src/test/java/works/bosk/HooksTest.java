@@ -31,10 +31,12 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsString;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 import static works.bosk.BoskConfig.simpleDriver;
+import static works.bosk.testing.BoskTestUtils.boskName;
 
 public class HooksTest extends AbstractBoskTest {
 	Bosk<TestRoot> bosk;
@@ -63,7 +65,11 @@ public class HooksTest extends AbstractBoskTest {
 
 	@BeforeEach
 	void setupBosk() throws InvalidTypeException {
-		bosk = setUpBosk(simpleDriver());
+		bosk = new Bosk<>(
+			boskName(),
+			TestRoot.class,
+			AbstractBoskTest::initialState,
+			boskConfig());
 		refs = bosk.rootReference().buildReferences(Refs.class);
 		try (var _ = bosk.readSession()) {
 			originalParent = refs.parent().value();
@@ -74,6 +80,15 @@ public class HooksTest extends AbstractBoskTest {
 		recorder = new HookRecorder();
 	}
 
+	/**
+	 * Subclasses can override this to run the same tests with a different configuration.
+	 */
+	BoskConfig<TestRoot> boskConfig() {
+		return BoskConfig.<TestRoot>builder()
+			.driverFactory(simpleDriver())
+			.build();
+	}
+
 	@BeforeEach
 	void setThreadName(TestInfo testInfo) {
 		oldThreadName = Thread.currentThread().getName();
@@ -380,6 +395,48 @@ public class HooksTest extends AbstractBoskTest {
 			"No hooks when initializing an object inside a nonexistent parent");
 	}
 
+	@Test
+	void basic_cascadeReusesReferences() {
+		List<Reference<TestChild>> references = new ArrayList<>();
+		bosk.hookRegistrar().registerHook("Any child", refs.anyChild(), references::add);
+		references.clear();
+
+		Catalog<TestChild> children = originalParent.children();
+		bosk.driver().submitReplacement(refs.parentChildren(), children);
+		List<Reference<TestChild>> firstCascade = List.copyOf(references);
+		references.clear();
+		bosk.driver().submitReplacement(refs.parentChildren(), children);
+
+		assertEquals(firstCascade, references);
+		for (int i = 0; i < references.size(); i++) {
+			assertSame(firstCascade.get(i), references.get(i), "Cascade over a catalog should reuse the references from last time");
+		}
+	}
+
+	@Test
+	void batch_hooksRunOncePerChangedObject() {
+		registerInterleavedHooks();
+
+		TestChild newChild1 = originalChild1.withString(originalChild1.string() + " v2");
+		TestChild newChild2 = originalChild2.withString(originalChild2.string() + " v2");
+		bosk.driver().submitBatch(List.of(
+			BatchUpdate.replacement(refs.childString(child2), newChild2.string()),
+			BatchUpdate.replacement(refs.child(child1), newChild1),
+			BatchUpdate.replacement(refs.childString(child2), newChild2.string())));
+
+		TestEntity newParent = originalParent.withChildren(originalParent.children().with(newChild1).with(newChild2));
+		assertEquals(
+			asList(
+				new HookRecorder.Event("child2 A", HookRecorder.Event.Kind.CHANGED, refs.child(child2), newChild2),
+				new HookRecorder.Event("parent B", HookRecorder.Event.Kind.CHANGED, refs.parent(), newParent),
+				new HookRecorder.Event("child2 C", HookRecorder.Event.Kind.CHANGED, refs.child(child2), newChild2),
+				new HookRecorder.Event("parent D", HookRecorder.Event.Kind.CHANGED, refs.parent(), newParent),
+				new HookRecorder.Event("Any child", HookRecorder.Event.Kind.CHANGED, refs.child(child2), newChild2),
+				new HookRecorder.Event("Any child", HookRecorder.Event.Kind.CHANGED, refs.child(child1), newChild1)),
+			recorder.events(),
+			"Each hook should fire once per changed object, and see the final state of the whole batch");
+	}
+
 	/**
 	 * Provides a good test that hooks are run in registration order.
 	 */
@@ -554,6 +611,90 @@ public class HooksTest extends AbstractBoskTest {
 		}
 	}
 
+	@ParameterizedTest
+	@EnumSource(Variant.class)
+	void valueHook_receivesOldAndNewValues(Variant variant) {
+		List<List<String>> observed = new ArrayList<>();
+		bosk.hookRegistrar().registerHook("values", refs.childString(child2), (ValueHook<String>) (ref, oldValue, newValue) -> {
+			assertEquals(ref.valueIfExists(), newValue, "New value should match the read session");
+			observed.add(asList(oldValue, newValue));
+		});
+		variant.submit.replacement(bosk, refs, refs.childString(child2), "new value");
+		variant.submit.deletion(bosk, refs, refs.child(child2));
+		assertEquals(asList(
+			asList(null, "child2"),
+			asList("child2", "new value"),
+			asList("new value", null)
+		), observed);
+	}
+
+	@Test
+	void valueHook_coalescedCallsSeeFirstOldValue() {
+		bosk.hookRegistrar().registerHook("burst", refs.childString(child1), ref -> {
+			if (ref.value().equals("go")) {
+				bosk.driver().submitReplacement(refs.childString(child2), "first");
+				bosk.driver().submitReplacement(refs.childString(child2), "second");
+				bosk.driver().submitReplacement(refs.childString(child2), "third");
+			}
+		});
+		List<List<String>> observed = new ArrayList<>();
+		bosk.hookRegistrar().registerHook("latest", refs.childString(child2), (ValueHook<String>) (_, oldValue, newValue) ->
+			observed.add(asList(oldValue, newValue)), HookRegistrar.Coalescing.LATEST);
+		observed.clear();
+
+		bosk.driver().submitReplacement(refs.childString(child1), "go");
+
+		assertEquals(List.of(asList("child2", "third")), observed);
+	}
+
+	@Test
+	void hookReadSession_seesRevisionOfItsUpdate() {
+		bosk.hookRegistrar().registerHook("burst", refs.childString(child1), ref -> {
+			if (ref.value().equals("go")) {
+				bosk.driver().submitReplacement(refs.childString(child2), "first");
+				bosk.driver().submitReplacement(refs.childString(child2), "second");
+			}
+		});
+		List<Long> revisions = new ArrayList<>();
+		bosk.hookRegistrar().registerHook("every", refs.childString(child2), _ -> {
+			try (var session = bosk.readSession()) {
+				revisions.add(session.revision());
+			}
+		}, HookRegistrar.Coalescing.NONE);
+		revisions.clear();
+
+		long initialRevision = bosk.currentRevision();
+		bosk.driver().submitReplacement(refs.childString(child1), "go");
+
+		// The "go" update is initialRevision + 1
+		assertEquals(List.of(initialRevision + 2, initialRevision + 3), revisions);
+	}
+
+	@Test
+	void coalescing_queuedCallsCollapseToLatest() {
+		// The burst happens inside a hook, so the resulting calls queue up rather than running immediately
+		bosk.hookRegistrar().registerHook("burst", refs.childString(child1), recorder.hookNamed("burst", ref -> {
+			if (ref.value().equals("go")) {
+				bosk.driver().submitReplacement(refs.childString(child2), "first");
+				bosk.driver().submitReplacement(refs.childString(child2), "second");
+				bosk.driver().submitReplacement(refs.childString(child2), "third");
+			}
+		}));
+		bosk.hookRegistrar().registerHook("every", refs.childString(child2), recorder.hookNamed("every"), HookRegistrar.Coalescing.NONE);
+		bosk.hookRegistrar().registerHook("latest", refs.childString(child2), recorder.hookNamed("latest"), HookRegistrar.Coalescing.LATEST);
+		recorder.restart();
+
+		bosk.driver().submitReplacement(refs.childString(child1), "go");
+
+		assertEquals(asList(
+			new HookRecorder.Event("burst", HookRecorder.Event.Kind.CHANGED, refs.childString(child1), "go"),
+			new HookRecorder.Event("every", HookRecorder.Event.Kind.CHANGED, refs.childString(child2), "first"),
+			new HookRecorder.Event("every", HookRecorder.Event.Kind.CHANGED, refs.childString(child2), "second"),
+			new HookRecorder.Event("every", HookRecorder.Event.Kind.CHANGED, refs.childString(child2), "third"),
+			new HookRecorder.Event("latest", HookRecorder.Event.Kind.CHANGED, refs.childString(child2), "third")
+		), recorder.events());
+	}
+
 	@ParameterizedTest
 	@ValueSource(classes = {HookReceiver.class, HookSubclass.class})
 	void registerHooks_works(Class<? extends HookReceiver> receiverClass) throws NoSuchMethodException, InvocationTargetException, InstantiationException, IllegalAccessException {
@@ -741,6 +882,17 @@ public class HooksTest extends AbstractBoskTest {
 			public <T> void deletion(Bosk<?> bosk, Refs refs, Reference<T> target) {
 				bosk.driver().submitConditionalDeletion(target, refs.rootID(), rootID);
 			}
+		}),
+		BATCH(new Submit() {
+			@Override
+			public <T> void replacement(Bosk<?> bosk, Refs refs, Reference<T> target, T newValue) {
+				bosk.driver().submitBatch(List.of(BatchUpdate.replacement(target, newValue)));
+			}
+
+			@Override
+			public <T> void deletion(Bosk<?> bosk, Refs refs, Reference<T> target) {
+				bosk.driver().submitBatch(List.of(BatchUpdate.deletion(target)));
+			}
 		});
 
 
@@ -0,0 +1,197 @@
+package works.bosk;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Spliterator;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Applies random updates to an {@link IdentifierMap} and a {@link LinkedHashMap}
+ * and checks that they agree.
+ * The number of distinct IDs controls the mix of appends, replacements, and removals,
+ * and hence how many tombstones accumulate.
+ */
+class IdentifierMapTest {
+
+	@ParameterizedTest
+	@ValueSource(ints = {1, 10, 100, 1000, 5000})
+	void randomUpdates_matchLinkedHashMap(int distinctIDs) {
+		Random random = new Random(distinctIDs);
+		IdentifierMap<String> actual = IdentifierMap.empty();
+		LinkedHashMap<Identifier, String> expected = new LinkedHashMap<>();
+		for (int i = 0; i < 5000; i++) {
+			IdentifierMap<String> prior = actual;
+			Map<Identifier, String> priorExpected = new LinkedHashMap<>(expected);
+
+			Identifier id = Identifier.from("id_" + random.nextInt(distinctIDs));
+			if (random.nextInt(3) == 0) {
+				actual = actual.minus(id);
+				expected.remove(id);
+			} else {
+				String value = "value_" + random.nextInt(5);
+				actual = actual.plus(id, value);
+				expected.put(id, value);
+			}
+
+			if (i % 100 == 0) {
+				assertMatches(expected, actual);
+				assertDifferences(priorExpected, expected, prior, actual);
+			}
+		}
+		assertMatches(expected, actual);
+	}
+
+	/**
+	 * Like {@link #randomUpdates_matchLinkedHashMap}, but using a {@link IdentifierMap.Transient},
+	 * and occasionally freezing it and checking that previously frozen maps are unaffected
+	 * by subsequent changes.
+	 */
+	@ParameterizedTest
+	@ValueSource(ints = {1, 10, 100, 1000, 5000})
+	void transientUpdates_matchLinkedHashMap(int distinctIDs) {
+		Random random = new Random(distinctIDs);
+		IdentifierMap.Transient<String> actual = IdentifierMap.<String>empty().toTransient();
+		LinkedHashMap<Identifier, String> expected = new LinkedHashMap<>();
+		List<IdentifierMap<String>> frozen = new ArrayList<>();
+		List<LinkedHashMap<Identifier, String>> frozenExpected = new ArrayList<>();
+		for (int i = 0; i < 5000; i++) {
+			Identifier id = Identifier.from("id_" + random.nextInt(distinctIDs));
+			if (random.nextInt(3) == 0) {
+				assertEquals(expected.remove(id) != null, actual.remove(id));
+			} else {
+				String value = "value_" + random.nextInt(5);
+				actual.put(id, value);
+				expected.put(id, value);
+			}
+			assertEquals(expected.get(id), actual.get(id));
+			assertEquals(expected.size(), actual.size());
+
+			if (i % 500 == 0) {
+				IdentifierMap<String> map = actual.freeze();
+				assertMatches(expected, map);
+				frozen.add(map);
+				frozenExpected.add(new LinkedHashMap<>(expected));
+			}
+		}
+		assertMatches(expected, actual.freeze());
+		for (int i = 0; i < frozen.size(); i++) {
+			assertMatches(frozenExpected.get(i), frozen.get(i));
+		}
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = {1, 100})
+	void freezeWithoutChanges_returnsSameMap(int size) {
+		IdentifierMap.Transient<String> builder = IdentifierMap.<String>empty().toTransient();
+		for (int i = 0; i < size; i++) {
+			builder.put(Identifier.from("id_" + i), "value");
+		}
+		IdentifierMap<String> map = builder.freeze();
+		assertSame(map, builder.freeze());
+		assertSame(map, map.toTransient().freeze());
+		builder.put(Identifier.from("id_0"), map.get(Identifier.from("id_0")));
+		assertSame(map, builder.freeze(), "Putting the same value object is not a change");
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = {0, 31, 32, 33, 1024, 1025, 100_000})
+	void diffOfSmallChange_reportsOnlyTheChange(int size) {
+		IdentifierMap<String> prior = IdentifierMap.empty();
+		for (int i = 0; i < size; i++) {
+			prior = prior.plus(Identifier.from("id_" + i), "original");
+		}
+		Identifier added = Identifier.from("added");
+		IdentifierMap<String> current = prior.plus(added, "new");
+		List<Identifier> removed = new ArrayList<>();
+		List<Identifier> addedOrChanged = new ArrayList<>();
+		IdentifierMap.forEachDifference(prior, current, removed::add, addedOrChanged::add);
+		assertEquals(List.of(), removed);
+		assertEquals(List.of(added), addedOrChanged);
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = {0, 1, 100, 10_000})
+	void spliterator_characteristics(int size) {
+		IdentifierMap<String> map = IdentifierMap.empty();
+		for (int i = 0; i < size; i++) {
+			map = map.plus(Identifier.from("id_" + i), "value");
+		}
+		Spliterator<Identifier> spliterator = map.ids().spliterator();
+		int expected = Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.IMMUTABLE | Spliterator.NONNULL;
+		assertEquals(expected, spliterator.characteristics());
+		assertEquals(size, spliterator.getExactSizeIfKnown());
+		assertEquals(size, map.ids().parallelStream().count());
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = {1, 100})
+	void replaceWithSameValue_returnsSameMap(int size) {
+		IdentifierMap<String> map = IdentifierMap.empty();
+		for (int i = 0; i < size; i++) {
+			map = map.plus(Identifier.from("id_" + i), "value");
+		}
+		String value = map.get(Identifier.from("id_0"));
+		assertSame(map, map.plus(Identifier.from("id_0"), value));
+		assertSame(map, map.minus(Identifier.from("nonexistent")));
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = {1, 100})
+	void withoutValues_sameIDsConsecutiveSeqs(int size) {
+		IdentifierMap<String> map = IdentifierMap.empty();
+		for (int i = 0; i < size; i++) {
+			map = map.plus(Identifier.from("id_" + i), "value");
+		}
+		map = map.minus(Identifier.from("id_0"));
+		IdentifierMap<ListingEntry> ids = map.withoutValues();
+		assertEquals(map.ids(), ids.ids());
+		assertEquals(ids.size(), ids.seqLimit());
+		assertSame(ids, map.withoutValues());
+	}
+
+	private static void assertMatches(LinkedHashMap<Identifier, String> expected, IdentifierMap<String> actual) {
+		assertEquals(expected, actual);
+		assertEquals(expected.hashCode(), actual.hashCode());
+		assertEquals(expected.toString(), actual.toString());
+		List<Identifier> expectedIDs = new ArrayList<>(expected.keySet());
+		assertEquals(expectedIDs, actual.ids());
+		assertEquals(expectedIDs, new ArrayList<>(actual.keySet()));
+		assertEquals(expectedIDs, actual.keySet().parallelStream().toList());
+		for (int i = 0; i < expectedIDs.size(); i++) {
+			assertSame(expectedIDs.get(i), actual.ids().get(i));
+		}
+		assertEquals(new ArrayList<>(expected.values()), actual.values().stream().toList());
+		expected.forEach((id, value) -> assertTrue(actual.containsKey(id)));
+		assertNull(actual.get(Identifier.from("nonexistent")));
+	}
+
+	private static void assertDifferences(Map<Identifier, String> priorExpected, Map<Identifier, String> currentExpected, IdentifierMap<String> prior, IdentifierMap<String> current) {
+		List<Identifier> expectedRemoved = new ArrayList<>();
+		priorExpected.keySet().forEach(id -> {
+			if (!currentExpected.containsKey(id)) {
+				expectedRemoved.add(id);
+			}
+		});
+		List<Identifier> expectedAddedOrChanged = new ArrayList<>();
+		currentExpected.forEach((id, value) -> {
+			if (priorExpected.get(id) != value) {
+				expectedAddedOrChanged.add(id);
+			}
+		});
+
+		List<Identifier> removed = new ArrayList<>();
+		List<Identifier> addedOrChanged = new ArrayList<>();
+		IdentifierMap.forEachDifference(prior, current, removed::add, addedOrChanged::add);
+		assertEquals(expectedRemoved.reversed(), removed);
+		assertEquals(expectedAddedOrChanged, addedOrChanged);
+	}
+}
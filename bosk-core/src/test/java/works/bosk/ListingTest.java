@@ -38,12 +38,16 @@ import static works.bosk.testing.BoskTestUtils.boskName;
  */
 class ListingTest {
 
+	/**
+	 * Each case appears twice: once with an ordinary listing,
+	 * and once with a compact one from {@link Listing#fromDomain}.
+	 */
 	static Stream<Arguments> provideListingArguments() {
 		return idStreams()
 			.map(Stream::distinct)
 			.map(stream -> stream.map(id -> new TestEntity(Identifier.from(id), Catalog.empty()))
 				.collect(toList()))
-			.map(children -> {
+			.flatMap(children -> {
 				TestEntity root = new TestEntity(Identifier.unique("parent"), Catalog.of(children));
 				Bosk<TestEntity> bosk = new Bosk<>(boskName(), TestEntity.class, _ -> root, BoskConfig.simple());
 				CatalogReference<TestEntity> catalog;
@@ -53,7 +57,10 @@ class ListingTest {
 					throw new AssertionError(e);
 				}
 				Listing<TestEntity> listing = Listing.of(catalog, children.stream().map(TestEntity::id));
-				return Arguments.of(listing, children, bosk);
+				Listing<TestEntity> compact = Listing.fromDomain(catalog, root.children(), _ -> true);
+				return Stream.of(
+					Arguments.of(listing, children, bosk),
+					Arguments.of(compact, children, bosk));
 			});
 	}
 
@@ -335,6 +342,100 @@ class ListingTest {
 
 	}
 
+	@ParameterizedTest
+	@MethodSource("provideListingArguments")
+	void testWithoutAllIDs(Listing<TestEntity> listing, List<TestEntity> children, Bosk<TestEntity> bosk) {
+		List<Identifier> toRemove = new ArrayList<>();
+		Listing<TestEntity> expected = listing;
+		for (int i = 0; i < children.size(); i += 2) {
+			toRemove.add(children.get(i).id());
+			expected = expected.withoutID(children.get(i).id());
+		}
+		toRemove.add(Identifier.unique("nonexistent"));
+
+		Listing<TestEntity> actual = listing.withoutAllIDs(toRemove.stream());
+		assertEquals(expected, actual);
+		assertEquals(new ArrayList<>(expected.ids()), new ArrayList<>(actual.ids()));
+		assertEquals(distinctEntityIDs(children), listing.ids(), "Original listing is unaffected");
+	}
+
+	@ParameterizedTest
+	@MethodSource("provideListingArguments")
+	void testBuilder(Listing<TestEntity> listing, List<TestEntity> children, Bosk<TestEntity> bosk) {
+		Listing.Builder<TestEntity> builder = Listing.builder(listing.domain());
+		children.forEach(child -> builder.add(child.id()));
+		Listing<TestEntity> built = builder.build();
+		assertEquals(new ArrayList<>(distinctEntityIDs(children)), new ArrayList<>(built.ids()));
+
+		// Further changes don't affect listings already built
+		Identifier newID = Identifier.unique("nonexistent");
+		builder.add(newID);
+		children.forEach(child -> builder.remove(child.id()));
+		assertEquals(new ArrayList<>(distinctEntityIDs(children)), new ArrayList<>(built.ids()));
+		assertEquals(Listing.of(listing.domain(), newID), builder.build());
+
+		Listing.Builder<TestEntity> fromExisting = built.toBuilder();
+		fromExisting.add(newID);
+		assertEquals(built.withID(newID), fromExisting.build());
+		assertFalse(built.containsID(newID));
+	}
+
+	@ParameterizedTest
+	@MethodSource("provideListingArguments")
+	void testCompactSetAlgebra_matchesOrdinary(Listing<TestEntity> listing, List<TestEntity> children, Bosk<TestEntity> bosk) {
+		Catalog<TestEntity> domainValue = Catalog.of(children);
+		Listing<TestEntity> evens = Listing.of(listing.domain(), everyOther(children, 0));
+		Listing<TestEntity> odds = Listing.of(listing.domain(), everyOther(children, 1));
+		Listing<TestEntity> compactEvens = evens.compactedFor(domainValue);
+		Listing<TestEntity> compactOdds = Listing.fromDomain(listing.domain(), domainValue, e -> odds.containsID(e.id()));
+		assertEquals(evens, compactEvens);
+		assertEquals(odds, compactOdds);
+
+		assertSameOrder(evens.filteredBy(listing), compactEvens.filteredBy(listing));
+		assertSameOrder(listing.filteredBy(odds), listing.filteredBy(compactOdds));
+		assertSameOrder(evens.filteredBy(odds), compactEvens.filteredBy(compactOdds));
+		assertSameOrder(evens.union(odds), compactEvens.union(compactOdds));
+		assertSameOrder(odds.union(evens), compactOdds.union(compactEvens));
+		assertSameOrder(evens.union(listing), compactEvens.union(listing));
+		assertSameOrder(evens.withoutAllIDs(odds.idStream()), compactEvens.withoutAllIDs(odds.idStream()));
+
+		Identifier foreign = Identifier.unique("foreign");
+		assertSameOrder(evens.withID(foreign), compactEvens.withID(foreign));
+		for (TestEntity child: children) {
+			assertEquals(evens.containsID(child.id()), compactEvens.containsID(child.id()));
+			assertSameOrder(odds.withID(child.id()), compactOdds.withID(child.id()));
+			assertSameOrder(odds.withoutID(child.id()), compactOdds.withoutID(child.id()));
+		}
+	}
+
+	@Test
+	void compactedFor_outOfOrder_unchanged() throws InvalidTypeException {
+		List<TestEntity> children = Stream.of("a", "b", "c")
+			.map(id -> new TestEntity(Identifier.from(id), Catalog.empty()))
+			.toList();
+		TestEntity root = new TestEntity(Identifier.unique("parent"), Catalog.of(children));
+		Bosk<TestEntity> bosk = new Bosk<>(boskName(), TestEntity.class, _ -> root, BoskConfig.simple());
+		CatalogReference<TestEntity> childrenRef = bosk.rootReference().thenCatalog(TestEntity.class, Path.just(TestEntity.Fields.children));
+
+		Listing<TestEntity> outOfOrder = Listing.of(childrenRef, Identifier.from("c"), Identifier.from("a"));
+		assertSame(outOfOrder, outOfOrder.compactedFor(root.children()));
+		Listing<TestEntity> foreign = Listing.of(childrenRef, Identifier.from("a"), Identifier.from("nonexistent"));
+		assertSame(foreign, foreign.compactedFor(root.children()));
+	}
+
+	private static List<Identifier> everyOther(List<TestEntity> children, int start) {
+		List<Identifier> result = new ArrayList<>();
+		for (int i = start; i < children.size(); i += 2) {
+			result.add(children.get(i).id());
+		}
+		return result;
+	}
+
+	private static void assertSameOrder(Listing<TestEntity> expected, Listing<TestEntity> actual) {
+		assertEquals(expected, actual);
+		assertEquals(new ArrayList<>(expected.ids()), new ArrayList<>(actual.ids()));
+	}
+
 	@ParameterizedTest
 	@MethodSource("provideListingArguments")
 	void testWithoutEntity(Listing<TestEntity> listing, List<TestEntity> children, Bosk<TestEntity> bosk) {
@@ -0,0 +1,81 @@
+package works.bosk;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import works.bosk.exceptions.InvalidTypeException;
+import works.bosk.libtesting.AbstractBoskTest;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.openjdk.jmh.annotations.Mode.AverageTime;
+import static works.bosk.BoskConfig.simpleDriver;
+
+/**
+ * Measures the cost of creating {@link Path}s, which are interned,
+ * when many threads are doing so at once.
+ * Nearly every call finds an existing path, as is typical of a running application.
+ */
+@Fork(0)
+@Threads(8)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@OutputTimeUnit(NANOSECONDS)
+public class PathInternerBenchmark extends AbstractBoskTest {
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkState {
+		@Param({"10", "10000"})
+		int distinctIDs;
+
+		private Reference<TestChild> anyChild;
+		private String[] childPathStrings;
+		private Identifier[] childIDs;
+		private final Identifier parentID = Identifier.from("parent");
+
+		@Setup(Level.Trial)
+		public void setup() throws InvalidTypeException {
+			Bosk<TestRoot> bosk = setUpBosk(simpleDriver());
+			anyChild = bosk.rootReference().then(TestChild.class, Path.parseParameterized(
+				"/entities/-entity-/children/-child-"
+			));
+			childPathStrings = new String[distinctIDs];
+			childIDs = new Identifier[distinctIDs];
+			for (int i = 0; i < distinctIDs; i++) {
+				childPathStrings[i] = "/entities/parent/children/child_" + i;
+				childIDs[i] = Identifier.from("child_" + i);
+			}
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class ThreadState {
+		private int counter = 0;
+
+		int next(int bound) {
+			counter = (counter + 1) % bound;
+			return counter;
+		}
+	}
+
+	@Benchmark
+	@BenchmarkMode(AverageTime)
+	public Object parse(BenchmarkState state, ThreadState thread) {
+		return Path.parse(state.childPathStrings[thread.next(state.distinctIDs)]);
+	}
+
+	@Benchmark
+	@BenchmarkMode(AverageTime)
+	public Object boundTo(BenchmarkState state, ThreadState thread) {
+		return state.anyChild.boundTo(state.parentID, state.childIDs[thread.next(state.distinctIDs)]);
+	}
+
+}
@@ -8,6 +8,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.CountDownLatch;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -647,7 +648,7 @@ class PathTest {
 						.build()));
 			}
 
-			// Try to fool the Path interning logic into messing up its internal WeakHashMaps
+			// Try to fool the Path interning logic into messing up its internal weak references
 			System.gc();
 		}
 
@@ -656,6 +657,39 @@ class PathTest {
 		}
 	}
 
+	@Test
+	void testInterning_concurrent() throws InterruptedException {
+		int numThreads = 8;
+		int numPaths = 1000;
+		List<List<Path>> results = new ArrayList<>();
+		List<Thread> threads = new ArrayList<>();
+		CountDownLatch start = new CountDownLatch(1);
+		for (int t = 0; t < numThreads; t++) {
+			List<Path> result = new ArrayList<>(numPaths);
+			results.add(result);
+			threads.add(Thread.ofPlatform().start(() -> {
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					throw new AssertionError(e);
+				}
+				for (int i = 0; i < numPaths; i++) {
+					result.add(Path.parse("/concurrent/entity_" + i + "/field"));
+				}
+			}));
+		}
+		start.countDown();
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		for (List<Path> result : results) {
+			for (int i = 0; i < numPaths; i++) {
+				assertSame(results.getFirst().get(i), result.get(i), "All threads should get the same Path object");
+			}
+		}
+	}
+
 	private static BindingEnvironment singletonBinding(String name, String value) {
 		return BindingEnvironment.singleton(name, Identifier.from(value));
 	}
@@ -30,6 +30,7 @@ public class ReferenceBenchmark extends AbstractBoskTest {
 		private Bosk<TestRoot>.ReadSession session;
 		private Reference<TestRoot> rootRef;
 		private Reference<TestEnum> ref5Segments;
+		private Reference<TestEnum> ref5SegmentsNonexistent;
 		private TestRoot root;
 		private ThreadLocal<TestRoot> threadLocalRoot;
 
@@ -48,6 +49,11 @@ public class ReferenceBenchmark extends AbstractBoskTest {
 				TestEntity.Fields.children, "child1",
 				TestChild.Fields.testEnum
 			));
+			ref5SegmentsNonexistent = bosk.rootReference().then(TestEnum.class, Path.of(
+				TestRoot.Fields.entities, "parent",
+				TestEntity.Fields.children, "nonexistent",
+				TestChild.Fields.testEnum
+			));
 		}
 
 		@TearDown(Level.Trial)
@@ -81,6 +87,12 @@ public class ReferenceBenchmark extends AbstractBoskTest {
 		return benchmarkState.ref5Segments.value();
 	}
 
+	@Benchmark
+	@BenchmarkMode(AverageTime)
+	public Object deep_nonexistent(BenchmarkState benchmarkState) {
+		return benchmarkState.ref5SegmentsNonexistent.valueIfExists();
+	}
+
 	@Benchmark
 	@BenchmarkMode(AverageTime)
 	public Object deep_reusedRoot(BenchmarkState benchmarkState) throws InvalidTypeException {
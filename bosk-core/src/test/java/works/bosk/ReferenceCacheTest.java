@@ -0,0 +1,68 @@
+package works.bosk;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import works.bosk.exceptions.InvalidTypeException;
+import works.bosk.libtesting.AbstractBoskTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static works.bosk.BoskConfig.simpleDriver;
+
+class ReferenceCacheTest extends AbstractBoskTest {
+	private Bosk<TestRoot> bosk;
+	private ReferenceCache<Identifier, TestEntity> cache;
+	private AtomicInteger numBuilt;
+
+	@BeforeEach
+	void setup() {
+		bosk = setUpBosk(simpleDriver());
+		cache = new ReferenceCache<>();
+		numBuilt = new AtomicInteger();
+	}
+
+	@Test
+	void get_liveReference_reused() {
+		Identifier id = Identifier.from("entity");
+		Reference<TestEntity> first = cache.get(id, this::entityReference);
+		assertSame(first, cache.get(id, this::entityReference));
+		assertEquals(1, numBuilt.get());
+	}
+
+	@Test
+	void get_droppedReferences_released() throws InterruptedException {
+		int numIDs = 100;
+		List<Reference<TestEntity>> kept = new ArrayList<>();
+		for (int i = 0; i < numIDs; i++) {
+			Reference<TestEntity> ref = cache.get(Identifier.from("entity_" + i), this::entityReference);
+			if (i % 10 == 0) {
+				kept.add(ref);
+			}
+		}
+		assertEquals(numIDs, cache.size());
+
+		// Weak references are cleared by any full collection, but give it a few tries
+		for (int attempt = 0; attempt < 10 && cache.size() > kept.size(); attempt++) {
+			System.gc();
+			Thread.sleep(10);
+		}
+		assertEquals(kept.size(), cache.size(), "Only the references still in use should remain");
+
+		for (int i = 0; i < kept.size(); i++) {
+			assertSame(kept.get(i), cache.get(Identifier.from("entity_" + (10 * i)), this::entityReference));
+		}
+		assertEquals(numIDs, numBuilt.get(), "References still in use should not be rebuilt");
+	}
+
+	private Reference<TestEntity> entityReference(Identifier id) {
+		numBuilt.incrementAndGet();
+		try {
+			return bosk.rootReference().then(TestEntity.class, "entities", id.toString());
+		} catch (InvalidTypeException e) {
+			throw new AssertionError(e);
+		}
+	}
+}
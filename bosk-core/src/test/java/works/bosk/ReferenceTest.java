@@ -8,6 +8,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import works.bosk.annotations.ReferencePath;
 import works.bosk.exceptions.InvalidTypeException;
+import works.bosk.exceptions.NonexistentReferenceException;
+import works.bosk.exceptions.ReferenceBindingException;
 import works.bosk.libtesting.AbstractBoskTest;
 
 import static java.util.Collections.emptyList;
@@ -99,6 +101,27 @@ class ReferenceTest extends AbstractBoskTest {
 		assertSame(optionals.optionalSideTable().orElse(null), refs.optionalSideTable(parentID).valueIfExists());
 	}
 
+	@Test
+	void valueIn_otherRoot_ignoresReadSession() {
+		Identifier parentID = Identifier.from("parent");
+		Identifier nonexistentID = Identifier.from("nonexistent");
+		TestEntity parent = root.entities().get(parentID);
+		TestEntity newParent = parent.withString("new string");
+		TestRoot newRoot = root.withEntities(root.entities().with(newParent));
+
+		assertSame(newParent, refs.entity(parentID).valueIn(newRoot));
+		assertEquals("new string", refs.string(parentID).valueIn(newRoot));
+		assertSame(newRoot.entities(), refs.catalog().valueIn(newRoot));
+		assertSame(newParent.children(), refs.children(parentID).valueIfExistsIn(newRoot));
+		assertNull(refs.entity(nonexistentID).valueIfExistsIn(newRoot));
+		assertThrows(NonexistentReferenceException.class, () -> refs.entity(nonexistentID).valueIn(newRoot));
+		assertThrows(ReferenceBindingException.class, () -> refs.anyChild(parentID).valueIfExistsIn(newRoot));
+		assertThrows(IllegalArgumentException.class, () -> refs.entity(parentID).valueIfExistsIn(parent));
+
+		// The read session is unaffected
+		assertSame(parent, refs.entity(parentID).value());
+	}
+
 	@Test
 	void forEach_definiteReference_noMatches() {
 		assertForEachValueWorks(
@@ -148,6 +171,24 @@ class ReferenceTest extends AbstractBoskTest {
 		);
 	}
 
+	@Test
+	void boundTo_reusesReferences() {
+		Identifier parentID = Identifier.from("parent");
+		assertSame(refs.anyEntity().boundTo(parentID), refs.anyEntity().boundTo(parentID));
+		assertEquals(refs.entity(parentID), refs.anyEntity().boundTo(parentID));
+		// The wrapper is new each time, but the reference inside it is reused
+		assertSame(
+			((ReferenceUtils.ListingRef<TestChild>) refs.listing().boundTo(parentID)).ref(),
+			((ReferenceUtils.ListingRef<TestChild>) refs.listing().boundTo(parentID)).ref());
+	}
+
+	@Test
+	void catalogThen_reusesReferences() {
+		Identifier parentID = Identifier.from("parent");
+		assertSame(refs.catalog().then(parentID), refs.catalog().then(parentID));
+		assertEquals(refs.entity(parentID), refs.catalog().then(parentID));
+	}
+
 	@Test
 	void catalogRef_normalRef_equals() {
 		assertEquals(refs.catalog(), refs.catalogNormalRef());
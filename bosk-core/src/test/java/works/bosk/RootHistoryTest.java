@@ -0,0 +1,134 @@
+package works.bosk;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import works.bosk.BoskBase.Snapshot;
+import works.bosk.annotations.ReferencePath;
+import works.bosk.exceptions.InvalidTypeException;
+import works.bosk.exceptions.RevisionUnavailableException;
+import works.bosk.libtesting.AbstractBoskTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static works.bosk.testing.BoskTestUtils.boskName;
+
+public class RootHistoryTest extends AbstractBoskTest {
+	Bosk<TestRoot> bosk;
+	Refs refs;
+
+	public interface Refs {
+		@ReferencePath("/entities/parent/string") Reference<String> parentString();
+	}
+
+	@BeforeEach
+	void setupBosk() throws InvalidTypeException {
+		bosk = new Bosk<>(
+			boskName(),
+			TestRoot.class,
+			AbstractBoskTest::initialState,
+			BoskConfig.<TestRoot>builder()
+				.historyCapacity(3)
+				.build());
+		refs = bosk.rootReference().buildReferences(Refs.class);
+	}
+
+	@Test
+	void readSessionAt_seesPastState() {
+		long initialRevision = bosk.currentRevision();
+		bosk.driver().submitReplacement(refs.parentString(), "first");
+		bosk.driver().submitReplacement(refs.parentString(), "second");
+		try (var _ = bosk.readSession()) {
+			assertEquals("second", refs.parentString().value());
+			try (var session = bosk.readSessionAt(initialRevision + 1)) {
+				assertEquals(initialRevision + 1, session.revision());
+				assertEquals("first", refs.parentString().value());
+			}
+			assertEquals("second", refs.parentString().value(), "Original session should be restored");
+		}
+	}
+
+	@Test
+	void readSessionAt_discardedRevision_throws() {
+		long initialRevision = bosk.currentRevision();
+		for (int i = 1; i <= 3; i++) {
+			bosk.driver().submitReplacement(refs.parentString(), "update " + i);
+		}
+		assertThrows(RevisionUnavailableException.class, () -> bosk.readSessionAt(initialRevision));
+		try (var _ = bosk.readSessionAt(initialRevision + 1)) {
+			assertEquals("update 1", refs.parentString().value());
+		}
+	}
+
+	@Test
+	void readSessionAt_futureRevision_throws() {
+		assertThrows(RevisionUnavailableException.class, () -> bosk.readSessionAt(bosk.currentRevision() + 1));
+	}
+
+	@Test
+	void readSessionAsOf_now_seesCurrentState() {
+		bosk.driver().submitReplacement(refs.parentString(), "latest");
+		try (var session = bosk.readSessionAsOf(Instant.now())) {
+			assertEquals(bosk.currentRevision(), session.revision());
+			assertEquals("latest", refs.parentString().value());
+		}
+	}
+
+	@Test
+	void readSessionAsOf_beforeHistory_throws() {
+		assertThrows(RevisionUnavailableException.class, () -> bosk.readSessionAsOf(Instant.EPOCH));
+	}
+
+	@Test
+	void noHistory_throws() throws InvalidTypeException {
+		Bosk<TestRoot> noHistory = new Bosk<>(
+			boskName(),
+			TestRoot.class,
+			AbstractBoskTest::initialState,
+			BoskConfig.simple());
+		assertThrows(RevisionUnavailableException.class, () -> noHistory.readSessionAt(noHistory.currentRevision()));
+		assertThrows(RevisionUnavailableException.class, () -> noHistory.readSessionAsOf(Instant.now()));
+	}
+
+	@Test
+	void asOf_findsNewestNotAfterInstant() {
+		AtomicReference<Instant> now = new AtomicReference<>(Instant.ofEpochSecond(100));
+		RootHistory<String> history = new RootHistory<>(2, now::get);
+		Snapshot<String> a = new Snapshot<>("a", 1);
+		Snapshot<String> b = new Snapshot<>("b", 2);
+		Snapshot<String> c = new Snapshot<>("c", 3);
+
+		history.record(a);
+		now.set(Instant.ofEpochSecond(200));
+		history.record(b);
+		assertNull(history.asOf(Instant.ofEpochSecond(99)));
+		assertSame(a, history.asOf(Instant.ofEpochSecond(100)));
+		assertSame(a, history.asOf(Instant.ofEpochSecond(199)));
+		assertSame(b, history.asOf(Instant.ofEpochSecond(200)));
+		assertSame(b, history.asOf(Instant.ofEpochSecond(1000)));
+
+		now.set(Instant.ofEpochSecond(300));
+		history.record(c);
+		assertNull(history.asOf(Instant.ofEpochSecond(199)), "Oldest entry should have been discarded");
+		assertNull(history.at(1));
+		assertSame(b, history.at(2));
+		assertSame(c, history.at(3));
+	}
+
+	@Test
+	void clockGoesBackwards_timestampsDoNot() {
+		AtomicReference<Instant> now = new AtomicReference<>(Instant.ofEpochSecond(100));
+		RootHistory<String> history = new RootHistory<>(3, now::get);
+		Snapshot<String> a = new Snapshot<>("a", 1);
+		Snapshot<String> b = new Snapshot<>("b", 2);
+
+		history.record(a);
+		now.set(Instant.ofEpochSecond(50));
+		history.record(b);
+		assertSame(b, history.asOf(Instant.ofEpochSecond(100)));
+		assertNull(history.asOf(Instant.ofEpochSecond(99)));
+	}
+}
@@ -0,0 +1,63 @@
+package works.bosk;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static works.bosk.BoskConfig.HookIsolation.SHARED_WORKER;
+
+/**
+ * Runs all the {@link HooksTest} tests in {@link BoskConfig.HookIsolation#SHARED_WORKER SHARED_WORKER} mode,
+ * plus a test that the worker thread is actually reused.
+ */
+public class SharedWorkerHooksTest extends HooksTest {
+	@Override
+	BoskConfig<TestRoot> boskConfig() {
+		return BoskConfig.<TestRoot>builder()
+			.hookIsolation(SHARED_WORKER)
+			.build();
+	}
+
+	@Test
+	void hooksInOneDrain_runOnOneWorkerThread() {
+		List<Thread> threads = Collections.synchronizedList(new ArrayList<>());
+		bosk.hookRegistrar().registerHook("parentString1", refs.parentString(), _ -> threads.add(Thread.currentThread()));
+		bosk.hookRegistrar().registerHook("parentString2", refs.parentString(), _ -> threads.add(Thread.currentThread()));
+		threads.clear();
+
+		bosk.driver().submitReplacement(refs.parentString(), "new value");
+
+		assertEquals(2, threads.size());
+		assertEquals(List.of(threads.getFirst()), threads.stream().distinct().toList());
+		assertNotSame(Thread.currentThread(), threads.getFirst());
+	}
+
+	@Test
+	void hookLeavesSessionAndContextOpen_laterHooksUnaffected() {
+		List<String> valuesSeen = Collections.synchronizedList(new ArrayList<>());
+		List<String> attributesSeen = Collections.synchronizedList(new ArrayList<>());
+		bosk.hookRegistrar().registerHook("leaky", refs.parentString(), ref -> {
+			if ("first".equals(ref.valueIfExists())) {
+				// Deliberately never closed
+				bosk.supersedingReadSession();
+				bosk.context().withAttribute("leaked", "yes");
+			}
+		});
+		bosk.hookRegistrar().registerHook("observer", refs.parentString(), ref -> {
+			valuesSeen.add(ref.valueIfExists());
+			attributesSeen.add(bosk.context().getAttribute("leaked"));
+		});
+		valuesSeen.clear();
+		attributesSeen.clear();
+
+		bosk.driver().submitReplacement(refs.parentString(), "first");
+		bosk.driver().submitReplacement(refs.parentString(), "second");
+
+		assertEquals(List.of("first", "second"), valuesSeen);
+		assertEquals(Arrays.asList(null, null), attributesSeen);
+	}
+}
@@ -93,6 +93,53 @@ class SideTableTest extends AbstractBoskTest {
 		assertEqualsOrderedMap(expected, SideTable.fromEntries(refs.entities(), expected.entrySet().stream()));
 	}
 
+	@Test
+	void withAllAndWithoutAll_matchLinkedHashMap() {
+		Identifier id1 = Identifier.from("first");
+		Identifier id2 = Identifier.from("second");
+		Identifier id3 = Identifier.from("third");
+		SideTable<TestEntity, String> original = SideTable.of(refs.entities(), id2, "original");
+
+		Map<Identifier, String> expected = new LinkedHashMap<>();
+		expected.put(id2, "replaced");
+		expected.put(id1, "value1");
+		expected.put(id3, "value3");
+		SideTable<TestEntity, String> withAll = original.withAll(Stream.of(
+			new SimpleEntry<>(id1, "value1"),
+			new SimpleEntry<>(id2, "replaced"),
+			new SimpleEntry<>(id3, "value3")));
+		assertEqualsOrderedMap(expected, withAll);
+		assertEqualsOrderedMap(singletonMap(id2, "original"), original);
+
+		expected.remove(id1);
+		expected.remove(id2);
+		assertEqualsOrderedMap(expected, withAll.withoutAll(Stream.of(id1, id2, Identifier.from("nonexistent"))));
+	}
+
+	@Test
+	void builder_matchesLinkedHashMap() {
+		Identifier id1 = Identifier.from("first");
+		Identifier id2 = Identifier.from("second");
+		SideTable.Builder<TestEntity, String> builder = SideTable.builder(refs.entities());
+		builder.put(id1, "value1").put(id2, "value2");
+		SideTable<TestEntity, String> built = builder.build();
+
+		// Further changes don't affect side tables already built
+		builder.remove(id1).put(id2, "replaced");
+		assertFalse(builder.containsID(id1));
+		Map<Identifier, String> expected = new LinkedHashMap<>();
+		expected.put(id1, "value1");
+		expected.put(id2, "value2");
+		assertEqualsOrderedMap(expected, built);
+		assertEqualsOrderedMap(singletonMap(id2, "replaced"), builder.build());
+
+		SideTable.Builder<TestEntity, String> fromExisting = built.toBuilder();
+		fromExisting.remove(id2);
+		assertEqualsOrderedMap(singletonMap(id1, "value1"), fromExisting.build());
+		assertEqualsOrderedMap(expected, built);
+		assertThrows(IllegalArgumentException.class, () -> fromExisting.putNew(id1, "dup"));
+	}
+
 	@Test
 	void duplicateEntries_throws() {
 		assertThrows(IllegalArgumentException.class, ()-> {
@@ -402,6 +402,8 @@ public class PathCompilerTest extends AbstractBoskTest {
 			Object expectedGet = expected.get(root, ref);
 			tests.add(dynamicTest(description + ": Dereferencer.get should return the right object", () ->
 				assertSame(expectedGet, actual.get(root, ref))));
+			tests.add(dynamicTest(description + ": Dereferencer.getIfExists should return the right object", () ->
+				assertSame(expectedGet, actual.getIfExists(root, ref))));
 			try (Bosk<TestRoot>.ReadSession session = bosk.readSession()) {
 				tests.add(dynamicTest(description + ": Reference.value should return the right object", () ->
 					usingSession(session, () -> assertSame(expectedGet, ref.value()))));
@@ -413,6 +415,8 @@ public class PathCompilerTest extends AbstractBoskTest {
 		} catch (NonexistentEntryException e) {
 			tests.add(dynamicTest(description + ": Dereferencer.get should throw " + e.getClass().getSimpleName(), () ->
 				assertThrows(e.getClass(), () -> actual.get(root, ref))));
+			tests.add(dynamicTest(description + ": Dereferencer.getIfExists should return null", () ->
+				assertNull(actual.getIfExists(root, ref))));
 			try (Bosk<TestRoot>.ReadSession session = bosk.readSession()) {
 				tests.add(dynamicTest(description + ": Reference.value should throw " + e.getClass().getSimpleName(), () ->
 					usingSession(session, () -> assertThrows(NonexistentReferenceException.class, ref::value))));
@@ -443,6 +447,7 @@ public class PathCompilerTest extends AbstractBoskTest {
 				Object actualWithout = actual.without(root, ref);
 				assertEquals(expectedWithout, actualWithout);
 				assertThrows(NonexistentEntryException.class, () -> actual.get(actualWithout, ref), description + ": Dereferencer.get after without should throw NonexistentEntryException");
+				assertNull(actual.getIfExists(actualWithout, ref), description + ": Dereferencer.getIfExists after without should return null");
 			}));
 		} catch (NonexistentEntryException | IllegalArgumentException e) {
 			tests.add(dynamicTest(description + ": Dereferencer.without should throw " + e.getClass().getSimpleName(), () ->
@@ -462,6 +467,7 @@ public class PathCompilerTest extends AbstractBoskTest {
 	private <V> Dereferencer dereferencer(Function<TestRoot, V> get, BiFunction<TestRoot, V, TestRoot> with, Function<TestRoot, TestRoot> without) {
 		return new Dereferencer() {
 			@Override public Object get(Object source, Reference<?> ref) throws NonexistentEntryException { return throwIfNull(get.apply((TestRoot) source)); }
+			@Override public Object getIfExists(Object source, Reference<?> ref) { return get.apply((TestRoot) source); }
 			@Override public Object with(Object source, Reference<?> ref, Object newValue) { return with.apply((TestRoot)source, (V)newValue); }
 			@Override public Object without(Object source, Reference<?> ref) { return without.apply((TestRoot)source); }
 
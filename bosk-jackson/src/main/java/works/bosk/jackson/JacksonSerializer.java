@@ -13,7 +13,9 @@ import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import tools.jackson.core.JsonGenerator;
 import tools.jackson.core.JsonParser;
 import tools.jackson.core.JsonToken;
@@ -329,15 +331,15 @@ public final class JacksonSerializer extends StateTreeSerializer {
 			return new BoskDeserializer<>() {
 				@Override
 				public Catalog<Entity> deserialize(JsonParser p, DeserializationContext ctxt) {
-					LinkedHashMap<Identifier, Entity> entries = readMapEntries(p, entryType, ctxt);
-					for (Entry<Identifier, Entity> entry: entries.entrySet()) {
-						Identifier entryID = entry.getKey();
-						Identifier valueID = entry.getValue().id();
+					Catalog.Builder<Entity> builder = Catalog.builder();
+					readMapEntries(p, entryType, ctxt, builder::containsID, (Identifier entryID, Entity entry) -> {
+						Identifier valueID = entry.id();
 						if (!entryID.equals(valueID)) {
-							return ctxt.reportInputMismatch(Object.class, "Catalog entry ID mismatch: " + entryID + " vs " + valueID);
+							ctxt.reportInputMismatch(Object.class, "Catalog entry ID mismatch: " + entryID + " vs " + valueID);
 						}
-					}
-					return Catalog.of(entries.values());
+						builder.add(entry);
+					});
+					return builder.build();
 				}
 			};
 		}
@@ -610,10 +612,22 @@ public final class JacksonSerializer extends StateTreeSerializer {
 	/**
 	 * Leaves the parser sitting on the END_ARRAY token. You could call nextToken() to continue with parsing.
 	 */
-	@SuppressWarnings("unchecked")
 	private <V> LinkedHashMap<Identifier, V> readMapEntries(JsonParser p, JavaType valueType, DeserializationContext ctxt) {
-		ValueDeserializer<V> valueDeserializer = (ValueDeserializer<V>) ctxt.findContextualValueDeserializer(valueType, null);
 		LinkedHashMap<Identifier, V> result = new LinkedHashMap<>();
+		readMapEntries(p, valueType, ctxt, result::containsKey, result::put);
+		return result;
+	}
+
+	/**
+	 * Passes each entry to <code>entryAction</code> as it's read,
+	 * so callers can accumulate them directly into a builder.
+	 *
+	 * @param alreadyContains indicates which IDs have already been passed to <code>entryAction</code>,
+	 * so that duplicates can be reported
+	 */
+	@SuppressWarnings("unchecked")
+	private <V> void readMapEntries(JsonParser p, JavaType valueType, DeserializationContext ctxt, Predicate<Identifier> alreadyContains, BiConsumer<Identifier, V> entryAction) {
+		ValueDeserializer<V> valueDeserializer = (ValueDeserializer<V>) ctxt.findContextualValueDeserializer(valueType, null);
 		expect(START_ARRAY, p, ctxt);
 		while (p.nextToken() != END_ARRAY) {
 			expect(START_OBJECT, p, ctxt);
@@ -627,12 +641,11 @@ public final class JacksonSerializer extends StateTreeSerializer {
 			p.nextToken();
 			expect(END_OBJECT, p, ctxt);
 
-			V oldValue = result.put(entryID, value);
-			if (oldValue != null) {
-				return ctxt.reportInputMismatch(Object.class, "Duplicate entry '" + fieldName + "'");
+			if (alreadyContains.test(entryID)) {
+				ctxt.reportInputMismatch(Object.class, "Duplicate entry '" + fieldName + "'");
 			}
+			entryAction.accept(entryID, value);
 		}
-		return result;
 	}
 
 	private static final JavaType ID_LIST_TYPE = typeFactory.constructType(new TypeReference<
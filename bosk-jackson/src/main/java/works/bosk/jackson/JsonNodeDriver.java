@@ -1,7 +1,9 @@
 package works.bosk.jackson;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Supplier;
 import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
@@ -17,6 +19,7 @@ import works.bosk.DriverFactory;
 import works.bosk.Identifier;
 import works.bosk.Reference;
 import works.bosk.StateTreeNode;
+import works.bosk.WriteToken;
 import works.bosk.exceptions.InvalidTypeException;
 import works.bosk.jackson.JsonNodeSurgeon.NodeInfo;
 import works.bosk.jackson.JsonNodeSurgeon.NodeLocation.Root;
@@ -108,6 +111,29 @@ public class JsonNodeDriver implements BoskDriver {
 		downstream.flush();
 	}
 
+	@Override
+	public synchronized CompletableFuture<Void> flushAsync() {
+		traceCurrentState("Before flush");
+		return downstream.flushAsync();
+	}
+
+	@Override
+	public synchronized WriteToken writeToken() throws IOException, InterruptedException {
+		return downstream.writeToken();
+	}
+
+	@Override
+	public synchronized void awaitApplied(WriteToken token) throws IOException, InterruptedException {
+		traceCurrentState("Before awaitApplied");
+		downstream.awaitApplied(token);
+	}
+
+	@Override
+	public synchronized void flushIfStale(Duration maxStaleness) throws IOException, InterruptedException {
+		traceCurrentState("Before flushIfStale");
+		downstream.flushIfStale(maxStaleness);
+	}
+
 	/**
 	 * @return true if the node referenced by <code>precondition</code> exists in
 	 * <code>root</code> and has the value <code>requiredValue</code>. A nonexistent
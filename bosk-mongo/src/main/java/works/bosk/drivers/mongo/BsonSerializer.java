@@ -290,22 +290,21 @@ public final class BsonSerializer extends StateTreeSerializer {
 				Reference<Catalog<E>> domain = referenceCodec.decode(reader, decoderContext);
 
 				reader.readName("ids");
-				List<Identifier> ids = new ArrayList<>();
+				Listing.Builder<E> builder = Listing.builder(domain);
 				reader.readStartDocument();
 				while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
-					String id = undottedFieldNameSegment(reader.readName());
+					Identifier id = Identifier.from(undottedFieldNameSegment(reader.readName()));
 					reader.readBoolean();
-					ids.add(Identifier.from(id));
+					if (builder.containsID(id)) {
+						throw new BsonFormatException("Duplicate ids");
+					}
+					builder.add(id);
 				}
 				reader.readEndDocument();
 
 				reader.readEndDocument();
 
-				Listing<E> result =  Listing.of(domain, ids);
-				if (result.size() > ids.size()) {
-					throw new BsonFormatException("Duplicate ids");
-				}
-				return result;
+				return builder.build();
 			}
 		};
 	}
@@ -546,7 +545,7 @@ public final class BsonSerializer extends StateTreeSerializer {
 			public Catalog<E> decode(BsonReader reader, DecoderContext decoderContext) {
 				reader.readStartDocument();
 
-				List<E> entries = new ArrayList<>();
+				Catalog.Builder<E> builder = Catalog.builder();
 				while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
 					String fieldName = undottedFieldNameSegment(reader.readName());
 					Identifier entryId = Identifier.from(fieldName);
@@ -554,20 +553,17 @@ public final class BsonSerializer extends StateTreeSerializer {
 					try (@SuppressWarnings("unused") DeserializationScope s = entryDeserializationScope(entryId)) {
 						entry = entryCodec.decode(reader, decoderContext);
 					}
-					if (entryId.equals(entry.id())) {
-						entries.add(entry);
-					} else {
+					if (!entryId.equals(entry.id())) {
 						throw new BsonFormatException("Catalog entry ID mismatch: " + entryId + " vs " + entry.id());
+					} else if (builder.containsID(entryId)) {
+						throw new BsonFormatException("Duplicate entry IDs in catalog");
 					}
+					builder.add(entry);
 				}
 
 				reader.readEndDocument();
 
-				Catalog<E> result =  Catalog.of(entries);
-				if (result.size() > entries.size()) {
-					throw new BsonFormatException("Duplicate entry IDs in catalog");
-				}
-				return result;
+				return builder.build();
 			}
 
 			private MethodHandle catalogWriterHandle(Class<? extends Entity> entryClass, CodecRegistry codecRegistry) {
@@ -609,7 +605,7 @@ public final class BsonSerializer extends StateTreeSerializer {
 				Reference<Catalog<K>> domain = referenceCodec.decode(reader, decoderContext);
 
 				reader.readName("valuesById");
-				LinkedHashMap<Identifier, V> valuesById = new LinkedHashMap<>();
+				SideTable.Builder<K, V> builder = SideTable.builder(domain);
 				reader.readStartDocument();
 				while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
 					String fieldName = undottedFieldNameSegment(reader.readName());
@@ -618,16 +614,16 @@ public final class BsonSerializer extends StateTreeSerializer {
 					try (@SuppressWarnings("unused") DeserializationScope s = entryDeserializationScope(id)) {
 						value = valueCodec.decode(reader, decoderContext);
 					}
-					Object old = valuesById.put(id, value);
-					if (old != null) {
+					if (builder.containsID(id)) {
 						throw new BsonFormatException("Duplicate IDs in sideTable: " + id);
 					}
+					builder.put(id, value);
 				}
 				reader.readEndDocument();
 
 				reader.readEndDocument();
 
-				return SideTable.copyOf(domain, valuesById);
+				return builder.build();
 			}
 
 			private MethodHandle sideTableWriterHandle(Type valueType, CodecRegistry codecRegistry) {
@@ -2,11 +2,13 @@ package works.bosk.drivers.mongo;
 
 import com.mongodb.MongoClientSettings;
 import java.io.IOException;
+import java.util.OptionalLong;
 import works.bosk.Bosk;
 import works.bosk.BoskDriver;
 import works.bosk.BoskInfo;
 import works.bosk.DriverFactory;
 import works.bosk.StateTreeNode;
+import works.bosk.WriteToken;
 import works.bosk.drivers.mongo.internal.FormatDriver;
 import works.bosk.drivers.mongo.internal.MainDriver;
 import works.bosk.drivers.mongo.status.MongoStatus;
@@ -52,6 +54,24 @@ public sealed interface MongoDriver
 	 */
 	void refurbish() throws IOException;
 
+	/**
+	 * Relates a database revision, as captured by {@link #writeToken()} on this or any other replica,
+	 * to this bosk's own {@link Bosk#currentRevision() revision numbers},
+	 * which are otherwise local to each bosk.
+	 * For example, a replica can tell whether anything has changed since the state
+	 * another replica saw by comparing the result to its {@link Bosk.ReadSession#revision() read session's revision}.
+	 *
+	 * <p>
+	 * Only recent revisions are remembered, and only since the driver last connected to the database;
+	 * this does not wait for anything, nor contact the database.
+	 *
+	 * @return the earliest revision of this bosk that reflects all updates up to
+	 * the database revision represented by <code>token</code>,
+	 * or empty if that revision hasn't been applied yet, is too old to be remembered,
+	 * or belongs to a different initialization of the database (or a different driver).
+	 */
+	OptionalLong localRevisionOf(WriteToken token);
+
 	/**
 	 * Requires a {@link Bosk.ReadSession}.
 	 */
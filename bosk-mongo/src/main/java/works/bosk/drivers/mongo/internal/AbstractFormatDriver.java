@@ -3,10 +3,15 @@ package works.bosk.drivers.mongo.internal;
 import com.mongodb.MongoException;
 import com.mongodb.MongoInterruptedException;
 import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.UpdateDescription;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicReference;
 import org.bson.BsonDocument;
@@ -15,14 +20,19 @@ import org.bson.BsonNull;
 import org.bson.BsonString;
 import org.bson.BsonValue;
 import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import works.bosk.BatchUpdate;
+import works.bosk.Bosk;
 import works.bosk.BoskContext;
 import works.bosk.BoskDriver;
+import works.bosk.BoskInfo;
 import works.bosk.MapValue;
 import works.bosk.Reference;
 import works.bosk.RootReference;
 import works.bosk.StateTreeNode;
+import works.bosk.WriteToken;
 import works.bosk.drivers.mongo.internal.BsonFormatter.DocumentFields;
 import works.bosk.drivers.mongo.status.BsonComparator;
 import works.bosk.drivers.mongo.status.MongoStatus;
@@ -36,10 +46,12 @@ import static com.mongodb.client.model.changestream.OperationType.INSERT;
 import static com.mongodb.client.model.changestream.OperationType.REPLACE;
 import static java.util.Collections.newSetFromMap;
 import static java.util.Objects.requireNonNull;
+import static org.bson.BsonBoolean.TRUE;
 import static works.bosk.drivers.mongo.internal.BsonFormatter.dottedFieldNameOf;
 import static works.bosk.drivers.mongo.internal.MainDriver.MANIFEST_ID;
 
 abstract non-sealed class AbstractFormatDriver<R extends StateTreeNode> implements FormatDriver<R> {
+	final BoskInfo<R> boskInfo;
 	final RootReference<R> rootRef;
 	final BoskContext context;
 	final Formatter formatter;
@@ -51,16 +63,24 @@ abstract non-sealed class AbstractFormatDriver<R extends StateTreeNode> implemen
 
 	final DocumentFieldTracker fieldTracker = new DocumentFieldTracker();
 
+	/**
+	 * While the change stream is delivering a {@link DocumentFields#batch batch},
+	 * the updates received so far, to be submitted downstream together when the batch ends;
+	 * otherwise null.
+	 * Used only by the change stream thread.
+	 */
+	private @Nullable List<BatchUpdate> receivedBatch = null;
+
 	public AbstractFormatDriver(
-		RootReference<R> rootRef,
-		BoskContext context,
+		BoskInfo<R> boskInfo,
 		Formatter formatter,
 		TransactionalCollection collection,
 		BoskDriver downstream,
 		long flushTimeoutMS
 	) {
-		this.rootRef = rootRef;
-		this.context = context;
+		this.boskInfo = boskInfo;
+		this.rootRef = boskInfo.rootReference();
+		this.context = boskInfo.context();
 		this.formatter = formatter;
 		this.collection = collection;
 		this.downstream = downstream;
@@ -118,7 +138,7 @@ abstract non-sealed class AbstractFormatDriver<R extends StateTreeNode> implemen
 
 	@Override
 	public void onHasBeenApplied(StateAndMetadata<R> stateAndMetadata) {
-		flushLock.get().finishedRevision(stateAndMetadata.revision());
+		flushLock.get().finishedRevision(stateAndMetadata.revision(), localRevision());
 	}
 
 	/**
@@ -130,6 +150,75 @@ abstract non-sealed class AbstractFormatDriver<R extends StateTreeNode> implemen
 
 	abstract BsonStateAndMetadata readBsonStateAndMetadata() throws InvalidCollectionContentsException;
 
+	@Override
+	public void submitAsBatch(Runnable submitUpdates) {
+		collection.ensureTransactionStarted();
+		LOGGER.debug("Begin batch");
+		writeBatchMarker(TRUE);
+		submitUpdates.run();
+		LOGGER.debug("End batch");
+		writeBatchMarker(BsonNull.VALUE);
+	}
+
+	private void writeBatchMarker(BsonValue value) {
+		BsonDocument update = blankUpdateDoc();
+		update.getDocument("$set").append(DocumentFields.batch.name(), value);
+		collection.updateOne(rootDocumentsFilter(), update);
+	}
+
+	/**
+	 * If the given event writes the {@link DocumentFields#batch batch} field,
+	 * begins or ends the batch accordingly.
+	 * The event carries no changes to the bosk state either way.
+	 */
+	protected void processBatchMarker(ChangeStreamDocument<BsonDocument> event) throws UnprocessableEventException {
+		UpdateDescription updateDescription = event.getUpdateDescription();
+		BsonDocument updatedFields = (updateDescription == null) ? null : updateDescription.getUpdatedFields();
+		BsonValue marker = (updatedFields == null) ? null : updatedFields.get(DocumentFields.batch.name());
+		if (marker == null) {
+			return;
+		}
+		if (marker.isNull()) {
+			List<BatchUpdate> batch = receivedBatch;
+			receivedBatch = null;
+			if (batch == null) {
+				// We must have started reading partway through the batch,
+				// in which case its updates have already gone downstream individually
+				LOGGER.debug("| Batch ended without beginning");
+			} else if (!batch.isEmpty()) {
+				LOGGER.debug("| Submit batch of {} updates downstream", batch.size());
+				downstream.submitBatch(batch);
+			}
+		} else if (receivedBatch == null) {
+			LOGGER.debug("| Begin batch");
+			receivedBatch = new ArrayList<>();
+		} else {
+			throw new UnprocessableEventException("Batch began before the previous one ended", event.getOperationType());
+		}
+	}
+
+	/**
+	 * Submits a replacement downstream, or adds it to the batch being received, if any.
+	 */
+	protected <T> void replaceDownstream(Reference<T> target, T newValue) {
+		if (receivedBatch == null) {
+			downstream.submitReplacement(target, newValue);
+		} else {
+			receivedBatch.add(BatchUpdate.replacement(target, newValue));
+		}
+	}
+
+	/**
+	 * Submits a deletion downstream, or adds it to the batch being received, if any.
+	 */
+	protected void deleteDownstream(Reference<?> target) {
+		if (receivedBatch == null) {
+			downstream.submitDeletion(target);
+		} else {
+			receivedBatch.add(BatchUpdate.deletion(target));
+		}
+	}
+
 	protected BsonDocument blankUpdateDoc() {
 		return new BsonDocument()
 			.append("$inc", new BsonDocument(DocumentFields.revision.name(), new BsonInt64(1)))
@@ -207,7 +296,25 @@ abstract non-sealed class AbstractFormatDriver<R extends StateTreeNode> implemen
 	}
 
 	protected void finishedRevision(BsonInt64 revision) {
-		flushLock.get().finishedRevision(revision);
+		if (receivedBatch != null) {
+			// Nothing in the batch has been applied yet. The marker that ends the batch
+			// has a later revision, and will finish this one along with it.
+			return;
+		}
+		flushLock.get().finishedRevision(revision, localRevision());
+	}
+
+	/**
+	 * @return the revision of the bosk state now that an update has been applied downstream.
+	 * During initialization, before the bosk exists, the state being applied is the one
+	 * the bosk will start with.
+	 */
+	private long localRevision() {
+		if (boskInfo.boskFuture().isDone()) {
+			return boskInfo.bosk().currentRevision();
+		} else {
+			return Bosk.INITIAL_REVISION;
+		}
 	}
 
 	/**
@@ -273,6 +380,55 @@ abstract non-sealed class AbstractFormatDriver<R extends StateTreeNode> implemen
 		downstream.flush();
 	}
 
+	@Override
+	public CompletableFuture<Void> startFlush() throws IOException, InterruptedException {
+		BsonInt64 revision = readRevisionNumberToFlush();
+		collection.commitTransactionIfAny();
+		LOGGER.debug("Revision to flush asynchronously: {}", revision);
+		// The downstream flush may happen on the change stream thread, so bring the context along
+		MapValue<String> attributes = context.getAttributes();
+		return flushLock.get().awaitRevisionAsync(revision)
+			.thenCompose(_ -> {
+				try (var _ = context.withOnly(attributes)) {
+					return downstream.flushAsync();
+				}
+			});
+	}
+
+	/**
+	 * Reads the revision number just as {@link #flush()} does, but doesn't wait for it.
+	 */
+	@Override
+	public WriteToken writeToken() throws IOException, InterruptedException {
+		BsonInt64 revision = readRevisionNumberToFlush();
+		collection.commitTransactionIfAny();
+		return new RevisionToken(flushLock.get().epoch(), revision);
+	}
+
+	@Override
+	public void awaitApplied(WriteToken token) throws IOException, InterruptedException {
+		if (token instanceof RevisionToken(var epoch, var revision) && flushLock.get().epochMatches(epoch)) {
+			LOGGER.debug("Revision to await: {}", revision);
+			flushLock.get().awaitRevision(revision);
+			LOGGER.debug("| Flush downstream");
+			downstream.flush();
+		} else {
+			// Revision numbers from another epoch tell us nothing
+			flush();
+		}
+	}
+
+	@Override
+	public OptionalLong localRevisionOf(WriteToken token) {
+		FlushLock lock = flushLock.get();
+		if (token instanceof RevisionToken(var epoch, var revision) && lock.epochMatches(epoch)) {
+			return lock.localRevisionOf(revision);
+		} else {
+			// Revision numbers from another epoch tell us nothing
+			return OptionalLong.empty();
+		}
+	}
+
 	@Override
 	public void close() {
 		LOGGER.debug("+ close()");
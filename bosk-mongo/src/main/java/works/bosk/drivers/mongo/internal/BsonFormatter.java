@@ -338,6 +338,17 @@ public class BsonFormatter {
 		 * document's last update.
 		 */
 		diagnostics,
+
+		/**
+		 * In the root document, marks the bounds of a {@link works.bosk.BoskDriver#submitBatch batch}
+		 * committed in a single transaction: the transaction's first write sets this to true,
+		 * and its last write sets it to null, so receivers can apply the updates in between as a batch.
+		 *
+		 * <p>
+		 * Both writes also increment the {@link #revision}, and the field is never removed,
+		 * so receivers that don't know about batches see these as updates with no effect.
+		 */
+		batch,
 	}
 
 	static <T> ArrayList<String> dottedFieldNameSegments(Reference<T> ref, int refLength, Reference<?> startingRef) {
@@ -10,7 +10,7 @@ import com.mongodb.client.MongoCollection;
 import com.mongodb.client.model.changestream.ChangeStreamDocument;
 import java.io.Closeable;
 import java.io.IOException;
-import java.util.NoSuchElementException;
+import java.time.Duration;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeoutException;
@@ -69,6 +69,13 @@ class ChangeReceiver implements Closeable {
 	private volatile @Nullable Thread thread = null;
 	private volatile boolean isClosed = false;
 
+	/**
+	 * The {@link System#nanoTime()} at which the receiver last asked the database for events
+	 * and found there were none left to process, meaning all changes committed before then
+	 * had been processed. Null if that hasn't happened yet on the current cursor.
+	 */
+	private volatile @Nullable Long caughtUpNanos = null;
+
 	ChangeReceiver(String boskName, Identifier boskID, ChangeListener listener, MongoDriverSettings settings, MongoCollection<BsonDocument> collection) {
 		this.boskName = boskName;
 		this.boskID = boskID;
@@ -247,7 +254,18 @@ class ChangeReceiver implements Closeable {
 		x.addSuppressed(creationPoint);
 	}
 
+	/**
+	 * @return true if the receiver has confirmed, less than <code>maxStaleness</code> ago,
+	 * that it had processed every change in the database
+	 */
+	boolean isCaughtUpWithin(Duration maxStaleness) {
+		Long caughtUp = caughtUpNanos;
+		return caughtUp != null && Duration.ofNanos(System.nanoTime() - caughtUp).compareTo(maxStaleness) < 0;
+	}
+
 	private MongoChangeStreamCursor<ChangeStreamDocument<BsonDocument>> openCursor() {
+		// Catching up on a previous cursor tells us nothing about this one
+		caughtUpNanos = null;
 		var result = changeStreamIterable.cursor();
 		LOGGER.debug("Cursor is open");
 		return result;
@@ -265,18 +283,25 @@ class ChangeReceiver implements Closeable {
 			LOGGER.debug("Starting event loop");
 			while (!isClosed) {
 				ChangeStreamDocument<BsonDocument> event;
+				long requestNanos = System.nanoTime();
 				try {
-					event = cursor.next();
-				} catch (NoSuchElementException e) {
-					LOGGER.debug("Cursor is finished");
-					break;
+					// Unlike next(), tryNext() returns null when the database has no events for us,
+					// which tells us we've caught up
+					event = cursor.tryNext();
 				} catch (MongoInterruptedException e) {
 					LOGGER.debug("Interrupted while waiting for change event: {}", e.toString());
 					// The interruption has completed; clear the thread interrupt flag
 					Thread.interrupted();
 					break;
 				}
-				if (!isClosed) {
+				if (event == null) {
+					if (cursor.getServerCursor() == null) {
+						LOGGER.debug("Cursor is finished");
+						break;
+					}
+					LOGGER.trace("No more events");
+					caughtUpNanos = requestNanos;
+				} else if (!isClosed) {
 					processEvent(event);
 				}
 			}
@@ -288,6 +313,8 @@ class ChangeReceiver implements Closeable {
 			LOGGER.debug("Unexpected {} while processing events", e.getClass().getSimpleName(), e);
 			throw new UnexpectedEventProcessingException(e);
 		} finally {
+			// Changes committed from now on won't be processed until we reconnect
+			caughtUpNanos = null;
 			LOGGER.debug("Exited event loop");
 		}
 	}
@@ -1,11 +1,14 @@
 package works.bosk.drivers.mongo.internal;
 
 import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
 import lombok.RequiredArgsConstructor;
 import org.bson.BsonDocument;
 import works.bosk.Identifier;
 import works.bosk.Reference;
 import works.bosk.StateTreeNode;
+import works.bosk.WriteToken;
 import works.bosk.drivers.mongo.exceptions.DisconnectedException;
 import works.bosk.drivers.mongo.status.MongoStatus;
 
@@ -42,11 +45,37 @@ final class DisconnectedDriver<R extends StateTreeNode> implements FormatDriver<
 		throw disconnected();
 	}
 
+	@Override
+	public void submitAsBatch(Runnable submitUpdates) {
+		throw disconnected();
+	}
+
 	@Override
 	public void flush() {
 		throw disconnected();
 	}
 
+	@Override
+	public CompletableFuture<Void> startFlush() {
+		throw disconnected();
+	}
+
+	@Override
+	public WriteToken writeToken() {
+		throw disconnected();
+	}
+
+	@Override
+	public void awaitApplied(WriteToken token) {
+		throw disconnected();
+	}
+
+	@Override
+	public OptionalLong localRevisionOf(WriteToken token) {
+		// The bosk state is still whatever it was, but our revision history went with the old driver
+		return OptionalLong.empty();
+	}
+
 	@Override
 	public MongoStatus readStatus() {
 		return new MongoStatus(
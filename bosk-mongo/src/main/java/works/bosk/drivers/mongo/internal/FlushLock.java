@@ -1,14 +1,23 @@
 package works.bosk.drivers.mongo.internal;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.TreeMap;
 import java.util.concurrent.PriorityBlockingQueue;
-import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import org.bson.BsonInt64;
 import org.bson.BsonString;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import works.bosk.Bosk;
 import works.bosk.drivers.mongo.exceptions.DisconnectedException;
 import works.bosk.exceptions.FlushFailureException;
 
@@ -33,6 +42,16 @@ import static java.util.concurrent.TimeUnit.MILLISECONDS;
  * in which case the flush would wrongly conclude that there is no need to wait.
  * Hence, we also track the epoch: a flush needs to wait unless it has already seen
  * both the current <code>epoch</code> and the current <code>revision</code> number.
+ *
+ * <p>
+ * Waiters are represented by futures, completed by the thread that calls {@link #finishedRevision}
+ * (normally the change stream thread), so {@link #awaitRevisionAsync} can wait without occupying a thread.
+ * The futures are completed after releasing the lock, so their dependent actions can't deadlock with it.
+ *
+ * <p>
+ * The lock also remembers, for the most recent {@link #LOCAL_REVISION_HISTORY_SIZE} revisions it has finished,
+ * the {@link Bosk#currentRevision() revision of the bosk} that first reflected each one,
+ * so {@link #localRevisionOf} can relate database revisions to the bosk's own.
  */
 class FlushLock {
 	private final long flushTimeoutMS;
@@ -42,6 +61,14 @@ class FlushLock {
 	private volatile long alreadySeen;
 	private boolean isClosed;
 
+	/**
+	 * Maps each finished database revision to the local revision that first reflected it.
+	 * Guarded by {@link #queueLock}.
+	 */
+	private final NavigableMap<Long, Long> localRevisions = new TreeMap<>();
+
+	static final int LOCAL_REVISION_HISTORY_SIZE = 1024;
+
 	/**
 	 * @param epoch the exact epoch from the database; {@link Optional#empty()} indicates a
 	 * legacy database that predates the epoch mechanism, and matches only another empty epoch.
@@ -73,7 +100,7 @@ class FlushLock {
 
 	private record Waiter(
 		long revision,
-		Semaphore semaphore
+		CompletableFuture<Void> future
 	) implements Comparable<Waiter> {
 		@Override
 		public int compareTo(Waiter other) {
@@ -86,47 +113,77 @@ class FlushLock {
 	}
 
 	void awaitRevision(BsonInt64 revision) throws InterruptedException, FlushFailureException {
+		try {
+			awaitRevisionAsync(revision).get();
+		} catch (ExecutionException e) {
+			switch (e.getCause()) {
+				case FlushFailureException f -> throw f;
+				case RuntimeException r -> throw r;
+				case Error err -> throw err;
+				default -> throw new FlushFailureException("Unexpected exception awaiting revision " + revision.longValue(), e.getCause());
+			}
+		}
+		LOGGER.debug("Done awaiting revision {} [{}]", revision.longValue(), identityHashCode(this));
+	}
+
+	/**
+	 * @return a future that completes when the given revision has been {@link #finishedRevision finished},
+	 * or completes exceptionally with {@link FlushFailureException} if that takes longer than the flush timeout,
+	 * or with {@link DisconnectedException} if this lock is {@link #close closed} first
+	 */
+	CompletableFuture<Void> awaitRevisionAsync(BsonInt64 revision) {
 		long revisionValue = revision.longValue();
-		Semaphore semaphore = new Semaphore(0);
+		Waiter waiter = new Waiter(revisionValue, new CompletableFuture<>());
 		long past;
-		boolean mustWait;
 		try {
 			queueLock.lock();
 			if (isClosed) {
-				throw new DisconnectedException("FlushLock is closed");
+				return CompletableFuture.failedFuture(new DisconnectedException("FlushLock is closed"));
 			}
 			past = alreadySeen;
-			mustWait = revisionValue > past;
-			if (mustWait) {
-				queue.add(new Waiter(revisionValue, semaphore));
+			if (revisionValue <= past) {
+				LOGGER.debug("Revision {} <= {} is in the past; don't wait [{}]", revisionValue, past, identityHashCode(this));
+				return CompletableFuture.completedFuture(null);
 			}
+			queue.add(waiter);
 		} finally {
 			queueLock.unlock();
 		}
-		if (mustWait) {
-			LOGGER.debug("Awaiting revision {} > {} [{}]", revisionValue, past, identityHashCode(this));
-			if (!semaphore.tryAcquire(flushTimeoutMS, MILLISECONDS)) {
-				throw new FlushFailureException("Timed out waiting for revision " + revisionValue + " > " + alreadySeen);
-			}
-			if (isClosed) {
-				// Can't simply return and pretend this worked
-				throw new DisconnectedException("FlushLock was closed while waiting");
-			}
-			LOGGER.debug("Done awaiting revision {} [{}]", revisionValue, identityHashCode(this));
-		} else {
-			LOGGER.debug("Revision {} <= {} is in the past; don't wait [{}]", revisionValue, past, identityHashCode(this));
+		LOGGER.debug("Awaiting revision {} > {} [{}]", revisionValue, past, identityHashCode(this));
+		// orTimeout cancels its timer as soon as the waiter completes
+		return waiter.future()
+			.orTimeout(flushTimeoutMS, MILLISECONDS)
+			.exceptionallyCompose(e -> {
+				if (e instanceof TimeoutException) {
+					abandon(waiter);
+					return CompletableFuture.failedFuture(new FlushFailureException("Timed out waiting for revision " + revisionValue + " > " + alreadySeen));
+				} else {
+					return CompletableFuture.failedFuture(e);
+				}
+			});
+	}
+
+	private void abandon(Waiter waiter) {
+		try {
+			queueLock.lock();
+			queue.remove(waiter);
+		} finally {
+			queueLock.unlock();
 		}
 	}
 
 	/**
 	 * Called after updates are sent downstream.
 	 * @param revision can be null
+	 * @param localRevision the revision of the bosk once the updates have been applied;
+	 * this assumes the downstream drivers apply updates synchronously, as the bosk's local driver does.
 	 */
-	void finishedRevision(BsonInt64 revision) {
+	void finishedRevision(BsonInt64 revision, long localRevision) {
 		if (revision == null) {
 			return;
 		}
 
+		List<CompletableFuture<Void>> finished = new ArrayList<>();
 		try {
 			queueLock.lock();
 			long revisionValue = revision.longValue();
@@ -145,31 +202,69 @@ class FlushLock {
 				} else {
 					Waiter removed = queue.remove();
 					assert w == removed;
-					w.semaphore.release();
+					finished.add(w.future());
 				}
 			} while (true);
 
 			if (revisionValue > alreadySeen) {
 				alreadySeen = revisionValue;
+				// Only the first time we see a revision: later repeats don't change the state it produced
+				localRevisions.put(revisionValue, localRevision);
+				if (localRevisions.size() > LOCAL_REVISION_HISTORY_SIZE) {
+					localRevisions.pollFirstEntry();
+				}
+			}
+			LOGGER.debug("Finished {} as local revision {} [{}]", revisionValue, localRevision, identityHashCode(this));
+		} finally {
+			queueLock.unlock();
+		}
+		finished.forEach(f -> f.complete(null));
+	}
+
+	/**
+	 * Database revisions that produced no change to the bosk state (or that we never saw at all,
+	 * because the database skipped them) are attributed to the next revision we did see,
+	 * since that's the earliest state that reflects them.
+	 * Likewise, revisions older than any we've seen are attributed to the bosk's
+	 * {@link Bosk#INITIAL_REVISION initial state} if that's where our history starts;
+	 * otherwise (after a reconnection, or once old entries are discarded), we can't tell.
+	 *
+	 * @return the earliest local revision of the bosk that reflects the given database revision,
+	 * or empty if that revision hasn't been {@link #finishedRevision finished} yet,
+	 * or is too old for this lock to remember
+	 */
+	OptionalLong localRevisionOf(BsonInt64 revision) {
+		try {
+			queueLock.lock();
+			Map.Entry<Long, Long> entry = localRevisions.ceilingEntry(revision.longValue());
+			if (entry == null) {
+				return OptionalLong.empty();
+			} else if (entry.getValue() != Bosk.INITIAL_REVISION && entry.getKey().equals(localRevisions.firstKey()) && revision.longValue() < entry.getKey()) {
+				// Older than our history, which doesn't start at the beginning
+				return OptionalLong.empty();
+			} else {
+				return OptionalLong.of(entry.getValue());
 			}
-			LOGGER.debug("Finished {} [{}]", revisionValue, identityHashCode(this));
 		} finally {
 			queueLock.unlock();
 		}
 	}
 
 	public void close() {
+		List<CompletableFuture<Void>> abandoned = new ArrayList<>();
 		try {
 			queueLock.lock();
 			LOGGER.debug("Closing [{}]", identityHashCode(this));
 			isClosed = true;
 			Waiter w;
 			while ((w = queue.poll()) != null) {
-				w.semaphore.release();
+				abandoned.add(w.future());
 			}
 		} finally {
 			queueLock.unlock();
 		}
+		// Can't simply complete these and pretend the revisions arrived
+		abandoned.forEach(f -> f.completeExceptionally(new DisconnectedException("FlushLock was closed while waiting")));
 	}
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(FlushLock.class);
@@ -4,6 +4,7 @@ import com.mongodb.client.MongoChangeStreamCursor;
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.model.changestream.ChangeStreamDocument;
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 import org.bson.BsonDocument;
 import works.bosk.BoskContext;
 import works.bosk.StateTreeNode;
@@ -88,6 +89,23 @@ sealed public interface FormatDriver<R extends StateTreeNode>
 	 */
 	BsonDocument rootDocumentsFilter();
 
+	/**
+	 * Begins a {@link #flush()} that doesn't occupy the calling thread while waiting for the change stream.
+	 * Anything that would make {@link #flush()} fail right away, such as an error reading the revision number,
+	 * is thrown from this method just as it would be from {@link #flush()}, so the caller can retry it.
+	 *
+	 * @return a future that completes when {@link #flush()} would have returned
+	 */
+	CompletableFuture<Void> startFlush() throws IOException, InterruptedException;
+
+	/**
+	 * Runs <code>submitUpdates</code>, which submits updates to this driver,
+	 * such that the updates are committed in a single transaction
+	 * and received downstream as a single {@link works.bosk.BoskDriver#submitBatch batch}.
+	 * Updates that have no effect are skipped without affecting the others.
+	 */
+	void submitAsBatch(Runnable submitUpdates);
+
 	/**
 	 * Indicates that the given state has been {@link #flush() flushed} to the downstream driver already,
 	 * or are otherwise known to have been applied to the bosk state.
@@ -12,12 +12,18 @@ import com.mongodb.client.model.changestream.ChangeStreamDocument;
 import com.mongodb.client.result.UpdateResult;
 import java.io.Closeable;
 import java.io.IOException;
+import java.time.Duration;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Deque;
+import java.util.List;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Function;
@@ -28,12 +34,14 @@ import org.bson.BsonValue;
 import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import works.bosk.BatchUpdate;
 import works.bosk.BoskDriver;
 import works.bosk.BoskInfo;
 import works.bosk.Identifier;
 import works.bosk.MapValue;
 import works.bosk.Reference;
 import works.bosk.StateTreeNode;
+import works.bosk.WriteToken;
 import works.bosk.drivers.mongo.BsonSerializer;
 import works.bosk.drivers.mongo.MongoDriver;
 import works.bosk.drivers.mongo.MongoDriverSettings;
@@ -481,6 +489,33 @@ public final class MainDriver<R extends StateTreeNode> implements MongoDriver {
 		}, "submitConditionalDeletion({}, {}={})", target, precondition, requiredValue);
 	}
 
+	/**
+	 * Commits the whole batch in a single transaction, within a single driver operation,
+	 * so that if the operation is retried, no update is applied twice.
+	 * An update with no effect is skipped, just as it would be if submitted individually,
+	 * without affecting the rest of the batch.
+	 * <p>
+	 * The transaction's first and last writes mark the bounds of the batch in the change stream,
+	 * so that every bosk sharing the database, including this one,
+	 * receives the updates as a single batch and applies them atomically.
+	 */
+	@Override
+	public void submitBatch(List<? extends BatchUpdate> updates) {
+		if (updates.size() <= 1) {
+			// Nothing to gain from a batch
+			updates.forEach(u -> u.submitTo(this));
+			return;
+		}
+		doRetryableDriverOperation(() -> {
+			formatDriver.submitAsBatch(() -> {
+				for (BatchUpdate update : updates) {
+					bsonSerializer.initializeAllEnclosingPolyfills(update.target(), formatDriver);
+					update.submitTo(formatDriver);
+				}
+			});
+		}, "submitBatch({} updates)", updates.size());
+	}
+
 	@Override
 	public void flush() throws IOException, InterruptedException {
 		try {
@@ -494,6 +529,116 @@ public final class MainDriver<R extends StateTreeNode> implements MongoDriver {
 		}
 	}
 
+	/**
+	 * Reads the revision number to flush as a retryable operation, just like {@link #flush()},
+	 * but then waits for the change stream to deliver that revision without occupying the calling thread.
+	 * If the wait fails because the driver disconnected or the epoch changed,
+	 * falls back to a blocking {@link #flush()} on another thread,
+	 * which retries after the driver reconnects.
+	 * Other failures, including timeouts, are propagated.
+	 */
+	@Override
+	public CompletableFuture<Void> flushAsync() {
+		MapValue<String> attributes = boskInfo.context().getAttributes();
+		AtomicReference<CompletableFuture<Void>> started = new AtomicReference<>();
+		try {
+			this.<InterruptedException, IOException>doRetryableDriverOperation(() -> {
+				started.set(formatDriver.startFlush());
+			}, "flushAsync");
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return CompletableFuture.failedFuture(e);
+		} catch (IOException e) {
+			return CompletableFuture.failedFuture(e);
+		} catch (RuntimeException e) {
+			return CompletableFuture.failedFuture(new FlushFailureException(e));
+		}
+		return started.get().exceptionallyCompose(e -> {
+			Throwable cause = (e instanceof CompletionException && e.getCause() != null) ? e.getCause() : e;
+			if (cause instanceof DisconnectedException || cause instanceof EpochMismatchException) {
+				LOGGER.debug("Asynchronous flush interrupted by a reconnection; retrying with a blocking flush", cause);
+				return flushOnNewThread(attributes);
+			} else {
+				// Timeouts and downstream failures would just fail again
+				return CompletableFuture.failedFuture(cause);
+			}
+		});
+	}
+
+	/**
+	 * The failure may be reported on the change stream thread, which must not block waiting for itself.
+	 */
+	private CompletableFuture<Void> flushOnNewThread(MapValue<String> attributes) {
+		CompletableFuture<Void> result = new CompletableFuture<>();
+		Thread.ofVirtual().name("MainDriver flush").start(() -> {
+			try (var _ = boskInfo.context().withOnly(attributes)) {
+				flush();
+				result.complete(null);
+			} catch (IOException | InterruptedException | RuntimeException e) {
+				result.completeExceptionally(e);
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * Reads the current revision number from the database as a retryable operation,
+	 * just like {@link #flush()}, but without waiting for the change stream to deliver it.
+	 * (The database assigns revision numbers as updates are written,
+	 * so we can't know the number without this read.)
+	 */
+	@Override
+	public WriteToken writeToken() throws IOException, InterruptedException {
+		AtomicReference<WriteToken> result = new AtomicReference<>();
+		try {
+			this.<InterruptedException, IOException>doRetryableDriverOperation(() -> {
+				result.set(formatDriver.writeToken());
+			}, "writeToken");
+		} catch (RuntimeException e) {
+			throw new FlushFailureException(e);
+		}
+		return result.get();
+	}
+
+	/**
+	 * Waits only until the change stream has delivered the revision in the token,
+	 * which usually requires no contact with the database at all.
+	 */
+	@Override
+	public void awaitApplied(WriteToken token) throws IOException, InterruptedException {
+		try {
+			this.<InterruptedException, IOException>doRetryableDriverOperation(() -> {
+				formatDriver.awaitApplied(token);
+			}, "awaitApplied");
+		} catch (RuntimeException e) {
+			throw new FlushFailureException(e);
+		}
+	}
+
+	/**
+	 * Not a retryable operation: the answer comes from memory, and while disconnected, there is none.
+	 */
+	@Override
+	public OptionalLong localRevisionOf(WriteToken token) {
+		return formatDriver.localRevisionOf(token);
+	}
+
+	/**
+	 * Skips the flush if the {@link ChangeReceiver} found no events waiting for it
+	 * less than <code>maxStaleness</code> ago.
+	 * When no changes are arriving, the database answers a request for events
+	 * after a delay of about a second, so bounds shorter than that will often require a flush.
+	 */
+	@Override
+	public void flushIfStale(Duration maxStaleness) throws IOException, InterruptedException {
+		if (receiver.isCaughtUpWithin(maxStaleness)) {
+			LOGGER.debug("Change stream caught up within {}; no need to flush", maxStaleness);
+			downstream.flushIfStale(maxStaleness);
+		} else {
+			flush();
+		}
+	}
+
 	@Override
 	public void refurbish() throws IOException {
 		doRetryableDriverOperation(() -> {
@@ -81,8 +81,7 @@ final class PandoFormatDriver<R extends StateTreeNode> extends AbstractFormatDri
 		BoskDriver downstream
 	) {
 		super(
-			boskInfo.rootReference(),
-			boskInfo.context(),
+			boskInfo,
 			new Formatter(boskInfo, bsonSerializer),
 			collection,
 			downstream,
@@ -122,8 +121,8 @@ final class PandoFormatDriver<R extends StateTreeNode> extends AbstractFormatDri
 		BsonDocument filter = documentFilter(mainRef)
 			.append(BsonFormatter.dottedFieldNameOf(target, mainRef), new BsonDocument("$exists", TRUE));
 		if (documentExists(filter)) {
+			// Nothing has been written, so there's nothing to abort
 			LOGGER.debug("Already exists: {}", filter);
-			collection.abortTransaction();
 			return;
 		}
 		doReplacement(target, newValue);
@@ -138,7 +137,6 @@ final class PandoFormatDriver<R extends StateTreeNode> extends AbstractFormatDri
 	public <T> void submitConditionalReplacement(Reference<T> target, T newValue, Reference<Identifier> precondition, Identifier requiredValue) {
 		collection.ensureTransactionStarted();
 		if (preconditionFailed(precondition, requiredValue)) {
-			collection.abortTransaction();
 			return;
 		}
 		doReplacement(target, newValue);
@@ -148,7 +146,6 @@ final class PandoFormatDriver<R extends StateTreeNode> extends AbstractFormatDri
 	public <T> void submitConditionalDeletion(Reference<T> target, Reference<Identifier> precondition, Identifier requiredValue) {
 		collection.ensureTransactionStarted();
 		if (preconditionFailed(precondition, requiredValue)) {
-			collection.abortTransaction();
 			return;
 		}
 		doDelete(target);
@@ -376,6 +373,7 @@ final class PandoFormatDriver<R extends StateTreeNode> extends AbstractFormatDri
 							LOGGER.debug("Skipping revision {}", revision.longValue());
 							return;
 						}
+						processBatchMarker(finalEvent);
 						boolean mainEventIsFinalEvent = updateEventHasField(finalEvent, DocumentFields.state); // If the final update changes only the revision field, then it's not the main event
 						if (mainEventIsFinalEvent) {
 							LOGGER.debug("Main event is final event");
@@ -450,7 +448,7 @@ final class PandoFormatDriver<R extends StateTreeNode> extends AbstractFormatDri
 				// No other events in the transaction matter if the main document is deleted
 				Reference<?> mainRef = mainRef(documentID2MainRef(mainEvent.getDocumentKey().getString("_id").getValue(), mainEvent));
 				LOGGER.debug("| Delete downstream {}", mainRef);
-				downstream.submitDeletion(mainRef);
+				deleteDownstream(mainRef);
 			} break;
 			default: {
 				throw new UnprocessableEventException("Cannot process event", mainEvent.getOperationType());
@@ -478,7 +476,7 @@ final class PandoFormatDriver<R extends StateTreeNode> extends AbstractFormatDri
 	 */
 	private <T> void submitReplacementDownstream(Reference<T> mainRef, BsonDocument bsonState) {
 		T newValue = formatter.document2object(bsonState, mainRef);
-		downstream.submitReplacement(mainRef, newValue);
+		replaceDownstream(mainRef, newValue);
 	}
 
 	private Reference<?> documentID2MainRef(String documentId, ChangeStreamDocument<BsonDocument> event) throws UnprocessableEventException {
@@ -576,6 +574,10 @@ final class PandoFormatDriver<R extends StateTreeNode> extends AbstractFormatDri
 	private <T> void doReplacement(Reference<T> target, T newValue) {
 		collection.ensureTransactionStarted();
 		LOGGER.debug("doReplacement({})", target);
+		if (!enclosingObjectExists(target)) {
+			LOGGER.debug("| Replacement would have no effect; skipping");
+			return;
+		}
 		Reference<?> mainRef = mainRef(target);
 		BsonValue value = formatter.object2bsonValue(newValue, target.targetType());
 		if (value instanceof BsonDocument b) {
@@ -594,8 +596,7 @@ final class PandoFormatDriver<R extends StateTreeNode> extends AbstractFormatDri
 			LOGGER.debug("| Update root document");
 			boolean applied = doUpdate(replacementDoc(target, value, rootRef), standardRootPreconditions(target));
 			if (!applied) {
-				LOGGER.debug("| Replacement had no effect; aborting transaction");
-				collection.abortTransaction();
+				throw new IllegalStateException("Replacement had no effect despite its enclosing object existing: " + target);
 			}
 		} else {
 // Note: don't use mainPart's ID. TODO: Is this ok? Why is the ID wrong?
@@ -628,24 +629,23 @@ final class PandoFormatDriver<R extends StateTreeNode> extends AbstractFormatDri
 			doUpdate(preDelete, standardPreconditions(target, mainRef, filter));
 			LOGGER.debug("| Set field {} in {}: {}", key, mainRef, value);
 			BsonDocument mainUpdate = new BsonDocument("$set", new BsonDocument(key, value));
-			// If the main document doesn't exist (or its structure doesn't match), the
-			// write is silently ignored, just as the local driver ignores writes to
-			// nonexistent nodes. Such a no-op must not bump the revision or emit a
-			// spurious change-stream event.
 			boolean applied = doUpdate(mainUpdate, standardPreconditions(target, mainRef, filter));
 
 			if (applied) {
 				LOGGER.debug("| Bump revision on root document");
 				doUpdate(blankUpdateDoc(), documentFilter(rootRef));
 			} else {
-				LOGGER.debug("| Replacement had no effect; aborting transaction");
-				collection.abortTransaction();
+				throw new IllegalStateException("Replacement had no effect despite its enclosing object existing: " + target);
 			}
 		}
 	}
 
 	private <T> void doDelete(Reference<T> target) {
 		collection.ensureTransactionStarted();
+		if (!enclosingObjectExists(target)) {
+			LOGGER.debug("| Deletion would have no effect; skipping");
+			return;
+		}
 		deletePartsUnder(target);
 		Reference<?> mainRef = mainRef(target);
 		if (mainRef.equals(target)) {
@@ -668,9 +668,27 @@ final class PandoFormatDriver<R extends StateTreeNode> extends AbstractFormatDri
 				doUpdate(blankUpdateDoc(), documentFilter(rootRef));
 			}
 		} else {
-			LOGGER.debug("| Deletion had no effect; aborting transaction");
-			collection.abortTransaction();
+			throw new IllegalStateException("Deletion had no effect despite its enclosing object existing: " + target);
+		}
+	}
+
+	/**
+	 * Checks the same precondition as the final write of an update to <code>target</code>,
+	 * but before anything is written.
+	 * If the enclosing object doesn't exist, the update is silently ignored,
+	 * just as the local driver ignores updates to nonexistent nodes;
+	 * checking first means such an update writes nothing,
+	 * rather than writing the sub-part documents and then aborting the transaction,
+	 * which would also discard the other updates in a batch.
+	 * Such a no-op also must not bump the revision or emit a spurious change-stream event.
+	 */
+	private boolean enclosingObjectExists(Reference<?> target) {
+		Reference<?> mainRef = mainRef(target);
+		if (mainRef.equals(target) && !target.path().isEmpty()) {
+			// The final write sets the "true" stub in the parent document
+			mainRef = mainRef(mainRef.enclosingReference(Object.class));
 		}
+		return documentExists(standardPreconditions(target, mainRef, documentFilter(mainRef)));
 	}
 
 	private boolean preconditionFailed(Reference<Identifier> precondition, Identifier requiredValue) {
@@ -817,7 +835,7 @@ final class PandoFormatDriver<R extends StateTreeNode> extends AbstractFormatDri
 					LOGGER.debug("| Replace {}", ref);
 					LOGGER.trace("| New value: {}", replacementValue);
 					Object replacement = formatter.bsonValue2object(replacementValue, ref);
-					downstream.submitReplacement(ref, replacement);
+					replaceDownstream(ref, replacement);
 					LOGGER.trace("| Done replacing {}", ref);
 				}
 			}
@@ -840,7 +858,7 @@ final class PandoFormatDriver<R extends StateTreeNode> extends AbstractFormatDri
 						continue;
 					}
 					LOGGER.debug("| Delete {}", ref);
-					downstream.submitDeletion(ref);
+					deleteDownstream(ref);
 				} else {
 					throw new UnprocessableEventException("Deletion of metadata field " + dottedName, operationType);
 				}
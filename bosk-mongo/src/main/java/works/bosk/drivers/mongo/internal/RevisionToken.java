@@ -0,0 +1,17 @@
+package works.bosk.drivers.mongo.internal;
+
+import java.util.Optional;
+import org.bson.BsonInt64;
+import org.bson.BsonString;
+import works.bosk.WriteToken;
+
+/**
+ * A {@link WriteToken} identifying a revision of the database.
+ * Revision numbers are comparable only within the same epoch.
+ *
+ * @param epoch as for {@link FlushLock#epochMatches}
+ */
+record RevisionToken(
+	Optional<BsonString> epoch,
+	BsonInt64 revision
+) implements WriteToken { }
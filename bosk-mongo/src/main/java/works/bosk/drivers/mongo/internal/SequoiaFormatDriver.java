@@ -51,8 +51,7 @@ final class SequoiaFormatDriver<R extends StateTreeNode> extends AbstractFormatD
 		BoskDriver downstream
 	) {
 		super(
-			boskInfo.rootReference(),
-			boskInfo.context(),
+			boskInfo,
 			new Formatter(boskInfo, bsonSerializer),
 			collection,
 			downstream,
@@ -198,7 +197,7 @@ final class SequoiaFormatDriver<R extends StateTreeNode> extends AbstractFormatD
 					// saves us in MongoDriverResiliencyTest.documentReappears_recovers because when the doc
 					// disappears, we don't null out revisionToSkip. TODO: Rethink what's the right way to handle this.
 					LOGGER.debug("| Replace {}", rootRef);
-					downstream.submitReplacement(rootRef, newRoot);
+					replaceDownstream(rootRef, newRoot);
 					if (!flushLock.get().epochMatches(epoch)) {
 						// Adopt the new epoch so future flushes don't needlessly reconnect
 						replaceFlushLock(epoch, revision);
@@ -221,6 +220,7 @@ final class SequoiaFormatDriver<R extends StateTreeNode> extends AbstractFormatD
 							return;
 						}
 
+						processBatchMarker(event);
 						replaceUpdatedFields(updateDescription.getUpdatedFields());
 						deleteRemovedFields(updateDescription.getRemovedFields(), event.getOperationType());
 					}
@@ -332,7 +332,7 @@ final class SequoiaFormatDriver<R extends StateTreeNode> extends AbstractFormatD
 					}
 					LOGGER.debug("| Replace {}", ref);
 					Object replacement = formatter.bsonValue2object(entry.getValue(), ref);
-					downstream.submitReplacement(ref, replacement);
+					replaceDownstream(ref, replacement);
 				} else {
 					LOGGER.trace("| (Ignoring field: {})", dottedName);
 				}
@@ -358,7 +358,7 @@ final class SequoiaFormatDriver<R extends StateTreeNode> extends AbstractFormatD
 						continue;
 					}
 					LOGGER.debug("| Delete {}", ref);
-					downstream.submitDeletion(ref);
+					deleteDownstream(ref);
 				} else {
 					throw new UnprocessableEventException("Deletion of metadata field " + dottedName, operationType);
 				}
@@ -2,15 +2,24 @@ package works.bosk.drivers.mongo.internal;
 
 import java.time.Duration;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicReference;
 import org.bson.BsonInt64;
 import org.junit.jupiter.api.Test;
 import works.bosk.drivers.mongo.exceptions.DisconnectedException;
 import works.bosk.exceptions.FlushFailureException;
 
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static works.bosk.Bosk.INITIAL_REVISION;
+import static works.bosk.drivers.mongo.internal.FlushLock.LOCAL_REVISION_HISTORY_SIZE;
 
 class FlushLockTest {
 
@@ -32,7 +41,7 @@ class FlushLockTest {
 			}
 		});
 		awaiting.start();
-		lock.finishedRevision(new BsonInt64(10));
+		lock.finishedRevision(new BsonInt64(10), INITIAL_REVISION);
 		awaiting.join(5000);
 		assertFalse(awaiting.isAlive(), "Waiting thread must wake when the revision finishes");
 		assertEquals(0, lock.queue.size(), "Queue must drain after the revision finishes");
@@ -64,6 +73,73 @@ class FlushLockTest {
 		assertNull(failure.get(), "awaitRevision must throw DisconnectedException when the lock is closed");
 	}
 
+	@Test
+	void awaitRevisionAsync_completesWhenFinished() {
+		FlushLock lock = new FlushLock(Optional.empty(), 0, 5000);
+		CompletableFuture<Void> future = lock.awaitRevisionAsync(new BsonInt64(10));
+		lock.finishedRevision(new BsonInt64(9), INITIAL_REVISION);
+		assertFalse(future.isDone(), "Future must not complete before its revision finishes");
+		lock.finishedRevision(new BsonInt64(10), INITIAL_REVISION);
+		assertTrue(future.isDone() && !future.isCompletedExceptionally(), "Future must complete when its revision finishes");
+		assertEquals(0, lock.queue.size(), "Queue must drain after the revision finishes");
+	}
+
+	@Test
+	void awaitRevisionAsync_lockClosed_completesExceptionally() {
+		FlushLock lock = new FlushLock(Optional.empty(), 0, 5000);
+		CompletableFuture<Void> future = lock.awaitRevisionAsync(new BsonInt64(10));
+		lock.close();
+		ExecutionException e = assertThrows(ExecutionException.class, future::get);
+		assertInstanceOf(DisconnectedException.class, e.getCause());
+	}
+
+	@Test
+	void awaitRevisionAsync_timeout_completesWithFlushFailure() {
+		FlushLock lock = new FlushLock(Optional.empty(), 0, 10);
+		CompletableFuture<Void> future = lock.awaitRevisionAsync(new BsonInt64(10));
+		ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, SECONDS));
+		assertInstanceOf(FlushFailureException.class, e.getCause());
+		assertEquals(0, lock.queue.size(), "Timed-out waiter must be removed from the queue");
+	}
+
+	@Test
+	void localRevisionOf_initialHistory_earliestReflectingRevision() {
+		FlushLock lock = new FlushLock(Optional.empty(), 9, 5000);
+		lock.finishedRevision(new BsonInt64(10), INITIAL_REVISION);
+		lock.finishedRevision(new BsonInt64(11), INITIAL_REVISION + 1);
+		lock.finishedRevision(new BsonInt64(14), INITIAL_REVISION + 2);
+		lock.finishedRevision(new BsonInt64(14), INITIAL_REVISION + 3); // Repeat doesn't count
+
+		assertEquals(OptionalLong.of(INITIAL_REVISION), lock.localRevisionOf(new BsonInt64(5)), "Older revisions are reflected in the initial state");
+		assertEquals(OptionalLong.of(INITIAL_REVISION), lock.localRevisionOf(new BsonInt64(10)));
+		assertEquals(OptionalLong.of(INITIAL_REVISION + 1), lock.localRevisionOf(new BsonInt64(11)));
+		assertEquals(OptionalLong.of(INITIAL_REVISION + 2), lock.localRevisionOf(new BsonInt64(12)), "Unseen revisions are reflected in the next one we saw");
+		assertEquals(OptionalLong.of(INITIAL_REVISION + 2), lock.localRevisionOf(new BsonInt64(14)));
+		assertEquals(OptionalLong.empty(), lock.localRevisionOf(new BsonInt64(15)), "Revision not yet applied");
+	}
+
+	@Test
+	void localRevisionOf_historyStartsLater_olderRevisionsUnknown() {
+		FlushLock lock = new FlushLock(Optional.empty(), 19, 5000);
+		lock.finishedRevision(new BsonInt64(20), 50);
+		assertEquals(OptionalLong.of(50), lock.localRevisionOf(new BsonInt64(20)));
+		assertEquals(OptionalLong.empty(), lock.localRevisionOf(new BsonInt64(19)));
+	}
+
+	@Test
+	void localRevisionOf_oldEntriesDiscarded() {
+		FlushLock lock = new FlushLock(Optional.empty(), 0, 5000);
+		int numRevisions = LOCAL_REVISION_HISTORY_SIZE + 10;
+		for (int i = 1; i <= numRevisions; i++) {
+			lock.finishedRevision(new BsonInt64(i), INITIAL_REVISION + i);
+		}
+		assertEquals(OptionalLong.empty(), lock.localRevisionOf(new BsonInt64(1)));
+		assertEquals(OptionalLong.of(INITIAL_REVISION + numRevisions), lock.localRevisionOf(new BsonInt64(numRevisions)));
+		int oldest = numRevisions - LOCAL_REVISION_HISTORY_SIZE + 1;
+		assertEquals(OptionalLong.of(INITIAL_REVISION + oldest), lock.localRevisionOf(new BsonInt64(oldest)));
+		assertEquals(OptionalLong.empty(), lock.localRevisionOf(new BsonInt64(oldest - 1)));
+	}
+
 	private static void awaitWaiterEnqueued(FlushLock lock, Thread awaiting) throws InterruptedException {
 		// The waiter adds itself to the queue just before blocking, so once it's
 		// enqueued, close() is guaranteed to release it. Waiting for the enqueue
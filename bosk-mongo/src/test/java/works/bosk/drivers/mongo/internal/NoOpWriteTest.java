@@ -2,6 +2,7 @@ package works.bosk.drivers.mongo.internal;
 
 import com.mongodb.client.MongoCollection;
 import java.io.IOException;
+import java.util.List;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
 import org.bson.BsonDocument;
@@ -10,6 +11,7 @@ import org.bson.BsonRegularExpression;
 import org.bson.BsonString;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import works.bosk.BatchUpdate;
 import works.bosk.Bosk;
 import works.bosk.BoskConfig;
 import works.bosk.Catalog;
@@ -26,6 +28,7 @@ import works.bosk.logback.ReplayLogsOnFailure;
 import works.bosk.testing.drivers.state.TestEntity;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static works.bosk.drivers.mongo.internal.TestParameters.LONG_TIMESCALE;
 import static works.bosk.drivers.mongo.internal.TestParameters.ParameterSet;
@@ -77,6 +80,35 @@ public class NoOpWriteTest {
 				"A write that cannot be applied must not advance the revision");
 		}
 
+		@Test
+		void batchContainingNoOp_appliesTheRest() throws InvalidTypeException, IOException, InterruptedException {
+			Bosk<TestEntity> bosk = new Bosk<>(
+				boskName(),
+				TestEntity.class,
+				AbstractMongoDriverTest::initialState,
+				BoskConfig.<TestEntity>builder().driverFactory(driverFactory).build());
+			bosk.driver().flush();
+
+			Refs refs = bosk.buildReferences(Refs.class);
+			Reference<String> string123 = refs.catalog().then(entity123).then(String.class, "string");
+			Reference<String> string124 = refs.catalog().then(entity124).then(String.class, "string");
+			Reference<String> ghostField = refs.catalog()
+				.then(Identifier.from("ghost"))
+				.then(String.class, "string");
+
+			bosk.driver().submitBatch(List.of(
+				BatchUpdate.replacement(string123, "first"),
+				BatchUpdate.replacement(ghostField, "ignored"),
+				BatchUpdate.replacement(string124, "last")));
+			bosk.driver().flush();
+
+			try (var _ = bosk.readSession()) {
+				assertEquals("first", string123.value());
+				assertEquals("last", string124.value());
+				assertNull(ghostField.valueIfExists());
+			}
+		}
+
 		private BsonInt64 rootDocumentRevision() {
 			MongoCollection<BsonDocument> collection = mongoService.client()
 				.getDatabase(driverSettings.database())
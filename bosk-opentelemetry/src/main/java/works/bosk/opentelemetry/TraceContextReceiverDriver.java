@@ -1,12 +1,17 @@
 package works.bosk.opentelemetry;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import works.bosk.BatchUpdate;
 import works.bosk.BoskContext;
 import works.bosk.BoskDriver;
 import works.bosk.DriverFactory;
 import works.bosk.Identifier;
 import works.bosk.Reference;
 import works.bosk.StateTreeNode;
+import works.bosk.WriteToken;
 import works.bosk.exceptions.InvalidTypeException;
 
 /**
@@ -69,6 +74,13 @@ final class TraceContextReceiverDriver implements TraceContextDriver {
 		}
 	}
 
+	@Override
+	public void submitBatch(List<? extends BatchUpdate> updates) {
+		try (var _ = Utils.otelContextFromDiagnosticAttributes(context).makeCurrent()) {
+			downstream.submitBatch(updates);
+		}
+	}
+
 	@Override
 	public void flush() throws IOException, InterruptedException {
 		try (var _ = Utils.otelContextFromDiagnosticAttributes(context).makeCurrent()) {
@@ -76,4 +88,32 @@ final class TraceContextReceiverDriver implements TraceContextDriver {
 		}
 	}
 
+	@Override
+	public CompletableFuture<Void> flushAsync() {
+		try (var _ = Utils.otelContextFromDiagnosticAttributes(context).makeCurrent()) {
+			return downstream.flushAsync();
+		}
+	}
+
+	@Override
+	public WriteToken writeToken() throws IOException, InterruptedException {
+		try (var _ = Utils.otelContextFromDiagnosticAttributes(context).makeCurrent()) {
+			return downstream.writeToken();
+		}
+	}
+
+	@Override
+	public void awaitApplied(WriteToken token) throws IOException, InterruptedException {
+		try (var _ = Utils.otelContextFromDiagnosticAttributes(context).makeCurrent()) {
+			downstream.awaitApplied(token);
+		}
+	}
+
+	@Override
+	public void flushIfStale(Duration maxStaleness) throws IOException, InterruptedException {
+		try (var _ = Utils.otelContextFromDiagnosticAttributes(context).makeCurrent()) {
+			downstream.flushIfStale(maxStaleness);
+		}
+	}
+
 }
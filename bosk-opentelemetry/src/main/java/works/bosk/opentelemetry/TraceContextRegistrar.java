@@ -5,6 +5,7 @@ import works.bosk.BoskHook;
 import works.bosk.HookRegistrar;
 import works.bosk.Reference;
 import works.bosk.RegistrarFactory;
+import works.bosk.ValueHook;
 
 /**
  * {@link HookRegistrar} that propagates trace context from
@@ -35,10 +36,24 @@ public final class TraceContextRegistrar implements HookRegistrar {
 
 	@Override
 	public <T> void registerHook(String name, Reference<T> scope, BoskHook<T> hook) {
-		downstream.registerHook(name, scope, ref -> {
-			try (var _ = Utils.otelContextFromDiagnosticAttributes(context).makeCurrent()) {
-				hook.onChanged(ref);
-			}
-		});
+		registerHook(name, scope, hook, Coalescing.NONE);
+	}
+
+	@Override
+	public <T> void registerHook(String name, Reference<T> scope, BoskHook<T> hook, Coalescing coalescing) {
+		if (hook instanceof ValueHook<T> valueHook) {
+			// Preserve the hook's type so it still receives the old and new values
+			downstream.registerHook(name, scope, (ValueHook<T>) (ref, oldValue, newValue) -> {
+				try (var _ = Utils.otelContextFromDiagnosticAttributes(context).makeCurrent()) {
+					valueHook.onChanged(ref, oldValue, newValue);
+				}
+			}, coalescing);
+		} else {
+			downstream.registerHook(name, scope, ref -> {
+				try (var _ = Utils.otelContextFromDiagnosticAttributes(context).makeCurrent()) {
+					hook.onChanged(ref);
+				}
+			}, coalescing);
+		}
 	}
 }
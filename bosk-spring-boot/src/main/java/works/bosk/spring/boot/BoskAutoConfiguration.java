@@ -21,9 +21,10 @@ public class BoskAutoConfiguration {
 		matchIfMissing = true)
 	@ConditionalOnBean(Bosk.class) // Because of matchIfMissing
 	ReadSessionFilter readSessionFilter(
-		Bosk<?> bosk
+		Bosk<?> bosk,
+		WebProperties properties
 	) {
-		return new ReadSessionFilter(bosk);
+		return new ReadSessionFilter(bosk, properties.maxStaleness());
 	}
 
 	@Bean
@@ -5,9 +5,12 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.time.Duration;
 import lombok.RequiredArgsConstructor;
+import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -23,6 +26,19 @@ import static org.springframework.http.HttpHeaders.CACHE_CONTROL;
 public class ReadSessionFilter extends OncePerRequestFilter {
 	private final Bosk<?> bosk;
 
+	/**
+	 * If not null, <code>no-cache</code> requests tolerate state up to this old,
+	 * and don't cause a flush if the bosk is known to be that fresh.
+	 *
+	 * @see WebProperties#maxStaleness()
+	 */
+	private final @Nullable Duration maxStaleness;
+
+	@Autowired // In case this is created by component scanning rather than BoskAutoConfiguration
+	public ReadSessionFilter(Bosk<?> bosk) {
+		this(bosk, null);
+	}
+
 	@Override
 	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
 		if ("no-cache".equalsIgnoreCase(request.getHeader(CACHE_CONTROL))) {
@@ -30,7 +46,11 @@ public class ReadSessionFilter extends OncePerRequestFilter {
 			// We do this even for requests that don't automatically open a read session because
 			// they might later manually open one.
 			try {
-				bosk.driver().flush();
+				if (maxStaleness == null) {
+					bosk.driver().flush();
+				} else {
+					bosk.driver().flushIfStale(maxStaleness);
+				}
 			} catch (InterruptedException e) {
 				// Assume the user wanted to interrupt the entire request,
 				// not just the flush operation.
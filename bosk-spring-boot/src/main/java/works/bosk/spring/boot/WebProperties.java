@@ -1,9 +1,16 @@
 package works.bosk.spring.boot;
 
+import java.time.Duration;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+/**
+ * @param maxStaleness if set, a request with <code>Cache-Control: no-cache</code>
+ *                     causes {@link ReadSessionFilter} to flush the bosk only if its state
+ *                     might be older than this; otherwise, every such request causes a flush.
+ */
 @ConfigurationProperties(prefix = "bosk.web")
 public record WebProperties(
 	Boolean readSession,
-	String maintenancePath
+	String maintenancePath,
+	Duration maxStaleness
 ) {}
@@ -4,6 +4,7 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.ServletRequest;
 import jakarta.servlet.ServletResponse;
 import java.io.IOException;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
@@ -68,6 +69,15 @@ class ReadSessionFilterTest {
 	}
 
 
+	@Test
+	void noCacheWithMaxStaleness_flushesIfStale() throws ServletException, IOException {
+		// Whether flushIfStale actually flushes is up to the driver; the filter just needs to call it first
+		filter = new ReadSessionFilter(bosk, Duration.ofMinutes(1));
+		req.addHeader("Cache-Control", "no-cache");
+		filter.doFilter(req, res, new ReportingFilterChain());
+		assertEquals(List.of("FlushOperation", "filter chain"), events);
+	}
+
 	@Test
 	void otherCacheControl_noOperations() throws ServletException, IOException {
 		req.addHeader("Cache-Control", "no-cash");
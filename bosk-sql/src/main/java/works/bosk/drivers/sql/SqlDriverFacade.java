@@ -1,11 +1,14 @@
 package works.bosk.drivers.sql;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import works.bosk.Identifier;
 import works.bosk.Reference;
 import works.bosk.StateTreeNode;
+import works.bosk.WriteToken;
 import works.bosk.exceptions.InvalidTypeException;
 import works.bosk.jackson.JacksonSerializer;
 
@@ -77,6 +80,30 @@ class SqlDriverFacade implements SqlDriver {
 		impl.flush();
 	}
 
+	@Override
+	public CompletableFuture<Void> flushAsync() {
+		LOGGER.debug("flushAsync");
+		return impl.flushAsync();
+	}
+
+	@Override
+	public WriteToken writeToken() throws IOException, InterruptedException {
+		LOGGER.debug("writeToken");
+		return impl.writeToken();
+	}
+
+	@Override
+	public void awaitApplied(WriteToken token) throws IOException, InterruptedException {
+		LOGGER.debug("awaitApplied({})", token);
+		impl.awaitApplied(token);
+	}
+
+	@Override
+	public void flushIfStale(Duration maxStaleness) throws IOException, InterruptedException {
+		LOGGER.debug("flushIfStale({})", maxStaleness);
+		impl.flushIfStale(maxStaleness);
+	}
+
 	/**
 	 * We log under the auspices of {@link SqlDriver} since this object is
 	 * the public facing object of that driver.
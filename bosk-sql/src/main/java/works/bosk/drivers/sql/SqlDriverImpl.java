@@ -4,14 +4,21 @@ import java.io.IOException;
 import java.lang.reflect.Type;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
 import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executors;
+import java.util.concurrent.PriorityBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import org.jooq.Record;
 import org.jooq.TableField;
+import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import tools.jackson.core.JacksonException;
@@ -20,6 +27,7 @@ import tools.jackson.databind.JsonNode;
 import tools.jackson.databind.ObjectMapper;
 import tools.jackson.databind.node.StringNode;
 import tools.jackson.databind.type.TypeFactory;
+import works.bosk.BatchUpdate;
 import works.bosk.BoskContext;
 import works.bosk.BoskDriver;
 import works.bosk.BoskInfo;
@@ -29,6 +37,7 @@ import works.bosk.Path;
 import works.bosk.Reference;
 import works.bosk.RootReference;
 import works.bosk.StateTreeNode;
+import works.bosk.WriteToken;
 import works.bosk.drivers.sql.schema.BoskTable;
 import works.bosk.drivers.sql.schema.ChangesTable;
 import works.bosk.drivers.sql.schema.Schema;
@@ -44,6 +53,7 @@ import works.bosk.jackson.JsonNodeSurgeon.NodeLocation.Root;
 import static java.lang.Math.min;
 import static java.lang.Math.multiplyExact;
 import static java.lang.System.currentTimeMillis;
+import static java.util.Comparator.comparingLong;
 import static java.util.Objects.requireNonNull;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.jooq.impl.DSL.max;
@@ -89,6 +99,38 @@ class SqlDriverImpl implements SqlDriver {
 
 	private final AtomicLong lastChangeSubmittedDownstream = new AtomicLong(-1);
 
+	/**
+	 * The {@link System#nanoTime()} at which the listener started its most recent successful poll,
+	 * by which time it had received every change committed to the database.
+	 * Null if no poll has succeeded yet.
+	 */
+	private volatile @Nullable Long lastPollStartNanos = null;
+
+	/**
+	 * Pending {@link #flushAsync} calls, completed by the listener thread
+	 * once it has submitted the change they're waiting for.
+	 */
+	private final PriorityBlockingQueue<FlushWaiter> flushWaiters = new PriorityBlockingQueue<>(11, comparingLong(FlushWaiter::changeID));
+
+	private record FlushWaiter(long changeID, CompletableFuture<Void> future) { }
+
+	/**
+	 * The latest change committed by this driver, returned by {@link #writeToken()}.
+	 * Null if this driver hasn't committed any changes.
+	 */
+	private final AtomicReference<ChangeToken> lastChangeCommitted = new AtomicReference<>();
+
+	/**
+	 * Change IDs are comparable only within the same epoch.
+	 */
+	private record ChangeToken(String epoch, long changeID) implements WriteToken { }
+
+	/**
+	 * The result of {@link #applyChange}: the new state, along with the change
+	 * that must be committed for the new state to take effect.
+	 */
+	private record Change(JsonNode state, ChangeToken token) { }
+
 	/**
 	 * Allows tests to install test probes controlling the driver's internals.
 	 * <p>
@@ -149,6 +191,7 @@ class SqlDriverImpl implements SqlDriver {
 				return;
 			}
 			LOGGER.trace("Polling for changes");
+			long pollStartNanos = System.nanoTime();
 			try {
 				try (var c = connectionSource.get()) {
 					var rs = using(c)
@@ -207,6 +250,7 @@ class SqlDriverImpl implements SqlDriver {
 						}
 
 					}
+					lastPollStartNanos = pollStartNanos;
 				} catch (SQLException e) {
 					throw new NotYetImplementedException(e);
 				}
@@ -238,6 +282,19 @@ class SqlDriverImpl implements SqlDriver {
 		} else {
 			LOGGER.debug("Change ID increased from {} to {}", prev, changeID);
 		}
+		releaseFlushWaiters(changeID);
+	}
+
+	/**
+	 * Completes the {@link #flushWaiters} waiting for changes up to <code>changeID</code>.
+	 * Safe to call from any thread: each waiter is completed only by whichever thread removes it.
+	 */
+	private void releaseFlushWaiters(long changeID) {
+		for (FlushWaiter w = flushWaiters.peek(); w != null && w.changeID() <= changeID; w = flushWaiters.peek()) {
+			if (flushWaiters.remove(w)) {
+				w.future().complete(null);
+			}
+		}
 	}
 
 	/**
@@ -257,6 +314,9 @@ class SqlDriverImpl implements SqlDriver {
 				}
 			}
 			listener.shutdownNow();
+			for (FlushWaiter w = flushWaiters.poll(); w != null; w = flushWaiters.poll()) {
+				w.future().completeExceptionally(new FlushFailureException("Driver closed while waiting for change #" + w.changeID()));
+			}
 		}
 	}
 
@@ -282,9 +342,11 @@ class SqlDriverImpl implements SqlDriver {
 					.values("current", stateJson, epoch)
 					.onConflictDoNothing()
 					.execute();
-				long changeID = insertChange(connection, rootRef, stateJson);
+				ChangeToken token = insertChange(connection, rootRef, stateJson);
 				connection.commit();
-				lastChangeSubmittedDownstream.getAndSet(changeID); // Not technically "submitted"
+				lastChangeCommitted.accumulateAndGet(token, SqlDriverImpl::laterChange);
+				lastChangeSubmittedDownstream.getAndSet(token.changeID()); // Not technically "submitted"
+				releaseFlushWaiters(token.changeID());
 			} else {
 				LOGGER.debug("Database state exists; initializing downstream from {} table", BOSK);
 				result = resetBoskState(rootType, stateAndEpoch, connection);
@@ -413,6 +475,43 @@ class SqlDriverImpl implements SqlDriver {
 		}
 	}
 
+	/**
+	 * Reads and locks the state once, applies all the updates to it,
+	 * and commits them together in a single transaction.
+	 * Each update still gets its own row in the {@link #CHANGES} table,
+	 * so the downstream driver receives the updates individually:
+	 * the batch is atomic in the database, but not in the bosk.
+	 */
+	@Override
+	public void submitBatch(List<? extends BatchUpdate> updates) {
+		LOGGER.debug("submitBatch({} updates)", updates.size());
+		try (
+			var connection = connectionSource.get()
+		) {
+			JsonNode state = readState(connection);
+			Change latest = null;
+			for (BatchUpdate update : updates) {
+				Change change = switch (update) {
+					case BatchUpdate.Replacement<?> r -> applyReplacement(state, r, connection);
+					case BatchUpdate.Deletion<?> d -> applyChange(state, d.target(), null, connection);
+				};
+				if (change != null) {
+					state = change.state();
+					latest = change;
+				}
+			}
+			if (latest != null) {
+				writeStateAndCommit(latest, connection);
+			}
+		} catch (SQLException e) {
+			throw new NotYetImplementedException(e);
+		}
+	}
+
+	private <T> @Nullable Change applyReplacement(JsonNode state, BatchUpdate.Replacement<T> replacement, Connection connection) {
+		return applyChange(state, replacement.target(), replacement.newValue(), connection);
+	}
+
 	private boolean isMatchingTextNode(Reference<Identifier> precondition, Identifier requiredValue, JsonNode state) {
 		return surgeon.valueNode(state, precondition) instanceof StringNode text
 			&& Objects.equals(text.asString(), requiredValue.toString());
@@ -453,11 +552,133 @@ class SqlDriverImpl implements SqlDriver {
 		downstream.flush();
 	}
 
+	/**
+	 * Unlike {@link #flush()}, which polls {@link #lastChangeSubmittedDownstream} with exponential backoff,
+	 * this registers a {@link FlushWaiter} for the listener thread to complete,
+	 * with the same overall time limit.
+	 * An epoch mismatch, which requires reloading the state, is rare enough
+	 * that we handle it by falling back to a blocking {@link #flush()}.
+	 */
+	@Override
+	public CompletableFuture<Void> flushAsync() {
+		long currentChangeID;
+		try (
+			var connection = connectionSource.get()
+		) {
+			currentChangeID = latestChangeID(connection);
+		} catch (SQLException e) {
+			return CompletableFuture.failedFuture(new FlushFailureException(e));
+		} catch (EpochMismatchException e) {
+			LOGGER.debug("Epoch mismatch: flush synchronously to reload state from database");
+			return SqlDriver.super.flushAsync(); // Blocks
+		} catch (RuntimeException e) {
+			return CompletableFuture.failedFuture(new FlushFailureException("Unexpected error while flushing", e));
+		}
+		LOGGER.debug("flushAsync({})", currentChangeID);
+		// The downstream flush may happen on the listener thread, so bring the context along
+		MapValue<String> attributes = context.getAttributes();
+		return awaitChange(currentChangeID)
+			.thenCompose(_ -> {
+				try (var _ = context.withOnly(attributes)) {
+					return downstream.flushAsync();
+				}
+			});
+	}
+
+	private CompletableFuture<Void> awaitChange(long changeID) {
+		if (lastChangeSubmittedDownstream.get() >= changeID) {
+			return CompletableFuture.completedFuture(null);
+		}
+		FlushWaiter waiter = new FlushWaiter(changeID, new CompletableFuture<>());
+		flushWaiters.add(waiter);
+		// The listener may have submitted the change before we added the waiter
+		releaseFlushWaiters(lastChangeSubmittedDownstream.get());
+		long timeoutMS = multiplyExact(settings.timescaleMS(), settings.patienceFactor());
+		try {
+			listener.schedule(() -> {
+				if (flushWaiters.remove(waiter)) {
+					waiter.future().completeExceptionally(new FlushFailureException("Timed out waiting for change #" + changeID));
+				}
+			}, timeoutMS, MILLISECONDS);
+		} catch (RuntimeException e) {
+			// Most likely the driver has been closed
+			if (flushWaiters.remove(waiter)) {
+				waiter.future().completeExceptionally(new FlushFailureException("Unable to wait for change #" + changeID, e));
+			}
+		}
+		return waiter.future();
+	}
+
+	/**
+	 * Skips the flush if the listener's most recent successful poll started within <code>maxStaleness</code>.
+	 * The listener polls every {@link SqlDriverSettings#timescaleMS() timescaleMS},
+	 * so bounds shorter than that will usually require a flush.
+	 */
+	@Override
+	public void flushIfStale(Duration maxStaleness) throws IOException, InterruptedException {
+		Long pollStart = lastPollStartNanos;
+		if (pollStart != null && Duration.ofNanos(System.nanoTime() - pollStart).compareTo(maxStaleness) < 0) {
+			LOGGER.debug("flushIfStale({}): last poll was recent enough", maxStaleness);
+			downstream.flushIfStale(maxStaleness);
+		} else {
+			flush();
+		}
+	}
+
+	/**
+	 * Doesn't contact the database: this driver already knows the ID of the last change it committed.
+	 */
+	@Override
+	public WriteToken writeToken() {
+		ChangeToken result = lastChangeCommitted.get();
+		if (result == null) {
+			// No change of ours to identify; fall back to a full flush, which is always correct
+			return WriteToken.FLUSH;
+		} else {
+			return result;
+		}
+	}
+
+	/**
+	 * If the change has already been submitted downstream, which is the common case,
+	 * this doesn't contact the database at all.
+	 */
+	@Override
+	public void awaitApplied(WriteToken token) throws IOException, InterruptedException {
+		if (token instanceof ChangeToken(String tokenEpoch, long changeID) && tokenEpoch.equals(epoch)) {
+			LOGGER.debug("awaitApplied({})", changeID);
+			try {
+				awaitChange(changeID).get();
+			} catch (ExecutionException e) {
+				throw new FlushFailureException("Failed waiting for change #" + changeID, e.getCause());
+			}
+			downstream.flush();
+		} else {
+			// Change IDs from another epoch tell us nothing
+			flush();
+		}
+	}
+
 	/**
 	 * @param state    may be mutated!
 	 * @param newValue if null, this is a delete
 	 */
 	private <T> void replaceAndCommit(JsonNode state, Reference<T> target, T newValue, Connection connection) throws SQLException {
+		Change change = applyChange(state, target, newValue, connection);
+		if (change != null) {
+			writeStateAndCommit(change, connection);
+		}
+	}
+
+	/**
+	 * Records the change in the {@link #CHANGES} table and applies it to <code>state</code>,
+	 * without committing.
+	 *
+	 * @param state    may be mutated!
+	 * @param newValue if null, this is a delete
+	 * @return the resulting state and its change ID, or null if the change had no effect
+	 */
+	private <T> @Nullable Change applyChange(JsonNode state, Reference<T> target, @Nullable T newValue, Connection connection) {
 		NodeInfo node = surgeon.nodeInfo(state, target);
 		switch (node.replacementLocation()) {
 			case Root _ -> {
@@ -465,17 +686,14 @@ class SqlDriverImpl implements SqlDriver {
 					throw new NotYetImplementedException("Cannot delete root");
 				}
 				String json = mapper.writeValueAsString(newValue);
-				long revision = insertChange(connection, target, json);
-				using(connection)
-					.update(BOSK)
-					.set(STATE, json)
-					.execute();
-				connection.commit();
-				LOGGER.debug("{}: replaced root", revision);
+				ChangeToken token = insertChange(connection, target, json);
+				LOGGER.debug("{}: replaced root", token.changeID());
+				return new Change(mapper.readTree(json), token);
 			}
 			case NonexistentParent _ -> {
 				// Modifying a node with a nonexistent parent is a no-op
 				LOGGER.debug("--: nonexistent parent for {}", target);
+				return null;
 			}
 			default -> {
 				JsonNode newNode;
@@ -486,25 +704,48 @@ class SqlDriverImpl implements SqlDriver {
 					newNode = mapper.valueToTree(newValue);
 					surgeon.replaceNode(node, surgeon.replacementNode(node, target.path().lastSegment(), ()->newNode));
 				}
-				String nodeJson, stateJson;
+				String nodeJson;
 				try {
 					nodeJson = mapper.writeValueAsString(newNode);
-					stateJson = mapper.writeValueAsString(state);
 				} catch (JacksonException e) {
 					throw new NotYetImplementedException(e);
 				}
-				insertChange(connection, target, nodeJson);
-				using(connection)
-					.update(BOSK)
-					.set(STATE, stateJson)
-					.execute();
-				connection.commit();
-				LOGGER.debug("--: replaced {}", target);
+				ChangeToken token = insertChange(connection, target, nodeJson);
+				LOGGER.debug("{}: replaced {}", token.changeID(), target);
+				return new Change(state, token);
 			}
 		}
 	}
 
-	private long insertChange(Connection c, Reference<?> ref, String newValue) {
+	/**
+	 * @param latest the last change applied to the state, which determines the state to be written
+	 */
+	private void writeStateAndCommit(Change latest, Connection connection) throws SQLException {
+		String stateJson;
+		try {
+			stateJson = mapper.writeValueAsString(latest.state());
+		} catch (JacksonException e) {
+			throw new NotYetImplementedException(e);
+		}
+		using(connection)
+			.update(BOSK)
+			.set(STATE, stateJson)
+			.execute();
+		connection.commit();
+		lastChangeCommitted.accumulateAndGet(latest.token(), SqlDriverImpl::laterChange);
+	}
+
+	private static ChangeToken laterChange(@Nullable ChangeToken existing, ChangeToken committed) {
+		if (existing != null && existing.epoch().equals(committed.epoch()) && existing.changeID() > committed.changeID()) {
+			// Another thread committed a later change first
+			return existing;
+		} else {
+			return committed;
+		}
+	}
+
+	private ChangeToken insertChange(Connection c, Reference<?> ref, String newValue) {
+		String epoch = this.epoch;
 		try {
 			return using(c)
 				.insertInto(CHANGES).columns(CHANGES.EPOCH, REF, NEW_STATE, DIAGNOSTICS)
@@ -516,6 +757,7 @@ class SqlDriverImpl implements SqlDriver {
 				)
 				.returning(REVISION)
 				.fetchOptional(REVISION)
+				.map(revision -> new ChangeToken(epoch, revision))
 				.orElseThrow(()->new NotYetImplementedException("No change inserted"));
 		} catch (JacksonException e) {
 			throw new NotYetImplementedException(e);
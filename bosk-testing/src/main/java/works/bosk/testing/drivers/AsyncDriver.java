@@ -1,12 +1,14 @@
 package works.bosk.testing.drivers;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import works.bosk.BatchUpdate;
 import works.bosk.BoskDriver;
 import works.bosk.BoskInfo;
 import works.bosk.DriverFactory;
@@ -58,6 +60,11 @@ public class AsyncDriver implements BoskDriver {
 		submitAsyncTask("submitConditionalDeletion", () -> downstream.submitConditionalDeletion(target, precondition, requiredValue));
 	}
 
+	@Override
+	public void submitBatch(List<? extends BatchUpdate> updates) {
+		submitAsyncTask("submitBatch", () -> downstream.submitBatch(updates));
+	}
+
 	@Override
 	public void flush() throws IOException, InterruptedException {
 		// The executor is single-threaded, so this will run after all previously submitted tasks
@@ -6,6 +6,7 @@ import java.lang.annotation.Target;
 import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.RecordComponent;
+import java.time.Duration;
 import java.time.temporal.ChronoUnit;
 import java.util.Arrays;
 import java.util.List;
@@ -32,6 +33,7 @@ import works.bosk.Reference;
 import works.bosk.SideTable;
 import works.bosk.SideTableReference;
 import works.bosk.TaggedUnion;
+import works.bosk.WriteToken;
 import works.bosk.annotations.ReferencePath;
 import works.bosk.exceptions.InvalidTypeException;
 import works.bosk.junit.Ante;
@@ -555,6 +557,47 @@ public abstract class DriverConformanceTest extends AbstractDriverTest {
 		assertCorrectBoskContents();
 	}
 
+	@Test
+	void flushAsync_updateVisible() throws Exception {
+		initializeBoskWithBlankValues(Path.just(TestEntity.Fields.catalog));
+		Reference<String> ref = bosk.rootReference().then(String.class, "string");
+		driver.submitReplacement(ref, "flushed asynchronously");
+		// Deliberately not using assertCorrectBoskContents, which would call flush
+		driver.flushAsync().get(30, SECONDS);
+		try (var _ = bosk.readSession()) {
+			assertEquals("flushed asynchronously", ref.value());
+		}
+	}
+
+	@Test
+	void flushIfStale_zero_updateVisible() throws Exception {
+		initializeBoskWithBlankValues(Path.just(TestEntity.Fields.catalog));
+		Reference<String> ref = bosk.rootReference().then(String.class, "string");
+		driver.submitReplacement(ref, "no staleness allowed");
+		// Deliberately not using assertCorrectBoskContents, which would call flush
+		try (var _ = bosk.readSession(Duration.ZERO)) {
+			assertEquals("no staleness allowed", ref.value());
+		}
+	}
+
+	@Test
+	void writeToken_updateVisible() throws Exception {
+		initializeBoskWithBlankValues(Path.just(TestEntity.Fields.catalog));
+		Reference<String> ref = bosk.rootReference().then(String.class, "string");
+		driver.submitReplacement(ref, "first");
+		WriteToken first = driver.writeToken();
+		driver.submitReplacement(ref, "second");
+		WriteToken second = driver.writeToken();
+		// Deliberately not using assertCorrectBoskContents, which would call flush
+		try (var _ = bosk.supersedingReadSession(second)) {
+			assertEquals("second", ref.value());
+		}
+		// An older token must not cause the bosk to appear to go backward
+		try (var _ = bosk.supersedingReadSession(first)) {
+			assertEquals("second", ref.value());
+		}
+	}
+
 	@Test
 	void submitReplacement_propagatesContext() throws InvalidTypeException, IOException, InterruptedException {
 		initializeBoskWithBlankValues(Path.just(TestEntity.Fields.catalog));
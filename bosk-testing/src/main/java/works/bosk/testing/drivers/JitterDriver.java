@@ -1,10 +1,12 @@
 package works.bosk.testing.drivers;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.Random;
 import java.util.function.DoubleSupplier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import works.bosk.BatchUpdate;
 import works.bosk.BoskDriver;
 import works.bosk.DriverFactory;
 import works.bosk.Identifier;
@@ -79,6 +81,12 @@ public final class JitterDriver implements BoskDriver {
 		downstream.submitConditionalDeletion(target, precondition, requiredValue);
 	}
 
+	@Override
+	public void submitBatch(List<? extends BatchUpdate> updates) {
+		sleep();
+		downstream.submitBatch(updates);
+	}
+
 	@Override
 	public void flush() throws IOException, InterruptedException {
 		sleep();
@@ -1,13 +1,18 @@
 package works.bosk.testing.drivers;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import org.slf4j.MDC;
+import works.bosk.BatchUpdate;
 import works.bosk.BoskDriver;
 import works.bosk.DriverFactory;
 import works.bosk.DriverStack;
 import works.bosk.Identifier;
 import works.bosk.Reference;
 import works.bosk.StateTreeNode;
+import works.bosk.WriteToken;
 import works.bosk.exceptions.InvalidTypeException;
 
 import static works.bosk.logging.MdcKeys.BOSK_INSTANCE_ID;
@@ -76,12 +81,42 @@ public final class MdcCheckingDriver implements BoskDriver {
 		downstream.submitConditionalDeletion(target, precondition, requiredValue);
 	}
 
+	@Override
+	public void submitBatch(List<? extends BatchUpdate> updates) {
+		checkMDC();
+		downstream.submitBatch(updates);
+	}
+
 	@Override
 	public void flush() throws IOException, InterruptedException {
 		checkMDC();
 		downstream.flush();
 	}
 
+	@Override
+	public CompletableFuture<Void> flushAsync() {
+		checkMDC();
+		return downstream.flushAsync();
+	}
+
+	@Override
+	public WriteToken writeToken() throws IOException, InterruptedException {
+		checkMDC();
+		return downstream.writeToken();
+	}
+
+	@Override
+	public void awaitApplied(WriteToken token) throws IOException, InterruptedException {
+		checkMDC();
+		downstream.awaitApplied(token);
+	}
+
+	@Override
+	public void flushIfStale(Duration maxStaleness) throws IOException, InterruptedException {
+		checkMDC();
+		downstream.flushIfStale(maxStaleness);
+	}
+
 	private void checkMDC() {
 		if (!boskName.equals(MDC.get(BOSK_NAME))) {
 			throw new AssertionError("MDC bosk name must be " + boskName + " but was " + MDC.get(BOSK_NAME));
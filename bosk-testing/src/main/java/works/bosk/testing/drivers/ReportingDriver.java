@@ -1,6 +1,8 @@
 package works.bosk.testing.drivers;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
@@ -10,6 +12,7 @@ import works.bosk.DriverFactory;
 import works.bosk.Identifier;
 import works.bosk.Reference;
 import works.bosk.StateTreeNode;
+import works.bosk.WriteToken;
 import works.bosk.exceptions.InvalidTypeException;
 import works.bosk.testing.drivers.operations.ConditionalCreation;
 import works.bosk.testing.drivers.operations.DriverOperation;
@@ -99,4 +102,48 @@ public class ReportingDriver implements BoskDriver {
 		postFlushListener.accept(op);
 	}
 
+	@Override
+	public CompletableFuture<Void> flushAsync() {
+		FlushOperation op = new FlushOperation(context.get());
+		try {
+			preFlushListener.accept(op);
+		} catch (IOException | InterruptedException e) {
+			return CompletableFuture.failedFuture(e);
+		}
+		return downstream.flushAsync().thenCompose(_ -> {
+			try {
+				postFlushListener.accept(op);
+				return CompletableFuture.completedFuture(null);
+			} catch (IOException | InterruptedException e) {
+				return CompletableFuture.failedFuture(e);
+			}
+		});
+	}
+
+	@Override
+	public WriteToken writeToken() throws IOException, InterruptedException {
+		return downstream.writeToken();
+	}
+
+	/**
+	 * Not reported as a {@link FlushOperation}, because it needn't wait for
+	 * the updates that a flush would, such as those submitted on other threads.
+	 */
+	@Override
+	public void awaitApplied(WriteToken token) throws IOException, InterruptedException {
+		downstream.awaitApplied(token);
+	}
+
+	/**
+	 * Reported as a {@link FlushOperation}, because it might flush.
+	 * Whether it actually does is up to the downstream driver.
+	 */
+	@Override
+	public void flushIfStale(Duration maxStaleness) throws IOException, InterruptedException {
+		FlushOperation op = new FlushOperation(context.get());
+		preFlushListener.accept(op);
+		downstream.flushIfStale(maxStaleness);
+		postFlushListener.accept(op);
+	}
+
 }